@@ -0,0 +1,125 @@
+package com.university.bench;
+
+import com.university.dao.impl.CourseDAOImpl;
+import com.university.dao.impl.DepartmentDAOImpl;
+import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.dao.impl.GradeDAOImpl;
+import com.university.dao.impl.StudentDAOImpl;
+import com.university.model.Course;
+import com.university.model.Department;
+import com.university.model.Enrollment;
+import com.university.model.Grade;
+import com.university.model.Student;
+import com.university.util.DatabaseUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Test data for the benchmarks. Each size is generated once (fixed seed, so every run measures the same
+ * rows) into target/jmh-data and then copied for each trial, so insert benchmarks never leak into the
+ * next run's numbers.
+ *
+ * DatabaseUtil reads its URL once per JVM, and JMH forks a JVM per benchmark and size - so open() has to
+ * be the first thing a trial does, before anything touches DatabaseUtil.
+ */
+final class BenchmarkDataset {
+    static final int COURSES_PER_STUDENT = 5;
+    static final int DEPARTMENTS = 10;
+
+    private static final Path DATA_DIR = Paths.get(System.getProperty("university.bench.dataDir", "target/jmh-data"));
+    private static final String[] GRADES = {"A", "A-", "B+", "B", "B-", "C+", "C", "D", "F", "P"};
+
+    private BenchmarkDataset() {}
+
+    // One course per 50 students keeps rosters around 250 whatever the size
+    static int courseCount(int students) {
+        return Math.max(20, students / 50);
+    }
+
+    static void open(int students) throws IOException, SQLException {
+        Files.createDirectories(DATA_DIR);
+        Path template = DATA_DIR.resolve("university-" + students + ".db");
+        Path trial = Files.createTempFile(DATA_DIR, "trial-" + students + "-", ".db");
+        trial.toFile().deleteOnExit();
+        boolean build = !Files.exists(template);
+        if (build) {
+            Files.delete(trial); // Let SQLite create it from scratch
+        } else {
+            Files.copy(template, trial, StandardCopyOption.REPLACE_EXISTING);
+        }
+        String url = "jdbc:sqlite:" + trial.toAbsolutePath();
+        System.setProperty("university.db.url", url);
+        DatabaseUtil.initializeDatabase(); // Also migrates an old template to the current schema
+        if (build) {
+            populate(students);
+            Path tmp = DATA_DIR.resolve(template.getFileName() + ".tmp");
+            Files.deleteIfExists(tmp);
+            // Its own connection - the pooled ones hold cached statements, and VACUUM refuses to run next to those
+            try (Connection conn = DriverManager.getConnection(url);
+                 Statement stmt = conn.createStatement()) {
+                // A compact single-file copy that includes what's still in the WAL
+                stmt.execute("VACUUM INTO '" + tmp.toAbsolutePath().toString().replace("'", "''") + "'");
+            }
+            Files.move(tmp, template, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private static void populate(int studentCount) throws SQLException {
+        Random random = new Random(42);
+        DepartmentDAOImpl departmentDAO = new DepartmentDAOImpl();
+        List<Integer> departmentIds = new ArrayList<>();
+        for (int i = 0; i < DEPARTMENTS; i++) {
+            Department department = new Department(0, "Department " + i);
+            departmentDAO.addDepartment(department);
+            departmentIds.add(department.getId());
+        }
+
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < courseCount(studentCount); i++) {
+            courses.add(new Course(0, "C" + i, "Course " + i, 1 + random.nextInt(4),
+                    departmentIds.get(random.nextInt(departmentIds.size()))));
+        }
+        new CourseDAOImpl().addCourses(courses);
+
+        List<Student> students = new ArrayList<>(studentCount);
+        for (int i = 0; i < studentCount; i++) {
+            students.add(new Student(0, "First" + i, "Last" + i, "student" + i + "@university.edu",
+                    String.format("%04d-%02d-%02d", 1995 + random.nextInt(10), 1 + random.nextInt(12), 1 + random.nextInt(28))));
+        }
+        new StudentDAOImpl().addStudents(students);
+
+        List<Enrollment> enrollments = new ArrayList<>(studentCount * COURSES_PER_STUDENT);
+        for (Student student : students) {
+            Set<Integer> taken = new HashSet<>();
+            while (taken.size() < Math.min(COURSES_PER_STUDENT, courses.size())) {
+                Course course = courses.get(random.nextInt(courses.size()));
+                if (taken.add(course.getId())) {
+                    enrollments.add(new Enrollment(0, student.getId(), course.getId(), "2024-09-01"));
+                }
+            }
+        }
+        new EnrollmentDAOImpl().addEnrollments(enrollments);
+
+        // Four in five enrollments are graded, like a term that's mostly finished
+        List<Grade> grades = new ArrayList<>();
+        for (Enrollment enrollment : enrollments) {
+            if (random.nextInt(5) != 0) {
+                grades.add(new Grade(0, enrollment, GRADES[random.nextInt(GRADES.length)], null));
+            }
+        }
+        new GradeDAOImpl().addGrades(grades);
+    }
+}
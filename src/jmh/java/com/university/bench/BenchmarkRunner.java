@@ -0,0 +1,42 @@
+package com.university.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Runs the benchmarks and writes the results as JSON to target/jmh-results/jmh-<timestamp>.json, so two
+ * runs can be compared (e.g. with jmh.morethan.io or a plain diff of the scores).
+ *
+ *     mvn -Pbenchmarks verify [-Dbench.include=regex]
+ *
+ * The first argument is the include regex; anything after it is passed to JMH as-is (-p students=1000,
+ * -f 2, -wi 5 ...). Data files are generated on first use, see BenchmarkDataset.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 ? args[0] : ".*";
+        Path results = Paths.get("target", "jmh-results");
+        Files.createDirectories(results);
+        Path output = results.resolve("jmh-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+
+        CommandLineOptions extra = new CommandLineOptions(Arrays.copyOfRange(args, Math.min(1, args.length), args.length));
+        Options options = new OptionsBuilder()
+                .parent(extra)
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(output.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Results written to " + output);
+    }
+}
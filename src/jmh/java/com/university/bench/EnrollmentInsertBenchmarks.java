@@ -0,0 +1,99 @@
+package com.university.bench;
+
+import com.university.dao.EnrollmentDAO;
+import com.university.dao.impl.CourseDAOImpl;
+import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.model.Course;
+import com.university.model.Enrollment;
+import com.university.model.Student;
+import com.university.service.EnrollmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enrollment writes: one at a time through the DAO and through EnrollmentService (seat locks and
+ * prerequisite check included), and as a 100-row batch. Each trial writes to its own copy of the
+ * dataset, into fresh courses, so every insert is a new (student, course) pair.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnrollmentInsertBenchmarks {
+    private static final int BATCH = 100;
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    private EnrollmentDAO enrollmentDAO;
+    private EnrollmentService enrollmentService;
+    private Course course;
+    private int nextStudent;
+    private int coursesCreated;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDataset.open(students);
+        enrollmentDAO = new EnrollmentDAOImpl();
+        enrollmentService = new EnrollmentService();
+        newCourse();
+    }
+
+    @Benchmark
+    public Enrollment addEnrollment() throws Exception {
+        Enrollment enrollment = new Enrollment(0, nextStudent(), course, "2024-09-01");
+        enrollmentDAO.addEnrollment(enrollment);
+        return enrollment;
+    }
+
+    @Benchmark
+    public Student enrollThroughService() throws Exception {
+        Student student = nextStudent();
+        enrollmentService.addEnrollment(student, course);
+        return student;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH) // Reported per row, so it compares directly with addEnrollment
+    public Object addEnrollmentsBatch() throws Exception {
+        List<Enrollment> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(new Enrollment(0, nextStudent(), course, "2024-09-01"));
+        }
+        return enrollmentDAO.addEnrollments(batch);
+    }
+
+    // Walks the students in order; once everyone is in the current course, a new empty course takes over.
+    // That's one extra insert per `students` enrollments, which doesn't show in the average.
+    private Student nextStudent() throws SQLException {
+        if (nextStudent == students) {
+            newCourse();
+        }
+        nextStudent++;
+        return new Student(nextStudent, null, null, null, null);
+    }
+
+    private void newCourse() throws SQLException {
+        course = new Course(0, "BENCH" + (++coursesCreated), "Benchmark course", 3, 1);
+        new CourseDAOImpl().addCourse(course);
+        nextStudent = 0;
+    }
+}
@@ -0,0 +1,96 @@
+package com.university.bench;
+
+import com.university.dao.CourseDAO;
+import com.university.dao.EnrollmentDAO;
+import com.university.dao.GradeDAO;
+import com.university.dao.StudentDAO;
+import com.university.dao.impl.CachingCourseDAO;
+import com.university.dao.impl.CourseDAOImpl;
+import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.dao.impl.GradeDAOImpl;
+import com.university.dao.impl.StudentDAOImpl;
+import com.university.model.Course;
+import com.university.model.Enrollment;
+import com.university.model.Grade;
+import com.university.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-table and per-course listings - what the panels load. These grow with the dataset, so the
+ * interesting number is how they scale across sizes, not the absolute time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingBenchmarks {
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    private StudentDAO studentDAO;
+    private CourseDAO courseDAO;
+    private CourseDAO cachingCourseDAO;
+    private EnrollmentDAO enrollmentDAO;
+    private GradeDAO gradeDAO;
+    private int courses;
+    private int nextCourse;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDataset.open(students);
+        studentDAO = new StudentDAOImpl();
+        courseDAO = new CourseDAOImpl();
+        cachingCourseDAO = new CachingCourseDAO();
+        enrollmentDAO = new EnrollmentDAOImpl();
+        gradeDAO = new GradeDAOImpl();
+        courses = BenchmarkDataset.courseCount(students);
+    }
+
+    @Benchmark
+    public List<Student> getAllStudents() throws Exception {
+        return studentDAO.getAllStudents();
+    }
+
+    @Benchmark
+    public List<Course> getAllCourses() throws Exception {
+        return courseDAO.getAllCourses();
+    }
+
+    @Benchmark
+    public List<Course> getAllCoursesCached() throws Exception {
+        return cachingCourseDAO.getAllCourses();
+    }
+
+    @Benchmark
+    public List<Enrollment> getAllEnrollments() throws Exception {
+        return enrollmentDAO.getAllEnrollments();
+    }
+
+    @Benchmark
+    public List<Grade> getAllGrades() throws Exception {
+        return gradeDAO.getAllGrades();
+    }
+
+    // Rosters stay around 250 students at every size, so this should barely move with the dataset
+    @Benchmark
+    public List<Enrollment> getEnrollmentsByCourse() throws Exception {
+        nextCourse = nextCourse % courses + 1;
+        return enrollmentDAO.getEnrollmentsByCourse(nextCourse);
+    }
+}
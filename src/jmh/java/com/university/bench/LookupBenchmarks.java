@@ -0,0 +1,121 @@
+package com.university.bench;
+
+import com.university.dao.CourseDAO;
+import com.university.dao.EnrollmentDAO;
+import com.university.dao.StudentDAO;
+import com.university.dao.impl.CachingCourseDAO;
+import com.university.dao.impl.CourseDAOImpl;
+import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.dao.impl.StudentDAOImpl;
+import com.university.model.Course;
+import com.university.model.Enrollment;
+import com.university.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-row reads: by primary key, and the UNIQUE-index lookups that back the duplicate checks
+ * (CourseService's course-code check is getCourseByCode).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmarks {
+    private static final int KEYS = 1024; // Power of two, so next() is a mask
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    private StudentDAO studentDAO;
+    private CourseDAO courseDAO;
+    private CourseDAO cachingCourseDAO;
+    private EnrollmentDAO enrollmentDAO;
+    private final int[] studentIds = new int[KEYS];
+    private final int[] courseIds = new int[KEYS];
+    private final int[] enrollmentIds = new int[KEYS];
+    private final String[] emails = new String[KEYS];
+    private final String[] courseCodes = new String[KEYS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDataset.open(students);
+        studentDAO = new StudentDAOImpl();
+        courseDAO = new CourseDAOImpl();
+        cachingCourseDAO = new CachingCourseDAO();
+        enrollmentDAO = new EnrollmentDAOImpl();
+        // IDs are AUTOINCREMENT from 1 in a freshly generated dataset
+        Random random = new Random(7);
+        int courses = BenchmarkDataset.courseCount(students);
+        for (int i = 0; i < KEYS; i++) {
+            studentIds[i] = 1 + random.nextInt(students);
+            courseIds[i] = 1 + random.nextInt(courses);
+            enrollmentIds[i] = 1 + random.nextInt(students * BenchmarkDataset.COURSES_PER_STUDENT);
+            emails[i] = "student" + random.nextInt(students) + "@university.edu";
+            courseCodes[i] = "C" + random.nextInt(courses);
+        }
+    }
+
+    private int next() {
+        return next++ & (KEYS - 1);
+    }
+
+    @Benchmark
+    public Student getStudent() throws Exception {
+        return studentDAO.getStudent(studentIds[next()]);
+    }
+
+    @Benchmark
+    public Student getStudentByEmail() throws Exception {
+        return studentDAO.getStudentByEmail(emails[next()]);
+    }
+
+    @Benchmark
+    public Course getCourse() throws Exception {
+        return courseDAO.getCourse(courseIds[next()]);
+    }
+
+    @Benchmark
+    public Course getCourseCached() throws Exception {
+        return cachingCourseDAO.getCourse(courseIds[next()]);
+    }
+
+    @Benchmark
+    public Enrollment getEnrollment() throws Exception {
+        return enrollmentDAO.getEnrollment(enrollmentIds[next()]);
+    }
+
+    // The course-code uniqueness check when the code is taken...
+    @Benchmark
+    public Course courseCodeTaken() throws Exception {
+        return courseDAO.getCourseByCode(courseCodes[next()]);
+    }
+
+    // ...and when it's free, which is the common case on addCourse
+    @Benchmark
+    public Course courseCodeFree() throws Exception {
+        return courseDAO.getCourseByCode("NEW" + next());
+    }
+
+    @Benchmark
+    public boolean isStudentEnrolled() throws Exception {
+        int i = next();
+        return enrollmentDAO.isStudentEnrolled(studentIds[i], courseIds[i]);
+    }
+}
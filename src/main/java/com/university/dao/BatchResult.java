@@ -0,0 +1,33 @@
+package com.university.dao;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of a batch write. Rows are reported by their position in the input list. A failed row does not
+ * abort the batch - everything else still commits - so callers should check getFailures().
+ */
+public class BatchResult {
+    private final int[] generatedIds;
+    private final Map<Integer, SQLException> failures;
+
+    public BatchResult(int[] generatedIds, Map<Integer, SQLException> failures) {
+        this.generatedIds = generatedIds;
+        this.failures = Collections.unmodifiableMap(new TreeMap<>(failures));
+    }
+
+    public int size() { return generatedIds.length; }
+    public int getSuccessCount() { return generatedIds.length - failures.size(); }
+    public boolean hasFailures() { return !failures.isEmpty(); }
+
+    // Row index -> why that row was rejected, in input order
+    public Map<Integer, SQLException> getFailures() { return failures; }
+
+    public boolean isFailed(int row) { return failures.containsKey(row); }
+
+    // Generated keys in input order; 0 for failed rows and for updates/deletes
+    public int getGeneratedId(int row) { return generatedIds[row]; }
+    public int[] getGeneratedIds() { return generatedIds.clone(); }
+}
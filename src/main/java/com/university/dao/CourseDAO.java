@@ -1,13 +1,26 @@
 package com.university.dao;
 
 import com.university.model.Course;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.sql.SQLException;
 
 public interface CourseDAO {
     void addCourse(Course course) throws SQLException;
     Course getCourse(int id) throws SQLException;
+    Course getCourseByCode(String courseCode) throws SQLException; // Uses the UNIQUE index, no table scan
     List<Course> getAllCourses() throws SQLException;
+    Page<Course> getCoursesPage(PageRequest request) throws SQLException; // Sort keys: id, courseCode, courseName, credits
+    int countCourses() throws SQLException;
+    Map<String, Integer> getCourseIdsByCode() throws SQLException; // Lightweight lookup table for bulk imports
+    int[] getCourseIds(String sortKey, boolean ascending) throws SQLException; // Every id in sort order, for lazy tables
+    Map<Integer, Course> getCoursesByIds(Collection<Integer> ids) throws SQLException; // Chunked IN queries
     void updateCourse(Course course) throws SQLException;
     void deleteCourse(int id) throws SQLException;
+
+    // Batch variants - one transaction for the whole list, per-row failures reported in the result
+    BatchResult addCourses(List<Course> courses) throws SQLException;
+    BatchResult updateCourses(List<Course> courses) throws SQLException;
+    BatchResult deleteCourses(List<Integer> ids) throws SQLException;
 }
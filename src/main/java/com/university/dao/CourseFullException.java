@@ -0,0 +1,24 @@
+package com.university.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Thrown when an enrollment would take a course past its seat limit. The check and the seat claim are
+ * one conditional UPDATE inside the enrollment's transaction, so when this is thrown nothing was written.
+ * Extends SQLException like DuplicateEntryException, so existing handlers still catch it.
+ */
+public class CourseFullException extends SQLException {
+    private static final long serialVersionUID = 1L;
+
+    private final int courseId;
+    private final int capacity;
+
+    public CourseFullException(String message, int courseId, int capacity) {
+        super(message);
+        this.courseId = courseId;
+        this.capacity = capacity;
+    }
+
+    public int getCourseId() { return courseId; }
+    public int getCapacity() { return capacity; }
+}
@@ -0,0 +1,50 @@
+package com.university.dao;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tiny process-wide bus the DAO impls publish to after a write has committed. In-memory views of the
+ * data (like the type-ahead indexes) subscribe here instead of polling the database.
+ *
+ * Listeners run synchronously on the thread that did the write, which is usually a background thread -
+ * keep them quick and hop to the EDT yourself if you touch Swing.
+ */
+public final class DataChangeEvents {
+
+    public interface Listener {
+        // entity is the saved object, or null when the row was deleted
+        void changed(Class<?> type, int id, Object entity);
+    }
+
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private DataChangeEvents() {}
+
+    public static void addListener(Listener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    public static <T> void saved(Class<T> type, int id, T entity) {
+        publish(type, id, entity);
+    }
+
+    public static void deleted(Class<?> type, int id) {
+        publish(type, id, null);
+    }
+
+    private static void publish(Class<?> type, int id, Object entity) {
+        for (Listener listener : LISTENERS) {
+            try {
+                listener.changed(type, id, entity);
+            } catch (RuntimeException e) {
+                // The write already committed - a broken listener mustn't turn it into an error for the caller
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.sql.SQLException;
 public interface DepartmentDAO {
     void addDepartment(Department department) throws SQLException;
     Department getDepartment(int id) throws SQLException;
+    Department getDepartmentByName(String name) throws SQLException; // Uses the UNIQUE index, no table scan
     List<Department> getAllDepartments() throws SQLException;
     void updateDepartment(Department department) throws SQLException;
     void deleteDepartment(int id) throws SQLException;
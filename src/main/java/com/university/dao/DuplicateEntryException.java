@@ -0,0 +1,28 @@
+package com.university.dao;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+/**
+ * Thrown when a write would break a UNIQUE constraint (duplicate email, course code, department name,
+ * enrollment, grade...). Extends the standard JDBC integrity exception so existing SQLException handlers
+ * still catch it, but callers that care can tell a duplicate apart from a real database failure.
+ */
+public class DuplicateEntryException extends SQLIntegrityConstraintViolationException {
+    private static final long serialVersionUID = 1L;
+
+    private final String table;
+    private final String column;
+
+    public DuplicateEntryException(String message, String table, String column) {
+        this(message, table, column, null);
+    }
+
+    public DuplicateEntryException(String message, String table, String column, Throwable cause) {
+        super(message, "23000", cause); // 23000 is the standard SQLState for integrity violations
+        this.table = table;
+        this.column = column;
+    }
+
+    public String getTable() { return table; }
+    public String getColumn() { return column; }
+}
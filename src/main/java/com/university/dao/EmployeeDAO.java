@@ -8,6 +8,8 @@ public interface EmployeeDAO {
     void addEmployee(Employee employee) throws SQLException;
     Employee getEmployee(int id) throws SQLException;
     List<Employee> getAllEmployees() throws SQLException;
+    Page<Employee> getEmployeesPage(PageRequest request) throws SQLException; // Sort keys: id, lastName, firstName, email, position
+    int countEmployees() throws SQLException;
     void updateEmployee(Employee employee) throws SQLException;
     void deleteEmployee(int id) throws SQLException;
 }
@@ -1,16 +1,51 @@
 package com.university.dao;
 
 import com.university.model.Enrollment;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.sql.SQLException;
 
 public interface EnrollmentDAO {
+
+    interface KeyVisitor {
+        void visit(int enrollmentId, int studentId, int courseId);
+    }
+
+    // Throws CourseFullException when the course is at capacity and DuplicateEntryException if already enrolled
     void addEnrollment(Enrollment enrollment) throws SQLException;
     Enrollment getEnrollment(int id) throws SQLException;
     List<Enrollment> getAllEnrollments() throws SQLException;
+    Page<Enrollment> getEnrollmentsPage(PageRequest request) throws SQLException; // Sort keys: id, enrollmentDate, studentId, courseId
+    int countEnrollments() throws SQLException;
+    Map<Long, Integer> getEnrollmentIdsByStudentAndCourse() throws SQLException; // Keyed by pairKey(studentId, courseId)
+    // Streams every (id, studentId, courseId) in (studentId, courseId) order without building any objects
+    void scanEnrollmentKeys(KeyVisitor visitor) throws SQLException;
     List<Enrollment> getEnrollmentsByStudent(int studentId) throws SQLException;
     List<Enrollment> getEnrollmentsByCourse(int courseId) throws SQLException;
     void updateEnrollment(Enrollment enrollment) throws SQLException; // Mainly for date changes
     void deleteEnrollment(int id) throws SQLException;
     boolean isStudentEnrolled(int studentId, int courseId) throws SQLException;
+
+    // Headcounts come from counters kept in step with every write, so no roster is loaded. Missing IDs count 0.
+    Map<Integer, Integer> getEnrollmentCounts(Collection<Integer> courseIds) throws SQLException;
+    Map<Integer, Integer> getDepartmentEnrollmentCounts(Collection<Integer> departmentIds) throws SQLException;
+    // Throws the same CourseFullException addEnrollment would, built from the stored capacity. A plain read, so
+    // the answer can be stale by the time you act on it - addEnrollment is what enforces the limit
+    void checkSeatAvailable(int courseId) throws SQLException;
+    int recheckEnrollmentCounts() throws SQLException; // Fixes any counter that drifted, returns how many were off
+
+    // Batch variants - one transaction for the whole list, per-row failures reported in the result
+    // A batch that would overfill a course throws CourseFullException and writes nothing
+    BatchResult addEnrollments(List<Enrollment> enrollments) throws SQLException;
+    // Same rules as addEnrollment row by row (seat limits, duplicates) but one transaction for the list. A full
+    // course or a duplicate only fails its own row - that's what the registration queue commits its batches with.
+    BatchResult enrollAll(List<Enrollment> enrollments) throws SQLException;
+    BatchResult updateEnrollments(List<Enrollment> enrollments) throws SQLException;
+    BatchResult deleteEnrollments(List<Integer> ids) throws SQLException;
+
+    // Packs a (studentId, courseId) pair into one long so lookup tables don't need a key object per row
+    static long pairKey(int studentId, int courseId) {
+        return ((long) studentId << 32) | (courseId & 0xFFFFFFFFL);
+    }
 }
@@ -0,0 +1,35 @@
+package com.university.dao;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Forward-only, row-at-a-time reads for exports. Nothing is collected into a List and no model objects
+ * are built - each row goes straight from the ResultSet to the sink as display strings.
+ */
+public interface ExportDAO {
+
+    enum Dataset {
+        STUDENTS("Students"),
+        COURSES("Courses"),
+        ENROLLMENTS("Enrollments"),
+        GRADES("Grades");
+
+        private final String label;
+
+        Dataset(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    /** Receives one row at a time. Return false to stop early (e.g. the user cancelled). */
+    interface RowSink {
+        boolean accept(String[] row) throws IOException;
+    }
+
+    String[] getColumns(Dataset dataset);
+    int countRows(Dataset dataset) throws SQLException; // Only used for the progress bar
+    long exportRows(Dataset dataset, RowSink sink) throws SQLException, IOException; // Returns rows handed to the sink
+}
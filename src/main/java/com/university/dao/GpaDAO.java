@@ -0,0 +1,13 @@
+package com.university.dao;
+
+import com.university.model.GpaSummary;
+
+import java.sql.SQLException;
+import java.util.List;
+
+public interface GpaDAO {
+    GpaSummary getSummary(int studentId) throws SQLException; // Empty totals for a student with no grades yet
+    // Highest GPA first, students joined in. minGpaHundredths is the GPA times 100 (3.5 -> 350).
+    List<GpaSummary> getDeansList(int minGpaHundredths, int minCredits, int limit) throws SQLException;
+    int rebuildAll() throws SQLException; // Recomputes every student's totals from the grades, returns the row count
+}
@@ -9,6 +9,13 @@ public interface GradeDAO {
     Grade getGrade(int id) throws SQLException;
     Grade getGradeByEnrollment(int enrollmentId) throws SQLException;
     List<Grade> getAllGrades() throws SQLException; // This might be a lot of data, but useful for reports
+    Page<Grade> getGradesPage(PageRequest request) throws SQLException; // Sort keys: id, gradeValue, enrollmentId
+    int countGrades() throws SQLException;
     void updateGrade(Grade grade) throws SQLException;
     void deleteGrade(int id) throws SQLException; // Could also delete by enrollmentId if needed
+
+    // Batch variants - one transaction for the whole list, per-row failures reported in the result
+    BatchResult addGrades(List<Grade> grades) throws SQLException;
+    BatchResult updateGrades(List<Grade> grades) throws SQLException;
+    BatchResult deleteGrades(List<Integer> ids) throws SQLException;
 }
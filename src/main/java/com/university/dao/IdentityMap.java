@@ -0,0 +1,87 @@
+package com.university.dao;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-thread identity map for one unit of work. While a map is open, every DAO impl checks it before
+ * hitting the database and registers what it loads, so each entity ID is materialized at most once -
+ * twenty courses in the same department all point at the same Department object.
+ *
+ * DAO read methods open one implicitly for the duration of the call. Wrap several calls in your own
+ * try-with-resources block to share instances across them:
+ *
+ *     try (IdentityMap session = IdentityMap.open()) {
+ *         ...
+ *     }
+ *
+ * Nested open() calls join the outer map, which is cleared when the outermost block closes.
+ */
+public final class IdentityMap implements AutoCloseable {
+    private static final ThreadLocal<IdentityMap> CURRENT = new ThreadLocal<>();
+
+    private final Map<Class<?>, Map<Integer, Object>> entities = new HashMap<>();
+    private int depth;
+
+    private IdentityMap() {}
+
+    public static IdentityMap open() {
+        IdentityMap map = CURRENT.get();
+        if (map == null) {
+            map = new IdentityMap();
+            CURRENT.set(map);
+        }
+        map.depth++;
+        return map;
+    }
+
+    // Returns null when no unit of work is active on this thread
+    public static IdentityMap current() {
+        return CURRENT.get();
+    }
+
+    // Drops an entity from the active map (if any) - DAOs call this after updates and deletes
+    public static void evictCurrent(Class<?> type, int id) {
+        IdentityMap map = CURRENT.get();
+        if (map != null) {
+            map.evict(type, id);
+        }
+    }
+
+    public <T> T get(Class<T> type, int id) {
+        Map<Integer, Object> byId = entities.get(type);
+        return byId == null ? null : type.cast(byId.get(id));
+    }
+
+    // Returns the instance already registered for this ID if there is one, so callers should use the result
+    public <T> T register(Class<T> type, int id, T entity) {
+        if (entity == null) {
+            return null;
+        }
+        Object existing = entities.computeIfAbsent(type, k -> new HashMap<>()).putIfAbsent(id, entity);
+        return existing == null ? entity : type.cast(existing);
+    }
+
+    public void evict(Class<?> type, int id) {
+        Map<Integer, Object> byId = entities.get(type);
+        if (byId != null) {
+            byId.remove(id);
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (Map<Integer, Object> byId : entities.values()) {
+            total += byId.size();
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        if (--depth == 0) {
+            entities.clear();
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.university.dao;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/** One page of results plus what's needed to ask for the neighbouring pages. */
+public final class Page<T> {
+    private final List<T> items;
+    private final PageRequest request;
+    private final boolean hasNext;
+    private final boolean hasPrevious;
+    private final Function<T, Object> sortValue;
+    private final ToIntFunction<T> idOf;
+
+    public Page(List<T> items, PageRequest request, boolean hasNext, boolean hasPrevious,
+                Function<T, Object> sortValue, ToIntFunction<T> idOf) {
+        this.items = Collections.unmodifiableList(items);
+        this.request = request;
+        this.hasNext = hasNext;
+        this.hasPrevious = hasPrevious;
+        this.sortValue = sortValue;
+        this.idOf = idOf;
+    }
+
+    public List<T> getItems() { return items; }
+    public PageRequest getRequest() { return request; }
+    public boolean hasNext() { return hasNext; }
+    public boolean hasPrevious() { return hasPrevious; }
+    public boolean isEmpty() { return items.isEmpty(); }
+
+    // Returns null on the last page
+    public PageRequest nextRequest() {
+        if (!hasNext || items.isEmpty()) {
+            return null;
+        }
+        T last = items.get(items.size() - 1);
+        return PageRequest.after(request, sortValue.apply(last), idOf.applyAsInt(last));
+    }
+
+    // Returns null on the first page
+    public PageRequest previousRequest() {
+        if (!hasPrevious || items.isEmpty()) {
+            return null;
+        }
+        T first = items.get(0);
+        return PageRequest.before(request, sortValue.apply(first), idOf.applyAsInt(first));
+    }
+}
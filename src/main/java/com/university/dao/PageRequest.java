@@ -0,0 +1,67 @@
+package com.university.dao;
+
+/**
+ * One page of a keyset (seek) query: sort key, direction, page size and - for anything but the first
+ * page - the sort value and id of the row the page starts after. Because the database seeks straight to
+ * that position through the sort index, page 500 costs the same as page 1, unlike LIMIT/OFFSET.
+ *
+ * Start with first() and then walk with Page.nextRequest() / Page.previousRequest().
+ */
+public final class PageRequest {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1_000;
+
+    private final String sortKey;
+    private final boolean ascending;
+    private final int pageSize;
+    private final boolean hasCursor;
+    private final Object cursorValue; // May be null - nullable sort columns can end a page on a NULL
+    private final int cursorId;
+    private final boolean backward;
+
+    private PageRequest(String sortKey, boolean ascending, int pageSize,
+                        boolean hasCursor, Object cursorValue, int cursorId, boolean backward) {
+        if (sortKey == null || sortKey.isEmpty()) {
+            throw new IllegalArgumentException("Sort key is required.");
+        }
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        this.sortKey = sortKey;
+        this.ascending = ascending;
+        this.pageSize = pageSize;
+        this.hasCursor = hasCursor;
+        this.cursorValue = cursorValue;
+        this.cursorId = cursorId;
+        this.backward = backward;
+    }
+
+    public static PageRequest first(String sortKey, boolean ascending, int pageSize) {
+        return new PageRequest(sortKey, ascending, pageSize, false, null, 0, false);
+    }
+
+    // Rows strictly after (value, id) in the requested order
+    static PageRequest after(PageRequest base, Object value, int id) {
+        return new PageRequest(base.sortKey, base.ascending, base.pageSize, true, value, id, false);
+    }
+
+    // Rows strictly before (value, id) - the DAO reads them in reverse and flips the page back around
+    static PageRequest before(PageRequest base, Object value, int id) {
+        return new PageRequest(base.sortKey, base.ascending, base.pageSize, true, value, id, true);
+    }
+
+    public String getSortKey() { return sortKey; }
+    public boolean isAscending() { return ascending; }
+    public int getPageSize() { return pageSize; }
+    public boolean hasCursor() { return hasCursor; }
+    public Object getCursorValue() { return cursorValue; }
+    public int getCursorId() { return cursorId; }
+    public boolean isBackward() { return backward; }
+
+    @Override
+    public String toString() {
+        return "PageRequest[" + sortKey + (ascending ? " asc" : " desc") + ", size=" + pageSize
+                + (hasCursor ? (backward ? ", before=" : ", after=") + "(" + cursorValue + ", " + cursorId + ")" : "")
+                + "]";
+    }
+}
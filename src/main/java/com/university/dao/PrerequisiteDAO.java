@@ -0,0 +1,15 @@
+package com.university.dao;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface PrerequisiteDAO {
+    // Throws IllegalArgumentException if the edge would make a cycle, DuplicateEntryException if it exists
+    void addPrerequisite(int courseId, int prerequisiteId) throws SQLException;
+    boolean removePrerequisite(int courseId, int prerequisiteId) throws SQLException;
+    Map<Integer, List<Integer>> getAllPrerequisites() throws SQLException; // Direct edges only, courseId -> prerequisite IDs
+    // Courses each student has passed (a grade that earns credit), keyed by studentId. Students with none are left out.
+    Map<Integer, List<Integer>> getCompletedCourses(Collection<Integer> studentIds) throws SQLException;
+}
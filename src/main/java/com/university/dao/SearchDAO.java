@@ -0,0 +1,9 @@
+package com.university.dao;
+
+import java.sql.SQLException;
+
+public interface SearchDAO {
+    // Every word in the query is a prefix, all words must match. Empty/blank queries return no hits.
+    SearchResults search(String query, int offset, int limit) throws SQLException;
+    void rebuildIndex() throws SQLException; // Re-derives the whole index from the base tables
+}
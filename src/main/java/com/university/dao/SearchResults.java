@@ -0,0 +1,27 @@
+package com.university.dao;
+
+import com.university.model.SearchHit;
+
+import java.util.Collections;
+import java.util.List;
+
+/** One page of search hits, best match first. */
+public final class SearchResults {
+    private final String query;
+    private final List<SearchHit> hits;
+    private final int offset;
+    private final boolean hasMore;
+
+    public SearchResults(String query, List<SearchHit> hits, int offset, boolean hasMore) {
+        this.query = query;
+        this.hits = Collections.unmodifiableList(hits);
+        this.offset = offset;
+        this.hasMore = hasMore;
+    }
+
+    public String getQuery() { return query; }
+    public List<SearchHit> getHits() { return hits; }
+    public int getOffset() { return offset; }
+    public boolean hasMore() { return hasMore; }
+    public int getNextOffset() { return offset + hits.size(); }
+}
@@ -1,13 +1,26 @@
 package com.university.dao;
 
 import com.university.model.Student;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.sql.SQLException;
 
 public interface StudentDAO {
     void addStudent(Student student) throws SQLException;
     Student getStudent(int id) throws SQLException;
+    Student getStudentByEmail(String email) throws SQLException; // Uses the UNIQUE index, no table scan
     List<Student> getAllStudents() throws SQLException;
+    Page<Student> getStudentsPage(PageRequest request) throws SQLException; // Sort keys: id, lastName, firstName, email, dateOfBirth
+    int countStudents() throws SQLException;
+    Map<String, Integer> getStudentIdsByEmail() throws SQLException; // Lightweight lookup table for bulk imports
+    int[] getStudentIds(String sortKey, boolean ascending) throws SQLException; // Every id in sort order, for lazy tables
+    Map<Integer, Student> getStudentsByIds(Collection<Integer> ids) throws SQLException; // Chunked IN queries
     void updateStudent(Student student) throws SQLException;
     void deleteStudent(int id) throws SQLException;
+
+    // Batch variants - one transaction for the whole list, per-row failures reported in the result
+    BatchResult addStudents(List<Student> students) throws SQLException;
+    BatchResult updateStudents(List<Student> students) throws SQLException;
+    BatchResult deleteStudents(List<Integer> ids) throws SQLException;
 }
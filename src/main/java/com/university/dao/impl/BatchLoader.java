@@ -0,0 +1,189 @@
+package com.university.dao.impl;
+
+import com.university.dao.IdentityMap;
+import com.university.model.Course;
+import com.university.model.Department;
+import com.university.model.Enrollment;
+import com.university.model.Student;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DataLoader-style helper: callers hand over the IDs they need, and each entity type is fetched once
+ * with chunked "WHERE id IN (...)" queries on a single connection. Referenced entities are loaded the
+ * same way, so building N grades costs a handful of queries per entity type instead of ~4N lookups.
+ * Anything already in the active IdentityMap is reused and only the missing IDs go to the database.
+ */
+class BatchLoader {
+    // SQLite's default host parameter limit used to be 999, so I stay well under it
+    static final int CHUNK_SIZE = 500;
+    // IN-lists are rounded up to one of these sizes, so each query has a handful of SQL strings for the
+    // statement cache instead of one per possible length of its last chunk
+    private static final int[] IN_LIST_SIZES = {1, 8, 64, CHUNK_SIZE};
+
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    private final Connection conn;
+    private final IdentityMap session;
+
+    // The caller owns the session - it must stay open for as long as the loader is used
+    BatchLoader(Connection conn, IdentityMap session) {
+        this.conn = conn;
+        this.session = session;
+    }
+
+    Map<Integer, Department> loadDepartments(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Department> departments = new HashMap<>();
+        Set<Integer> missing = collectCached(Department.class, ids, departments);
+        forEachChunk("SELECT id, name FROM departments", missing, rs -> {
+            int id = rs.getInt("id");
+            departments.put(id, session.register(Department.class, id, new Department(id, rs.getString("name"))));
+        });
+        return departments;
+    }
+
+    Map<Integer, Student> loadStudents(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Student> students = new HashMap<>();
+        Set<Integer> missing = collectCached(Student.class, ids, students);
+        forEachChunk("SELECT id, firstName, lastName, email, dateOfBirth FROM students", missing, rs -> {
+            int id = rs.getInt("id");
+            students.put(id, session.register(Student.class, id, new Student(
+                    id,
+                    rs.getString("firstName"),
+                    rs.getString("lastName"),
+                    rs.getString("email"),
+                    rs.getString("dateOfBirth")
+            )));
+        });
+        return students;
+    }
+
+    Map<Integer, Course> loadCourses(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Course> courses = new HashMap<>();
+        Set<Integer> missing = collectCached(Course.class, ids, courses);
+        List<Course> rows = new ArrayList<>();
+        Set<Integer> departmentIds = new LinkedHashSet<>();
+        forEachChunk("SELECT id, courseCode, courseName, credits, departmentId, capacity FROM courses", missing, rs -> {
+            int departmentId = rs.getInt("departmentId");
+            if (rs.wasNull()) {
+                departmentId = 0;
+            } else {
+                departmentIds.add(departmentId);
+            }
+            Course course = new Course(rs.getInt("id"), rs.getString("courseCode"), rs.getString("courseName"),
+                    rs.getInt("credits"), departmentId);
+            course.setCapacity(rs.getInt("capacity"));
+            rows.add(course);
+        });
+
+        Map<Integer, Department> departments = loadDepartments(departmentIds);
+        for (Course course : rows) {
+            if (course.getDepartmentId() > 0) {
+                course.setDepartment(departments.get(course.getDepartmentId()));
+            }
+            courses.put(course.getId(), session.register(Course.class, course.getId(), course));
+        }
+        return courses;
+    }
+
+    Map<Integer, Enrollment> loadEnrollments(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Enrollment> enrollments = new HashMap<>();
+        Set<Integer> missing = collectCached(Enrollment.class, ids, enrollments);
+        List<Enrollment> rows = new ArrayList<>();
+        Set<Integer> studentIds = new LinkedHashSet<>();
+        Set<Integer> courseIds = new LinkedHashSet<>();
+        forEachChunk("SELECT id, studentId, courseId, enrollmentDate FROM enrollments", missing, rs -> {
+            Enrollment enrollment = new Enrollment(rs.getInt("id"), rs.getInt("studentId"),
+                    rs.getInt("courseId"), rs.getString("enrollmentDate"));
+            studentIds.add(enrollment.getStudentId());
+            courseIds.add(enrollment.getCourseId());
+            rows.add(enrollment);
+        });
+
+        Map<Integer, Student> students = loadStudents(studentIds);
+        Map<Integer, Course> courses = loadCourses(courseIds);
+        for (Enrollment enrollment : rows) {
+            enrollment.setStudent(students.get(enrollment.getStudentId()));
+            enrollment.setCourse(courses.get(enrollment.getCourseId()));
+            enrollments.put(enrollment.getId(), session.register(Enrollment.class, enrollment.getId(), enrollment));
+        }
+        return enrollments;
+    }
+
+    // Copies session hits into the result and returns the IDs that still need a query
+    private <T> Set<Integer> collectCached(Class<T> type, Collection<Integer> ids, Map<Integer, T> found) {
+        Set<Integer> missing = new LinkedHashSet<>();
+        for (Integer id : ids) {
+            T cached = session.get(type, id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    private void forEachChunk(String selectSql, Collection<Integer> ids, RowHandler handler) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Integer> idList = new ArrayList<>(ids instanceof Set ? ids : new LinkedHashSet<>(ids));
+        for (int from = 0; from < idList.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = idList.subList(from, Math.min(from + CHUNK_SIZE, idList.size()));
+            String sql = selectSql + " WHERE id IN (" + placeholders(chunk.size()) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                bindIds(pstmt, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        handler.handle(rs);
+                    }
+                }
+            }
+        }
+    }
+
+    // Placeholders for count IDs, rounded up to the next IN-list size - bind them with bindIds()
+    static String placeholders(int count) {
+        int size = paddedSize(count);
+        StringBuilder sb = new StringBuilder(size * 2);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    // Binds the IDs from parameter 1 and repeats the last one to fill the rounded-up list. A repeated
+    // value in an IN-list matches nothing extra, so the padding never changes the result.
+    static void bindIds(PreparedStatement pstmt, List<Integer> ids) throws SQLException {
+        int size = paddedSize(ids.size());
+        for (int i = 0; i < size; i++) {
+            pstmt.setInt(i + 1, ids.get(Math.min(i, ids.size() - 1)));
+        }
+    }
+
+    static int paddedSize(int count) {
+        if (count <= 0) {
+            return 0;
+        }
+        for (int size : IN_LIST_SIZES) {
+            if (count <= size) {
+                return size;
+            }
+        }
+        return count; // Longer than a chunk - callers split before this, but don't truncate if one doesn't
+    }
+}
@@ -0,0 +1,258 @@
+package com.university.dao.impl;
+
+import com.university.dao.BatchResult;
+import com.university.util.DatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared plumbing for the list-based DAO writes. The whole list goes through one connection and one
+ * transaction (one fsync instead of one per row), in chunks sent with addBatch/executeBatch.
+ *
+ * sqlite-jdbc stops a batch at the first failing row and only reports the last generated key, so each
+ * chunk runs inside a SAVEPOINT. If the chunk fails, or its keys can't be verified, I roll back to the
+ * savepoint and replay that chunk one row at a time to get exact per-row results.
+ */
+final class BatchWriter {
+    static final int CHUNK_SIZE = 500;
+
+    interface Binder<T> {
+        void bind(PreparedStatement pstmt, T item) throws SQLException;
+    }
+
+    interface IdSetter<T> {
+        void setId(T item, int id);
+    }
+
+    interface MessageFor<T> {
+        String message(T item);
+    }
+
+    // Runs for every row that was written, inside the same transaction and before the commit
+    interface RowHook<T> {
+        void afterRow(Connection conn, T item, int id) throws SQLException;
+    }
+
+    // Runs once per batch on the batch's connection, inside its transaction
+    interface TransactionHook {
+        void run(Connection conn) throws SQLException;
+    }
+
+    private BatchWriter() {}
+
+    // INSERT into an AUTOINCREMENT table, handing generated keys back in input order
+    static <T> BatchResult insert(String table, String sql, List<T> items, Binder<T> binder,
+                                  IdSetter<T> idSetter, MessageFor<T> duplicateMessage) throws SQLException {
+        return insert(table, sql, items, binder, idSetter, duplicateMessage, null);
+    }
+
+    static <T> BatchResult insert(String table, String sql, List<T> items, Binder<T> binder,
+                                  IdSetter<T> idSetter, MessageFor<T> duplicateMessage,
+                                  RowHook<T> afterRow) throws SQLException {
+        return insert(table, sql, items, binder, idSetter, duplicateMessage, afterRow, null);
+    }
+
+    // beforeCommit runs after every afterRow call, so it can flush whatever the row hooks collected
+    static <T> BatchResult insert(String table, String sql, List<T> items, Binder<T> binder,
+                                  IdSetter<T> idSetter, MessageFor<T> duplicateMessage,
+                                  RowHook<T> afterRow, TransactionHook beforeCommit) throws SQLException {
+        int[] ids = new int[items.size()];
+        Map<Integer, SQLException> failures = new HashMap<>();
+        if (items.isEmpty()) {
+            return new BatchResult(ids, failures);
+        }
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < items.size(); from += CHUNK_SIZE) {
+                    int to = Math.min(from + CHUNK_SIZE, items.size());
+                    if (!insertChunk(conn, pstmt, table, items, from, to, binder, ids)) {
+                        insertRowByRow(pstmt, items, from, to, binder, ids, failures, duplicateMessage);
+                    }
+                }
+                if (afterRow != null) {
+                    for (int i = 0; i < items.size(); i++) {
+                        if (ids[i] > 0) {
+                            afterRow.afterRow(conn, items.get(i), ids[i]);
+                        }
+                    }
+                }
+                if (beforeCommit != null) {
+                    beforeCommit.run(conn);
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        for (int i = 0; i < items.size(); i++) {
+            if (ids[i] > 0) {
+                idSetter.setId(items.get(i), ids[i]);
+            }
+        }
+        return new BatchResult(ids, failures);
+    }
+
+    // UPDATE/DELETE - same chunking, no keys to hand back
+    static <T> BatchResult execute(String sql, List<T> items, Binder<T> binder,
+                                   MessageFor<T> duplicateMessage) throws SQLException {
+        return execute(sql, items, binder, duplicateMessage, null);
+    }
+
+    // The hook gets id 0 here - the caller knows its own keys
+    static <T> BatchResult execute(String sql, List<T> items, Binder<T> binder,
+                                   MessageFor<T> duplicateMessage, RowHook<T> afterRow) throws SQLException {
+        return execute(sql, items, binder, duplicateMessage, afterRow, null, null);
+    }
+
+    // beforeWrites sees the data as it was before the batch, beforeCommit sees the batch applied
+    static <T> BatchResult execute(String sql, List<T> items, Binder<T> binder, MessageFor<T> duplicateMessage,
+                                   RowHook<T> afterRow, TransactionHook beforeWrites,
+                                   TransactionHook beforeCommit) throws SQLException {
+        int[] ids = new int[items.size()];
+        Map<Integer, SQLException> failures = new HashMap<>();
+        if (items.isEmpty()) {
+            return new BatchResult(ids, failures);
+        }
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                if (beforeWrites != null) {
+                    beforeWrites.run(conn);
+                }
+                for (int from = 0; from < items.size(); from += CHUNK_SIZE) {
+                    int to = Math.min(from + CHUNK_SIZE, items.size());
+                    if (!executeChunk(conn, pstmt, items, from, to, binder)) {
+                        executeRowByRow(pstmt, items, from, to, binder, failures, duplicateMessage);
+                    }
+                }
+                if (afterRow != null) {
+                    for (int i = 0; i < items.size(); i++) {
+                        if (!failures.containsKey(i)) {
+                            afterRow.afterRow(conn, items.get(i), 0);
+                        }
+                    }
+                }
+                if (beforeCommit != null) {
+                    beforeCommit.run(conn);
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        return new BatchResult(ids, failures);
+    }
+
+    private static <T> boolean insertChunk(Connection conn, PreparedStatement pstmt, String table, List<T> items,
+                                           int from, int to, Binder<T> binder, int[] ids) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SAVEPOINT batch_chunk");
+            try {
+                // AUTOINCREMENT always hands out sequence + 1, and the IMMEDIATE transaction means nobody else
+                // can insert in between - so a clean chunk gets exactly the keys after the current sequence.
+                long before = currentSequence(stmt, table);
+                for (int i = from; i < to; i++) {
+                    binder.bind(pstmt, items.get(i));
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                long last = lastInsertRowId(stmt);
+                if (last != before + (to - from)) {
+                    stmt.execute("ROLLBACK TO batch_chunk"); // Can't prove the keys - replay row by row
+                    stmt.execute("RELEASE batch_chunk");
+                    return false;
+                }
+                for (int i = from; i < to; i++) {
+                    ids[i] = (int) (before + 1 + (i - from));
+                }
+                stmt.execute("RELEASE batch_chunk");
+                return true;
+            } catch (SQLException e) {
+                pstmt.clearBatch();
+                stmt.execute("ROLLBACK TO batch_chunk");
+                stmt.execute("RELEASE batch_chunk");
+                return false;
+            }
+        }
+    }
+
+    private static <T> void insertRowByRow(PreparedStatement pstmt, List<T> items, int from, int to, Binder<T> binder,
+                                           int[] ids, Map<Integer, SQLException> failures,
+                                           MessageFor<T> duplicateMessage) throws SQLException {
+        for (int i = from; i < to; i++) {
+            T item = items.get(i);
+            try {
+                binder.bind(pstmt, item);
+                pstmt.executeUpdate();
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        ids[i] = generatedKeys.getInt(1);
+                    }
+                }
+            } catch (SQLException e) {
+                // A failed statement only rolls back itself in SQLite, the transaction carries on
+                failures.put(i, ConstraintViolations.translate(e, duplicateMessage.message(item)));
+            }
+        }
+    }
+
+    private static <T> boolean executeChunk(Connection conn, PreparedStatement pstmt, List<T> items,
+                                            int from, int to, Binder<T> binder) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SAVEPOINT batch_chunk");
+            try {
+                for (int i = from; i < to; i++) {
+                    binder.bind(pstmt, items.get(i));
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                stmt.execute("RELEASE batch_chunk");
+                return true;
+            } catch (SQLException e) {
+                pstmt.clearBatch();
+                stmt.execute("ROLLBACK TO batch_chunk");
+                stmt.execute("RELEASE batch_chunk");
+                return false;
+            }
+        }
+    }
+
+    private static <T> void executeRowByRow(PreparedStatement pstmt, List<T> items, int from, int to, Binder<T> binder,
+                                            Map<Integer, SQLException> failures,
+                                            MessageFor<T> duplicateMessage) throws SQLException {
+        for (int i = from; i < to; i++) {
+            T item = items.get(i);
+            try {
+                binder.bind(pstmt, item);
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                failures.put(i, ConstraintViolations.translate(e, duplicateMessage.message(item)));
+            }
+        }
+    }
+
+    private static long currentSequence(Statement stmt, String table) throws SQLException {
+        // The table name comes from the DAO code, never from user input
+        try (ResultSet rs = stmt.executeQuery("SELECT seq FROM sqlite_sequence WHERE name = '" + table + "'")) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        } catch (SQLException e) {
+            return 0L; // sqlite_sequence only appears after the first AUTOINCREMENT insert in the database
+        }
+    }
+
+    private static long lastInsertRowId(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            return rs.next() ? rs.getLong(1) : -1L;
+        }
+    }
+}
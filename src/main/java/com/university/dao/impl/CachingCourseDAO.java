@@ -0,0 +1,164 @@
+package com.university.dao.impl;
+
+import com.university.dao.BatchResult;
+import com.university.dao.CourseDAO;
+import com.university.dao.IdentityMap;
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
+import com.university.model.Course;
+import com.university.model.Department;
+import com.university.util.Metrics;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Same idea as CachingDepartmentDAO, for the course catalog. It's small enough to keep in memory and
+ * gets re-read every time a course is added or edited.
+ */
+public class CachingCourseDAO implements CourseDAO {
+    private final CourseDAO delegate;
+
+    public CachingCourseDAO() {
+        this(Metrics.timed(CourseDAO.class, new CourseDAOImpl()));
+    }
+
+    public CachingCourseDAO(CourseDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void addCourse(Course course) throws SQLException {
+        try {
+            delegate.addCourse(course);
+        } finally {
+            ReferenceDataCache.invalidateCourse(course.getId());
+        }
+    }
+
+    @Override
+    public Course getCourse(int id) throws SQLException {
+        try (IdentityMap session = IdentityMap.open()) {
+            Course course = session.get(Course.class, id);
+            if (course != null) {
+                return course;
+            }
+            course = ReferenceDataCache.getCourse(id);
+            if (course == null) {
+                long generation = ReferenceDataCache.courseGeneration();
+                course = delegate.getCourse(id);
+                ReferenceDataCache.putCourse(course, generation);
+                return course; // The delegate already registered it in the session
+            }
+            return canonical(course, session);
+        }
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) throws SQLException {
+        return delegate.getCourseByCode(courseCode); // Point lookup on the UNIQUE index is already cheap
+    }
+
+    @Override
+    public List<Course> getAllCourses() throws SQLException {
+        List<Course> courses = ReferenceDataCache.getAllCourses();
+        if (courses == null) {
+            long generation = ReferenceDataCache.courseGeneration();
+            courses = delegate.getAllCourses();
+            ReferenceDataCache.putAllCourses(courses, generation);
+            return courses;
+        }
+        try (IdentityMap session = IdentityMap.open()) {
+            for (int i = 0; i < courses.size(); i++) {
+                courses.set(i, canonical(courses.get(i), session));
+            }
+        }
+        return courses;
+    }
+
+    // Pages aren't cached - they depend on sort key and cursor, and the sort index makes them cheap anyway
+    @Override
+    public Page<Course> getCoursesPage(PageRequest request) throws SQLException {
+        return delegate.getCoursesPage(request);
+    }
+
+    @Override
+    public int countCourses() throws SQLException {
+        return delegate.countCourses();
+    }
+
+    @Override
+    public int[] getCourseIds(String sortKey, boolean ascending) throws SQLException {
+        return delegate.getCourseIds(sortKey, ascending);
+    }
+
+    @Override
+    public Map<Integer, Course> getCoursesByIds(Collection<Integer> ids) throws SQLException {
+        return delegate.getCoursesByIds(ids);
+    }
+
+    @Override
+    public Map<String, Integer> getCourseIdsByCode() throws SQLException {
+        return delegate.getCourseIdsByCode();
+    }
+
+    @Override
+    public void updateCourse(Course course) throws SQLException {
+        try {
+            delegate.updateCourse(course);
+        } finally {
+            ReferenceDataCache.invalidateCourse(course.getId());
+        }
+    }
+
+    @Override
+    public void deleteCourse(int id) throws SQLException {
+        try {
+            delegate.deleteCourse(id);
+        } finally {
+            ReferenceDataCache.invalidateCourse(id);
+        }
+    }
+
+    // Cached copies carry their own Department copy - I swap it for the session's instance so sharing still holds
+    private Course canonical(Course course, IdentityMap session) {
+        Course existing = session.get(Course.class, course.getId());
+        if (existing != null) {
+            return existing;
+        }
+        Department department = course.getDepartment();
+        if (department != null) {
+            course.setDepartment(session.register(Department.class, department.getId(), department));
+        }
+        return session.register(Course.class, course.getId(), course);
+    }
+
+    @Override
+    public BatchResult addCourses(List<Course> courses) throws SQLException {
+        try {
+            return delegate.addCourses(courses);
+        } finally {
+            ReferenceDataCache.invalidateAllCourses();
+        }
+    }
+
+    @Override
+    public BatchResult updateCourses(List<Course> courses) throws SQLException {
+        try {
+            return delegate.updateCourses(courses);
+        } finally {
+            ReferenceDataCache.invalidateAllCourses();
+        }
+    }
+
+    @Override
+    public BatchResult deleteCourses(List<Integer> ids) throws SQLException {
+        try {
+            return delegate.deleteCourses(ids);
+        } finally {
+            ReferenceDataCache.invalidateAllCourses();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.university.dao.impl;
+
+import com.university.dao.DepartmentDAO;
+import com.university.dao.IdentityMap;
+import com.university.model.Department;
+import com.university.util.Metrics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-through cache in front of a DepartmentDAO. Departments almost never change, but courses, employees
+ * and the course dialog look them up constantly. Writes go straight to the delegate and then invalidate.
+ */
+public class CachingDepartmentDAO implements DepartmentDAO {
+    private final DepartmentDAO delegate;
+
+    public CachingDepartmentDAO() {
+        this(Metrics.timed(DepartmentDAO.class, new DepartmentDAOImpl()));
+    }
+
+    public CachingDepartmentDAO(DepartmentDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void addDepartment(Department department) throws SQLException {
+        try {
+            delegate.addDepartment(department);
+        } finally {
+            ReferenceDataCache.invalidateDepartment(department.getId());
+        }
+    }
+
+    @Override
+    public Department getDepartment(int id) throws SQLException {
+        try (IdentityMap session = IdentityMap.open()) {
+            Department department = session.get(Department.class, id);
+            if (department != null) {
+                return department;
+            }
+            department = ReferenceDataCache.getDepartment(id);
+            if (department == null) {
+                long generation = ReferenceDataCache.departmentGeneration();
+                department = delegate.getDepartment(id);
+                ReferenceDataCache.putDepartment(department, generation);
+            }
+            return session.register(Department.class, id, department);
+        }
+    }
+
+    /**
+     * Same lookup for DAOs that already hold a connection - a cache miss is read on that connection instead
+     * of borrowing a second one from the pool, which could stall once every pooled connection is held.
+     */
+    Department getDepartment(Connection conn, int id) throws SQLException {
+        try (IdentityMap session = IdentityMap.open()) {
+            Department department = session.get(Department.class, id);
+            if (department != null) {
+                return department;
+            }
+            department = ReferenceDataCache.getDepartment(id);
+            if (department == null) {
+                long generation = ReferenceDataCache.departmentGeneration();
+                department = new BatchLoader(conn, session).loadDepartments(Collections.singleton(id)).get(id);
+                ReferenceDataCache.putDepartment(department, generation);
+            }
+            return session.register(Department.class, id, department);
+        }
+    }
+
+    @Override
+    public Department getDepartmentByName(String name) throws SQLException {
+        return delegate.getDepartmentByName(name); // Point lookup on the UNIQUE index is already cheap
+    }
+
+    @Override
+    public List<Department> getAllDepartments() throws SQLException {
+        List<Department> departments = ReferenceDataCache.getAllDepartments();
+        if (departments == null) {
+            long generation = ReferenceDataCache.departmentGeneration();
+            departments = delegate.getAllDepartments();
+            ReferenceDataCache.putAllDepartments(departments, generation);
+            return departments;
+        }
+        // Swap in any instances the current unit of work already holds
+        try (IdentityMap session = IdentityMap.open()) {
+            for (int i = 0; i < departments.size(); i++) {
+                Department department = departments.get(i);
+                departments.set(i, session.register(Department.class, department.getId(), department));
+            }
+        }
+        return departments;
+    }
+
+    @Override
+    public void updateDepartment(Department department) throws SQLException {
+        try {
+            delegate.updateDepartment(department);
+        } finally {
+            ReferenceDataCache.invalidateDepartment(department.getId());
+        }
+    }
+
+    @Override
+    public void deleteDepartment(int id) throws SQLException {
+        try {
+            delegate.deleteDepartment(id);
+        } finally {
+            ReferenceDataCache.invalidateDepartment(id);
+        }
+    }
+}
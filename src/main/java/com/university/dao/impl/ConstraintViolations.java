@@ -0,0 +1,48 @@
+package com.university.dao.impl;
+
+import com.university.dao.DuplicateEntryException;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
+
+import java.sql.SQLException;
+
+/**
+ * Turns SQLite's UNIQUE violations into DuplicateEntryException so the service and GUI layers don't
+ * have to parse driver messages themselves.
+ */
+final class ConstraintViolations {
+    private static final String UNIQUE_PREFIX = "UNIQUE constraint failed: ";
+
+    private ConstraintViolations() {}
+
+    static boolean isUniqueViolation(SQLException e) {
+        if (e instanceof SQLiteException) {
+            SQLiteErrorCode code = ((SQLiteException) e).getResultCode();
+            if (code == SQLiteErrorCode.SQLITE_CONSTRAINT_UNIQUE || code == SQLiteErrorCode.SQLITE_CONSTRAINT_PRIMARYKEY) {
+                return true;
+            }
+        }
+        return e.getMessage() != null && e.getMessage().contains(UNIQUE_PREFIX);
+    }
+
+    // Returns the typed exception for UNIQUE violations and the original exception for anything else
+    static SQLException translate(SQLException e, String friendlyMessage) {
+        if (e instanceof DuplicateEntryException || !isUniqueViolation(e)) {
+            return e;
+        }
+        String table = null;
+        String column = null;
+        String message = e.getMessage();
+        int start = message.indexOf(UNIQUE_PREFIX);
+        if (start >= 0) {
+            // e.g. "UNIQUE constraint failed: students.email" or "...: enrollments.studentId, enrollments.courseId"
+            String target = message.substring(start + UNIQUE_PREFIX.length()).replace(")", "").trim();
+            int dot = target.indexOf('.');
+            if (dot > 0) {
+                table = target.substring(0, dot);
+                column = target.substring(dot + 1).replace(table + ".", ""); // "studentId, courseId" for composites
+            }
+        }
+        return new DuplicateEntryException(friendlyMessage, table, column, e);
+    }
+}
@@ -1,23 +1,43 @@
 package com.university.dao.impl;
 
 import com.university.dao.CourseDAO;
-import com.university.dao.DepartmentDAO;
+import com.university.dao.BatchResult;
+import com.university.dao.DataChangeEvents;
+import com.university.dao.IdentityMap;
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
 import com.university.model.Course;
 import com.university.model.Department;
+import com.university.model.SearchHit;
 import com.university.util.DatabaseUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class CourseDAOImpl implements CourseDAO {
-    private DepartmentDAO departmentDAO = new DepartmentDAOImpl(); // I need this for department lookups
+
+    // Sort keys the course list can be paged by, each backed by an index (SchemaMigrator versions 3 and 9)
+    private static final KeysetQuery<Course> PAGE_QUERY = new KeysetQuery<Course>(
+            "SELECT id, courseCode, courseName, credits, departmentId, capacity FROM courses", "courses",
+            "id", Course::getId)
+            .sortKey("courseCode", "courseCode", false, Course::getCourseCode)
+            .sortKey("courseName", "courseName", false, Course::getCourseName)
+            .sortKey("credits", "credits", true, Course::getCredits);
+    private CachingDepartmentDAO departmentDAO = new CachingDepartmentDAO(); // I need this for department lookups
 
     @Override
     public void addCourse(Course course) throws SQLException {
-        String sql = "INSERT INTO courses (courseCode, courseName, credits, departmentId) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO courses (courseCode, courseName, credits, departmentId, capacity) VALUES (?, ?, ?, ?, ?)";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false); // The row and its search entry commit together
             pstmt.setString(1, course.getCourseCode());
             pstmt.setString(2, course.getCourseName());
             pstmt.setInt(3, course.getCredits());
@@ -29,72 +49,188 @@ public class CourseDAOImpl implements CourseDAO {
             else {
                 pstmt.setNull(4, Types.INTEGER); // Some courses might be interdisciplinary
             }
+            bindCapacity(pstmt, 5, course);
             pstmt.executeUpdate();
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     course.setId(generatedKeys.getInt(1));
                 }
             }
+            SearchIndex.putCourse(conn, course.getId(), course);
+            conn.commit();
+        } catch (SQLException e) {
+            throw ConstraintViolations.translate(e, "Course code " + course.getCourseCode() + " already exists.");
         }
+        DataChangeEvents.saved(Course.class, course.getId(), course);
     }
 
     @Override
     public Course getCourse(int id) throws SQLException {
         String sql = "SELECT * FROM courses WHERE id = ?";
         Course course = null;
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (IdentityMap session = IdentityMap.open()) {
+            course = session.get(Course.class, id);
+            if (course != null) {
+                return course;
+            }
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        Department department = null;
+                        int departmentId = rs.getInt("departmentId");
+                        if (!rs.wasNull()) {
+                            department = departmentDAO.getDepartment(conn, departmentId); // Shared instance within the session
+                        }
+                        course = session.register(Course.class, id, withCapacity(rs, new Course(
+                                rs.getInt("id"),
+                                rs.getString("courseCode"),
+                                rs.getString("courseName"),
+                                rs.getInt("credits"),
+                                department
+                        )));
+                    }
+                }
+            }
+        }
+        return course;
+    }
+
+    @Override
+    public Course getCourseByCode(String courseCode) throws SQLException {
+        String sql = "SELECT * FROM courses WHERE courseCode = ?";
+        Course course = null;
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
+            pstmt.setString(1, courseCode);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
+                    int id = rs.getInt("id");
+                    course = session.get(Course.class, id);
+                    if (course == null) {
+                        Department department = null;
+                        int departmentId = rs.getInt("departmentId");
+                        if (!rs.wasNull()) {
+                            department = departmentDAO.getDepartment(conn, departmentId);
+                        }
+                        course = session.register(Course.class, id, withCapacity(rs, new Course(
+                                id,
+                                rs.getString("courseCode"),
+                                rs.getString("courseName"),
+                                rs.getInt("credits"),
+                                department
+                        )));
+                    }
+                }
+            }
+        }
+        return course;
+    }
+
+    @Override
+    public List<Course> getAllCourses() throws SQLException {
+        String sql = "SELECT * FROM courses ORDER BY courseName"; // I'm sorting by course name for easier browsing
+        List<Course> courses = new ArrayList<>();
+        // The session means each department is queried once, not once per course
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                int id = rs.getInt("id");
+                Course course = session.get(Course.class, id);
+                if (course == null) {
                     Department department = null;
                     int departmentId = rs.getInt("departmentId");
                     if (!rs.wasNull()) {
-                        department = departmentDAO.getDepartment(departmentId);
+                        department = departmentDAO.getDepartment(conn, departmentId);
                     }
-                    course = new Course(
-                            rs.getInt("id"),
+                    course = session.register(Course.class, id, withCapacity(rs, new Course(
+                            id,
                             rs.getString("courseCode"),
                             rs.getString("courseName"),
                             rs.getInt("credits"),
                             department
-                    );
+                    )));
                 }
+                courses.add(course);
             }
         }
-        return course;
+        return courses;
     }
 
     @Override
-    public List<Course> getAllCourses() throws SQLException {
-        String sql = "SELECT * FROM courses ORDER BY courseName"; // I'm sorting by course name for easier browsing
-        List<Course> courses = new ArrayList<>();
+    public Map<String, Integer> getCourseIdsByCode() throws SQLException {
+        String sql = "SELECT id, courseCode FROM courses";
+        Map<String, Integer> ids = new HashMap<>();
         try (Connection conn = DatabaseUtil.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
+                ids.put(rs.getString(2), rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public Page<Course> getCoursesPage(PageRequest request) throws SQLException {
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection()) {
+            return PAGE_QUERY.fetch(conn, request, rs -> {
+                int id = rs.getInt("id");
+                Course course = session.get(Course.class, id);
+                if (course != null) {
+                    return course;
+                }
                 Department department = null;
                 int departmentId = rs.getInt("departmentId");
                 if (!rs.wasNull()) {
-                    department = departmentDAO.getDepartment(departmentId);
+                    department = departmentDAO.getDepartment(conn, departmentId);
                 }
-                courses.add(new Course(
-                        rs.getInt("id"),
+                return session.register(Course.class, id, withCapacity(rs, new Course(
+                        id,
                         rs.getString("courseCode"),
                         rs.getString("courseName"),
                         rs.getInt("credits"),
                         department
-                ));
-            }
+                )));
+            });
+        }
+    }
+
+    @Override
+    public int countCourses() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            return PAGE_QUERY.count(conn);
+        }
+    }
+
+    @Override
+    public int[] getCourseIds(String sortKey, boolean ascending) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            return PAGE_QUERY.orderedIds(conn, sortKey, ascending);
+        }
+    }
+
+    @Override
+    public Map<Integer, Course> getCoursesByIds(Collection<Integer> ids) throws SQLException {
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection()) {
+            return new BatchLoader(conn, session).loadCourses(ids);
         }
-        return courses;
     }
 
     @Override
     public void updateCourse(Course course) throws SQLException {
-        String sql = "UPDATE courses SET courseCode = ?, courseName = ?, credits = ?, departmentId = ? WHERE id = ?";
+        String sql = "UPDATE courses SET courseCode = ?, courseName = ?, credits = ?, departmentId = ?, capacity = ? WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            boolean creditsChanged = creditsOf(conn, course.getId()) != course.getCredits();
+            Set<Integer> departments = EnrollmentCounts.departmentsForCourses(conn, Collections.singleton(course.getId()));
             pstmt.setString(1, course.getCourseCode());
             pstmt.setString(2, course.getCourseName());
             pstmt.setInt(3, course.getCredits());
@@ -106,9 +242,26 @@ public class CourseDAOImpl implements CourseDAO {
              else {
                 pstmt.setNull(4, Types.INTEGER);
             }
-            pstmt.setInt(5, course.getId());
+            bindCapacity(pstmt, 5, course);
+            pstmt.setInt(6, course.getId());
             pstmt.executeUpdate();
+            SearchIndex.putCourse(conn, course.getId(), course);
+            Set<Integer> newDepartment = EnrollmentCounts.departmentsForCourses(conn, Collections.singleton(course.getId()));
+            if (!newDepartment.equals(departments)) {
+                // The course's headcount moves from the old department's counter to the new one
+                departments.addAll(newDepartment);
+                EnrollmentCounts.recountDepartments(conn, departments);
+            }
+            if (creditsChanged) {
+                // Every graded student in the course carries these credits in their GPA totals
+                GpaLedger.recompute(conn, GpaLedger.studentsForCourses(conn, Collections.singleton(course.getId())));
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            throw ConstraintViolations.translate(e, "Course code " + course.getCourseCode() + " already exists.");
         }
+        IdentityMap.evictCurrent(Course.class, course.getId());
+        DataChangeEvents.saved(Course.class, course.getId(), course);
     }
 
     @Override
@@ -116,8 +269,123 @@ public class CourseDAOImpl implements CourseDAO {
         String sql = "DELETE FROM courses WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            Set<Integer> touched = GpaLedger.studentsForCourses(conn, Collections.singleton(id));
+            Set<Integer> departments = EnrollmentCounts.departmentsForCourses(conn, Collections.singleton(id));
             pstmt.setInt(1, id);
             pstmt.executeUpdate();
+            SearchIndex.remove(conn, SearchHit.Kind.COURSE, id);
+            GpaLedger.recompute(conn, touched); // The cascade took their enrollments and grades with it
+            EnrollmentCounts.recountDepartments(conn, departments);
+            conn.commit();
         }
+        IdentityMap.evictCurrent(Course.class, id);
+        DataChangeEvents.deleted(Course.class, id);
+    }
+
+    @Override
+    public BatchResult addCourses(List<Course> courses) throws SQLException {
+        String sql = "INSERT INTO courses (courseCode, courseName, credits, departmentId, capacity) VALUES (?, ?, ?, ?, ?)";
+        BatchResult result = BatchWriter.insert("courses", sql, courses, CourseDAOImpl::bindCourse, Course::setId,
+                c -> "Course code " + c.getCourseCode() + " already exists.",
+                (conn, c, id) -> SearchIndex.putCourse(conn, id, c));
+        publishSaved(courses, result);
+        return result;
+    }
+
+    @Override
+    public BatchResult updateCourses(List<Course> courses) throws SQLException {
+        String sql = "UPDATE courses SET courseCode = ?, courseName = ?, credits = ?, departmentId = ?, capacity = ? WHERE id = ?";
+        List<Integer> ids = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            ids.add(course.getId());
+        }
+        Set<Integer> departments = new HashSet<>();
+        BatchResult result = BatchWriter.execute(sql, courses, (pstmt, c) -> {
+            bindCourse(pstmt, c);
+            pstmt.setInt(6, c.getId());
+        }, c -> "Course code " + c.getCourseCode() + " already exists.",
+                (conn, c, ignored) -> SearchIndex.putCourse(conn, c.getId(), c),
+                conn -> departments.addAll(EnrollmentCounts.departmentsForCourses(conn, ids)),
+                conn -> {
+                    GpaLedger.recompute(conn, GpaLedger.studentsForCourses(conn, ids));
+                    departments.addAll(EnrollmentCounts.departmentsForCourses(conn, ids));
+                    EnrollmentCounts.recountDepartments(conn, departments);
+                });
+        for (Course course : courses) {
+            IdentityMap.evictCurrent(Course.class, course.getId());
+        }
+        publishSaved(courses, result);
+        return result;
+    }
+
+    @Override
+    public BatchResult deleteCourses(List<Integer> ids) throws SQLException {
+        String sql = "DELETE FROM courses WHERE id = ?";
+        Set<Integer> touched = new HashSet<>();
+        Set<Integer> departments = new HashSet<>();
+        BatchResult result = BatchWriter.execute(sql, ids, (pstmt, id) -> pstmt.setInt(1, id), id -> "Could not delete course " + id,
+                (conn, id, ignored) -> SearchIndex.remove(conn, SearchHit.Kind.COURSE, id),
+                conn -> {
+                    touched.addAll(GpaLedger.studentsForCourses(conn, ids));
+                    departments.addAll(EnrollmentCounts.departmentsForCourses(conn, ids));
+                },
+                conn -> {
+                    GpaLedger.recompute(conn, touched);
+                    EnrollmentCounts.recountDepartments(conn, departments);
+                });
+        for (Integer id : ids) {
+            IdentityMap.evictCurrent(Course.class, id);
+            DataChangeEvents.deleted(Course.class, id);
+        }
+        return result;
+    }
+
+    // -1 when the course is gone, so a missing row never looks unchanged
+    private static int creditsOf(Connection conn, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT credits FROM courses WHERE id = ?")) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
+    // Only rows that made it into the committed batch are announced
+    private static void publishSaved(List<Course> courses, BatchResult result) {
+        for (int i = 0; i < courses.size(); i++) {
+            if (!result.isFailed(i)) {
+                Course course = courses.get(i);
+                DataChangeEvents.saved(Course.class, course.getId(), course);
+            }
+        }
+    }
+
+    private static void bindCourse(PreparedStatement pstmt, Course course) throws SQLException {
+        pstmt.setString(1, course.getCourseCode());
+        pstmt.setString(2, course.getCourseName());
+        pstmt.setInt(3, course.getCredits());
+        if (course.getDepartment() != null) {
+            pstmt.setInt(4, course.getDepartment().getId());
+        } else if (course.getDepartmentId() > 0) {
+            pstmt.setInt(4, course.getDepartmentId());
+        } else {
+            pstmt.setNull(4, Types.INTEGER);
+        }
+        bindCapacity(pstmt, 5, course);
+    }
+
+    // 0 in the model means no seat limit, which is NULL in the table
+    private static void bindCapacity(PreparedStatement pstmt, int index, Course course) throws SQLException {
+        if (course.getCapacity() > 0) {
+            pstmt.setInt(index, course.getCapacity());
+        } else {
+            pstmt.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static Course withCapacity(ResultSet rs, Course course) throws SQLException {
+        course.setCapacity(rs.getInt("capacity")); // NULL reads as 0, i.e. unlimited
+        return course;
     }
 }
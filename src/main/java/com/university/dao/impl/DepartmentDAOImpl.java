@@ -1,7 +1,10 @@
 package com.university.dao.impl;
 
 import com.university.dao.DepartmentDAO;
+import com.university.dao.DataChangeEvents;
+import com.university.dao.IdentityMap;
 import com.university.model.Department;
+import com.university.model.SearchHit;
 import com.university.util.DatabaseUtil;
 
 import java.sql.*;
@@ -15,6 +18,7 @@ public class DepartmentDAOImpl implements DepartmentDAO {
         String sql = "INSERT INTO departments (name) VALUES (?)";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false); // The row and its search entry commit together
             pstmt.setString(1, department.getName());
             pstmt.executeUpdate();
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
@@ -22,23 +26,53 @@ public class DepartmentDAOImpl implements DepartmentDAO {
                     department.setId(generatedKeys.getInt(1)); // I'm setting the generated ID back on the object
                 }
             }
+            SearchIndex.putDepartment(conn, department.getId(), department);
+            conn.commit();
         } catch (SQLException e) {
-            // TODO: Handle specific SQL exceptions differently (e.g., unique constraint violations)
             // TODO: Add proper logging instead of just throwing
-            throw e;
+            throw ConstraintViolations.translate(e, "A department named " + department.getName() + " already exists.");
         }
+        DataChangeEvents.saved(Department.class, department.getId(), department);
     }
 
     @Override
     public Department getDepartment(int id) throws SQLException {
         String sql = "SELECT * FROM departments WHERE id = ?";
         Department department = null;
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (IdentityMap session = IdentityMap.open()) {
+            department = session.get(Department.class, id);
+            if (department != null) {
+                return department; // Already loaded in this unit of work
+            }
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        department = session.register(Department.class, id,
+                                new Department(rs.getInt("id"), rs.getString("name")));
+                    }
+                }
+            }
+        }
+        return department;
+    }
+
+    @Override
+    public Department getDepartmentByName(String name) throws SQLException {
+        String sql = "SELECT * FROM departments WHERE name = ?";
+        Department department = null;
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
+            pstmt.setString(1, name);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    department = new Department(rs.getInt("id"), rs.getString("name"));
+                    int id = rs.getInt("id");
+                    department = session.get(Department.class, id);
+                    if (department == null) {
+                        department = session.register(Department.class, id, new Department(id, rs.getString("name")));
+                    }
                 }
             }
         }
@@ -49,11 +83,17 @@ public class DepartmentDAOImpl implements DepartmentDAO {
     public List<Department> getAllDepartments() throws SQLException {
         String sql = "SELECT * FROM departments ORDER BY name"; // I'm ordering by name to make it user-friendly
         List<Department> departments = new ArrayList<>();
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                departments.add(new Department(rs.getInt("id"), rs.getString("name")));
+                int id = rs.getInt("id");
+                Department department = session.get(Department.class, id);
+                if (department == null) {
+                    department = session.register(Department.class, id, new Department(id, rs.getString("name")));
+                }
+                departments.add(department);
             }
         }
         return departments;
@@ -64,10 +104,17 @@ public class DepartmentDAOImpl implements DepartmentDAO {
         String sql = "UPDATE departments SET name = ? WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             pstmt.setString(1, department.getName());
             pstmt.setInt(2, department.getId());
             pstmt.executeUpdate();
+            SearchIndex.putDepartment(conn, department.getId(), department);
+            conn.commit();
+        } catch (SQLException e) {
+            throw ConstraintViolations.translate(e, "A department named " + department.getName() + " already exists.");
         }
+        IdentityMap.evictCurrent(Department.class, department.getId());
+        DataChangeEvents.saved(Department.class, department.getId(), department);
     }
 
     @Override
@@ -75,8 +122,13 @@ public class DepartmentDAOImpl implements DepartmentDAO {
         String sql = "DELETE FROM departments WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             pstmt.setInt(1, id);
             pstmt.executeUpdate();
+            SearchIndex.remove(conn, SearchHit.Kind.DEPARTMENT, id);
+            conn.commit();
         }
+        IdentityMap.evictCurrent(Department.class, id);
+        DataChangeEvents.deleted(Department.class, id);
     }
 }
@@ -1,9 +1,13 @@
 package com.university.dao.impl;
 
 import com.university.dao.EmployeeDAO;
-import com.university.dao.DepartmentDAO; // I need this to fetch Department objects
+import com.university.dao.DataChangeEvents;
+import com.university.dao.IdentityMap;
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
 import com.university.model.Employee;
 import com.university.model.Department;
+import com.university.model.SearchHit;
 import com.university.util.DatabaseUtil;
 
 import java.sql.*;
@@ -11,13 +15,22 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class EmployeeDAOImpl implements EmployeeDAO {
-    private DepartmentDAO departmentDAO = new DepartmentDAOImpl(); // I'm using this to fetch department details
+    private static final KeysetQuery<Employee> PAGE_QUERY = new KeysetQuery<Employee>(
+            "SELECT id, firstName, lastName, email, dateOfBirth, position, departmentId FROM employees", "employees",
+            "id", Employee::getId)
+            .sortKey("lastName", "lastName", false, Employee::getLastName)
+            .sortKey("firstName", "firstName", false, Employee::getFirstName)
+            .sortKey("email", "email", true, Employee::getEmail)
+            .sortKey("position", "position", true, Employee::getPosition);
+
+    private CachingDepartmentDAO departmentDAO = new CachingDepartmentDAO(); // I'm using this to fetch department details
 
     @Override
     public void addEmployee(Employee employee) throws SQLException {
         String sql = "INSERT INTO employees (firstName, lastName, email, dateOfBirth, position, departmentId) VALUES (?, ?, ?, ?, ?, ?)";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false); // The row and its search entry commit together
             pstmt.setString(1, employee.getFirstName());
             pstmt.setString(2, employee.getLastName());
             pstmt.setString(3, employee.getEmail());
@@ -37,7 +50,12 @@ public class EmployeeDAOImpl implements EmployeeDAO {
                     employee.setId(generatedKeys.getInt(1));
                 }
             }
+            SearchIndex.putEmployee(conn, employee.getId(), employee);
+            conn.commit();
+        } catch (SQLException e) {
+            throw ConstraintViolations.translate(e, "An employee with email " + employee.getEmail() + " already exists.");
         }
+        DataChangeEvents.saved(Employee.class, employee.getId(), employee);
     }
 
     @Override
@@ -52,7 +70,7 @@ public class EmployeeDAOImpl implements EmployeeDAO {
                     Department department = null;
                     int departmentId = rs.getInt("departmentId");
                     if (!rs.wasNull()) { // I need to check if departmentId was actually NULL in the database
-                        department = departmentDAO.getDepartment(departmentId);
+                        department = departmentDAO.getDepartment(conn, departmentId);
                     }
                     employee = new Employee(
                             rs.getInt("id"),
@@ -70,17 +88,20 @@ public class EmployeeDAOImpl implements EmployeeDAO {
     }
 
     @Override
+    @SuppressWarnings("try") // The session is never read here - holding it open is what makes the lookups share it
     public List<Employee> getAllEmployees() throws SQLException {
         String sql = "SELECT * FROM employees ORDER BY lastName, firstName"; // Consistent sorting with students
         List<Employee> employees = new ArrayList<>();
-        try (Connection conn = DatabaseUtil.getConnection();
+        // Employees in the same department share one Department instance through the session
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                  Department department = null;
                  int departmentId = rs.getInt("departmentId");
                  if (!rs.wasNull()) {
-                     department = departmentDAO.getDepartment(departmentId);
+                     department = departmentDAO.getDepartment(conn, departmentId);
                  }
                  employees.add(new Employee(
                         rs.getInt("id"),
@@ -96,11 +117,43 @@ public class EmployeeDAOImpl implements EmployeeDAO {
         return employees;
     }
 
+    @Override
+    @SuppressWarnings("try") // Same as getAllEmployees - open only so the page's employees share Departments
+    public Page<Employee> getEmployeesPage(PageRequest request) throws SQLException {
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection()) {
+            return PAGE_QUERY.fetch(conn, request, rs -> {
+                Department department = null;
+                int departmentId = rs.getInt("departmentId");
+                if (!rs.wasNull()) {
+                    department = departmentDAO.getDepartment(conn, departmentId);
+                }
+                return new Employee(
+                        rs.getInt("id"),
+                        rs.getString("firstName"),
+                        rs.getString("lastName"),
+                        rs.getString("email"),
+                        rs.getString("dateOfBirth"),
+                        rs.getString("position"),
+                        department
+                );
+            });
+        }
+    }
+
+    @Override
+    public int countEmployees() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            return PAGE_QUERY.count(conn);
+        }
+    }
+
     @Override
     public void updateEmployee(Employee employee) throws SQLException {
         String sql = "UPDATE employees SET firstName = ?, lastName = ?, email = ?, dateOfBirth = ?, position = ?, departmentId = ? WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             pstmt.setString(1, employee.getFirstName());
             pstmt.setString(2, employee.getLastName());
             pstmt.setString(3, employee.getEmail());
@@ -116,7 +169,12 @@ public class EmployeeDAOImpl implements EmployeeDAO {
             }
             pstmt.setInt(7, employee.getId());
             pstmt.executeUpdate();
+            SearchIndex.putEmployee(conn, employee.getId(), employee);
+            conn.commit();
+        } catch (SQLException e) {
+            throw ConstraintViolations.translate(e, "An employee with email " + employee.getEmail() + " already exists.");
         }
+        DataChangeEvents.saved(Employee.class, employee.getId(), employee);
     }
 
     @Override
@@ -124,8 +182,12 @@ public class EmployeeDAOImpl implements EmployeeDAO {
         String sql = "DELETE FROM employees WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             pstmt.setInt(1, id);
             pstmt.executeUpdate();
+            SearchIndex.remove(conn, SearchHit.Kind.EMPLOYEE, id);
+            conn.commit();
         }
+        DataChangeEvents.deleted(Employee.class, id);
     }
 }
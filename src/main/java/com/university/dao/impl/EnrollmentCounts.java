@@ -0,0 +1,231 @@
+package com.university.dao.impl;
+
+import com.university.dao.CourseFullException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the per-course and per-department headcounts in step with the enrollments. Same deal as
+ * GpaLedger: every call runs on the caller's connection inside the caller's transaction.
+ *
+ * Single enrollments move the counters by a delta. Batches and cascading deletes (students, courses)
+ * recount the courses they touched - a COUNT over idx_enrollment_course per course - and department
+ * counters are re-summed from their courses' counters. A missing counter row means zero.
+ */
+final class EnrollmentCounts {
+
+    private static final String ADJUST_COURSE = "INSERT INTO course_enrollment_counts (courseId, enrolled) VALUES (?, ?) "
+            + "ON CONFLICT(courseId) DO UPDATE SET enrolled = enrolled + excluded.enrolled";
+
+    // The WHERE is what lets SQLite parse the ON CONFLICT after an INSERT ... SELECT
+    private static final String ADJUST_DEPARTMENT = "INSERT INTO department_enrollment_counts (departmentId, enrolled) "
+            + "SELECT departmentId, ? FROM courses WHERE id = ? AND departmentId IS NOT NULL "
+            + "ON CONFLICT(departmentId) DO UPDATE SET enrolled = enrolled + excluded.enrolled";
+
+    // The limit check and the increment are one statement, and the caller's transaction already holds the
+    // write lock, so two enrollments can never both take the last seat
+    private static final String CLAIM_SEAT = "UPDATE course_enrollment_counts SET enrolled = enrolled + 1 "
+            + "WHERE courseId = ? AND enrolled < IFNULL((SELECT capacity FROM courses WHERE id = ?), enrolled + 1)";
+
+    private static final String RECOUNT_COURSES = "INSERT INTO course_enrollment_counts (courseId, enrolled) "
+            + "SELECT c.id, (SELECT COUNT(*) FROM enrollments e WHERE e.courseId = c.id) FROM courses c WHERE c.id IN ";
+
+    private static final String RECOUNT_DEPARTMENTS = "INSERT INTO department_enrollment_counts (departmentId, enrolled) "
+            + "SELECT d.id, (SELECT IFNULL(SUM(k.enrolled), 0) FROM courses c "
+            + "JOIN course_enrollment_counts k ON k.courseId = c.id WHERE c.departmentId = d.id) "
+            + "FROM departments d WHERE d.id IN ";
+
+    private EnrollmentCounts() {}
+
+    // delta is +1 for a new enrollment, -1 for a removed one (or the net change for a course in a batch)
+    static void adjust(Connection conn, int courseId, int delta) throws SQLException {
+        if (delta == 0) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(ADJUST_COURSE)) {
+            pstmt.setInt(1, courseId);
+            pstmt.setInt(2, delta);
+            pstmt.executeUpdate();
+        }
+        adjustDepartment(conn, courseId, delta);
+    }
+
+    /**
+     * Takes one seat in the course for an enrollment the caller just inserted. Returns false, and changes
+     * nothing, when the course is at its capacity - the caller must then roll back the insert.
+     */
+    static boolean claimSeat(Connection conn, int courseId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT OR IGNORE INTO course_enrollment_counts (courseId, enrolled) VALUES (?, 0)")) {
+            pstmt.setInt(1, courseId);
+            pstmt.executeUpdate();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(CLAIM_SEAT)) {
+            pstmt.setInt(1, courseId);
+            pstmt.setInt(2, courseId);
+            if (pstmt.executeUpdate() == 0) {
+                return false;
+            }
+        }
+        adjustDepartment(conn, courseId, 1);
+        return true;
+    }
+
+    // For writes that can add several students to a course at once (batches, moves). Call after the
+    // counters are updated with the courses that gained enrollments; throws for the first one over its limit.
+    static void checkCapacity(Connection conn, Collection<Integer> courseIds) throws SQLException {
+        List<Integer> idList = new ArrayList<>(new LinkedHashSet<>(courseIds));
+        for (int from = 0; from < idList.size(); from += BatchLoader.CHUNK_SIZE) {
+            List<Integer> chunk = idList.subList(from, Math.min(from + BatchLoader.CHUNK_SIZE, idList.size()));
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT c.id, c.courseCode, c.capacity "
+                    + "FROM courses c JOIN course_enrollment_counts k ON k.courseId = c.id "
+                    + "WHERE c.capacity IS NOT NULL AND k.enrolled > c.capacity "
+                    + "AND c.id IN (" + BatchLoader.placeholders(chunk.size()) + ") LIMIT 1")) {
+                BatchLoader.bindIds(pstmt, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        throw courseFull(rs.getInt(1), rs.getString(2), rs.getInt(3));
+                    }
+                }
+            }
+        }
+    }
+
+    static CourseFullException courseFull(Connection conn, int courseId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT courseCode, capacity FROM courses WHERE id = ?")) {
+            pstmt.setInt(1, courseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? courseFull(courseId, rs.getString(1), rs.getInt(2)) : courseFull(courseId, null, 0);
+            }
+        }
+    }
+
+    // Current counters for these courses, for comparing before and after a write
+    static Map<Integer, Integer> countsOf(Connection conn, Collection<Integer> courseIds) throws SQLException {
+        Map<Integer, Integer> counts = new HashMap<>();
+        List<Integer> idList = new ArrayList<>(new LinkedHashSet<>(courseIds));
+        for (int from = 0; from < idList.size(); from += BatchLoader.CHUNK_SIZE) {
+            List<Integer> chunk = idList.subList(from, Math.min(from + BatchLoader.CHUNK_SIZE, idList.size()));
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT courseId, enrolled FROM course_enrollment_counts "
+                    + "WHERE courseId IN (" + BatchLoader.placeholders(chunk.size()) + ")")) {
+                BatchLoader.bindIds(pstmt, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        counts.put(rs.getInt(1), rs.getInt(2));
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+    static Set<Integer> coursesForEnrollments(Connection conn, Collection<Integer> enrollmentIds) throws SQLException {
+        return collect(conn, "SELECT courseId FROM enrollments WHERE id IN ", enrollmentIds);
+    }
+
+    static Set<Integer> coursesForStudents(Connection conn, Collection<Integer> studentIds) throws SQLException {
+        return collect(conn, "SELECT DISTINCT courseId FROM enrollments WHERE studentId IN ", studentIds);
+    }
+
+    static Set<Integer> departmentsForCourses(Connection conn, Collection<Integer> courseIds) throws SQLException {
+        return collect(conn, "SELECT DISTINCT departmentId FROM courses WHERE departmentId IS NOT NULL AND id IN ", courseIds);
+    }
+
+    // Recounts these courses from the enrollments, then re-sums their departments
+    static void recountCourses(Connection conn, Collection<Integer> courseIds) throws SQLException {
+        upsertChunks(conn, RECOUNT_COURSES, "ON CONFLICT(courseId) DO UPDATE SET enrolled = excluded.enrolled", courseIds);
+        recountDepartments(conn, departmentsForCourses(conn, courseIds));
+    }
+
+    // Assumes the course counters are right - call recountCourses first if they may not be
+    static void recountDepartments(Connection conn, Collection<Integer> departmentIds) throws SQLException {
+        upsertChunks(conn, RECOUNT_DEPARTMENTS, "ON CONFLICT(departmentId) DO UPDATE SET enrolled = excluded.enrolled",
+                departmentIds);
+    }
+
+    /**
+     * Compares every counter with a fresh count and fixes the ones that are off. Returns how many were
+     * wrong, which should always be 0 unless someone wrote to the tables behind the DAOs' back.
+     */
+    static int recheck(Connection conn) throws SQLException {
+        List<Integer> courses = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT c.id FROM courses c "
+                     + "LEFT JOIN course_enrollment_counts k ON k.courseId = c.id "
+                     + "WHERE IFNULL(k.enrolled, 0) <> (SELECT COUNT(*) FROM enrollments e WHERE e.courseId = c.id)")) {
+            while (rs.next()) {
+                courses.add(rs.getInt(1));
+            }
+        }
+        // Also catches a department that drifted on its own, e.g. a course moved between departments by hand.
+        // Both lists are taken before anything is fixed, so the result counts every counter that was off.
+        List<Integer> departments = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT d.id FROM departments d "
+                     + "LEFT JOIN department_enrollment_counts k ON k.departmentId = d.id "
+                     + "WHERE IFNULL(k.enrolled, 0) <> (SELECT COUNT(*) FROM enrollments e "
+                     + "JOIN courses c ON c.id = e.courseId WHERE c.departmentId = d.id)")) {
+            while (rs.next()) {
+                departments.add(rs.getInt(1));
+            }
+        }
+        recountCourses(conn, courses);
+        recountDepartments(conn, departments);
+        return courses.size() + departments.size();
+    }
+
+    private static void adjustDepartment(Connection conn, int courseId, int delta) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(ADJUST_DEPARTMENT)) {
+            pstmt.setInt(1, delta);
+            pstmt.setInt(2, courseId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    static CourseFullException courseFull(int courseId, String courseCode, int capacity) {
+        String name = courseCode != null ? courseCode : "Course " + courseId;
+        return new CourseFullException(name + " is full (" + capacity + " seats).", courseId, capacity);
+    }
+
+    private static void upsertChunks(Connection conn, String insertSelect, String onConflict, Collection<Integer> ids)
+            throws SQLException {
+        List<Integer> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        for (int from = 0; from < idList.size(); from += BatchLoader.CHUNK_SIZE) {
+            List<Integer> chunk = idList.subList(from, Math.min(from + BatchLoader.CHUNK_SIZE, idList.size()));
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    insertSelect + "(" + BatchLoader.placeholders(chunk.size()) + ") " + onConflict)) {
+                BatchLoader.bindIds(pstmt, chunk);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    private static Set<Integer> collect(Connection conn, String selectPrefix, Collection<Integer> ids) throws SQLException {
+        Set<Integer> found = new LinkedHashSet<>();
+        List<Integer> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += BatchLoader.CHUNK_SIZE) {
+            List<Integer> chunk = idList.subList(from, Math.min(from + BatchLoader.CHUNK_SIZE, idList.size()));
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    selectPrefix + "(" + BatchLoader.placeholders(chunk.size()) + ")")) {
+                BatchLoader.bindIds(pstmt, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        found.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+        return found;
+    }
+}
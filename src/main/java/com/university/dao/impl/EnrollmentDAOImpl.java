@@ -1,8 +1,12 @@
 package com.university.dao.impl;
 
+import com.university.dao.DataChangeEvents;
 import com.university.dao.EnrollmentDAO;
-import com.university.dao.StudentDAO;
-import com.university.dao.CourseDAO;
+import com.university.dao.BatchResult;
+import com.university.dao.IdentityMap;
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
+import com.university.model.Department;
 import com.university.model.Enrollment;
 import com.university.model.Student;
 import com.university.model.Course;
@@ -10,27 +14,62 @@ import com.university.util.DatabaseUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class EnrollmentDAOImpl implements EnrollmentDAO {
-    private StudentDAO studentDAO = new StudentDAOImpl(); // I need these to build complete Enrollment objects
-    private CourseDAO courseDAO = new CourseDAOImpl();
+    // One statement pulls the whole Enrollment -> Student/Course -> Department graph.
+    // LEFT JOINs so a dangling reference still gives me the enrollment row, same as the old per-row lookups did.
+    private static final String SELECT_ENROLLMENT_GRAPH = "SELECT e.id, e.studentId, e.courseId, e.enrollmentDate, "
+            + "s.firstName AS s_firstName, s.lastName AS s_lastName, s.email AS s_email, s.dateOfBirth AS s_dateOfBirth, "
+            + "c.courseCode AS c_courseCode, c.courseName AS c_courseName, c.credits AS c_credits, "
+            + "c.departmentId AS c_departmentId, c.capacity AS c_capacity, d.name AS d_name "
+            + "FROM enrollments e "
+            + "LEFT JOIN students s ON s.id = e.studentId "
+            + "LEFT JOIN courses c ON c.id = e.courseId "
+            + "LEFT JOIN departments d ON d.id = c.departmentId";
+
+    // Columns are qualified because the page query runs on the joined graph
+    private static final KeysetQuery<Enrollment> PAGE_QUERY = new KeysetQuery<Enrollment>(
+            SELECT_ENROLLMENT_GRAPH, "enrollments e",
+            "e.id", Enrollment::getId)
+            .sortKey("enrollmentDate", "e.enrollmentDate", true, Enrollment::getEnrollmentDate)
+            .sortKey("studentId", "e.studentId", false, Enrollment::getStudentId)
+            .sortKey("courseId", "e.courseId", false, Enrollment::getCourseId);
 
     @Override
     public void addEnrollment(Enrollment enrollment) throws SQLException {
         String sql = "INSERT INTO enrollments (studentId, courseId, enrollmentDate) VALUES (?, ?, ?)";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false); // The row and the headcounts commit together
             pstmt.setInt(1, enrollment.getStudent().getId());
             pstmt.setInt(2, enrollment.getCourse().getId());
             pstmt.setString(3, enrollment.getEnrollmentDate());
             pstmt.executeUpdate();
+            int id = 0;
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
-                    enrollment.setId(generatedKeys.getInt(1));
+                    id = generatedKeys.getInt(1);
                 }
             }
+            // Duplicates fail on the insert above; a full course fails here and the pool's rollback-on-close
+            // takes the inserted row back out
+            if (!EnrollmentCounts.claimSeat(conn, enrollment.getCourse().getId())) {
+                throw EnrollmentCounts.courseFull(conn, enrollment.getCourse().getId());
+            }
+            conn.commit();
+            enrollment.setId(id);
+        } catch (SQLException e) {
+            // UNIQUE (studentId, courseId) is the real guard against double enrollment
+            throw ConstraintViolations.translate(e, "Student is already enrolled in this course.");
         }
+        DataChangeEvents.saved(Enrollment.class, enrollment.getId(), enrollment);
     }
     
     @Override
@@ -49,28 +88,77 @@ public class EnrollmentDAOImpl implements EnrollmentDAO {
         return false;
     }
 
-    private Enrollment mapResultSetToEnrollment(ResultSet rs) throws SQLException {
+    private Enrollment mapResultSetToEnrollment(ResultSet rs, IdentityMap session) throws SQLException {
         // I'm extracting this to avoid code duplication - learned this pattern from experience
-        Student student = studentDAO.getStudent(rs.getInt("studentId"));
-        Course course = courseDAO.getCourse(rs.getInt("courseId"));
-        return new Enrollment(
+        int id = rs.getInt("id");
+        Enrollment enrollment = session.get(Enrollment.class, id);
+        if (enrollment != null) {
+            return enrollment;
+        }
+
+        int studentId = rs.getInt("studentId");
+        Student student = session.get(Student.class, studentId);
+        if (student == null && rs.getString("s_firstName") != null) { // firstName is NOT NULL, so null here means no matching student
+            student = session.register(Student.class, studentId, new Student(
+                    studentId,
+                    rs.getString("s_firstName"),
+                    rs.getString("s_lastName"),
+                    rs.getString("s_email"),
+                    rs.getString("s_dateOfBirth")
+            ));
+        }
+
+        // A roster is the same course on every row, so this mostly turns into a map lookup
+        int courseId = rs.getInt("courseId");
+        Course course = session.get(Course.class, courseId);
+        if (course == null && rs.getString("c_courseCode") != null) {
+            Department department = null;
+            int departmentId = rs.getInt("c_departmentId");
+            if (!rs.wasNull() && rs.getString("d_name") != null) {
+                department = session.get(Department.class, departmentId);
+                if (department == null) {
+                    department = session.register(Department.class, departmentId,
+                            new Department(departmentId, rs.getString("d_name")));
+                }
+            }
+            course = session.register(Course.class, courseId, new Course(
+                    courseId,
+                    rs.getString("c_courseCode"),
+                    rs.getString("c_courseName"),
+                    rs.getInt("c_credits"),
+                    department
+            ));
+            course.setCapacity(rs.getInt("c_capacity"));
+        }
+
+        enrollment = new Enrollment(
                 rs.getInt("id"),
                 student,
                 course,
                 rs.getString("enrollmentDate")
         );
+        // Keep the raw IDs even if a side of the join came back empty
+        enrollment.setStudentId(studentId);
+        enrollment.setCourseId(courseId);
+        return session.register(Enrollment.class, id, enrollment);
     }
     
     @Override
     public Enrollment getEnrollment(int id) throws SQLException {
-        String sql = "SELECT * FROM enrollments WHERE id = ?";
+        String sql = SELECT_ENROLLMENT_GRAPH + " WHERE e.id = ?";
         Enrollment enrollment = null;
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    enrollment = mapResultSetToEnrollment(rs);
+        try (IdentityMap session = IdentityMap.open()) {
+            enrollment = session.get(Enrollment.class, id);
+            if (enrollment != null) {
+                return enrollment;
+            }
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        enrollment = mapResultSetToEnrollment(rs, session);
+                    }
                 }
             }
         }
@@ -79,28 +167,59 @@ public class EnrollmentDAOImpl implements EnrollmentDAO {
 
     @Override
     public List<Enrollment> getAllEnrollments() throws SQLException {
-        String sql = "SELECT * FROM enrollments";
+        String sql = SELECT_ENROLLMENT_GRAPH;
         List<Enrollment> enrollments = new ArrayList<>();
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                enrollments.add(mapResultSetToEnrollment(rs));
+                enrollments.add(mapResultSetToEnrollment(rs, session));
             }
         }
         return enrollments;
     }
     
+    @Override
+    public Map<Long, Integer> getEnrollmentIdsByStudentAndCourse() throws SQLException {
+        String sql = "SELECT id, studentId, courseId FROM enrollments";
+        Map<Long, Integer> ids = new HashMap<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.put(EnrollmentDAO.pairKey(rs.getInt(2), rs.getInt(3)), rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void scanEnrollmentKeys(KeyVisitor visitor) throws SQLException {
+        // The UNIQUE (studentId, courseId) index covers this (the id is the rowid), so it's an index-only scan
+        String sql = "SELECT id, studentId, courseId FROM enrollments ORDER BY studentId, courseId";
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.setFetchSize(BatchLoader.CHUNK_SIZE);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    visitor.visit(rs.getInt(1), rs.getInt(2), rs.getInt(3));
+                }
+            }
+        }
+    }
+
     @Override
     public List<Enrollment> getEnrollmentsByStudent(int studentId) throws SQLException {
-        String sql = "SELECT * FROM enrollments WHERE studentId = ?";
+        String sql = SELECT_ENROLLMENT_GRAPH + " WHERE e.studentId = ?";
         List<Enrollment> enrollments = new ArrayList<>();
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, studentId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    enrollments.add(mapResultSetToEnrollment(rs));
+                    enrollments.add(mapResultSetToEnrollment(rs, session));
                 }
             }
         }
@@ -109,31 +228,63 @@ public class EnrollmentDAOImpl implements EnrollmentDAO {
 
     @Override
     public List<Enrollment> getEnrollmentsByCourse(int courseId) throws SQLException {
-         String sql = "SELECT * FROM enrollments WHERE courseId = ?";
+        String sql = SELECT_ENROLLMENT_GRAPH + " WHERE e.courseId = ?";
         List<Enrollment> enrollments = new ArrayList<>();
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, courseId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    enrollments.add(mapResultSetToEnrollment(rs));
+                    enrollments.add(mapResultSetToEnrollment(rs, session));
                 }
             }
         }
         return enrollments;
     }
 
+    @Override
+    public Page<Enrollment> getEnrollmentsPage(PageRequest request) throws SQLException {
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection()) {
+            return PAGE_QUERY.fetch(conn, request, rs -> mapResultSetToEnrollment(rs, session));
+        }
+    }
+
+    @Override
+    public int countEnrollments() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            return PAGE_QUERY.count(conn);
+        }
+    }
+
     @Override
     public void updateEnrollment(Enrollment enrollment) throws SQLException {
         String sql = "UPDATE enrollments SET studentId = ?, courseId = ?, enrollmentDate = ? WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            // Moving a graded enrollment to another student or course changes GPA totals on both sides
+            conn.setAutoCommit(false);
+            Set<Integer> touched = GpaLedger.studentsForEnrollments(conn, Collections.singleton(enrollment.getId()));
+            Set<Integer> courses = EnrollmentCounts.coursesForEnrollments(conn, Collections.singleton(enrollment.getId()));
             pstmt.setInt(1, enrollment.getStudent().getId());
             pstmt.setInt(2, enrollment.getCourse().getId());
             pstmt.setString(3, enrollment.getEnrollmentDate());
             pstmt.setInt(4, enrollment.getId());
             pstmt.executeUpdate();
+            touched.add(enrollment.getStudent().getId());
+            GpaLedger.recompute(conn, touched);
+            courses.add(enrollment.getCourse().getId());
+            if (courses.size() > 1) {
+                EnrollmentCounts.recountCourses(conn, courses); // Moved to another course
+                EnrollmentCounts.checkCapacity(conn, Collections.singleton(enrollment.getCourse().getId()));
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            throw ConstraintViolations.translate(e, "Student is already enrolled in this course.");
         }
+        IdentityMap.evictCurrent(Enrollment.class, enrollment.getId());
+        DataChangeEvents.saved(Enrollment.class, enrollment.getId(), enrollment);
     }
 
     @Override
@@ -141,8 +292,247 @@ public class EnrollmentDAOImpl implements EnrollmentDAO {
         String sql = "DELETE FROM enrollments WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            // The delete cascades to the grade, so take it out of the GPA totals first
+            try (PreparedStatement find = conn.prepareStatement("SELECT id FROM grades WHERE enrollmentId = ?")) {
+                find.setInt(1, id);
+                try (ResultSet rs = find.executeQuery()) {
+                    if (rs.next()) {
+                        GpaLedger.unapplyGrade(conn, rs.getInt(1));
+                    }
+                }
+            }
+            Set<Integer> courses = EnrollmentCounts.coursesForEnrollments(conn, Collections.singleton(id));
             pstmt.setInt(1, id);
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() > 0) {
+                for (int courseId : courses) {
+                    EnrollmentCounts.adjust(conn, courseId, -1);
+                }
+            }
+            conn.commit();
+        }
+        IdentityMap.evictCurrent(Enrollment.class, id);
+        DataChangeEvents.deleted(Enrollment.class, id);
+    }
+
+    @Override
+    public BatchResult addEnrollments(List<Enrollment> enrollments) throws SQLException {
+        String sql = "INSERT INTO enrollments (studentId, courseId, enrollmentDate) VALUES (?, ?, ?)";
+        // Headcounts are summed per course and applied once per course at the end, not once per row
+        Map<Integer, Integer> added = new HashMap<>();
+        BatchResult result = BatchWriter.insert("enrollments", sql, enrollments, EnrollmentDAOImpl::bindEnrollment, Enrollment::setId,
+                e -> "Student is already enrolled in this course.",
+                (conn, e, id) -> added.merge(courseIdOf(e), 1, Integer::sum),
+                conn -> {
+                    for (Map.Entry<Integer, Integer> entry : added.entrySet()) {
+                        EnrollmentCounts.adjust(conn, entry.getKey(), entry.getValue());
+                    }
+                    EnrollmentCounts.checkCapacity(conn, added.keySet());
+                });
+        publishSaved(enrollments, result);
+        return result;
+    }
+
+    @Override
+    public BatchResult enrollAll(List<Enrollment> enrollments) throws SQLException {
+        String sql = "INSERT INTO enrollments (studentId, courseId, enrollmentDate) VALUES (?, ?, ?)";
+        int[] ids = new int[enrollments.size()];
+        Map<Integer, SQLException> failures = new HashMap<>();
+        if (enrollments.isEmpty()) {
+            return new BatchResult(ids, failures);
+        }
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                 Statement savepoints = conn.createStatement()) {
+                for (int i = 0; i < enrollments.size(); i++) {
+                    Enrollment enrollment = enrollments.get(i);
+                    int courseId = courseIdOf(enrollment);
+                    // Each row gets its own savepoint, so a full course only takes back that row's insert
+                    savepoints.execute("SAVEPOINT enroll_row");
+                    try {
+                        bindEnrollment(pstmt, enrollment);
+                        pstmt.executeUpdate();
+                        int id = 0;
+                        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                id = generatedKeys.getInt(1);
+                            }
+                        }
+                        if (!EnrollmentCounts.claimSeat(conn, courseId)) {
+                            throw EnrollmentCounts.courseFull(conn, courseId);
+                        }
+                        savepoints.execute("RELEASE enroll_row");
+                        ids[i] = id;
+                    } catch (SQLException e) {
+                        savepoints.execute("ROLLBACK TO enroll_row");
+                        savepoints.execute("RELEASE enroll_row");
+                        failures.put(i, ConstraintViolations.translate(e, "Student is already enrolled in this course."));
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] > 0) {
+                enrollments.get(i).setId(ids[i]);
+            }
+        }
+        BatchResult result = new BatchResult(ids, failures);
+        publishSaved(enrollments, result);
+        return result;
+    }
+
+    @Override
+    public BatchResult updateEnrollments(List<Enrollment> enrollments) throws SQLException {
+        String sql = "UPDATE enrollments SET studentId = ?, courseId = ?, enrollmentDate = ? WHERE id = ?";
+        List<Integer> ids = new ArrayList<>(enrollments.size());
+        for (Enrollment enrollment : enrollments) {
+            ids.add(enrollment.getId());
+        }
+        Set<Integer> targets = new HashSet<>();
+        for (Enrollment enrollment : enrollments) {
+            targets.add(courseIdOf(enrollment));
+        }
+        Set<Integer> touched = new HashSet<>();
+        Set<Integer> courses = new HashSet<>();
+        Map<Integer, Integer> countsBefore = new HashMap<>();
+        BatchResult result = BatchWriter.execute(sql, enrollments, (pstmt, e) -> {
+            bindEnrollment(pstmt, e);
+            pstmt.setInt(4, e.getId());
+        }, e -> "Student is already enrolled in this course.", null,
+                conn -> {
+                    touched.addAll(GpaLedger.studentsForEnrollments(conn, ids));
+                    courses.addAll(EnrollmentCounts.coursesForEnrollments(conn, ids));
+                    countsBefore.putAll(EnrollmentCounts.countsOf(conn, targets));
+                },
+                conn -> {
+                    touched.addAll(GpaLedger.studentsForEnrollments(conn, ids));
+                    GpaLedger.recompute(conn, touched);
+                    courses.addAll(EnrollmentCounts.coursesForEnrollments(conn, ids));
+                    EnrollmentCounts.recountCourses(conn, courses);
+                    // Only courses that gained students can have been pushed past their limit
+                    Set<Integer> grown = new HashSet<>();
+                    for (Map.Entry<Integer, Integer> after : EnrollmentCounts.countsOf(conn, targets).entrySet()) {
+                        if (after.getValue() > countsBefore.getOrDefault(after.getKey(), 0)) {
+                            grown.add(after.getKey());
+                        }
+                    }
+                    EnrollmentCounts.checkCapacity(conn, grown);
+                });
+        for (Enrollment enrollment : enrollments) {
+            IdentityMap.evictCurrent(Enrollment.class, enrollment.getId());
+        }
+        publishSaved(enrollments, result);
+        return result;
+    }
+
+    @Override
+    public BatchResult deleteEnrollments(List<Integer> ids) throws SQLException {
+        String sql = "DELETE FROM enrollments WHERE id = ?";
+        Set<Integer> touched = new HashSet<>();
+        Set<Integer> courses = new HashSet<>();
+        BatchResult result = BatchWriter.execute(sql, ids, (pstmt, id) -> pstmt.setInt(1, id), id -> "Could not delete enrollment " + id,
+                null,
+                conn -> {
+                    touched.addAll(GpaLedger.studentsForEnrollments(conn, ids));
+                    courses.addAll(EnrollmentCounts.coursesForEnrollments(conn, ids));
+                },
+                conn -> {
+                    GpaLedger.recompute(conn, touched);
+                    EnrollmentCounts.recountCourses(conn, courses);
+                });
+        for (Integer id : ids) {
+            IdentityMap.evictCurrent(Enrollment.class, id);
+            DataChangeEvents.deleted(Enrollment.class, id);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Integer, Integer> getEnrollmentCounts(Collection<Integer> courseIds) throws SQLException {
+        return readCounts("SELECT courseId, enrolled FROM course_enrollment_counts WHERE courseId IN ", courseIds);
+    }
+
+    @Override
+    public Map<Integer, Integer> getDepartmentEnrollmentCounts(Collection<Integer> departmentIds) throws SQLException {
+        return readCounts("SELECT departmentId, enrolled FROM department_enrollment_counts WHERE departmentId IN ",
+                departmentIds);
+    }
+
+    @Override
+    public void checkSeatAvailable(int courseId) throws SQLException {
+        String sql = "SELECT c.courseCode, c.capacity FROM courses c JOIN course_enrollment_counts k ON k.courseId = c.id "
+                + "WHERE c.id = ? AND c.capacity IS NOT NULL AND k.enrolled >= c.capacity";
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, courseId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    throw EnrollmentCounts.courseFull(courseId, rs.getString(1), rs.getInt(2));
+                }
+            }
+        }
+    }
+
+    @Override
+    public int recheckEnrollmentCounts() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            conn.setAutoCommit(false); // Holding the write lock means nothing changes between the count and the fix
+            int fixed = EnrollmentCounts.recheck(conn);
+            conn.commit();
+            return fixed;
+        }
+    }
+
+    // Every requested ID gets an entry - no counter row just means nobody is enrolled
+    private static Map<Integer, Integer> readCounts(String selectPrefix, Collection<Integer> ids) throws SQLException {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (Integer id : ids) {
+            counts.put(id, 0);
+        }
+        if (counts.isEmpty()) {
+            return counts;
+        }
+        List<Integer> idList = new ArrayList<>(counts.keySet());
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            for (int from = 0; from < idList.size(); from += BatchLoader.CHUNK_SIZE) {
+                List<Integer> chunk = idList.subList(from, Math.min(from + BatchLoader.CHUNK_SIZE, idList.size()));
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        selectPrefix + "(" + BatchLoader.placeholders(chunk.size()) + ")")) {
+                    BatchLoader.bindIds(pstmt, chunk);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            counts.put(rs.getInt(1), rs.getInt(2));
+                        }
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+    // Only rows that made it into the committed batch are announced
+    private static void publishSaved(List<Enrollment> enrollments, BatchResult result) {
+        for (int i = 0; i < enrollments.size(); i++) {
+            if (!result.isFailed(i)) {
+                Enrollment enrollment = enrollments.get(i);
+                DataChangeEvents.saved(Enrollment.class, enrollment.getId(), enrollment);
+            }
         }
     }
+
+    private static int courseIdOf(Enrollment enrollment) {
+        return enrollment.getCourse() != null ? enrollment.getCourse().getId() : enrollment.getCourseId();
+    }
+
+    // The ID fields work even when the caller only has IDs (bulk imports) rather than full objects
+    private static void bindEnrollment(PreparedStatement pstmt, Enrollment enrollment) throws SQLException {
+        pstmt.setInt(1, enrollment.getStudent() != null ? enrollment.getStudent().getId() : enrollment.getStudentId());
+        pstmt.setInt(2, enrollment.getCourse() != null ? enrollment.getCourse().getId() : enrollment.getCourseId());
+        pstmt.setString(3, enrollment.getEnrollmentDate());
+    }
 }
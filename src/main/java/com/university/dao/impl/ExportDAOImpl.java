@@ -0,0 +1,109 @@
+package com.university.dao.impl;
+
+import com.university.dao.ExportDAO;
+import com.university.util.DatabaseUtil;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class ExportDAOImpl implements ExportDAO {
+
+    // Column headers and the SELECT that produces them have to stay in the same order
+    private static final String[] STUDENT_COLUMNS = {"id", "firstName", "lastName", "email", "dateOfBirth"};
+    private static final String SELECT_STUDENTS =
+            "SELECT id, firstName, lastName, email, dateOfBirth FROM students ORDER BY id";
+
+    private static final String[] COURSE_COLUMNS = {"id", "courseCode", "courseName", "credits", "department"};
+    private static final String SELECT_COURSES =
+            "SELECT c.id, c.courseCode, c.courseName, c.credits, d.name "
+                    + "FROM courses c LEFT JOIN departments d ON d.id = c.departmentId ORDER BY c.id";
+
+    private static final String[] ENROLLMENT_COLUMNS =
+            {"id", "studentEmail", "studentName", "courseCode", "courseName", "enrollmentDate"};
+    private static final String SELECT_ENROLLMENTS =
+            "SELECT e.id, s.email, s.firstName || ' ' || s.lastName, c.courseCode, c.courseName, e.enrollmentDate "
+                    + "FROM enrollments e "
+                    + "JOIN students s ON s.id = e.studentId "
+                    + "JOIN courses c ON c.id = e.courseId "
+                    + "ORDER BY e.id";
+
+    private static final String[] GRADE_COLUMNS =
+            {"id", "studentEmail", "studentName", "courseCode", "courseName", "gradeValue", "comments"};
+    private static final String SELECT_GRADES =
+            "SELECT g.id, s.email, s.firstName || ' ' || s.lastName, c.courseCode, c.courseName, g.gradeValue, g.comments "
+                    + "FROM grades g "
+                    + "JOIN enrollments e ON e.id = g.enrollmentId "
+                    + "JOIN students s ON s.id = e.studentId "
+                    + "JOIN courses c ON c.id = e.courseId "
+                    + "ORDER BY g.id";
+
+    private static final int FETCH_SIZE = 1_000;
+
+    @Override
+    public String[] getColumns(Dataset dataset) {
+        switch (dataset) {
+            case STUDENTS: return STUDENT_COLUMNS.clone();
+            case COURSES: return COURSE_COLUMNS.clone();
+            case ENROLLMENTS: return ENROLLMENT_COLUMNS.clone();
+            case GRADES: return GRADE_COLUMNS.clone();
+            default: throw new IllegalArgumentException("Unknown dataset: " + dataset);
+        }
+    }
+
+    @Override
+    public int countRows(Dataset dataset) throws SQLException {
+        String table;
+        switch (dataset) {
+            case STUDENTS: table = "students"; break;
+            case COURSES: table = "courses"; break;
+            case ENROLLMENTS: table = "enrollments"; break;
+            case GRADES: table = "grades"; break;
+            default: throw new IllegalArgumentException("Unknown dataset: " + dataset);
+        }
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public long exportRows(Dataset dataset, RowSink sink) throws SQLException, IOException {
+        String sql = selectFor(dataset);
+        int columnCount = getColumns(dataset).length;
+        long rows = 0;
+        // SQLite steps the statement lazily, so a forward-only cursor only ever holds the current row.
+        // The read runs in autocommit mode - under WAL it sees one consistent snapshot and doesn't block writers.
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            pstmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String[] row = new String[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = rs.getString(i + 1);
+                    }
+                    rows++;
+                    if (!sink.accept(row)) {
+                        break;
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static String selectFor(Dataset dataset) {
+        switch (dataset) {
+            case STUDENTS: return SELECT_STUDENTS;
+            case COURSES: return SELECT_COURSES;
+            case ENROLLMENTS: return SELECT_ENROLLMENTS;
+            case GRADES: return SELECT_GRADES;
+            default: throw new IllegalArgumentException("Unknown dataset: " + dataset);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.university.dao.impl;
+
+import com.university.dao.GpaDAO;
+import com.university.model.GpaSummary;
+import com.university.model.Student;
+import com.university.util.DatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GpaDAOImpl implements GpaDAO {
+    public static final int MAX_LIMIT = 1000;
+
+    private static final String SUMMARY_COLUMNS = "g.studentId, g.qualityPoints, g.gpaCredits, g.earnedCredits, g.gradedCourses";
+
+    @Override
+    public GpaSummary getSummary(int studentId) throws SQLException {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM student_gpa g WHERE g.studentId = ?";
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, studentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapSummary(rs) : new GpaSummary(studentId);
+            }
+        }
+    }
+
+    @Override
+    public List<GpaSummary> getDeansList(int minGpaHundredths, int minCredits, int limit) throws SQLException {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Dean's list limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        // Walks idx_student_gpa_rank from the top and stops at the limit - no GPA is computed per row
+        String sql = "SELECT " + SUMMARY_COLUMNS + ", s.firstName, s.lastName, s.email, s.dateOfBirth "
+                + "FROM student_gpa g JOIN students s ON s.id = g.studentId "
+                + "WHERE g.gpaHundredths >= ? AND g.gpaCredits >= ? "
+                + "ORDER BY g.gpaHundredths DESC, g.studentId LIMIT ?";
+        List<GpaSummary> summaries = new ArrayList<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, minGpaHundredths);
+            pstmt.setInt(2, minCredits);
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    GpaSummary summary = mapSummary(rs);
+                    summary.setStudent(new Student(summary.getStudentId(), rs.getString("firstName"),
+                            rs.getString("lastName"), rs.getString("email"), rs.getString("dateOfBirth")));
+                    summaries.add(summary);
+                }
+            }
+        }
+        return summaries;
+    }
+
+    @Override
+    public int rebuildAll() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            // The DELETE takes the write lock first, so no grade can change while the workers read. Under WAL
+            // their reads on other connections don't wait for it and don't see the half-empty table.
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("DELETE FROM student_gpa");
+                }
+                int maxId = 0;
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT IFNULL(MAX(id), 0) FROM students")) {
+                    if (rs.next()) {
+                        maxId = rs.getInt(1);
+                    }
+                }
+                List<GpaSummary> totals = aggregateInParallel(maxId);
+                GpaLedger.insertAll(conn, totals);
+                conn.commit();
+                return totals.size();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // Splits the student id range across workers, each summing its slice of the grades on its own
+    // pooled connection. I leave one connection in the pool for the writer holding the lock.
+    private static List<GpaSummary> aggregateInParallel(int maxId) throws SQLException {
+        if (maxId == 0) {
+            return new ArrayList<>();
+        }
+        int workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                DatabaseUtil.getPool().getMaxSize() - 1));
+        int sliceSize = (maxId + workers - 1) / workers;
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "gpa-rebuild-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Map<Integer, GpaSummary>>> slices = new ArrayList<>();
+            for (int from = 1; from <= maxId; from += sliceSize) {
+                int to = Math.min(maxId, from + sliceSize - 1);
+                int first = from;
+                slices.add(executor.submit(() -> aggregate(first, to)));
+            }
+            List<GpaSummary> totals = new ArrayList<>();
+            for (Future<Map<Integer, GpaSummary>> slice : slices) {
+                totals.addAll(slice.get().values());
+            }
+            return totals;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("GPA rebuild was interrupted.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("GPA rebuild failed: " + cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Map<Integer, GpaSummary> aggregate(int fromStudentId, int toStudentId) throws SQLException {
+        Map<Integer, GpaSummary> totals = new HashMap<>();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(GpaLedger.GRADE_ROWS + " WHERE e.studentId BETWEEN ? AND ?")) {
+            pstmt.setInt(1, fromStudentId);
+            pstmt.setInt(2, toStudentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.computeIfAbsent(rs.getInt("studentId"), GpaSummary::new)
+                            .add(rs.getString("gradeValue"), rs.getInt("credits"), 1);
+                }
+            }
+        }
+        return totals;
+    }
+
+    private static GpaSummary mapSummary(ResultSet rs) throws SQLException {
+        return new GpaSummary(rs.getInt("studentId"), rs.getLong("qualityPoints"), rs.getInt("gpaCredits"),
+                rs.getInt("earnedCredits"), rs.getInt("gradedCourses"));
+    }
+}
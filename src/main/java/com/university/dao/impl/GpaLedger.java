@@ -0,0 +1,163 @@
+package com.university.dao.impl;
+
+import com.university.model.GpaSummary;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps student_gpa in step with the grades. Like SearchIndex, every call runs on the caller's connection
+ * inside the caller's transaction, so the totals commit or roll back together with the write.
+ *
+ * Single grade writes apply a delta (take the old grade out, put the new one in). Anything that can move
+ * many grades at once - batches, enrollment moves, credit changes, cascading deletes - recomputes just
+ * the students it touched, which is a few indexed rows per student.
+ */
+final class GpaLedger {
+
+    private static final String UPSERT_DELTA = "INSERT INTO student_gpa "
+            + "(studentId, qualityPoints, gpaCredits, earnedCredits, gradedCourses) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT(studentId) DO UPDATE SET "
+            + "qualityPoints = qualityPoints + excluded.qualityPoints, "
+            + "gpaCredits = gpaCredits + excluded.gpaCredits, "
+            + "earnedCredits = earnedCredits + excluded.earnedCredits, "
+            + "gradedCourses = gradedCourses + excluded.gradedCourses";
+
+    static final String GRADE_ROWS = "SELECT e.studentId, g.gradeValue, IFNULL(c.credits, 0) AS credits "
+            + "FROM grades g JOIN enrollments e ON e.id = g.enrollmentId JOIN courses c ON c.id = e.courseId";
+
+    private GpaLedger() {}
+
+    // Adds a new grade for an enrollment (sign 1), or takes one back (sign -1)
+    static void applyGrade(Connection conn, int enrollmentId, String gradeValue, int sign) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT e.studentId, IFNULL(c.credits, 0) "
+                + "FROM enrollments e JOIN courses c ON c.id = e.courseId WHERE e.id = ?")) {
+            pstmt.setInt(1, enrollmentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    GpaSummary delta = new GpaSummary(rs.getInt(1));
+                    delta.add(gradeValue, rs.getInt(2), sign);
+                    applyDelta(conn, delta);
+                }
+            }
+        }
+    }
+
+    // Takes a stored grade back out of its student's totals - call before updating or deleting the row
+    static void unapplyGrade(Connection conn, int gradeId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(GRADE_ROWS + " WHERE g.id = ?")) {
+            pstmt.setInt(1, gradeId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    GpaSummary delta = new GpaSummary(rs.getInt("studentId"));
+                    delta.add(rs.getString("gradeValue"), rs.getInt("credits"), -1);
+                    applyDelta(conn, delta);
+                }
+            }
+        }
+    }
+
+    static Set<Integer> studentsForGrades(Connection conn, Collection<Integer> gradeIds) throws SQLException {
+        return collectStudents(conn, "SELECT e.studentId FROM grades g JOIN enrollments e ON e.id = g.enrollmentId "
+                + "WHERE g.id IN ", gradeIds);
+    }
+
+    static Set<Integer> studentsForEnrollments(Connection conn, Collection<Integer> enrollmentIds) throws SQLException {
+        return collectStudents(conn, "SELECT studentId FROM enrollments WHERE id IN ", enrollmentIds);
+    }
+
+    // Only students with a grade in these courses - the others have nothing to recompute
+    static Set<Integer> studentsForCourses(Connection conn, Collection<Integer> courseIds) throws SQLException {
+        return collectStudents(conn, "SELECT DISTINCT e.studentId FROM enrollments e "
+                + "JOIN grades g ON g.enrollmentId = e.id WHERE e.courseId IN ", courseIds);
+    }
+
+    // Rebuilds the totals of just these students from their grades
+    static void recompute(Connection conn, Collection<Integer> studentIds) throws SQLException {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(studentIds));
+        for (int from = 0; from < ids.size(); from += BatchLoader.CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + BatchLoader.CHUNK_SIZE, ids.size()));
+            String in = "(" + BatchLoader.placeholders(chunk.size()) + ")";
+
+            Map<Integer, GpaSummary> totals = new HashMap<>();
+            try (PreparedStatement select = conn.prepareStatement(GRADE_ROWS + " WHERE e.studentId IN " + in)) {
+                BatchLoader.bindIds(select, chunk);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        totals.computeIfAbsent(rs.getInt("studentId"), GpaSummary::new)
+                                .add(rs.getString("gradeValue"), rs.getInt("credits"), 1);
+                    }
+                }
+            }
+            try (PreparedStatement delete = conn.prepareStatement("DELETE FROM student_gpa WHERE studentId IN " + in)) {
+                BatchLoader.bindIds(delete, chunk);
+                delete.executeUpdate();
+            }
+            insertAll(conn, totals.values());
+        }
+    }
+
+    static void insertAll(Connection conn, Collection<GpaSummary> summaries) throws SQLException {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement insert = conn.prepareStatement("INSERT INTO student_gpa "
+                + "(studentId, qualityPoints, gpaCredits, earnedCredits, gradedCourses) VALUES (?, ?, ?, ?, ?)")) {
+            int pending = 0;
+            for (GpaSummary summary : summaries) {
+                bindSummary(insert, summary);
+                insert.addBatch();
+                if (++pending == BatchWriter.CHUNK_SIZE) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                insert.executeBatch();
+            }
+        }
+    }
+
+    private static void applyDelta(Connection conn, GpaSummary delta) throws SQLException {
+        try (PreparedStatement upsert = conn.prepareStatement(UPSERT_DELTA)) {
+            bindSummary(upsert, delta);
+            upsert.executeUpdate();
+        }
+    }
+
+    private static void bindSummary(PreparedStatement pstmt, GpaSummary summary) throws SQLException {
+        pstmt.setInt(1, summary.getStudentId());
+        pstmt.setLong(2, summary.getQualityPoints());
+        pstmt.setInt(3, summary.getGpaCredits());
+        pstmt.setInt(4, summary.getEarnedCredits());
+        pstmt.setInt(5, summary.getGradedCourses());
+    }
+
+    private static Set<Integer> collectStudents(Connection conn, String selectPrefix, Collection<Integer> ids)
+            throws SQLException {
+        Set<Integer> students = new LinkedHashSet<>();
+        List<Integer> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += BatchLoader.CHUNK_SIZE) {
+            List<Integer> chunk = idList.subList(from, Math.min(from + BatchLoader.CHUNK_SIZE, idList.size()));
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    selectPrefix + "(" + BatchLoader.placeholders(chunk.size()) + ")")) {
+                BatchLoader.bindIds(pstmt, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        students.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+        return students;
+    }
+}
@@ -1,21 +1,37 @@
 package com.university.dao.impl;
 
 import com.university.dao.GradeDAO;
-import com.university.dao.EnrollmentDAO;
+import com.university.dao.BatchResult;
+import com.university.dao.IdentityMap;
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
 import com.university.model.Grade;
 import com.university.model.Enrollment;
 import com.university.util.DatabaseUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class GradeDAOImpl implements GradeDAO {
-    private EnrollmentDAO enrollmentDAO = new EnrollmentDAOImpl(); // I need this to build complete Grade objects
+    private static final KeysetQuery<Grade> PAGE_QUERY = new KeysetQuery<Grade>(
+            "SELECT id, enrollmentId, gradeValue, comments FROM grades", "grades",
+            "id", Grade::getId)
+            .sortKey("gradeValue", "gradeValue", true, Grade::getGradeValue)
+            .sortKey("enrollmentId", "enrollmentId", false, Grade::getEnrollmentId);
 
-    private Grade mapResultSetToGrade(ResultSet rs) throws SQLException {
-        // Another helper method to avoid repetition
-        Enrollment enrollment = enrollmentDAO.getEnrollment(rs.getInt("enrollmentId"));
+    private Grade mapResultSetToGrade(Connection conn, ResultSet rs) throws SQLException {
+        // Another helper method to avoid repetition. The enrollment is read on the caller's connection so a
+        // lookup never holds two pooled connections at once
+        int enrollmentId = rs.getInt("enrollmentId");
+        Enrollment enrollment;
+        try (IdentityMap session = IdentityMap.open()) {
+            enrollment = new BatchLoader(conn, session).loadEnrollments(Collections.singleton(enrollmentId)).get(enrollmentId);
+        }
         return new Grade(
                 rs.getInt("id"),
                 enrollment,
@@ -29,6 +45,7 @@ public class GradeDAOImpl implements GradeDAO {
         String sql = "INSERT INTO grades (enrollmentId, gradeValue, comments) VALUES (?, ?, ?)";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false); // The grade and the student's GPA totals commit together
             pstmt.setInt(1, grade.getEnrollment().getId());
             pstmt.setString(2, grade.getGradeValue());
             pstmt.setString(3, grade.getComments());
@@ -38,6 +55,10 @@ public class GradeDAOImpl implements GradeDAO {
                     grade.setId(generatedKeys.getInt(1));
                 }
             }
+            GpaLedger.applyGrade(conn, grade.getEnrollment().getId(), grade.getGradeValue(), 1);
+            conn.commit();
+        } catch (SQLException e) {
+            throw ConstraintViolations.translate(e, "A grade already exists for this enrollment. Update it instead.");
         }
     }
 
@@ -50,7 +71,7 @@ public class GradeDAOImpl implements GradeDAO {
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    grade = mapResultSetToGrade(rs);
+                    grade = mapResultSetToGrade(conn, rs);
                 }
             }
         }
@@ -66,7 +87,7 @@ public class GradeDAOImpl implements GradeDAO {
             pstmt.setInt(1, enrollmentId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    grade = mapResultSetToGrade(rs);
+                    grade = mapResultSetToGrade(conn, rs);
                 }
             }
         }
@@ -75,29 +96,84 @@ public class GradeDAOImpl implements GradeDAO {
 
     @Override
     public List<Grade> getAllGrades() throws SQLException {
-        String sql = "SELECT * FROM grades";
+        // Going through mapResultSetToGrade here would cost ~4 queries per grade, so I read the raw rows
+        // first and let BatchLoader fetch every referenced enrollment/student/course/department in bulk.
+        String sql = "SELECT id, enrollmentId, gradeValue, comments FROM grades";
         List<Grade> grades = new ArrayList<>();
-        try (Connection conn = DatabaseUtil.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                grades.add(mapResultSetToGrade(rs));
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection()) {
+            Set<Integer> enrollmentIds = new HashSet<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    Grade grade = new Grade(
+                            rs.getInt("id"),
+                            rs.getInt("enrollmentId"),
+                            rs.getString("gradeValue"),
+                            rs.getString("comments")
+                    );
+                    enrollmentIds.add(grade.getEnrollmentId());
+                    grades.add(grade);
+                }
+            }
+
+            Map<Integer, Enrollment> enrollments = new BatchLoader(conn, session).loadEnrollments(enrollmentIds);
+            for (Grade grade : grades) {
+                grade.setEnrollment(enrollments.get(grade.getEnrollmentId()));
             }
         }
         return grades;
     }
 
+    @Override
+    public Page<Grade> getGradesPage(PageRequest request) throws SQLException {
+        // Same approach as getAllGrades - raw rows for the page, then one batched load for their enrollments
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection()) {
+            List<Grade> rows = PAGE_QUERY.fetchRows(conn, request, rs -> new Grade(
+                    rs.getInt("id"),
+                    rs.getInt("enrollmentId"),
+                    rs.getString("gradeValue"),
+                    rs.getString("comments")
+            ));
+            Set<Integer> enrollmentIds = new HashSet<>();
+            for (Grade grade : rows) {
+                enrollmentIds.add(grade.getEnrollmentId());
+            }
+            Map<Integer, Enrollment> enrollments = new BatchLoader(conn, session).loadEnrollments(enrollmentIds);
+            for (Grade grade : rows) {
+                grade.setEnrollment(enrollments.get(grade.getEnrollmentId()));
+            }
+            return PAGE_QUERY.toPage(rows, request);
+        }
+    }
+
+    @Override
+    public int countGrades() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            return PAGE_QUERY.count(conn);
+        }
+    }
+
     @Override
     public void updateGrade(Grade grade) throws SQLException {
         String sql = "UPDATE grades SET enrollmentId = ?, gradeValue = ?, comments = ? WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            GpaLedger.unapplyGrade(conn, grade.getId()); // Out with the old value...
             pstmt.setInt(1, grade.getEnrollment().getId());
             pstmt.setString(2, grade.getGradeValue());
             pstmt.setString(3, grade.getComments());
             pstmt.setInt(4, grade.getId());
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() > 0) {
+                GpaLedger.applyGrade(conn, grade.getEnrollment().getId(), grade.getGradeValue(), 1); // ...in with the new
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            throw ConstraintViolations.translate(e, "A grade already exists for this enrollment. Update it instead.");
         }
+        IdentityMap.evictCurrent(Grade.class, grade.getId());
     }
 
     @Override
@@ -105,8 +181,68 @@ public class GradeDAOImpl implements GradeDAO {
         String sql = "DELETE FROM grades WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            GpaLedger.unapplyGrade(conn, id);
             pstmt.setInt(1, id);
             pstmt.executeUpdate();
+            conn.commit();
+        }
+        IdentityMap.evictCurrent(Grade.class, id);
+    }
+
+    @Override
+    public BatchResult addGrades(List<Grade> grades) throws SQLException {
+        String sql = "INSERT INTO grades (enrollmentId, gradeValue, comments) VALUES (?, ?, ?)";
+        return BatchWriter.insert("grades", sql, grades, GradeDAOImpl::bindGrade, Grade::setId,
+                g -> "A grade already exists for this enrollment. Update it instead.",
+                (conn, g, id) -> GpaLedger.applyGrade(conn, enrollmentIdOf(g), g.getGradeValue(), 1));
+    }
+
+    @Override
+    public BatchResult updateGrades(List<Grade> grades) throws SQLException {
+        String sql = "UPDATE grades SET enrollmentId = ?, gradeValue = ?, comments = ? WHERE id = ?";
+        // A batch can move grades between enrollments, so I recompute every student it touched, before and after
+        List<Integer> ids = new ArrayList<>(grades.size());
+        for (Grade grade : grades) {
+            ids.add(grade.getId());
+        }
+        Set<Integer> touched = new HashSet<>();
+        BatchResult result = BatchWriter.execute(sql, grades, (pstmt, g) -> {
+            bindGrade(pstmt, g);
+            pstmt.setInt(4, g.getId());
+        }, g -> "A grade already exists for this enrollment. Update it instead.", null,
+                conn -> touched.addAll(GpaLedger.studentsForGrades(conn, ids)),
+                conn -> {
+                    touched.addAll(GpaLedger.studentsForGrades(conn, ids));
+                    GpaLedger.recompute(conn, touched);
+                });
+        for (Grade grade : grades) {
+            IdentityMap.evictCurrent(Grade.class, grade.getId());
         }
+        return result;
+    }
+
+    @Override
+    public BatchResult deleteGrades(List<Integer> ids) throws SQLException {
+        String sql = "DELETE FROM grades WHERE id = ?";
+        Set<Integer> touched = new HashSet<>();
+        BatchResult result = BatchWriter.execute(sql, ids, (pstmt, id) -> pstmt.setInt(1, id), id -> "Could not delete grade " + id,
+                null,
+                conn -> touched.addAll(GpaLedger.studentsForGrades(conn, ids)),
+                conn -> GpaLedger.recompute(conn, touched));
+        for (Integer id : ids) {
+            IdentityMap.evictCurrent(Grade.class, id);
+        }
+        return result;
+    }
+
+    private static int enrollmentIdOf(Grade grade) {
+        return grade.getEnrollment() != null ? grade.getEnrollment().getId() : grade.getEnrollmentId();
+    }
+
+    private static void bindGrade(PreparedStatement pstmt, Grade grade) throws SQLException {
+        pstmt.setInt(1, enrollmentIdOf(grade));
+        pstmt.setString(2, grade.getGradeValue());
+        pstmt.setString(3, grade.getComments());
     }
 }
@@ -0,0 +1,180 @@
+package com.university.dao.impl;
+
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Builds and runs keyset-paginated queries: "ORDER BY col, id LIMIT n" with a seek predicate on the last
+ * (col, id) seen instead of an OFFSET. Sort keys are whitelisted per entity, so callers can only ever
+ * pick a column that has an index behind it (see SchemaMigrator version 3) and nothing user-supplied is
+ * concatenated into the SQL.
+ *
+ * id is always the tiebreaker. In SQLite every secondary index already ends in the rowid, so an index on
+ * just (col) serves "ORDER BY col, id" without a sort step.
+ */
+final class KeysetQuery<T> {
+
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private static final class SortKey<T> {
+        final String column;
+        final boolean nullable;
+        final Function<T, Object> value;
+
+        SortKey(String column, boolean nullable, Function<T, Object> value) {
+            this.column = column;
+            this.nullable = nullable;
+            this.value = value;
+        }
+    }
+
+    private final String select;   // SELECT ... FROM ... with no WHERE or ORDER BY
+    private final String table;    // Just the base table (plus alias) - enough for counts and id-only scans
+    private final String idColumn;
+    private final ToIntFunction<T> idOf;
+    private final Map<String, SortKey<T>> sortKeys = new LinkedHashMap<>();
+
+    KeysetQuery(String select, String table, String idColumn, ToIntFunction<T> idOf) {
+        this.select = select;
+        this.table = table;
+        this.idColumn = idColumn;
+        this.idOf = idOf;
+        sortKeys.put("id", new SortKey<>(idColumn, false, t -> idOf.applyAsInt(t)));
+    }
+
+    KeysetQuery<T> sortKey(String name, String column, boolean nullable, Function<T, Object> value) {
+        sortKeys.put(name, new SortKey<>(column, nullable, value));
+        return this;
+    }
+
+    List<String> sortKeyNames() {
+        return new ArrayList<>(sortKeys.keySet());
+    }
+
+    Page<T> fetch(Connection conn, PageRequest request, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = fetchRows(conn, request, mapper);
+        return toPage(rows, request);
+    }
+
+    // Raw rows in display order, with one extra row on the end if there's more past this page
+    List<T> fetchRows(Connection conn, PageRequest request, RowMapper<T> mapper) throws SQLException {
+        SortKey<T> key = requireKey(request.getSortKey());
+        // Walking backwards is just walking forwards in the opposite order and reversing the page afterwards
+        boolean ascending = request.isAscending() != request.isBackward();
+        String direction = ascending ? " ASC" : " DESC";
+
+        StringBuilder sql = new StringBuilder(select);
+        List<Object> params = new ArrayList<>();
+        if (request.hasCursor()) {
+            sql.append(" WHERE ").append(seekPredicate(key, ascending, request.getCursorValue(), request.getCursorId(), params));
+        }
+        sql.append(" ORDER BY ");
+        if (key.column.equals(idColumn)) {
+            sql.append(idColumn).append(direction);
+        } else {
+            sql.append(key.column).append(direction).append(", ").append(idColumn).append(direction);
+        }
+        sql.append(" LIMIT ?");
+        params.add(request.getPageSize() + 1); // One extra row tells me whether there's another page
+
+        List<T> rows = new ArrayList<>(request.getPageSize() + 1);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Exact count. SQLite has no cheap row estimate, but COUNT(*) walks the smallest index rather than the
+    // table, which is fast enough for a "page x of y" label even at a few hundred thousand rows.
+    int count(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM " + table);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // Every id in sort order. This only reads the sort index (it covers the rowid), so a million rows is
+    // one fast scan and a 4 MB int[] - the lazy table models use it as their row skeleton.
+    int[] orderedIds(Connection conn, String sortKey, boolean ascending) throws SQLException {
+        SortKey<T> key = requireKey(sortKey);
+        String direction = ascending ? " ASC" : " DESC";
+        String sql = "SELECT " + idColumn + " FROM " + table + " ORDER BY "
+                + (key.column.equals(idColumn) ? "" : key.column + direction + ", ") + idColumn + direction;
+        int[] ids = new int[Math.max(16, count(conn))];
+        int size = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2); // Rows were added between the count and the scan
+                }
+                ids[size++] = rs.getInt(1);
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+
+    Page<T> toPage(List<T> rows, PageRequest request) {
+        boolean more = rows.size() > request.getPageSize();
+        List<T> items = more ? new ArrayList<>(rows.subList(0, request.getPageSize())) : rows;
+        SortKey<T> key = sortKeys.get(request.getSortKey());
+        if (request.isBackward()) {
+            Collections.reverse(items);
+            // Paging back always came from somewhere, so there's a next page; "more" means there's an earlier one too
+            return new Page<>(items, request, true, more, key.value, idOf);
+        }
+        return new Page<>(items, request, more, request.hasCursor(), key.value, idOf);
+    }
+
+    private SortKey<T> requireKey(String sortKey) {
+        SortKey<T> key = sortKeys.get(sortKey);
+        if (key == null) {
+            throw new IllegalArgumentException("Can't sort by '" + sortKey + "'. Valid keys: " + sortKeys.keySet());
+        }
+        return key;
+    }
+
+    // SQLite sorts NULL before everything else, so NULLs are the start of an ascending walk and the end of a
+    // descending one. Row-value comparisons drop NULL rows on their own, which is why they get their own branch.
+    private String seekPredicate(SortKey<T> key, boolean ascending, Object value, int id, List<Object> params) {
+        String idOp = ascending ? " > ?" : " < ?";
+        if (key.column.equals(idColumn)) {
+            params.add(id);
+            return idColumn + idOp;
+        }
+        if (value == null) {
+            params.add(id);
+            String stillNull = "(" + key.column + " IS NULL AND " + idColumn + idOp + ")";
+            return ascending ? "(" + stillNull + " OR " + key.column + " IS NOT NULL)" : stillNull;
+        }
+        params.add(value);
+        params.add(id);
+        String seek = "(" + key.column + ", " + idColumn + ")" + idOp.replace("?", "(?, ?)");
+        if (key.nullable && !ascending) {
+            return "(" + seek + " OR " + key.column + " IS NULL)";
+        }
+        return seek;
+    }
+}
@@ -0,0 +1,101 @@
+package com.university.dao.impl;
+
+import com.university.dao.PrerequisiteDAO;
+import com.university.model.GradeScale;
+import com.university.util.DatabaseUtil;
+import com.university.util.PrerequisiteGraph;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+public class PrerequisiteDAOImpl implements PrerequisiteDAO {
+
+    @Override
+    public void addPrerequisite(int courseId, int prerequisiteId) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            // The pool begins IMMEDIATE, so nobody can add the opposite edge between the cycle check and the insert
+            conn.setAutoCommit(false);
+            if (PrerequisiteGraph.of(readAll(conn)).wouldCreateCycle(courseId, prerequisiteId)) {
+                throw new IllegalArgumentException("Course " + prerequisiteId + " already requires course " + courseId
+                        + " (directly or through other courses), so it can't also be its prerequisite.");
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO course_prerequisites (courseId, prerequisiteId) VALUES (?, ?)")) {
+                pstmt.setInt(1, courseId);
+                pstmt.setInt(2, prerequisiteId);
+                pstmt.executeUpdate();
+            } catch (SQLException e) {
+                throw ConstraintViolations.translate(e, "That prerequisite is already set for this course.");
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public boolean removePrerequisite(int courseId, int prerequisiteId) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "DELETE FROM course_prerequisites WHERE courseId = ? AND prerequisiteId = ?")) {
+            pstmt.setInt(1, courseId);
+            pstmt.setInt(2, prerequisiteId);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    @Override
+    public Map<Integer, List<Integer>> getAllPrerequisites() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            return readAll(conn);
+        }
+    }
+
+    @Override
+    public Map<Integer, List<Integer>> getCompletedCourses(Collection<Integer> studentIds) throws SQLException {
+        Map<Integer, List<Integer>> completed = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(studentIds));
+        if (ids.isEmpty()) {
+            return completed;
+        }
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            for (int from = 0; from < ids.size(); from += BatchLoader.CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + BatchLoader.CHUNK_SIZE, ids.size()));
+                // Passing is decided by GradeScale rather than in SQL, so "B+" and "3.3" mean the same here as in the GPA
+                String sql = "SELECT e.studentId, e.courseId, g.gradeValue FROM enrollments e "
+                        + "JOIN grades g ON g.enrollmentId = e.id WHERE e.studentId IN ("
+                        + BatchLoader.placeholders(chunk.size()) + ")";
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    BatchLoader.bindIds(pstmt, chunk);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            if (GradeScale.earnsCredit(rs.getString("gradeValue"))) {
+                                completed.computeIfAbsent(rs.getInt("studentId"), k -> new ArrayList<>())
+                                        .add(rs.getInt("courseId"));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return completed;
+    }
+
+    private static Map<Integer, List<Integer>> readAll(Connection conn) throws SQLException {
+        Map<Integer, List<Integer>> edges = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT courseId, prerequisiteId FROM course_prerequisites ORDER BY courseId, prerequisiteId");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                edges.computeIfAbsent(rs.getInt(1), k -> new ArrayList<>()).add(rs.getInt(2));
+            }
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,166 @@
+package com.university.dao.impl;
+
+import com.university.model.Course;
+import com.university.model.Department;
+import com.university.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide cache for the small, rarely changing reference tables (departments and the course catalog).
+ * The caching DAOs read through it and invalidate it on every write.
+ *
+ * Model objects are mutable and the dialogs edit them in place, so the cache only ever hands out copies.
+ * A write bumps the generation counter, which stops a read that raced with it from re-caching old data.
+ */
+public final class ReferenceDataCache {
+    private static final String ALL = "all";
+
+    private static final int DEPARTMENT_CACHE_SIZE = Integer.getInteger("university.cache.departments.size", 1024);
+    private static final int COURSE_CACHE_SIZE = Integer.getInteger("university.cache.courses.size", 4096);
+
+    private static final LruCache<Integer, Department> DEPARTMENTS = new LruCache<>("departments", DEPARTMENT_CACHE_SIZE);
+    private static final LruCache<String, List<Department>> DEPARTMENT_LISTS = new LruCache<>("departmentLists", 1);
+    private static final LruCache<Integer, Course> COURSES = new LruCache<>("courses", COURSE_CACHE_SIZE);
+    private static final LruCache<String, List<Course>> COURSE_LISTS = new LruCache<>("courseLists", 1);
+
+    private static final AtomicLong departmentGeneration = new AtomicLong();
+    private static final AtomicLong courseGeneration = new AtomicLong();
+
+    private ReferenceDataCache() {}
+
+    // --- Departments ---
+
+    static long departmentGeneration() {
+        return departmentGeneration.get();
+    }
+
+    static Department getDepartment(int id) {
+        return copy(DEPARTMENTS.get(id));
+    }
+
+    static void putDepartment(Department department, long generation) {
+        if (department != null && generation == departmentGeneration.get()) {
+            DEPARTMENTS.put(department.getId(), copy(department));
+        }
+    }
+
+    static List<Department> getAllDepartments() {
+        List<Department> cached = DEPARTMENT_LISTS.get(ALL);
+        if (cached == null) {
+            return null;
+        }
+        List<Department> result = new ArrayList<>(cached.size());
+        for (Department department : cached) {
+            result.add(copy(department));
+        }
+        return result;
+    }
+
+    static void putAllDepartments(List<Department> departments, long generation) {
+        // A list bigger than the cache bound isn't "reference data" any more, so I don't keep it
+        if (generation != departmentGeneration.get() || departments.size() > DEPARTMENT_CACHE_SIZE) {
+            return;
+        }
+        List<Department> snapshot = new ArrayList<>(departments.size());
+        for (Department department : departments) {
+            Department copy = copy(department);
+            snapshot.add(copy);
+            DEPARTMENTS.put(copy.getId(), copy(copy));
+        }
+        DEPARTMENT_LISTS.put(ALL, snapshot);
+    }
+
+    static void invalidateDepartment(int id) {
+        departmentGeneration.incrementAndGet();
+        DEPARTMENTS.invalidate(id);
+        DEPARTMENT_LISTS.invalidateAll();
+        // Courses embed their Department, so a renamed or deleted department makes them stale too
+        invalidateAllCourses();
+    }
+
+    // --- Courses ---
+
+    static long courseGeneration() {
+        return courseGeneration.get();
+    }
+
+    static Course getCourse(int id) {
+        return copy(COURSES.get(id));
+    }
+
+    static void putCourse(Course course, long generation) {
+        if (course != null && generation == courseGeneration.get()) {
+            COURSES.put(course.getId(), copy(course));
+        }
+    }
+
+    static List<Course> getAllCourses() {
+        List<Course> cached = COURSE_LISTS.get(ALL);
+        if (cached == null) {
+            return null;
+        }
+        List<Course> result = new ArrayList<>(cached.size());
+        for (Course course : cached) {
+            result.add(copy(course));
+        }
+        return result;
+    }
+
+    static void putAllCourses(List<Course> courses, long generation) {
+        if (generation != courseGeneration.get() || courses.size() > COURSE_CACHE_SIZE) {
+            return;
+        }
+        List<Course> snapshot = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            Course copy = copy(course);
+            snapshot.add(copy);
+            COURSES.put(copy.getId(), copy(copy));
+        }
+        COURSE_LISTS.put(ALL, snapshot);
+    }
+
+    static void invalidateCourse(int id) {
+        courseGeneration.incrementAndGet();
+        COURSES.invalidate(id);
+        COURSE_LISTS.invalidateAll();
+    }
+
+    static void invalidateAllCourses() {
+        courseGeneration.incrementAndGet();
+        COURSES.invalidateAll();
+        COURSE_LISTS.invalidateAll();
+    }
+
+    public static void invalidateAll() {
+        departmentGeneration.incrementAndGet();
+        DEPARTMENTS.invalidateAll();
+        DEPARTMENT_LISTS.invalidateAll();
+        invalidateAllCourses();
+    }
+
+    // Hit/miss numbers for all four caches, one per line
+    public static String statistics() {
+        return DEPARTMENTS + "\n" + DEPARTMENT_LISTS + "\n" + COURSES + "\n" + COURSE_LISTS;
+    }
+
+    public static LruCache<Integer, Department> departmentCache() { return DEPARTMENTS; }
+    public static LruCache<Integer, Course> courseCache() { return COURSES; }
+
+    private static Department copy(Department department) {
+        return department == null ? null : new Department(department.getId(), department.getName());
+    }
+
+    private static Course copy(Course course) {
+        if (course == null) {
+            return null;
+        }
+        Course copy = new Course(course.getId(), course.getCourseCode(), course.getCourseName(),
+                course.getCredits(), copy(course.getDepartment()));
+        copy.setDepartmentId(course.getDepartmentId());
+        copy.setCapacity(course.getCapacity());
+        return copy;
+    }
+}
@@ -0,0 +1,88 @@
+package com.university.dao.impl;
+
+import com.university.dao.SearchDAO;
+import com.university.dao.SearchResults;
+import com.university.model.SearchHit;
+import com.university.util.DatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class SearchDAOImpl implements SearchDAO {
+    public static final int MAX_LIMIT = 200;
+
+    // Titles (names, course codes) count more than details (emails, positions) when ranking
+    private static final String SEARCH_SQL = "SELECT rowid, title, detail, bm25(search_index, 10.0, 3.0) AS score "
+            + "FROM search_index WHERE search_index MATCH ? ORDER BY score LIMIT ? OFFSET ?";
+
+    @Override
+    public SearchResults search(String query, int offset, int limit) throws SQLException {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Search limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        String match = toMatchExpression(query);
+        if (match == null) {
+            return new SearchResults(query, Collections.emptyList(), 0, false);
+        }
+        // OFFSET is fine here - FTS has to score every match before it can rank them anyway, and a search
+        // rarely gets paged past the first few screens
+        List<SearchHit> hits = new ArrayList<>(limit + 1);
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SEARCH_SQL)) {
+            pstmt.setString(1, match);
+            pstmt.setInt(2, limit + 1);
+            pstmt.setInt(3, Math.max(0, offset));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    long rowId = rs.getLong("rowid");
+                    hits.add(new SearchHit(SearchHit.Kind.fromCode((int) (rowId & 3)), (int) (rowId >> 2),
+                            rs.getString("title"), rs.getString("detail"), rs.getDouble("score")));
+                }
+            }
+        }
+        boolean hasMore = hits.size() > limit;
+        if (hasMore) {
+            hits.remove(hits.size() - 1);
+        }
+        return new SearchResults(query, hits, Math.max(0, offset), hasMore);
+    }
+
+    @Override
+    public void rebuildIndex() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                SearchIndex.rebuild(stmt);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // Turns free text into an FTS5 query: every word becomes a quoted prefix term, implicitly ANDed.
+    // Quoting means user input can never be parsed as FTS syntax (AND, NEAR, column filters, ...).
+    static String toMatchExpression(String query) {
+        if (query == null) {
+            return null;
+        }
+        StringBuilder match = new StringBuilder();
+        for (String word : query.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (match.length() > 0) {
+                match.append(' ');
+            }
+            match.append('"').append(word).append("\"*");
+        }
+        return match.length() == 0 ? null : match.toString();
+    }
+}
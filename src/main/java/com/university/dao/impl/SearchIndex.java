@@ -0,0 +1,85 @@
+package com.university.dao.impl;
+
+import com.university.model.Course;
+import com.university.model.Department;
+import com.university.model.Employee;
+import com.university.model.SearchHit;
+import com.university.model.Student;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Keeps the search_index FTS5 table in step with the base tables. The DAOs call this on the same
+ * connection and inside the same transaction as the row write, so a row and its search entry always
+ * commit (or roll back) together - if the DAO throws before commit, the pool rolls the transaction back
+ * when the connection is returned.
+ *
+ * Entries are keyed by rowid = id * 4 + kind code, so updates and deletes are rowid lookups rather
+ * than a scan of the FTS content.
+ */
+final class SearchIndex {
+
+    private SearchIndex() {}
+
+    static long rowId(SearchHit.Kind kind, int id) {
+        return (long) id * 4 + kind.getCode();
+    }
+
+    // The id is passed separately because batch inserts only hand generated keys back after the commit
+    static void putStudent(Connection conn, int id, Student student) throws SQLException {
+        put(conn, SearchHit.Kind.STUDENT, id,
+                student.getFirstName() + " " + student.getLastName(), student.getEmail());
+    }
+
+    static void putEmployee(Connection conn, int id, Employee employee) throws SQLException {
+        String detail = employee.getEmail();
+        if (employee.getPosition() != null && !employee.getPosition().isEmpty()) {
+            detail = employee.getPosition() + (detail == null ? "" : " " + detail);
+        }
+        put(conn, SearchHit.Kind.EMPLOYEE, id,
+                employee.getFirstName() + " " + employee.getLastName(), detail);
+    }
+
+    static void putCourse(Connection conn, int id, Course course) throws SQLException {
+        put(conn, SearchHit.Kind.COURSE, id, course.getCourseCode() + " " + course.getCourseName(), null);
+    }
+
+    static void putDepartment(Connection conn, int id, Department department) throws SQLException {
+        put(conn, SearchHit.Kind.DEPARTMENT, id, department.getName(), null);
+    }
+
+    static void remove(Connection conn, SearchHit.Kind kind, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM search_index WHERE rowid = ?")) {
+            pstmt.setLong(1, rowId(kind, id));
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void put(Connection conn, SearchHit.Kind kind, int id, String title, String detail) throws SQLException {
+        remove(conn, kind, id); // FTS5 has no upsert, and a stale entry must never survive an update
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO search_index (rowid, title, detail) VALUES (?, ?, ?)")) {
+            pstmt.setLong(1, rowId(kind, id));
+            pstmt.setString(2, title);
+            pstmt.setString(3, detail == null ? "" : detail);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Same statements the schema migration uses to fill the index the first time
+    static void rebuild(Statement stmt) throws SQLException {
+        stmt.execute("DELETE FROM search_index");
+        stmt.execute("INSERT INTO search_index (rowid, title, detail) "
+                + "SELECT id * 4 + 0, firstName || ' ' || lastName, IFNULL(email, '') FROM students");
+        stmt.execute("INSERT INTO search_index (rowid, title, detail) "
+                + "SELECT id * 4 + 1, firstName || ' ' || lastName, TRIM(IFNULL(position, '') || ' ' || IFNULL(email, '')) FROM employees");
+        stmt.execute("INSERT INTO search_index (rowid, title, detail) "
+                + "SELECT id * 4 + 2, courseCode || ' ' || courseName, '' FROM courses");
+        stmt.execute("INSERT INTO search_index (rowid, title, detail) "
+                + "SELECT id * 4 + 3, name, '' FROM departments");
+        stmt.execute("INSERT INTO search_index (search_index) VALUES ('optimize')"); // Merge the b-trees after a bulk load
+    }
+}
@@ -1,20 +1,42 @@
 package com.university.dao.impl;
 
+import com.university.dao.BatchResult;
+import com.university.dao.DataChangeEvents;
+import com.university.dao.IdentityMap;
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
 import com.university.dao.StudentDAO;
 import com.university.model.Student;
+import com.university.model.SearchHit;
 import com.university.util.DatabaseUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class StudentDAOImpl implements StudentDAO {
 
+    // Sort keys the student list can be paged by - each one has an index behind it (schema version 3)
+    private static final KeysetQuery<Student> PAGE_QUERY = new KeysetQuery<Student>(
+            "SELECT id, firstName, lastName, email, dateOfBirth FROM students", "students",
+            "id", Student::getId)
+            .sortKey("lastName", "lastName", false, Student::getLastName)
+            .sortKey("firstName", "firstName", false, Student::getFirstName)
+            .sortKey("email", "email", true, Student::getEmail)
+            .sortKey("dateOfBirth", "dateOfBirth", true, Student::getDateOfBirth);
+
     @Override
     public void addStudent(Student student) throws SQLException {
         String sql = "INSERT INTO students (firstName, lastName, email, dateOfBirth) VALUES (?, ?, ?, ?)";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            conn.setAutoCommit(false); // The row and its search entry commit together
             pstmt.setString(1, student.getFirstName());
             pstmt.setString(2, student.getLastName());
             pstmt.setString(3, student.getEmail());
@@ -25,29 +47,64 @@ public class StudentDAOImpl implements StudentDAO {
                     student.setId(generatedKeys.getInt(1)); // Setting the auto-generated ID back
                 }
             }
+            SearchIndex.putStudent(conn, student.getId(), student);
+            conn.commit();
         } catch (SQLException e) {
-            // TODO: Handle duplicate email constraint violations specifically
             // TODO: Add proper logging framework
-            throw e;
+            throw ConstraintViolations.translate(e, "A student with email " + student.getEmail() + " already exists.");
         }
+        DataChangeEvents.saved(Student.class, student.getId(), student);
     }
 
     @Override
     public Student getStudent(int id) throws SQLException {
         String sql = "SELECT * FROM students WHERE id = ?";
         Student student = null;
-        try (Connection conn = DatabaseUtil.getConnection();
+        try (IdentityMap session = IdentityMap.open()) {
+            student = session.get(Student.class, id);
+            if (student != null) {
+                return student;
+            }
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        student = session.register(Student.class, id, new Student(
+                                rs.getInt("id"),
+                                rs.getString("firstName"),
+                                rs.getString("lastName"),
+                                rs.getString("email"),
+                                rs.getString("dateOfBirth")
+                        ));
+                    }
+                }
+            }
+        }
+        return student;
+    }
+
+    @Override
+    public Student getStudentByEmail(String email) throws SQLException {
+        String sql = "SELECT * FROM students WHERE email = ?";
+        Student student = null;
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
+            pstmt.setString(1, email);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    student = new Student(
-                            rs.getInt("id"),
-                            rs.getString("firstName"),
-                            rs.getString("lastName"),
-                            rs.getString("email"),
-                            rs.getString("dateOfBirth")
-                    );
+                    int id = rs.getInt("id");
+                    student = session.get(Student.class, id);
+                    if (student == null) {
+                        student = session.register(Student.class, id, new Student(
+                                id,
+                                rs.getString("firstName"),
+                                rs.getString("lastName"),
+                                rs.getString("email"),
+                                rs.getString("dateOfBirth")
+                        ));
+                    }
                 }
             }
         }
@@ -58,20 +115,80 @@ public class StudentDAOImpl implements StudentDAO {
     public List<Student> getAllStudents() throws SQLException {
         String sql = "SELECT * FROM students ORDER BY lastName, firstName"; // I want them sorted by last name first
         List<Student> students = new ArrayList<>();
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                int id = rs.getInt("id");
+                Student student = session.get(Student.class, id);
+                if (student == null) {
+                    student = session.register(Student.class, id, new Student(
+                            id,
+                            rs.getString("firstName"),
+                            rs.getString("lastName"),
+                            rs.getString("email"),
+                            rs.getString("dateOfBirth")
+                    ));
+                }
+                students.add(student);
+            }
+        }
+        return students;
+    }
+
+    @Override
+    public Map<String, Integer> getStudentIdsByEmail() throws SQLException {
+        String sql = "SELECT id, email FROM students WHERE email IS NOT NULL"; // Covered by the email index
+        Map<String, Integer> ids = new HashMap<>();
         try (Connection conn = DatabaseUtil.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                students.add(new Student(
-                        rs.getInt("id"),
+                ids.put(rs.getString(2), rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public Page<Student> getStudentsPage(PageRequest request) throws SQLException {
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection()) {
+            return PAGE_QUERY.fetch(conn, request, rs -> {
+                int id = rs.getInt("id");
+                Student student = session.get(Student.class, id);
+                return student != null ? student : session.register(Student.class, id, new Student(
+                        id,
                         rs.getString("firstName"),
                         rs.getString("lastName"),
                         rs.getString("email"),
                         rs.getString("dateOfBirth")
                 ));
-            }
+            });
+        }
+    }
+
+    @Override
+    public int countStudents() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            return PAGE_QUERY.count(conn);
+        }
+    }
+
+    @Override
+    public int[] getStudentIds(String sortKey, boolean ascending) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            return PAGE_QUERY.orderedIds(conn, sortKey, ascending);
+        }
+    }
+
+    @Override
+    public Map<Integer, Student> getStudentsByIds(Collection<Integer> ids) throws SQLException {
+        try (IdentityMap session = IdentityMap.open();
+             Connection conn = DatabaseUtil.getConnection()) {
+            return new BatchLoader(conn, session).loadStudents(ids);
         }
-        return students;
     }
 
     @Override
@@ -79,13 +196,20 @@ public class StudentDAOImpl implements StudentDAO {
         String sql = "UPDATE students SET firstName = ?, lastName = ?, email = ?, dateOfBirth = ? WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
             pstmt.setString(1, student.getFirstName());
             pstmt.setString(2, student.getLastName());
             pstmt.setString(3, student.getEmail());
             pstmt.setString(4, student.getDateOfBirth());
             pstmt.setInt(5, student.getId());
             pstmt.executeUpdate();
+            SearchIndex.putStudent(conn, student.getId(), student);
+            conn.commit();
+        } catch (SQLException e) {
+            throw ConstraintViolations.translate(e, "A student with email " + student.getEmail() + " already exists.");
         }
+        IdentityMap.evictCurrent(Student.class, student.getId());
+        DataChangeEvents.saved(Student.class, student.getId(), student);
     }
 
     @Override
@@ -93,8 +217,72 @@ public class StudentDAOImpl implements StudentDAO {
         String sql = "DELETE FROM students WHERE id = ?";
         try (Connection conn = DatabaseUtil.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            Set<Integer> courses = EnrollmentCounts.coursesForStudents(conn, Collections.singleton(id));
             pstmt.setInt(1, id);
             pstmt.executeUpdate();
+            SearchIndex.remove(conn, SearchHit.Kind.STUDENT, id);
+            EnrollmentCounts.recountCourses(conn, courses); // The cascade took the student's enrollments with it
+            conn.commit();
         }
+        IdentityMap.evictCurrent(Student.class, id);
+        DataChangeEvents.deleted(Student.class, id);
+    }
+
+    @Override
+    public BatchResult addStudents(List<Student> students) throws SQLException {
+        String sql = "INSERT INTO students (firstName, lastName, email, dateOfBirth) VALUES (?, ?, ?, ?)";
+        BatchResult result = BatchWriter.insert("students", sql, students, StudentDAOImpl::bindStudent, Student::setId,
+                s -> "A student with email " + s.getEmail() + " already exists.",
+                (conn, s, id) -> SearchIndex.putStudent(conn, id, s));
+        publishSaved(students, result);
+        return result;
+    }
+
+    @Override
+    public BatchResult updateStudents(List<Student> students) throws SQLException {
+        String sql = "UPDATE students SET firstName = ?, lastName = ?, email = ?, dateOfBirth = ? WHERE id = ?";
+        BatchResult result = BatchWriter.execute(sql, students, (pstmt, s) -> {
+            bindStudent(pstmt, s);
+            pstmt.setInt(5, s.getId());
+        }, s -> "A student with email " + s.getEmail() + " already exists.",
+                (conn, s, ignored) -> SearchIndex.putStudent(conn, s.getId(), s));
+        for (Student student : students) {
+            IdentityMap.evictCurrent(Student.class, student.getId());
+        }
+        publishSaved(students, result);
+        return result;
+    }
+
+    @Override
+    public BatchResult deleteStudents(List<Integer> ids) throws SQLException {
+        String sql = "DELETE FROM students WHERE id = ?";
+        Set<Integer> courses = new HashSet<>();
+        BatchResult result = BatchWriter.execute(sql, ids, (pstmt, id) -> pstmt.setInt(1, id), id -> "Could not delete student " + id,
+                (conn, id, ignored) -> SearchIndex.remove(conn, SearchHit.Kind.STUDENT, id),
+                conn -> courses.addAll(EnrollmentCounts.coursesForStudents(conn, ids)),
+                conn -> EnrollmentCounts.recountCourses(conn, courses));
+        for (Integer id : ids) {
+            IdentityMap.evictCurrent(Student.class, id);
+            DataChangeEvents.deleted(Student.class, id);
+        }
+        return result;
+    }
+
+    // Only rows that made it into the committed batch are announced
+    private static void publishSaved(List<Student> students, BatchResult result) {
+        for (int i = 0; i < students.size(); i++) {
+            if (!result.isFailed(i)) {
+                Student student = students.get(i);
+                DataChangeEvents.saved(Student.class, student.getId(), student);
+            }
+        }
+    }
+
+    private static void bindStudent(PreparedStatement pstmt, Student student) throws SQLException {
+        pstmt.setString(1, student.getFirstName());
+        pstmt.setString(2, student.getLastName());
+        pstmt.setString(3, student.getEmail());
+        pstmt.setString(4, student.getDateOfBirth());
     }
 }
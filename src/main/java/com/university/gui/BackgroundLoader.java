@@ -0,0 +1,129 @@
+package com.university.gui;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work off the EDT for one component, one job at a time. Call load() from the EDT and
+ * the callbacks come back on the EDT.
+ *
+ * If load() is called while a job is still running, the running job's result is thrown away and the new
+ * request waits until it finishes - I can't really abort a SQLite query halfway, so this at least never
+ * stacks up concurrent queries. Only the newest waiting request is kept, so hammering Refresh ten times
+ * costs at most two queries.
+ *
+ * That's only right for reads, where a newer request makes the older one pointless. Writes go through
+ * BackgroundWriter, which runs every one of them.
+ */
+public class BackgroundLoader<T> {
+
+    public interface Work<T> {
+        T call() throws Exception;
+    }
+
+    private static final class Request<T> {
+        final Work<T> work;
+        final Consumer<T> onSuccess;
+        final Consumer<Exception> onError;
+
+        Request(Work<T> work, Consumer<T> onSuccess, Consumer<Exception> onError) {
+            this.work = work;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+        }
+    }
+
+    private final List<Consumer<Boolean>> loadingListeners = new ArrayList<>();
+    private SwingWorker<T, Void> running;
+    private boolean superseded; // The running job's result should be dropped
+    private Request<T> queued;
+    private boolean announcedLoading;
+
+    public void load(Work<T> work, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        Request<T> request = new Request<>(work, onSuccess, onError);
+        if (running != null) {
+            superseded = true;
+            queued = request; // Replaces any older waiting request
+            return;
+        }
+        start(request);
+    }
+
+    // Drops the running job's result and anything waiting, e.g. when a dialog closes mid-load
+    public void cancel() {
+        queued = null;
+        if (running != null) {
+            superseded = true;
+            // Interrupts a wait for a pooled connection; a statement that's already running just finishes.
+            // SwingWorker calls done() right away on cancel, so the loader is idle again immediately.
+            running.cancel(true);
+        }
+    }
+
+    public boolean isLoading() {
+        return running != null;
+    }
+
+    // Called on the EDT with true when work starts and false once nothing is left running or waiting
+    public void addLoadingListener(Consumer<Boolean> listener) {
+        loadingListeners.add(listener);
+    }
+
+    private void start(Request<T> request) {
+        superseded = false;
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return request.work.call();
+            }
+
+            @Override
+            protected void done() {
+                boolean dropResult = superseded || isCancelled();
+                running = null;
+                if (!dropResult) {
+                    deliver(this, request); // May call load() again, which just starts right away
+                }
+                Request<T> next = queued;
+                queued = null;
+                if (next != null) {
+                    start(next);
+                } else if (running == null) {
+                    fireLoading(false);
+                }
+            }
+        };
+        running = worker;
+        fireLoading(true);
+        worker.execute();
+    }
+
+    private void deliver(SwingWorker<T, Void> worker, Request<T> request) {
+        T result;
+        try {
+            result = worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            request.onError.accept(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+            return;
+        }
+        request.onSuccess.accept(result);
+    }
+
+    // Only real idle <-> busy transitions are reported, not every hand-over to a queued request
+    private void fireLoading(boolean loading) {
+        if (loading == announcedLoading) {
+            return;
+        }
+        announcedLoading = loading;
+        for (Consumer<Boolean> listener : loadingListeners) {
+            listener.accept(loading);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.university.gui;
+
+import javax.swing.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs writes (deletes, saves) off the EDT. Unlike BackgroundLoader nothing is ever coalesced or dropped:
+ * every submitted write runs, in the order it was submitted, and every outcome - success or error - comes
+ * back on the EDT. Confirming three deletes in a row means three deletes and three messages.
+ *
+ * All panels share one writer thread, so writes from the GUI never compete with each other for SQLite's
+ * write lock.
+ */
+public final class BackgroundWriter {
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "gui-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private BackgroundWriter() {}
+
+    public static <T> void submit(BackgroundLoader.Work<T> work, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        WRITER.execute(() -> {
+            T result;
+            try {
+                result = work.call();
+            } catch (Exception e) {
+                SwingUtilities.invokeLater(() -> onError.accept(e));
+                return;
+            }
+            SwingUtilities.invokeLater(() -> onSuccess.accept(result));
+        });
+    }
+}
@@ -0,0 +1,97 @@
+package com.university.gui;
+
+import com.university.dao.ExportDAO;
+import com.university.io.CsvExporter;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Runs a CSV export on a SwingWorker thread with a ProgressMonitor. The EDT only ever sees progress
+ * numbers, never the rows themselves, so the window stays responsive during big exports.
+ */
+public class CsvExportTask extends SwingWorker<Long, Long> {
+    private final Component parent;
+    private final ExportDAO.Dataset dataset;
+    private final Path target;
+    private final ProgressMonitor monitor;
+    private volatile int totalRows;
+
+    private CsvExportTask(Component parent, ExportDAO.Dataset dataset, Path target) {
+        this.parent = parent;
+        this.dataset = dataset;
+        this.target = target;
+        this.monitor = new ProgressMonitor(parent, "Exporting " + dataset.getLabel().toLowerCase(Locale.ROOT)
+                + " to " + target.getFileName(), "Starting...", 0, 100);
+        this.monitor.setMillisToDecideToPopup(200); // Small exports finish before the dialog ever shows
+    }
+
+    // Asks for a file and starts the export - call this from the EDT
+    public static void exportWithChooser(Component parent, ExportDAO.Dataset dataset) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export " + dataset.getLabel());
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        chooser.setSelectedFile(new File(dataset.getLabel().toLowerCase(Locale.ROOT) + ".csv"));
+        if (chooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        if (!file.getName().contains(".")) {
+            file = new File(file.getParentFile(), file.getName() + ".csv");
+        }
+        if (file.exists()) {
+            int confirmation = JOptionPane.showConfirmDialog(parent, file.getName() + " already exists. Replace it?",
+                    "Confirm Export", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+            if (confirmation != JOptionPane.YES_OPTION) {
+                return;
+            }
+        }
+        new CsvExportTask(parent, dataset, file.toPath()).execute();
+    }
+
+    @Override
+    protected Long doInBackground() throws Exception {
+        // The monitor's Cancel button doesn't cancel the worker by itself, so the exporter polls it
+        return new CsvExporter().export(dataset, target, (written, total) -> {
+            totalRows = total;
+            publish(written);
+        }, () -> isCancelled() || monitor.isCanceled());
+    }
+
+    @Override
+    protected void process(List<Long> chunks) {
+        long written = chunks.get(chunks.size() - 1); // Only the latest count matters
+        int total = Math.max(totalRows, 1);
+        monitor.setProgress((int) Math.min(99, written * 100 / total));
+        monitor.setNote(written + " of about " + totalRows + " rows");
+    }
+
+    @Override
+    protected void done() {
+        monitor.close();
+        try {
+            long written = get();
+            if (written < 0) {
+                return; // Cancelled - the exporter already removed the partial file
+            }
+            JOptionPane.showMessageDialog(parent, "Exported " + written + " rows to " + target + ".",
+                    "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+        } catch (CancellationException e) {
+            // Nothing to report
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            JOptionPane.showMessageDialog(parent, "Error exporting " + dataset.getLabel().toLowerCase(Locale.ROOT)
+                    + ": " + cause.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
+            cause.printStackTrace();
+        }
+    }
+}
@@ -1,10 +1,18 @@
 package com.university.gui;
 
+import com.university.dao.ExportDAO;
 import com.university.gui.panels.*;
+import com.university.model.SearchHit;
+import com.university.service.EnrollmentCountRecheckJob;
+import com.university.service.EnrollmentGraph;
+import com.university.service.SuggestionService;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowEvent;
+import java.util.function.Supplier;
 
 public class MainFrame extends JFrame {
+    private final JTabbedPane tabbedPane = new JTabbedPane();
 
     public MainFrame() {
         setTitle("University Management System");
@@ -12,12 +20,11 @@ public class MainFrame extends JFrame {
         setSize(1000, 700); // I picked this size after some trial and error
         setLocationRelativeTo(null); // This centers the window nicely
 
-        JTabbedPane tabbedPane = new JTabbedPane();
-
-        // I'm adding panels for each module - the order matters for user experience
-        tabbedPane.addTab("Students", new StudentPanel());
-        tabbedPane.addTab("Departments", new DepartmentPanel()); // Departments first since other things depend on them
-        tabbedPane.addTab("Courses", new CoursePanel());
+        // I'm adding panels for each module - the order matters for user experience.
+        // Each panel is only built (and starts loading) the first time its tab is opened.
+        addLazyTab("Students", StudentPanel::new);
+        addLazyTab("Departments", DepartmentPanel::new); // Departments first since other things depend on them
+        addLazyTab("Courses", CoursePanel::new);
         
         // TODO: Implement missing GUI components:
         // tabbedPane.addTab("Employees", new EmployeePanel());
@@ -25,10 +32,82 @@ public class MainFrame extends JFrame {
         // tabbedPane.addTab("Enrollments", new EnrollmentPanel());
         // tabbedPane.addTab("Grades", new GradePanel());
 
+        SuggestionService.getInstance().preload(); // Warm the type-ahead indexes in the background
+        EnrollmentCountRecheckJob.start();
+        EnrollmentGraph.getInstance().preload(); // Membership checks are served from memory once this is in
+        add(new SearchBar(this::openSearchHit), BorderLayout.NORTH);
         add(tabbedPane, BorderLayout.CENTER);
-        
-        // TODO: Add menu bar with File, Edit, View, Help menus
+
+        setJMenuBar(createMenuBar());
+
+        // TODO: Add Edit, View, Help menus
         // TODO: Add toolbar with common actions
         // TODO: Add status bar for displaying application status
     }
+
+    private void addLazyTab(String title, Supplier<JPanel> factory) {
+        JPanel holder = new JPanel(new BorderLayout());
+        tabbedPane.addTab(title, holder);
+        Runnable build = () -> {
+            if (holder.getComponentCount() == 0) {
+                holder.add(factory.get(), BorderLayout.CENTER);
+                holder.revalidate();
+            }
+        };
+        tabbedPane.addChangeListener(e -> {
+            if (tabbedPane.getSelectedComponent() == holder) {
+                build.run();
+            }
+        });
+        if (tabbedPane.getSelectedComponent() == holder) {
+            build.run(); // The first tab is selected as soon as it's added, before any listener sees it
+        }
+    }
+
+    // Switches to the hit's tab (building the panel if needed) and selects the row
+    private void openSearchHit(SearchHit hit) {
+        switch (hit.getKind()) {
+            case STUDENT:
+                showTab("Students", StudentPanel.class).selectById(hit.getEntityId());
+                break;
+            case COURSE:
+                showTab("Courses", CoursePanel.class).selectById(hit.getEntityId());
+                break;
+            case DEPARTMENT:
+                showTab("Departments", DepartmentPanel.class).selectById(hit.getEntityId());
+                break;
+            default:
+                // TODO: Jump to the employee once there's an employee panel
+                JOptionPane.showMessageDialog(this, hit.toString(), hit.getKind().getLabel(), JOptionPane.INFORMATION_MESSAGE);
+                break;
+        }
+    }
+
+    private <P extends JPanel> P showTab(String title, Class<P> panelType) {
+        tabbedPane.setSelectedIndex(tabbedPane.indexOfTab(title)); // The change listener builds the panel
+        JPanel holder = (JPanel) tabbedPane.getSelectedComponent();
+        return panelType.cast(holder.getComponent(0));
+    }
+
+    private JMenuBar createMenuBar() {
+        JMenuBar menuBar = new JMenuBar();
+        JMenu fileMenu = new JMenu("File");
+
+        // One entry per dataset - the export itself streams on a background thread
+        JMenu exportMenu = new JMenu("Export to CSV");
+        for (ExportDAO.Dataset dataset : ExportDAO.Dataset.values()) {
+            JMenuItem item = new JMenuItem(dataset.getLabel() + "...");
+            item.addActionListener(e -> CsvExportTask.exportWithChooser(this, dataset));
+            exportMenu.add(item);
+        }
+        fileMenu.add(exportMenu);
+        fileMenu.addSeparator();
+
+        JMenuItem exitItem = new JMenuItem("Exit");
+        exitItem.addActionListener(e -> dispatchEvent(new WindowEvent(this, WindowEvent.WINDOW_CLOSING)));
+        fileMenu.add(exitItem);
+
+        menuBar.add(fileMenu);
+        return menuBar;
+    }
 }
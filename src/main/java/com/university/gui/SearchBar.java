@@ -0,0 +1,126 @@
+package com.university.gui;
+
+import com.university.dao.SearchResults;
+import com.university.model.SearchHit;
+import com.university.service.SearchService;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.function.Consumer;
+
+/**
+ * Search box for the whole database. Typing waits for a short pause, then queries the full-text index
+ * in the background and shows the best matches in a drop-down; Enter or a click opens the selected hit.
+ */
+public class SearchBar extends JPanel {
+    private static final int DEBOUNCE_MILLIS = 150; // Long enough to skip most keystrokes, short enough to feel instant
+
+    private final SearchService searchService = new SearchService();
+    private final BackgroundLoader<SearchResults> loader = new BackgroundLoader<>();
+    private final JTextField queryField = new JTextField(30);
+    private final DefaultListModel<Object> resultsModel = new DefaultListModel<>();
+    private final JList<Object> resultsList = new JList<>(resultsModel);
+    private final JPopupMenu popup = new JPopupMenu();
+    private final Timer debounce;
+    private final Consumer<SearchHit> onOpen;
+    private SearchResults current;
+
+    public SearchBar(Consumer<SearchHit> onOpen) {
+        super(new FlowLayout(FlowLayout.RIGHT));
+        this.onOpen = onOpen;
+        add(new JLabel("Search:"));
+        add(queryField);
+
+        resultsList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        resultsList.setFocusable(false); // Keep the caret in the text field while the user arrows through hits
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(resultsList));
+
+        debounce = new Timer(DEBOUNCE_MILLIS, e -> runSearch(0));
+        debounce.setRepeats(false);
+        queryField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { debounce.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { debounce.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { debounce.restart(); }
+        });
+        queryField.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN: moveSelection(1); e.consume(); break;
+                    case KeyEvent.VK_UP: moveSelection(-1); e.consume(); break;
+                    case KeyEvent.VK_ENTER: openSelected(); break;
+                    case KeyEvent.VK_ESCAPE: popup.setVisible(false); break;
+                    default: break;
+                }
+            }
+        });
+        resultsList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                openSelected();
+            }
+        });
+    }
+
+    private void runSearch(int offset) {
+        String query = queryField.getText();
+        if (query.trim().isEmpty()) {
+            loader.cancel();
+            popup.setVisible(false);
+            return;
+        }
+        loader.load(() -> searchService.search(query, offset, SearchService.DEFAULT_PAGE_SIZE),
+                results -> showResults(results, offset > 0),
+                ex -> JOptionPane.showMessageDialog(this, "Search failed: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void showResults(SearchResults results, boolean append) {
+        if (!append) {
+            resultsModel.clear();
+        } else if (!resultsModel.isEmpty() && !(resultsModel.lastElement() instanceof SearchHit)) {
+            resultsModel.removeElementAt(resultsModel.size() - 1); // Drop the old "More results..." row
+        }
+        current = results;
+        for (SearchHit hit : results.getHits()) {
+            resultsModel.addElement(hit);
+        }
+        if (results.hasMore()) {
+            resultsModel.addElement("More results...");
+        }
+        if (resultsModel.isEmpty()) {
+            resultsModel.addElement("No matches");
+        }
+        resultsList.setVisibleRowCount(Math.min(resultsModel.size(), 12));
+        if (!append) {
+            resultsList.setSelectedIndex(0);
+        }
+        popup.pack();
+        popup.show(queryField, 0, queryField.getHeight());
+    }
+
+    private void moveSelection(int delta) {
+        if (!popup.isVisible() || resultsModel.isEmpty()) {
+            return;
+        }
+        int index = Math.max(0, Math.min(resultsModel.size() - 1, resultsList.getSelectedIndex() + delta));
+        resultsList.setSelectedIndex(index);
+        resultsList.ensureIndexIsVisible(index);
+    }
+
+    private void openSelected() {
+        Object selected = resultsList.getSelectedValue();
+        if (selected instanceof SearchHit) {
+            popup.setVisible(false);
+            onOpen.accept((SearchHit) selected);
+        } else if ("More results...".equals(selected) && current != null) {
+            runSearch(current.getNextOffset());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.university.gui;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * Editable combo box that fills its drop-down from an in-memory suggester as you type. The lookup is
+ * cheap, but I still wait for a short pause so the popup doesn't flicker on every keystroke.
+ *
+ * getValue() only returns something the user actually picked (or setValue() put there) - free text
+ * that doesn't match a suggestion comes back as null.
+ */
+public class TypeAheadComboBox<T> extends JComboBox<T> {
+    private static final int DEBOUNCE_MILLIS = 80;
+    private static final int MAX_SUGGESTIONS = 15;
+
+    public interface Suggester<T> {
+        List<T> suggest(String prefix, int limit);
+    }
+
+    private final Suggester<T> suggester;
+    private final JTextComponent editorField;
+    private final Timer debounce;
+    private boolean updating; // Set while I replace the list myself, so my own edits don't trigger a lookup
+
+    public TypeAheadComboBox(Suggester<T> suggester) {
+        this.suggester = suggester;
+        setEditable(true);
+        setMaximumRowCount(MAX_SUGGESTIONS);
+        editorField = (JTextComponent) getEditor().getEditorComponent();
+
+        debounce = new Timer(DEBOUNCE_MILLIS, e -> refreshSuggestions());
+        debounce.setRepeats(false);
+        editorField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { textChanged(); }
+            @Override public void removeUpdate(DocumentEvent e) { textChanged(); }
+            @Override public void changedUpdate(DocumentEvent e) { textChanged(); }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getValue() {
+        Object item = getSelectedItem();
+        DefaultComboBoxModel<T> model = (DefaultComboBoxModel<T>) getModel();
+        int index = item == null ? -1 : model.getIndexOf(item);
+        return index >= 0 ? model.getElementAt(index) : null;
+    }
+
+    public void setValue(T value) {
+        updating = true;
+        try {
+            Vector<T> items = new Vector<>();
+            if (value != null) {
+                items.add(value);
+            }
+            DefaultComboBoxModel<T> model = new DefaultComboBoxModel<>(items);
+            model.setSelectedItem(value);
+            setModel(model);
+        } finally {
+            updating = false;
+        }
+    }
+
+    public String getText() {
+        return editorField.getText();
+    }
+
+    private void textChanged() {
+        if (!updating) {
+            debounce.restart();
+        }
+    }
+
+    private void refreshSuggestions() {
+        String text = editorField.getText();
+        // Arrowing through the list rewrites the text with the highlighted item - that isn't a new query
+        if (getSelectedIndex() >= 0 && text.equals(String.valueOf(getSelectedItem()))) {
+            return;
+        }
+        List<T> suggestions = suggester.suggest(text, MAX_SUGGESTIONS);
+        int caret = editorField.getCaretPosition();
+        updating = true;
+        try {
+            DefaultComboBoxModel<T> model = new DefaultComboBoxModel<>(new Vector<>(suggestions));
+            model.setSelectedItem(text); // Keep what the user typed - nothing is picked until they choose
+            setModel(model);
+            editorField.setText(text);
+            editorField.setCaretPosition(Math.min(caret, text.length()));
+        } finally {
+            updating = false;
+        }
+        if (suggestions.isEmpty() || !isShowing()) {
+            hidePopup();
+        } else {
+            hidePopup(); // Re-showing makes the popup resize to the new list
+            showPopup();
+        }
+    }
+}
@@ -1,32 +1,31 @@
 package com.university.gui.dialogs;
 
+import com.university.dao.DuplicateEntryException;
+import com.university.gui.TypeAheadComboBox;
 import com.university.model.Course;
 import com.university.model.Department;
 import com.university.service.CourseService;
-import com.university.service.DepartmentService;
+import com.university.service.SuggestionService;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
 
 public class CourseDialog extends JDialog {
-    private JTextField courseCodeField, courseNameField, courseCreditField;
-    private JComboBox<Department> courseDeptField;
+    private JTextField courseCodeField, courseNameField, courseCreditField, courseCapacityField;
+    private TypeAheadComboBox<Department> courseDeptField;
     private CourseService CourseService;
     private Course currentCourse; // For editing existing courses
-    private DepartmentService departmentService = new DepartmentService();
     private boolean saved = false;
 
-    public CourseDialog(Frame owner, String title, Course course, CourseService service) throws SQLException{
+    public CourseDialog(Frame owner, String title, Course course, CourseService service) {
         super(owner, title, true); // Making it modal so users can't click away
         this.currentCourse = course;
         this.CourseService = service;
 
         setLayout(new BorderLayout());
-        setSize(400, 250); // I sized this to fit the form nicely
+        setSize(400, 280); // I sized this to fit the form nicely
         setLocationRelativeTo(owner);
 
         JPanel formPanel = new JPanel(new GridLayout(0, 2, 10, 10)); // The spacing makes it look cleaner
@@ -44,22 +43,13 @@ public class CourseDialog extends JDialog {
         courseCreditField = new JTextField(20);
         formPanel.add(courseCreditField);
 
+        formPanel.add(new JLabel("Seat Limit (blank = none):"));
+        courseCapacityField = new JTextField(20);
+        formPanel.add(courseCapacityField);
+
         formPanel.add(new JLabel("Department"));
-        List<Department> departmentWithNone = new ArrayList<Department>();
-        departmentWithNone.add(null);
-        departmentWithNone.addAll(departmentService.getAllDepartments());
-        courseDeptField = new JComboBox<>(departmentWithNone.toArray(new Department[0]));
-        courseDeptField.setRenderer(new DefaultListCellRenderer() {
-            @Override
-            public Component getListCellRendererComponent(
-                JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
-        
-                if (value == null) {
-                    value = "--No Department--";  // shown in dropdown for 'null'
-                }
-                return super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
-            }
-        });
+        // Type-ahead over the in-memory department index - leave it empty for "no department"
+        courseDeptField = new TypeAheadComboBox<>(SuggestionService.getInstance()::suggestDepartments);
         formPanel.add(courseDeptField);
 
         // If we're editing, populate the fields with existing data
@@ -67,7 +57,8 @@ public class CourseDialog extends JDialog {
             courseCodeField.setText(currentCourse.getCourseCode());
             courseNameField.setText(currentCourse.getCourseName());
             courseCreditField.setText(String.valueOf(currentCourse.getCredits()));
-            courseDeptField.setSelectedItem(departmentService.getDepartment(currentCourse.getDepartmentId()));
+            courseCapacityField.setText(currentCourse.getCapacity() > 0 ? String.valueOf(currentCourse.getCapacity()) : "");
+            courseDeptField.setValue(currentCourse.getDepartment());
         }
 
         add(formPanel, BorderLayout.CENTER);
@@ -81,6 +72,7 @@ public class CourseDialog extends JDialog {
 
         saveButton.addActionListener(this::saveCourseAction);
         cancelButton.addActionListener(e -> dispose());
+
         
         // TODO: Add Enter key support for save action
         // TODO: Add Escape key support for cancel action
@@ -90,7 +82,13 @@ public class CourseDialog extends JDialog {
         String courseCode = courseCodeField.getText().trim().toUpperCase();
         int courseCredits = Integer.parseInt(courseCreditField.getText().trim());
         String courseName = courseNameField.getText().trim();
-        Department department = (Department) courseDeptField.getSelectedItem();
+        Department department = courseDeptField.getValue();
+        String capacityText = courseCapacityField.getText().trim();
+        if (!capacityText.matches("\\d{0,6}")) {
+            JOptionPane.showMessageDialog(this, "Seat limit must be a whole number.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        int courseCapacity = capacityText.isEmpty() ? 0 : Integer.parseInt(capacityText);
 
         if (courseCode == null || courseCode.trim().isEmpty() ||
             courseName == null || courseName.trim().isEmpty()) {
@@ -105,6 +103,10 @@ public class CourseDialog extends JDialog {
             JOptionPane.showMessageDialog(this, "Course Credits should be in the range 1-4.", "Validation Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
+        if (department == null && !courseDeptField.getText().trim().isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Pick a department from the list, or clear the field for none.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         // Checks for courseCode matching specific type Ex: CS101
         if (!courseCode.isEmpty() && !courseCode.matches("^[A-Z]+[0-9]+")) {
             JOptionPane.showMessageDialog(this, "Course Code is in wrong format.", "Validation Error", JOptionPane.ERROR_MESSAGE);
@@ -121,6 +123,8 @@ public class CourseDialog extends JDialog {
             courseToSave.setCredits(courseCredits);
             courseToSave.setDepartment(department);
         }
+        // Lowering the limit below the current headcount is allowed - nobody is dropped, it just takes no one new
+        courseToSave.setCapacity(courseCapacity);
 
         try {
             if (currentCourse == null) {
@@ -132,6 +136,8 @@ public class CourseDialog extends JDialog {
             }
             saved = true;
             dispose(); // Close the dialog
+        } catch (DuplicateEntryException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Duplicate Entry", JOptionPane.ERROR_MESSAGE);
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error saving course: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             ex.printStackTrace();
@@ -1,5 +1,6 @@
 package com.university.gui.dialogs;
 
+import com.university.dao.DuplicateEntryException;
 import com.university.model.Department;
 import com.university.service.DepartmentService;
 
@@ -54,7 +55,6 @@ public class DepartmentDialog extends JDialog {
         String name = nameField.getText().trim();
         
         // TODO: Add more comprehensive validation (length limits, special characters)
-        // TODO: Check for duplicate department names
         if (name.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Department name cannot be empty.", "Validation Error", JOptionPane.ERROR_MESSAGE);
             return;
@@ -78,8 +78,9 @@ public class DepartmentDialog extends JDialog {
             }
             saved = true;
             dispose();
+        } catch (DuplicateEntryException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Duplicate Entry", JOptionPane.ERROR_MESSAGE);
         } catch (SQLException ex) {
-            // TODO: Handle specific SQL exceptions (e.g., unique constraint violations)
             JOptionPane.showMessageDialog(this, "Error saving department: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
         }
     }
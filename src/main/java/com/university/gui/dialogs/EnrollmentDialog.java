@@ -0,0 +1,83 @@
+package com.university.gui.dialogs;
+
+import com.university.dao.CourseFullException;
+import com.university.dao.DuplicateEntryException;
+import com.university.gui.TypeAheadComboBox;
+import com.university.model.Course;
+import com.university.model.Student;
+import com.university.service.EnrollmentService;
+import com.university.service.PrerequisitesNotMetException;
+import com.university.service.SuggestionService;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.sql.SQLException;
+
+public class EnrollmentDialog extends JDialog {
+    private TypeAheadComboBox<Student> studentField;
+    private TypeAheadComboBox<Course> courseField;
+    private EnrollmentService enrollmentService;
+    private boolean saved = false;
+
+    // Both pickers search the in-memory indexes, so typing never waits on the database
+    public EnrollmentDialog(Frame owner, Student student, EnrollmentService service) {
+        super(owner, "Enroll Student", true);
+        this.enrollmentService = service;
+
+        setLayout(new BorderLayout());
+        setSize(450, 180);
+        setLocationRelativeTo(owner);
+
+        JPanel formPanel = new JPanel(new GridLayout(0, 2, 10, 10));
+        formPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        formPanel.add(new JLabel("Student (name or email):"));
+        studentField = new TypeAheadComboBox<>(SuggestionService.getInstance()::suggestStudents);
+        studentField.setValue(student);
+        formPanel.add(studentField);
+
+        formPanel.add(new JLabel("Course (code or name):"));
+        courseField = new TypeAheadComboBox<>(SuggestionService.getInstance()::suggestCourses);
+        formPanel.add(courseField);
+
+        add(formPanel, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton enrollButton = new JButton("Enroll");
+        JButton cancelButton = new JButton("Cancel");
+        buttonPanel.add(enrollButton);
+        buttonPanel.add(cancelButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+
+        enrollButton.addActionListener(this::enrollAction);
+        cancelButton.addActionListener(e -> dispose());
+    }
+
+    private void enrollAction(ActionEvent e) {
+        Student student = studentField.getValue();
+        Course course = courseField.getValue();
+        if (student == null || course == null) {
+            JOptionPane.showMessageDialog(this, "Pick a student and a course from the suggestions.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        try {
+            enrollmentService.addEnrollment(student, course);
+            JOptionPane.showMessageDialog(this, student + " enrolled in " + course.getCourseCode() + ".", "Success", JOptionPane.INFORMATION_MESSAGE);
+            saved = true;
+            dispose();
+        } catch (CourseFullException | DuplicateEntryException | PrerequisitesNotMetException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Cannot Enroll", JOptionPane.ERROR_MESSAGE);
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(this, "Error enrolling student: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            ex.printStackTrace();
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    public boolean isSaved() {
+        return saved;
+    }
+}
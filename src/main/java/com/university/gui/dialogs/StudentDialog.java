@@ -1,5 +1,6 @@
 package com.university.gui.dialogs;
 
+import com.university.dao.DuplicateEntryException;
 import com.university.model.Student;
 import com.university.service.StudentService;
 
@@ -123,8 +124,9 @@ public class StudentDialog extends JDialog {
             }
             saved = true;
             dispose(); // Close the dialog
+        } catch (DuplicateEntryException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Duplicate Entry", JOptionPane.ERROR_MESSAGE);
         } catch (SQLException ex) {
-            // TODO: Handle specific SQL exceptions (e.g., duplicate email)
             JOptionPane.showMessageDialog(this, "Error saving student: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             ex.printStackTrace();
         } catch (IllegalArgumentException ex) {
@@ -4,31 +4,62 @@ import com.university.model.Course;
 import com.university.service.CourseService;
 import com.university.gui.dialogs.CourseDialog;
 
+import com.university.gui.BackgroundLoader;
+import com.university.gui.BackgroundWriter;
+import com.university.gui.table.LazyTableModel;
+import com.university.gui.table.RowSource;
+
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.sql.SQLException;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
 
 public class CoursePanel extends JPanel {
     private CourseService courseService;
     private JTable courseTable;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<Course> tableModel;
+    private final JLabel statusLabel = new JLabel(" ");
+    // Edits and deletes hit the database too, so they run off the EDT like the table loads
+    private final BackgroundLoader<Course> editLoader = new BackgroundLoader<>();
 
     public CoursePanel() {
         courseService = new CourseService();
         setLayout(new BorderLayout());
         
-        String[] columnNames = {"Id", "Course Code", "Course Name", "Course Credits", "Department"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
+        tableModel = new LazyTableModel<>(new RowSource<Course>() {
+            @Override
+            public int[] loadOrderedIds(String sortKey, boolean ascending) throws SQLException {
+                return courseService.getCourseIds(sortKey, ascending);
+            }
+
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+            public Map<Integer, Course> loadByIds(Collection<Integer> ids) throws SQLException {
+                return courseService.getCoursesByIds(ids);
             }
-        };
+        }, Arrays.asList(
+                new LazyTableModel.Column<>("Id", Integer.class, "id", Course::getId),
+                new LazyTableModel.Column<>("Course Code", String.class, "courseCode", Course::getCourseCode),
+                new LazyTableModel.Column<>("Course Name", String.class, "courseName", Course::getCourseName),
+                new LazyTableModel.Column<>("Course Credits", Integer.class, "credits", Course::getCredits),
+                new LazyTableModel.Column<>("Seat Limit", Integer.class, null,
+                        course -> course.getCapacity() > 0 ? course.getCapacity() : null),
+                // Department names live in another table, so this column can't be sorted in the database
+                new LazyTableModel.Column<>("Department", String.class, null,
+                        course -> course.getDepartment() == null ? null : course.getDepartment().getName())
+        ), "courseName");
+        tableModel.setMetricsName("CoursePanel");
+        tableModel.setErrorHandler(e -> {
+            JOptionPane.showMessageDialog(this, "Error loading courses: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            e.printStackTrace();
+        });
         courseTable = new JTable(tableModel);
         courseTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tableModel.addLoadingListener(loading -> statusLabel.setText(
+                loading ? "Loading..." : tableModel.getRowCount() + " courses"));
+        tableModel.installHeaderSorting(courseTable);
         
         JScrollPane scrollPane = new JScrollPane(courseTable);
         add(scrollPane, BorderLayout.CENTER);
@@ -43,6 +74,7 @@ public class CoursePanel extends JPanel {
         buttonPanel.add(editButton);
         buttonPanel.add(deleteButton);
         buttonPanel.add(refreshButton);
+        buttonPanel.add(statusLabel);
         add(buttonPanel, BorderLayout.SOUTH);
 
         // Load initial data when the panel is created
@@ -55,43 +87,28 @@ public class CoursePanel extends JPanel {
     }
 
     private void loadCourses() {
-        try {
-            List<Course> courses = courseService.getAllCourses();
-            tableModel.setRowCount(0); // Clear existing data first
-            for (Course course : courses) {
-                tableModel.addRow(new Object[]{
-                        course.getId(),
-                        course.getCourseCode(),
-                        course.getCourseName(),
-                        course.getCredits(),
-                        course.getDepartment() == null ? null : course.getDepartment().getName()
-                });
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading courses: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
-        }
+        tableModel.reload();
     }
 
-    private void addCourseAction(ActionEvent e){
-        try{
-            CourseDialog dialog = new CourseDialog((Frame) SwingUtilities.getWindowAncestor(this), "Add Course", null, courseService);
-            dialog.setVisible(true);
-            if (dialog.isSaved()) {
-                loadCourses(); // Refresh the table if something was saved
-            }
-        } catch(SQLException ex){
+    // Used by the global search to jump to a course
+    public void selectById(int id) {
+        tableModel.selectId(courseTable, id);
+    }
 
+    private void addCourseAction(ActionEvent e) {
+        // The dialog loads its department list in the background, so opening it never blocks
+        CourseDialog dialog = new CourseDialog((Frame) SwingUtilities.getWindowAncestor(this), "Add Course", null, courseService);
+        dialog.setVisible(true);
+        if (dialog.isSaved()) {
+            loadCourses(); // Refresh the table if something was saved
         }
-       
     }
 
     private void editCourseAction(ActionEvent e) {
         int selectedRow = courseTable.getSelectedRow();
         if (selectedRow >= 0) {
-            int courseId = (int) tableModel.getValueAt(selectedRow, 0);
-            try {
-                Course courseToEdit = courseService.getCourse(courseId);
+            int courseId = tableModel.getIdAt(selectedRow);
+            editLoader.load(() -> courseService.getCourse(courseId), courseToEdit -> {
                 if (courseToEdit != null) {
                     CourseDialog dialog = new CourseDialog((Frame) SwingUtilities.getWindowAncestor(this), "Edit Course", courseToEdit, courseService);
                     dialog.setVisible(true);
@@ -101,9 +118,7 @@ public class CoursePanel extends JPanel {
                 } else {
                      JOptionPane.showMessageDialog(this, "Course not found.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(this, "Error fetching course for edit: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, ex -> JOptionPane.showMessageDialog(this, "Error fetching course for edit: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE));
         } else {
             JOptionPane.showMessageDialog(this, "Please select a course to edit.", "No Selection", JOptionPane.WARNING_MESSAGE);
         }
@@ -112,20 +127,20 @@ public class CoursePanel extends JPanel {
     private void deleteCourseAction(ActionEvent e) {
         int selectedRow = courseTable.getSelectedRow();
         if (selectedRow >= 0) {
-            int courseId = (int) tableModel.getValueAt(selectedRow, 0);
+            int courseId = tableModel.getIdAt(selectedRow);
             
             int confirmation = JOptionPane.showConfirmDialog(this,
                     "Are you sure you want to delete course: " + " (ID: " + courseId + ")?",
                     "Confirm Deletion", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
 
             if (confirmation == JOptionPane.YES_OPTION) {
-                try {
+                BackgroundWriter.submit(() -> {
                     courseService.deleteCourse(courseId);
+                    return null;
+                }, done -> {
                     loadCourses(); // Refresh the table
                     JOptionPane.showMessageDialog(this, "Course deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                } catch (SQLException ex) {
-                    JOptionPane.showMessageDialog(this, "Error deleting course: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-                }
+                }, ex -> JOptionPane.showMessageDialog(this, "Error deleting course: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE));
             }
         } else {
             JOptionPane.showMessageDialog(this, "Please select a course to delete.", "No Selection", JOptionPane.WARNING_MESSAGE);
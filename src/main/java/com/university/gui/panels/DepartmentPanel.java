@@ -4,17 +4,25 @@ import com.university.model.Department;
 import com.university.service.DepartmentService;
 import com.university.gui.dialogs.DepartmentDialog;
 
+import com.university.gui.BackgroundLoader;
+import com.university.gui.BackgroundWriter;
+import com.university.gui.table.LazyTableModel;
+import com.university.gui.table.ListRowSource;
+
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.sql.SQLException;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Comparator;
 
 public class DepartmentPanel extends JPanel {
     private DepartmentService departmentService;
     private JTable departmentTable;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<Department> tableModel;
+    private final JLabel statusLabel = new JLabel(" ");
+    // Edits and deletes hit the database too, so they run off the EDT like the table loads
+    private final BackgroundLoader<Department> editLoader = new BackgroundLoader<>();
 
     public DepartmentPanel() {
         departmentService = new DepartmentService();
@@ -23,15 +31,22 @@ public class DepartmentPanel extends JPanel {
         // TODO: Add search functionality for department names
         // TODO: Add department statistics (number of employees, courses)
 
-        String[] columnNames = {"ID", "Department Name"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; 
-            }
-        };
+        // Departments come out of the reference data cache, so the source just sorts that list in memory
+        tableModel = new LazyTableModel<>(
+                new ListRowSource<>(departmentService::getAllDepartments, Department::getId)
+                        .sortKey("name", Comparator.comparing(Department::getName, String.CASE_INSENSITIVE_ORDER)),
+                Arrays.asList(
+                        new LazyTableModel.Column<>("ID", Integer.class, "id", Department::getId),
+                        new LazyTableModel.Column<>("Department Name", String.class, "name", Department::getName)
+                ), "name");
+        tableModel.setMetricsName("DepartmentPanel");
+        tableModel.setErrorHandler(e -> JOptionPane.showMessageDialog(this, "Error loading departments: " + e.getMessage(),
+                "Database Error", JOptionPane.ERROR_MESSAGE));
         departmentTable = new JTable(tableModel);
         departmentTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tableModel.addLoadingListener(loading -> statusLabel.setText(
+                loading ? "Loading..." : tableModel.getRowCount() + " departments"));
+        tableModel.installHeaderSorting(departmentTable);
         JScrollPane scrollPane = new JScrollPane(departmentTable);
         add(scrollPane, BorderLayout.CENTER);
 
@@ -47,6 +62,7 @@ public class DepartmentPanel extends JPanel {
         buttonPanel.add(editButton);
         buttonPanel.add(deleteButton);
         buttonPanel.add(refreshButton);
+        buttonPanel.add(statusLabel);
         add(buttonPanel, BorderLayout.SOUTH);
 
         loadDepartments();
@@ -58,15 +74,12 @@ public class DepartmentPanel extends JPanel {
     }
 
     private void loadDepartments() {
-        try {
-            List<Department> departments = departmentService.getAllDepartments();
-            tableModel.setRowCount(0);
-            for (Department dept : departments) {
-                tableModel.addRow(new Object[]{dept.getId(), dept.getName()});
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading departments: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        tableModel.reload();
+    }
+
+    // Used by the global search to jump to a department
+    public void selectById(int id) {
+        tableModel.selectId(departmentTable, id);
     }
 
     private void addDepartmentAction(ActionEvent e) {
@@ -80,9 +93,8 @@ public class DepartmentPanel extends JPanel {
     private void editDepartmentAction(ActionEvent e) {
         int selectedRow = departmentTable.getSelectedRow();
         if (selectedRow >= 0) {
-            int deptId = (int) tableModel.getValueAt(selectedRow, 0);
-            try {
-                Department deptToEdit = departmentService.getDepartment(deptId);
+            int deptId = tableModel.getIdAt(selectedRow);
+            editLoader.load(() -> departmentService.getDepartment(deptId), deptToEdit -> {
                  if (deptToEdit != null) {
                     DepartmentDialog dialog = new DepartmentDialog((Frame) SwingUtilities.getWindowAncestor(this), "Edit Department", deptToEdit, departmentService);
                     dialog.setVisible(true);
@@ -92,9 +104,7 @@ public class DepartmentPanel extends JPanel {
                 } else {
                      JOptionPane.showMessageDialog(this, "Department not found.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(this, "Error fetching department: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, ex -> JOptionPane.showMessageDialog(this, "Error fetching department: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE));
         } else {
             JOptionPane.showMessageDialog(this, "Please select a department to edit.", "No Selection", JOptionPane.WARNING_MESSAGE);
         }
@@ -103,8 +113,9 @@ public class DepartmentPanel extends JPanel {
     private void deleteDepartmentAction(ActionEvent e) {
         int selectedRow = departmentTable.getSelectedRow();
         if (selectedRow >= 0) {
-            int deptId = (int) tableModel.getValueAt(selectedRow, 0);
-            String deptName = (String) tableModel.getValueAt(selectedRow, 1);
+            int deptId = tableModel.getIdAt(selectedRow);
+            Department selected = tableModel.getRow(selectedRow);
+            String deptName = selected == null ? "" : selected.getName();
             
             // TODO: Check for employees and courses in this department before deletion
             // TODO: Provide options to reassign or handle dependent records
@@ -115,15 +126,15 @@ public class DepartmentPanel extends JPanel {
                     "Confirm Deletion", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
 
             if (confirmation == JOptionPane.YES_OPTION) {
-                try {
+                BackgroundWriter.submit(() -> {
                     departmentService.deleteDepartment(deptId);
+                    return null;
+                }, done -> {
                     loadDepartments();
                     JOptionPane.showMessageDialog(this, "Department deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                } catch (SQLException ex) {
-                    JOptionPane.showMessageDialog(this, "Error deleting department: " + ex.getMessage() + 
-                                                "\n(Ensure no employees or courses are assigned to this department)", 
-                                                "Database Error", JOptionPane.ERROR_MESSAGE);
-                }
+                }, ex -> JOptionPane.showMessageDialog(this, "Error deleting department: " + ex.getMessage() +
+                                                "\n(Ensure no employees or courses are assigned to this department)",
+                                                "Database Error", JOptionPane.ERROR_MESSAGE));
             }
         } else {
             JOptionPane.showMessageDialog(this, "Please select a department to delete.", "No Selection", JOptionPane.WARNING_MESSAGE);
@@ -1,41 +1,71 @@
 package com.university.gui.panels;
 
+import com.university.dao.ExportDAO;
+import com.university.gui.CsvExportTask;
 import com.university.model.Student;
+import com.university.service.EnrollmentService;
 import com.university.service.StudentService;
+import com.university.gui.dialogs.EnrollmentDialog;
 import com.university.gui.dialogs.StudentDialog;
 
+import com.university.gui.BackgroundLoader;
+import com.university.gui.BackgroundWriter;
+import com.university.gui.table.LazyTableModel;
+import com.university.gui.table.RowSource;
+
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.sql.SQLException;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
 
 public class StudentPanel extends JPanel {
     private StudentService studentService;
     private JTable studentTable;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<Student> tableModel;
+    private final JLabel statusLabel = new JLabel(" ");
+    // Edits and deletes hit the database too, so they run off the EDT like the table loads
+    private final BackgroundLoader<Student> editLoader = new BackgroundLoader<>();
 
     public StudentPanel() {
         studentService = new StudentService();
         setLayout(new BorderLayout());
 
-        // TODO: Add search/filter functionality
-        // TODO: Add pagination for large datasets
-        // TODO: Add export functionality (CSV, PDF)
+        // TODO: Add per-column filters (global search is in the SearchBar)
+        // TODO: Add PDF export (CSV export is done - see CsvExportTask)
         
-        // I'm setting up the table with specific columns
-        String[] columnNames = {"ID", "First Name", "Last Name", "Email", "Date of Birth"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
+        // The table only loads the rows that are on screen, so this stays fast with hundreds of thousands of students.
+        // Sorting happens in the database - click a header to sort by it, click again to flip the order.
+        tableModel = new LazyTableModel<>(new RowSource<Student>() {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // I'm making table cells non-editable to prevent accidental changes
+            public int[] loadOrderedIds(String sortKey, boolean ascending) throws SQLException {
+                return studentService.getStudentIds(sortKey, ascending);
             }
-        };
-        studentTable = new JTable(tableModel);
+
+            @Override
+            public Map<Integer, Student> loadByIds(Collection<Integer> ids) throws SQLException {
+                return studentService.getStudentsByIds(ids);
+            }
+        }, Arrays.asList(
+                new LazyTableModel.Column<>("ID", Integer.class, "id", Student::getId),
+                new LazyTableModel.Column<>("First Name", String.class, "firstName", Student::getFirstName),
+                new LazyTableModel.Column<>("Last Name", String.class, "lastName", Student::getLastName),
+                new LazyTableModel.Column<>("Email", String.class, "email", Student::getEmail),
+                new LazyTableModel.Column<>("Date of Birth", String.class, "dateOfBirth", Student::getDateOfBirth)
+        ), "lastName"); // Same default order as before - by last name
+        tableModel.setMetricsName("StudentPanel");
+        tableModel.setErrorHandler(e -> {
+            JOptionPane.showMessageDialog(this, "Error loading students: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            e.printStackTrace();
+        });
+        studentTable = new JTable(tableModel); // AbstractTableModel cells aren't editable by default
         studentTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION); // Only allow single row selection
-        
-        // TODO: Add sorting capabilities to table columns
+        tableModel.addLoadingListener(loading -> statusLabel.setText(
+                loading ? "Loading..." : tableModel.getRowCount() + " students"));
+        tableModel.installHeaderSorting(studentTable);
+
         // TODO: Add right-click context menu for table rows
         
         JScrollPane scrollPane = new JScrollPane(studentTable);
@@ -47,6 +77,8 @@ public class StudentPanel extends JPanel {
         JButton editButton = new JButton("Edit Student");
         JButton deleteButton = new JButton("Delete Student");
         JButton refreshButton = new JButton("Refresh");
+        JButton exportButton = new JButton("Export CSV");
+        JButton enrollButton = new JButton("Enroll...");
 
         // TODO: Add keyboard shortcuts for buttons (Ctrl+N for Add, etc.)
         // TODO: Add icons to buttons for better UX
@@ -55,6 +87,9 @@ public class StudentPanel extends JPanel {
         buttonPanel.add(editButton);
         buttonPanel.add(deleteButton);
         buttonPanel.add(refreshButton);
+        buttonPanel.add(enrollButton);
+        buttonPanel.add(exportButton);
+        buttonPanel.add(statusLabel);
         add(buttonPanel, BorderLayout.SOUTH);
 
         // Load initial data when the panel is created
@@ -65,25 +100,17 @@ public class StudentPanel extends JPanel {
         editButton.addActionListener(this::editStudentAction);
         deleteButton.addActionListener(this::deleteStudentAction);
         refreshButton.addActionListener(e -> loadStudents());
+        exportButton.addActionListener(e -> CsvExportTask.exportWithChooser(this, ExportDAO.Dataset.STUDENTS));
+        enrollButton.addActionListener(this::enrollStudentAction);
     }
 
     private void loadStudents() {
-        try {
-            List<Student> students = studentService.getAllStudents();
-            tableModel.setRowCount(0); // Clear existing data first
-            for (Student student : students) {
-                tableModel.addRow(new Object[]{
-                        student.getId(),
-                        student.getFirstName(),
-                        student.getLastName(),
-                        student.getEmail(),
-                        student.getDateOfBirth()
-                });
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading students: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
-        }
+        tableModel.reload(); // Runs in the background - errors go to the handler set up in the constructor
+    }
+
+    // Used by the global search to jump to a student
+    public void selectById(int id) {
+        tableModel.selectId(studentTable, id);
     }
 
     private void addStudentAction(ActionEvent e) {
@@ -97,9 +124,8 @@ public class StudentPanel extends JPanel {
     private void editStudentAction(ActionEvent e) {
         int selectedRow = studentTable.getSelectedRow();
         if (selectedRow >= 0) {
-            int studentId = (int) tableModel.getValueAt(selectedRow, 0);
-            try {
-                Student studentToEdit = studentService.getStudent(studentId);
+            int studentId = tableModel.getIdAt(selectedRow);
+            editLoader.load(() -> studentService.getStudent(studentId), studentToEdit -> {
                 if (studentToEdit != null) {
                     StudentDialog dialog = new StudentDialog((Frame) SwingUtilities.getWindowAncestor(this), "Edit Student", studentToEdit, studentService);
                     dialog.setVisible(true);
@@ -109,19 +135,25 @@ public class StudentPanel extends JPanel {
                 } else {
                      JOptionPane.showMessageDialog(this, "Student not found.", "Error", JOptionPane.ERROR_MESSAGE);
                 }
-            } catch (SQLException ex) {
-                JOptionPane.showMessageDialog(this, "Error fetching student for edit: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, ex -> JOptionPane.showMessageDialog(this, "Error fetching student for edit: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE));
         } else {
             JOptionPane.showMessageDialog(this, "Please select a student to edit.", "No Selection", JOptionPane.WARNING_MESSAGE);
         }
     }
 
+    private void enrollStudentAction(ActionEvent e) {
+        int selectedRow = studentTable.getSelectedRow();
+        Student selected = selectedRow >= 0 ? tableModel.getRow(selectedRow) : null; // Pre-fill if the row is loaded
+        EnrollmentDialog dialog = new EnrollmentDialog((Frame) SwingUtilities.getWindowAncestor(this), selected, new EnrollmentService());
+        dialog.setVisible(true);
+    }
+
     private void deleteStudentAction(ActionEvent e) {
         int selectedRow = studentTable.getSelectedRow();
         if (selectedRow >= 0) {
-            int studentId = (int) tableModel.getValueAt(selectedRow, 0);
-            String studentName = tableModel.getValueAt(selectedRow, 1) + " " + tableModel.getValueAt(selectedRow, 2);
+            int studentId = tableModel.getIdAt(selectedRow);
+            Student selected = tableModel.getRow(selectedRow);
+            String studentName = selected == null ? "" : selected.getFirstName() + " " + selected.getLastName();
             
             // TODO: Check for existing enrollments before allowing deletion
             // TODO: Provide option to handle existing enrollments
@@ -131,13 +163,13 @@ public class StudentPanel extends JPanel {
                     "Confirm Deletion", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
 
             if (confirmation == JOptionPane.YES_OPTION) {
-                try {
+                BackgroundWriter.submit(() -> {
                     studentService.deleteStudent(studentId);
+                    return null;
+                }, done -> {
                     loadStudents(); // Refresh the table
                     JOptionPane.showMessageDialog(this, "Student deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-                } catch (SQLException ex) {
-                    JOptionPane.showMessageDialog(this, "Error deleting student: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-                }
+                }, ex -> JOptionPane.showMessageDialog(this, "Error deleting student: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE));
             }
         } else {
             JOptionPane.showMessageDialog(this, "Please select a student to delete.", "No Selection", JOptionPane.WARNING_MESSAGE);
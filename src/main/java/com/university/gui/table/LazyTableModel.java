@@ -0,0 +1,336 @@
+package com.university.gui.table;
+
+import com.university.gui.BackgroundLoader;
+import com.university.util.LatencyHistogram;
+import com.university.util.LruCache;
+import com.university.util.Metrics;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+import javax.swing.table.TableColumn;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Virtualized table model. It keeps the row order as a plain int[] of ids and only materializes the blocks
+ * of rows the viewport actually asks for. Loaded blocks live in an LRU with a fixed block budget, so memory
+ * stays at a few MB however many rows the table has. When a block is requested the next one is prefetched,
+ * which keeps normal scrolling ahead of the loader. Queued blocks load newest first, and ones the user has
+ * already scrolled well past are dropped unread, so dragging the scrollbar doesn't leave the block on
+ * screen waiting behind every block passed on the way.
+ *
+ * Cells that aren't loaded yet render as empty and get repainted when their block arrives. All model
+ * state is only touched on the EDT; block loads run on one background thread per model and reloads go
+ * through a BackgroundLoader.
+ */
+public class LazyTableModel<T> extends AbstractTableModel {
+
+    public static final class Column<T> {
+        final String name;
+        final Class<?> type;
+        final String sortKey; // null when the column can't be sorted in the database
+        final Function<T, Object> value;
+
+        public Column(String name, Class<?> type, String sortKey, Function<T, Object> value) {
+            this.name = name;
+            this.type = type;
+            this.sortKey = sortKey;
+            this.value = value;
+        }
+    }
+
+    private static final int DEFAULT_BLOCK_SIZE = 200;
+    private static final int DEFAULT_MAX_BLOCKS = 50; // 10,000 rows in memory at most
+    private static final int STALE_DISTANCE = 2; // Blocks this far from the newest request are no longer on screen
+
+    private final RowSource<T> source;
+    private final List<Column<T>> columns;
+    private final int blockSize;
+    private final LruCache<Integer, List<T>> blocks;
+    private final Set<Integer> pendingBlocks = new HashSet<>();
+    private final ExecutorService loader;
+    private final Deque<Runnable> queuedBlocks = new ArrayDeque<>(); // Newest first; guarded by itself
+    private volatile int newestBlock; // Written on the EDT, read by the loader to spot stale requests
+    private final BackgroundLoader<int[]> reloader = new BackgroundLoader<>();
+
+    private int[] ids = new int[0];
+    private String sortKey;
+    private boolean ascending = true;
+    private int generation; // Bumped whenever the row order changes so late blocks for the old order get dropped
+    private Consumer<Exception> errorHandler = Throwable::printStackTrace;
+    private Runnable reloadListener;
+    private JTable pendingSelectionTable; // Set by selectId() when the row has to wait for a reload
+    private int pendingSelectionId;
+    // Request-to-visible times, i.e. what the user waits for - including any queueing behind other loads
+    private LatencyHistogram reloadTimer = Metrics.timer("gui.table.reload");
+    private LatencyHistogram blockTimer = Metrics.timer("gui.table.block");
+
+    public LazyTableModel(RowSource<T> source, List<Column<T>> columns, String initialSortKey) {
+        this(source, columns, initialSortKey, DEFAULT_BLOCK_SIZE, DEFAULT_MAX_BLOCKS);
+    }
+
+    public LazyTableModel(RowSource<T> source, List<Column<T>> columns, String initialSortKey,
+                          int blockSize, int maxBlocks) {
+        this.source = source;
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+        this.sortKey = initialSortKey;
+        this.blockSize = blockSize;
+        this.blocks = new LruCache<>("table-blocks", maxBlocks);
+        this.loader = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "table-loader");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Called with any SQLException from the background loads, on the EDT
+    public void setErrorHandler(Consumer<Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    // Runs on the EDT after each reload has swapped in the new row order (e.g. to restore a selection)
+    public void setReloadListener(Runnable reloadListener) {
+        this.reloadListener = reloadListener;
+    }
+
+    // Gives this table its own timers (gui.<name>.reload and gui.<name>.block) instead of the shared ones
+    public void setMetricsName(String name) {
+        reloadTimer = Metrics.timer("gui." + name + ".reload");
+        blockTimer = Metrics.timer("gui." + name + ".block");
+    }
+
+    // Re-reads the row order in the background; the current rows stay visible until it's ready.
+    // Repeated calls while a reload is running coalesce into one follow-up reload.
+    public void reload() {
+        String key = sortKey;
+        boolean asc = ascending;
+        long requestedAt = System.nanoTime();
+        LatencyHistogram timer = reloadTimer;
+        reloader.load(() -> source.loadOrderedIds(key, asc), newIds -> {
+            ids = newIds;
+            generation++;
+            blocks.invalidateAll();
+            pendingBlocks.clear();
+            fireTableDataChanged();
+            timer.recordSince(requestedAt);
+            if (reloadListener != null) {
+                reloadListener.run();
+            }
+            if (pendingSelectionTable != null) {
+                int row = indexOfId(pendingSelectionId);
+                if (row >= 0) {
+                    selectRow(pendingSelectionTable, row);
+                }
+                pendingSelectionTable = null;
+            }
+        }, errorHandler);
+    }
+
+    public boolean isLoading() {
+        return reloader.isLoading();
+    }
+
+    // Called on the EDT with true when a reload starts and false when the new rows are in
+    public void addLoadingListener(Consumer<Boolean> listener) {
+        reloader.addLoadingListener(listener);
+    }
+
+    public void sortBy(String key, boolean asc) {
+        sortKey = key;
+        ascending = asc;
+        reload();
+    }
+
+    public String getSortKey() { return sortKey; }
+    public boolean isAscending() { return ascending; }
+
+    // Clicking a sortable header sorts by it; clicking it again flips the direction
+    public void installHeaderSorting(JTable table) {
+        JTableHeader header = table.getTableHeader();
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumn = header.columnAtPoint(e.getPoint());
+                if (viewColumn < 0) {
+                    return;
+                }
+                Column<T> column = columns.get(table.convertColumnIndexToModel(viewColumn));
+                if (column.sortKey != null) {
+                    sortBy(column.sortKey, !column.sortKey.equals(sortKey) || !ascending);
+                }
+            }
+        });
+        // JTable copies header text once, so the sort arrow has to be pushed to the columns after each reload
+        addTableModelListener(e -> {
+            if (e.getLastRow() == Integer.MAX_VALUE) {
+                for (int i = 0; i < table.getColumnModel().getColumnCount(); i++) {
+                    TableColumn tableColumn = table.getColumnModel().getColumn(i);
+                    tableColumn.setHeaderValue(getColumnName(tableColumn.getModelIndex()));
+                }
+                header.repaint();
+            }
+        });
+    }
+
+    public int getIdAt(int row) {
+        return ids[row];
+    }
+
+    // Returns -1 if the id isn't in the current row order
+    public int indexOfId(int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Selects and scrolls to the row with this ID. If a reload is running, or the ID isn't in the current
+    // row order (say it was added since the last load), the selection is applied once a fresh order arrives.
+    public void selectId(JTable table, int id) {
+        int row = isLoading() ? -1 : indexOfId(id);
+        if (row >= 0) {
+            selectRow(table, row);
+            return;
+        }
+        pendingSelectionTable = table;
+        pendingSelectionId = id;
+        reload();
+    }
+
+    private static void selectRow(JTable table, int row) {
+        table.getSelectionModel().setSelectionInterval(row, row);
+        table.scrollRectToVisible(table.getCellRect(row, 0, true));
+    }
+
+    // Null while the row's block is still loading
+    public T getRow(int row) {
+        List<T> block = blocks.get(row / blockSize);
+        if (block == null) {
+            requestBlock(row / blockSize);
+            return null;
+        }
+        requestBlock(row / blockSize + 1); // Prefetch - a no-op if it's already loaded or on its way
+        return block.get(row % blockSize);
+    }
+
+    public void shutdown() {
+        reloader.cancel();
+        loader.shutdownNow();
+    }
+
+    @Override
+    public int getRowCount() {
+        return ids.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        Column<T> c = columns.get(column);
+        if (c.sortKey != null && c.sortKey.equals(sortKey)) {
+            return c.name + (ascending ? " \u25B2" : " \u25BC");
+        }
+        return c.name;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columns.get(column).type;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        T item = getRow(row);
+        return item == null ? null : columns.get(column).value.apply(item);
+    }
+
+    private void requestBlock(int block) {
+        int from = block * blockSize;
+        if (from >= ids.length || pendingBlocks.contains(block)) {
+            return;
+        }
+        if (blocks.get(block) != null) {
+            return;
+        }
+        pendingBlocks.add(block);
+        newestBlock = block;
+        int to = Math.min(from + blockSize, ids.length);
+        List<Integer> blockIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            blockIds.add(ids[i]);
+        }
+        int requested = generation;
+        long requestedAt = System.nanoTime();
+        LatencyHistogram timer = blockTimer;
+        Runnable load = () -> {
+            if (Math.abs(block - newestBlock) > STALE_DISTANCE) {
+                SwingUtilities.invokeLater(() -> {
+                    if (requested == generation) {
+                        pendingBlocks.remove(block); // Asked for again if it's ever painted again
+                    }
+                });
+                return;
+            }
+            try {
+                Map<Integer, T> loaded = source.loadByIds(blockIds);
+                List<T> rows = new ArrayList<>(blockIds.size());
+                for (Integer id : blockIds) {
+                    rows.add(loaded.get(id));
+                }
+                SwingUtilities.invokeLater(() -> {
+                    if (requested != generation) {
+                        return;
+                    }
+                    pendingBlocks.remove(block);
+                    blocks.put(block, rows);
+                    fireTableRowsUpdated(from, to - 1);
+                    timer.recordSince(requestedAt);
+                });
+            } catch (Exception e) {
+                SwingUtilities.invokeLater(() -> {
+                    pendingBlocks.remove(block);
+                    errorHandler.accept(e);
+                });
+            }
+        };
+        synchronized (queuedBlocks) {
+            queuedBlocks.push(load);
+        }
+        loader.execute(this::loadNewestBlock);
+    }
+
+    // One of these is queued per request, so every request is served or dropped exactly once - newest first
+    private void loadNewestBlock() {
+        Runnable load;
+        synchronized (queuedBlocks) {
+            load = queuedBlocks.poll();
+        }
+        if (load != null) {
+            load.run();
+        }
+    }
+
+    // Hit ratio, block count etc. - handy when tuning block size
+    public String getCacheStatistics() {
+        return blocks.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.university.gui.table;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * RowSource over a list that's already in memory anyway (e.g. departments, which come out of the
+ * reference data cache). Sort keys map to comparators; the list is re-read on every reload.
+ */
+public class ListRowSource<T> implements RowSource<T> {
+
+    public interface ListLoader<T> {
+        List<T> load() throws SQLException;
+    }
+
+    private final ListLoader<T> loader;
+    private final ToIntFunction<T> idOf;
+    private final Map<String, Comparator<T>> comparators = new HashMap<>();
+    private volatile Map<Integer, T> byId = new HashMap<>();
+
+    public ListRowSource(ListLoader<T> loader, ToIntFunction<T> idOf) {
+        this.loader = loader;
+        this.idOf = idOf;
+        comparators.put("id", Comparator.comparingInt(idOf));
+    }
+
+    public ListRowSource<T> sortKey(String name, Comparator<T> comparator) {
+        comparators.put(name, comparator.thenComparingInt(idOf));
+        return this;
+    }
+
+    @Override
+    public int[] loadOrderedIds(String sortKey, boolean ascending) throws SQLException {
+        Comparator<T> comparator = comparators.get(sortKey);
+        if (comparator == null) {
+            throw new IllegalArgumentException("Can't sort by '" + sortKey + "'. Valid keys: " + comparators.keySet());
+        }
+        List<T> items = new ArrayList<>(loader.load());
+        items.sort(ascending ? comparator : comparator.reversed());
+        Map<Integer, T> index = new HashMap<>();
+        int[] ids = new int[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            T item = items.get(i);
+            ids[i] = idOf.applyAsInt(item);
+            index.put(ids[i], item);
+        }
+        byId = index;
+        return ids;
+    }
+
+    @Override
+    public Map<Integer, T> loadByIds(Collection<Integer> ids) {
+        Map<Integer, T> current = byId;
+        Map<Integer, T> found = new HashMap<>();
+        for (Integer id : ids) {
+            T item = current.get(id);
+            if (item != null) {
+                found.put(id, item);
+            }
+        }
+        return found;
+    }
+}
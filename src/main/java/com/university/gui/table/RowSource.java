@@ -0,0 +1,16 @@
+package com.university.gui.table;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Where a LazyTableModel gets its rows from. Both calls run on a background thread.
+ *
+ * loadOrderedIds returns the full row order as ids only - that's the cheap part. loadByIds then fills in
+ * one block of rows at a time; ids missing from the result (deleted since) just show up as blank rows.
+ */
+public interface RowSource<T> {
+    int[] loadOrderedIds(String sortKey, boolean ascending) throws SQLException;
+    Map<Integer, T> loadByIds(Collection<Integer> ids) throws SQLException;
+}
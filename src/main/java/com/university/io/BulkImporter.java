@@ -0,0 +1,480 @@
+package com.university.io;
+
+import com.university.dao.BatchResult;
+import com.university.dao.EnrollmentDAO;
+import com.university.dao.GradeDAO;
+import com.university.dao.StudentDAO;
+import com.university.dao.impl.CachingCourseDAO;
+import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.dao.impl.GradeDAOImpl;
+import com.university.dao.impl.StudentDAOImpl;
+import com.university.model.Enrollment;
+import com.university.model.Grade;
+import com.university.model.Student;
+import com.university.service.GradeService;
+import com.university.service.StudentService;
+import com.university.util.Metrics;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streaming CSV import for registrar dumps (students, enrollments and grades).
+ *
+ * One reader thread splits the file into chunks of raw records, a pool of parser threads turns chunks into
+ * validated model objects, and the calling thread is the single writer that commits each chunk in one
+ * transaction through the DAO batch methods. The hand-off queue is bounded, so memory stays at roughly
+ * (parser threads * 2 + 1) chunks no matter how big the file is.
+ *
+ * After every committed chunk the number of consumed records goes into a checkpoint file, and a re-run
+ * skips that many records. Rows that fail validation, can't be resolved or are rejected by the database
+ * are appended to a rejects CSV together with the reason.
+ */
+public class BulkImporter {
+
+    public enum Type { STUDENTS, ENROLLMENTS, GRADES }
+
+    public static class Report {
+        private long recordsRead;
+        private long recordsSkipped;
+        private long imported;
+        private long rejected;
+        private long elapsedMillis;
+
+        public long getRecordsRead() { return recordsRead; }
+        public long getRecordsSkipped() { return recordsSkipped; }
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return "read=" + recordsRead + ", skipped(checkpoint)=" + recordsSkipped + ", imported=" + imported
+                    + ", rejected=" + rejected + ", elapsed=" + elapsedMillis + " ms";
+        }
+    }
+
+    private static final class RawRecord {
+        final long number; // 1-based data record index (header excluded) - this is what the checkpoint counts
+        final long line;
+        final String text;
+
+        RawRecord(long number, long line, String text) {
+            this.number = number;
+            this.line = line;
+            this.text = text;
+        }
+    }
+
+    private static final class Rejection {
+        final RawRecord record;
+        final String reason;
+
+        Rejection(RawRecord record, String reason) {
+            this.record = record;
+            this.reason = reason;
+        }
+    }
+
+    private static final class ParsedChunk<T> {
+        final long lastRecord;
+        final List<T> rows = new ArrayList<>();
+        final List<RawRecord> sources = new ArrayList<>();
+        final List<Rejection> rejections = new ArrayList<>();
+
+        ParsedChunk(long lastRecord) {
+            this.lastRecord = lastRecord;
+        }
+    }
+
+    // What differs between students, enrollments and grades
+    private interface Target<T> {
+        String[] requiredColumns();
+        void loadLookups() throws SQLException;
+        T parse(String[] fields, int[] columns); // Throws IllegalArgumentException with the reject reason
+        BatchResult write(List<T> rows) throws SQLException;
+    }
+
+    private final Type type;
+    private final Path source;
+    private Path checkpointFile;
+    private Path rejectsFile;
+    private int chunkSize = 2_000;
+    private int parserThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    public BulkImporter(Type type, Path source) {
+        this.type = type;
+        this.source = source;
+        this.checkpointFile = source.resolveSibling(source.getFileName() + ".checkpoint");
+        this.rejectsFile = source.resolveSibling(source.getFileName() + ".rejects.csv");
+    }
+
+    public BulkImporter setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("Chunk size must be positive.");
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public BulkImporter setParserThreads(int parserThreads) {
+        if (parserThreads <= 0) throw new IllegalArgumentException("Parser thread count must be positive.");
+        this.parserThreads = parserThreads;
+        return this;
+    }
+
+    public BulkImporter setCheckpointFile(Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+        return this;
+    }
+
+    public BulkImporter setRejectsFile(Path rejectsFile) {
+        this.rejectsFile = rejectsFile;
+        return this;
+    }
+
+    public Report run() throws IOException, SQLException {
+        return run(createTarget());
+    }
+
+    private <T> Report run(Target<T> target) throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        Report report = new Report();
+        target.loadLookups();
+
+        long alreadyCommitted = readCheckpoint();
+        report.recordsSkipped = alreadyCommitted;
+
+        ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, daemonThreads("import-parser"));
+        // Futures go into the queue in file order, so the writer commits chunks in order even though
+        // they finish parsing out of order. The bound is what gives the pipeline its backpressure.
+        BlockingQueue<Future<ParsedChunk<T>>> pending = new ArrayBlockingQueue<>(parserThreads * 2);
+        CompletableFuture<ParsedChunk<T>> endOfInput = CompletableFuture.completedFuture(null);
+
+        Thread readerThread = new Thread(() -> {
+            try {
+                readChunks(target, alreadyCommitted, parsers, pending, report);
+                pending.put(endOfInput);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                CompletableFuture<ParsedChunk<T>> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                try {
+                    pending.put(failed);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "import-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        try (Writer rejects = Files.newBufferedWriter(rejectsFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+             CsvWriter rejectsCsv = new CsvWriter(rejects)) {
+            if (alreadyCommitted == 0) {
+                rejectsCsv.writeRow("record", "line", "reason", "data");
+            }
+            while (true) {
+                ParsedChunk<T> chunk = takeNext(pending);
+                if (chunk == null) {
+                    break;
+                }
+                BatchResult result = target.write(chunk.rows);
+                for (Map.Entry<Integer, SQLException> failure : result.getFailures().entrySet()) {
+                    chunk.rejections.add(new Rejection(chunk.sources.get(failure.getKey()), failure.getValue().getMessage()));
+                }
+                for (Rejection rejection : chunk.rejections) {
+                    rejectsCsv.writeRow(String.valueOf(rejection.record.number), String.valueOf(rejection.record.line),
+                            rejection.reason, rejection.record.text);
+                }
+                rejectsCsv.flush(); // Rejects must be on disk before the checkpoint says the chunk is done
+                report.imported += result.getSuccessCount();
+                report.rejected += chunk.rejections.size();
+                writeCheckpoint(chunk.lastRecord, false);
+            }
+            writeCheckpoint(alreadyCommitted + report.recordsRead, true);
+        } finally {
+            readerThread.interrupt();
+            parsers.shutdownNow();
+        }
+        report.elapsedMillis = System.currentTimeMillis() - started;
+        return report;
+    }
+
+    private <T> void readChunks(Target<T> target, long skip, ExecutorService parsers,
+                                BlockingQueue<Future<ParsedChunk<T>>> pending, Report report)
+            throws IOException, InterruptedException {
+        try (Reader in = Files.newBufferedReader(source, StandardCharsets.UTF_8);
+             CsvReader csv = new CsvReader(in)) {
+            String header = csv.readRawRecord();
+            if (header == null) {
+                return;
+            }
+            int[] columns = resolveColumns(CsvReader.parse(stripBom(header)), target.requiredColumns());
+
+            long number = 0;
+            List<RawRecord> chunk = new ArrayList<>(chunkSize);
+            String text;
+            while ((text = csv.readRawRecord()) != null) {
+                if (text.isEmpty()) {
+                    continue; // Blank lines aren't records
+                }
+                number++;
+                if (number <= skip) {
+                    continue; // Committed by an earlier run
+                }
+                chunk.add(new RawRecord(number, csv.getLineNumber(), text));
+                if (chunk.size() == chunkSize) {
+                    submit(target, columns, chunk, parsers, pending);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(target, columns, chunk, parsers, pending);
+            }
+            report.recordsRead = number - Math.min(number, skip);
+        }
+    }
+
+    private <T> void submit(Target<T> target, int[] columns, List<RawRecord> records, ExecutorService parsers,
+                            BlockingQueue<Future<ParsedChunk<T>>> pending) throws InterruptedException {
+        Future<ParsedChunk<T>> future = parsers.submit(() -> {
+            ParsedChunk<T> parsed = new ParsedChunk<>(records.get(records.size() - 1).number);
+            for (RawRecord record : records) {
+                try {
+                    parsed.rows.add(target.parse(CsvReader.parse(record.text), columns));
+                    parsed.sources.add(record);
+                } catch (IllegalArgumentException e) {
+                    parsed.rejections.add(new Rejection(record, e.getMessage()));
+                }
+            }
+            return parsed;
+        });
+        pending.put(future); // Blocks when the writer falls behind
+    }
+
+    private static <T> ParsedChunk<T> takeNext(BlockingQueue<Future<ParsedChunk<T>>> pending)
+            throws IOException, SQLException {
+        try {
+            return pending.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof SQLException) throw (SQLException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException("Import failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private static int[] resolveColumns(String[] header, String[] required) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            positions.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] columns = new int[required.length];
+        for (int i = 0; i < required.length; i++) {
+            Integer position = positions.get(required[i].toLowerCase(Locale.ROOT));
+            columns[i] = position == null ? -1 : position; // Missing optional columns just read as empty
+        }
+        if (columns[0] < 0) {
+            throw new IllegalArgumentException("CSV header is missing required column: " + required[0]);
+        }
+        return columns;
+    }
+
+    private static String field(String[] fields, int[] columns, int index) {
+        int position = columns[index];
+        if (position < 0 || position >= fields.length) {
+            return null;
+        }
+        String value = fields[position].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String stripBom(String header) {
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+
+    // --- Checkpoint ---
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        long records = 0;
+        for (String line : Files.readAllLines(checkpointFile, StandardCharsets.UTF_8)) {
+            if (line.startsWith("records=")) {
+                records = Long.parseLong(line.substring("records=".length()).trim());
+            }
+        }
+        return records;
+    }
+
+    private void writeCheckpoint(long records, boolean complete) throws IOException {
+        // Write-then-rename so a crash can never leave a half-written checkpoint behind
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.write(temp, ("source=" + source.toAbsolutePath() + "\nrecords=" + records + "\ncomplete=" + complete + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static java.util.concurrent.ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // --- Targets ---
+
+    private Target<?> createTarget() {
+        switch (type) {
+            case STUDENTS: return new StudentTarget();
+            case ENROLLMENTS: return new EnrollmentTarget();
+            case GRADES: return new GradeTarget();
+            default: throw new IllegalStateException("Unknown import type: " + type);
+        }
+    }
+
+    private static final class StudentTarget implements Target<Student> {
+        private final StudentDAO studentDAO = Metrics.timed(StudentDAO.class, new StudentDAOImpl());
+
+        @Override
+        public String[] requiredColumns() {
+            return new String[]{"firstName", "lastName", "email", "dateOfBirth"};
+        }
+
+        @Override
+        public void loadLookups() {
+            // Nothing to resolve - duplicate emails are caught by the UNIQUE index per row
+        }
+
+        @Override
+        public Student parse(String[] fields, int[] columns) {
+            Student student = new Student(0, field(fields, columns, 0), field(fields, columns, 1),
+                    field(fields, columns, 2), field(fields, columns, 3));
+            StudentService.validateStudent(student);
+            return student;
+        }
+
+        @Override
+        public BatchResult write(List<Student> rows) throws SQLException {
+            return studentDAO.addStudents(rows);
+        }
+    }
+
+    private static final class EnrollmentTarget implements Target<Enrollment> {
+        private final EnrollmentDAO enrollmentDAO = Metrics.timed(EnrollmentDAO.class, new EnrollmentDAOImpl());
+        private Map<String, Integer> studentIds;
+        private Map<String, Integer> courseIds;
+
+        @Override
+        public String[] requiredColumns() {
+            return new String[]{"studentEmail", "courseCode", "enrollmentDate"};
+        }
+
+        @Override
+        public void loadLookups() throws SQLException {
+            studentIds = Metrics.timed(StudentDAO.class, new StudentDAOImpl()).getStudentIdsByEmail();
+            courseIds = new CachingCourseDAO().getCourseIdsByCode();
+        }
+
+        @Override
+        public Enrollment parse(String[] fields, int[] columns) {
+            int studentId = resolve(studentIds, field(fields, columns, 0), "student email");
+            int courseId = resolve(courseIds, upper(field(fields, columns, 1)), "course code");
+            String date = field(fields, columns, 2);
+            if (date == null) {
+                date = LocalDate.now().format(DateTimeFormatter.ISO_DATE); // Same default as EnrollmentService
+            }
+            return new Enrollment(0, studentId, courseId, date);
+        }
+
+        @Override
+        public BatchResult write(List<Enrollment> rows) throws SQLException {
+            // Not addEnrollments() - that refuses the whole chunk when a course would go over capacity, and
+            // since the checkpoint never moves past that chunk every re-run would stop in the same place.
+            // Here a full course only rejects its own rows, like a duplicate does.
+            return enrollmentDAO.enrollAll(rows);
+        }
+    }
+
+    private static final class GradeTarget implements Target<Grade> {
+        private final GradeDAO gradeDAO = Metrics.timed(GradeDAO.class, new GradeDAOImpl());
+        private Map<String, Integer> studentIds;
+        private Map<String, Integer> courseIds;
+        private Map<Long, Integer> enrollmentIds;
+
+        @Override
+        public String[] requiredColumns() {
+            return new String[]{"studentEmail", "courseCode", "gradeValue", "comments"};
+        }
+
+        @Override
+        public void loadLookups() throws SQLException {
+            studentIds = Metrics.timed(StudentDAO.class, new StudentDAOImpl()).getStudentIdsByEmail();
+            courseIds = new CachingCourseDAO().getCourseIdsByCode();
+            enrollmentIds = Metrics.timed(EnrollmentDAO.class, new EnrollmentDAOImpl()).getEnrollmentIdsByStudentAndCourse();
+        }
+
+        @Override
+        public Grade parse(String[] fields, int[] columns) {
+            int studentId = resolve(studentIds, field(fields, columns, 0), "student email");
+            int courseId = resolve(courseIds, upper(field(fields, columns, 1)), "course code");
+            Integer enrollmentId = enrollmentIds.get(EnrollmentDAO.pairKey(studentId, courseId));
+            if (enrollmentId == null) {
+                throw new IllegalArgumentException("Student is not enrolled in this course.");
+            }
+            String gradeValue = field(fields, columns, 2);
+            GradeService.validateGradeValue(gradeValue);
+            return new Grade(0, enrollmentId, gradeValue, field(fields, columns, 3));
+        }
+
+        @Override
+        public BatchResult write(List<Grade> rows) throws SQLException {
+            return gradeDAO.addGrades(rows);
+        }
+    }
+
+    private static int resolve(Map<String, Integer> lookup, String key, String what) {
+        if (key == null) {
+            throw new IllegalArgumentException("Missing " + what + ".");
+        }
+        Integer id = lookup.get(key);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown " + what + ": " + key);
+        }
+        return id;
+    }
+
+    private static String upper(String value) {
+        return value == null ? null : value.toUpperCase(Locale.ROOT); // CourseDialog stores codes upper-case
+    }
+}
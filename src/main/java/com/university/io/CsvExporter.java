@@ -0,0 +1,76 @@
+package com.university.io;
+
+import com.university.dao.ExportDAO;
+import com.university.dao.impl.ExportDAOImpl;
+import com.university.util.Metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Streams one dataset from the database to a CSV file with constant memory. Rows are written to a temp
+ * file next to the target and only moved into place when the export finishes, so a cancelled or failed
+ * export never leaves a truncated file behind.
+ */
+public class CsvExporter {
+
+    public interface ProgressListener {
+        void progress(long rowsWritten, int totalRows);
+    }
+
+    // How often the listener hears about progress - per row would flood the EDT for no visible benefit
+    private static final int PROGRESS_INTERVAL = 500;
+
+    private final ExportDAO exportDAO;
+
+    public CsvExporter() {
+        this(Metrics.timed(ExportDAO.class, new ExportDAOImpl()));
+    }
+
+    public CsvExporter(ExportDAO exportDAO) {
+        this.exportDAO = exportDAO;
+    }
+
+    // Returns the number of rows written, or -1 if cancelled (the target file is left untouched then)
+    public long export(ExportDAO.Dataset dataset, Path target, ProgressListener listener, BooleanSupplier cancelled)
+            throws IOException, SQLException {
+        int total = exportDAO.countRows(dataset); // Just an estimate for the progress bar, it can move meanwhile
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+        boolean finished = false;
+        try {
+            long written;
+            try (CsvWriter csv = new CsvWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+                csv.writeRow(exportDAO.getColumns(dataset));
+                long[] count = {0};
+                written = exportDAO.exportRows(dataset, row -> {
+                    if (cancelled.getAsBoolean()) {
+                        return false;
+                    }
+                    csv.writeRow(row);
+                    if (++count[0] % PROGRESS_INTERVAL == 0 && listener != null) {
+                        listener.progress(count[0], total);
+                    }
+                    return true;
+                });
+            }
+            if (cancelled.getAsBoolean()) {
+                return -1;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            finished = true;
+            if (listener != null) {
+                listener.progress(written, total);
+            }
+            return written;
+        } finally {
+            if (!finished) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.university.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV support, split in two halves so the bulk importer can parallelize it:
+ * readRawRecord() only finds record boundaries (it has to track quotes, so it is sequential),
+ * and parse() turns one raw record into fields, which any thread can do.
+ */
+public class CsvReader implements Closeable {
+    private final BufferedReader reader;
+    private long lineNumber = 0;       // Physical line the last record started on (1-based)
+    private long nextLineNumber = 1;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+    }
+
+    // Returns the next record without its line terminator, or null at end of input.
+    // Quoted fields may contain newlines, so one record can span several physical lines.
+    public String readRawRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber = nextLineNumber++;
+        if (line.indexOf('"') < 0) {
+            return line; // Fast path - no quotes, so the line is the record
+        }
+        StringBuilder record = new StringBuilder(line);
+        // Only the newly read line gets counted, so a field spanning many lines stays linear
+        boolean open = hasOddQuotes(line);
+        while (open) {
+            String next = reader.readLine();
+            if (next == null) {
+                break; // Unterminated quote - parse() will report the problem
+            }
+            nextLineNumber++;
+            record.append('\n').append(next);
+            open ^= hasOddQuotes(next);
+        }
+        return record.toString();
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public static String[] parse(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"'); // Escaped quote
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (inQuotes) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static boolean hasOddQuotes(String text) {
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') quotes++;
+        }
+        return (quotes & 1) == 1; // Escaped quotes come in pairs, so an odd count flips in/out of a quoted field
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,57 @@
+package com.university.io;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/** Writes RFC 4180 CSV, quoting only the fields that need it. */
+public class CsvWriter implements Closeable, Flushable {
+    private final Writer writer;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer, 1 << 16);
+    }
+
+    public void writeRow(String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(fields[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return; // NULL and empty string both come out as an empty field
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needsQuotes = true;
+                break;
+            }
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,487 @@
+package com.university.io;
+
+import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.dao.impl.GpaDAOImpl;
+import com.university.dao.impl.SearchDAOImpl;
+import com.university.util.DatabaseUtil;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic university data for load tests and benchmarks. Everything comes from the seed, so the same
+ * settings always give the same rows, and writeTo() gives the same bytes.
+ *
+ * The base tables are written with raw batched INSERTs and explicit IDs, one transaction per table, and
+ * the derived tables (search index, GPA totals, headcounts) are rebuilt afterwards with the DAOs' own
+ * rebuild methods - a million enrollments through the per-row DAO hooks would take far longer and end
+ * up with the same result.
+ *
+ * Course popularity follows a Zipf distribution (a few courses everyone takes, a long tail), and so does
+ * how courses and staff are spread over departments. Generated courses have no seat limit.
+ */
+public class DatasetGenerator {
+
+    public static class Report {
+        private int departments;
+        private int courses;
+        private int students;
+        private int employees;
+        private long enrollments;
+        private long grades;
+        private long elapsedMillis;
+
+        public int getDepartments() { return departments; }
+        public int getCourses() { return courses; }
+        public int getStudents() { return students; }
+        public int getEmployees() { return employees; }
+        public long getEnrollments() { return enrollments; }
+        public long getGrades() { return grades; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return "departments=" + departments + ", courses=" + courses + ", students=" + students
+                    + ", employees=" + employees + ", enrollments=" + enrollments + ", grades=" + grades
+                    + ", elapsed=" + elapsedMillis + " ms";
+        }
+    }
+
+    // Scale 1.0 is a large university: about a million enrollments
+    private static final int DEPARTMENTS_AT_SCALE_1 = 1_000;
+    private static final int COURSES_AT_SCALE_1 = 10_000;
+    private static final int STUDENTS_AT_SCALE_1 = 200_000;
+    private static final int EMPLOYEES_AT_SCALE_1 = 50_000;
+    private static final int BATCH_SIZE = 10_000;
+
+    private static final String[] SUBJECTS = {"Computer Science", "Mathematics", "Physics", "Chemistry", "Biology",
+            "History", "Philosophy", "Economics", "Psychology", "Sociology", "Linguistics", "Literature", "Music",
+            "Fine Arts", "Architecture", "Civil Engineering", "Mechanical Engineering", "Electrical Engineering",
+            "Statistics", "Geography", "Geology", "Astronomy", "Political Science", "Law", "Medicine", "Nursing",
+            "Education", "Business", "Accounting", "Anthropology"};
+    private static final String[] TOPICS = {"Introduction to", "Foundations of", "Topics in", "Advanced",
+            "Seminar in", "Methods in", "Applied", "History of", "Research in", "Principles of"};
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Wei", "Fatima", "Carlos", "Aisha", "Liam", "Olga",
+            "Noah", "Emma", "Hiroshi", "Priya", "Mateo", "Zoe", "Kwame", "Ingrid", "Omar", "Lucia", "Dmitri", "Amara",
+            "Ethan", "Sofia", "Jae-won", "Chloe", "Ravi", "Elena", "Tomas", "Nia", "Lucas", "Yara", "Ali", "Hana"};
+    private static final String[] LAST_NAMES = {"Smith", "Garcia", "Chen", "Okafor", "Muller", "Kowalski", "Nguyen",
+            "Haddad", "Silva", "Johnson", "Tanaka", "Patel", "Ivanova", "Brown", "Rossi", "Kim", "Novak", "Mensah",
+            "Lopez", "Andersen", "Cohen", "Dubois", "Singh", "Yilmaz", "Costa", "Murphy", "Sato", "Hansen"};
+    private static final String[] POSITIONS = {"Professor", "Associate Professor", "Assistant Professor", "Lecturer",
+            "Teaching Assistant", "Research Fellow", "Administrator", "Librarian", "Lab Technician", "Advisor"};
+    // Cumulative weights for A..F, W and P - roughly a B-average university
+    private static final String[] GRADE_VALUES = {"A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D", "F", "W", "P"};
+    private static final int[] GRADE_WEIGHTS = {12, 10, 12, 16, 10, 9, 8, 5, 5, 5, 4, 4};
+    private static final LocalDate TERM_START = LocalDate.of(2024, 8, 19);
+
+    private long seed = 42L;
+    private int departments = DEPARTMENTS_AT_SCALE_1;
+    private int courses = COURSES_AT_SCALE_1;
+    private int students = STUDENTS_AT_SCALE_1;
+    private int employees = EMPLOYEES_AT_SCALE_1;
+    private double coursesPerStudent = 5.0;
+    private double courseSkew = 1.1;
+    private double departmentSkew = 0.8;
+    private double gradedFraction = 0.8;
+
+    public DatasetGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    // Sets all the counts at once; call the individual setters afterwards to override one
+    public DatasetGenerator setScale(double scale) {
+        if (scale <= 0) throw new IllegalArgumentException("Scale must be positive.");
+        departments = Math.max(1, (int) Math.round(DEPARTMENTS_AT_SCALE_1 * scale));
+        courses = Math.max(1, (int) Math.round(COURSES_AT_SCALE_1 * scale));
+        students = Math.max(1, (int) Math.round(STUDENTS_AT_SCALE_1 * scale));
+        employees = Math.max(1, (int) Math.round(EMPLOYEES_AT_SCALE_1 * scale));
+        return this;
+    }
+
+    public DatasetGenerator setDepartments(int departments) {
+        if (departments <= 0) throw new IllegalArgumentException("Department count must be positive.");
+        this.departments = departments;
+        return this;
+    }
+
+    public DatasetGenerator setCourses(int courses) {
+        if (courses <= 0) throw new IllegalArgumentException("Course count must be positive.");
+        this.courses = courses;
+        return this;
+    }
+
+    public DatasetGenerator setStudents(int students) {
+        if (students < 0) throw new IllegalArgumentException("Student count can't be negative.");
+        this.students = students;
+        return this;
+    }
+
+    public DatasetGenerator setEmployees(int employees) {
+        if (employees < 0) throw new IllegalArgumentException("Employee count can't be negative.");
+        this.employees = employees;
+        return this;
+    }
+
+    // Average; each student gets between 1 and twice this (minus one), capped at the course count
+    public DatasetGenerator setCoursesPerStudent(double coursesPerStudent) {
+        if (coursesPerStudent < 1) throw new IllegalArgumentException("Courses per student must be at least 1.");
+        this.coursesPerStudent = coursesPerStudent;
+        return this;
+    }
+
+    // Zipf exponent for course popularity: 0 is uniform, around 1 is realistic, 2 is everyone in the same few
+    public DatasetGenerator setCourseSkew(double courseSkew) {
+        if (courseSkew < 0) throw new IllegalArgumentException("Skew can't be negative.");
+        this.courseSkew = courseSkew;
+        return this;
+    }
+
+    public DatasetGenerator setDepartmentSkew(double departmentSkew) {
+        if (departmentSkew < 0) throw new IllegalArgumentException("Skew can't be negative.");
+        this.departmentSkew = departmentSkew;
+        return this;
+    }
+
+    public DatasetGenerator setGradedFraction(double gradedFraction) {
+        if (gradedFraction < 0 || gradedFraction > 1) throw new IllegalArgumentException("Graded fraction must be between 0 and 1.");
+        this.gradedFraction = gradedFraction;
+        return this;
+    }
+
+    /**
+     * Fills the database DatabaseUtil points at, which has to be empty (a fresh file is). Schema
+     * migrations are run first.
+     */
+    public Report run() throws SQLException {
+        long started = System.currentTimeMillis();
+        DatabaseUtil.initializeDatabase();
+        Report report = new Report();
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            checkEmpty(conn);
+            // Every row is consistent by construction, so the per-row foreign key lookups are pure overhead.
+            // The pragma is a no-op inside a transaction, hence before each table's BEGIN.
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA foreign_keys = OFF");
+            }
+            List<String[]> indexes = dropSecondaryIndexes(conn);
+            try {
+                report.departments = insertDepartments(conn);
+                report.courses = insertCourses(conn);
+                report.students = insertStudents(conn);
+                report.employees = insertEmployees(conn);
+                long[] counts = insertEnrollmentsAndGrades(conn);
+                report.enrollments = counts[0];
+                report.grades = counts[1];
+            } finally {
+                recreateIndexes(conn, indexes);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("PRAGMA foreign_keys = ON"); // The connection goes back to the pool
+                }
+            }
+        }
+        // Derived data, rebuilt exactly the way the app would do it
+        new SearchDAOImpl().rebuildIndex();
+        new GpaDAOImpl().rebuildAll();
+        new EnrollmentDAOImpl().recheckEnrollmentCounts();
+        report.elapsedMillis = System.currentTimeMillis() - started;
+        return report;
+    }
+
+    /**
+     * Writes a compact copy of the current database to target with VACUUM INTO. The copy depends only on
+     * the rows, not on how the WAL happened to be checkpointed, so the same seed gives a byte-identical file.
+     */
+    public static void writeTo(String databaseUrl, Path target) throws SQLException {
+        try {
+            Files.deleteIfExists(target);
+        } catch (java.io.IOException e) {
+            throw new SQLException("Can't replace " + target + ": " + e.getMessage(), e);
+        }
+        // Its own connection - VACUUM refuses to run on a pooled one while its cached statements are open
+        try (Connection conn = DriverManager.getConnection(databaseUrl);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("VACUUM INTO '" + target.toAbsolutePath().toString().replace("'", "''") + "'");
+        }
+    }
+
+    private static void checkEmpty(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT (SELECT COUNT(*) FROM departments) + (SELECT COUNT(*) FROM students)"
+                     + " + (SELECT COUNT(*) FROM courses) + (SELECT COUNT(*) FROM employees)")) {
+            if (rs.next() && rs.getLong(1) > 0) {
+                throw new IllegalStateException("The database already has data - generate into a new file.");
+            }
+        }
+    }
+
+    // Building an index once over loaded rows is a sort; keeping it current row by row is a random b-tree
+    // insert each time. Only the plain CREATE INDEX ones can go - the UNIQUE constraints' indexes stay.
+    private static List<String[]> dropSecondaryIndexes(Connection conn) throws SQLException {
+        List<String[]> indexes = new ArrayList<>();
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT name, sql FROM sqlite_master WHERE type = 'index' AND sql IS NOT NULL"
+                    + " AND tbl_name IN ('students', 'employees', 'courses', 'enrollments', 'grades') ORDER BY name")) {
+                while (rs.next()) {
+                    indexes.add(new String[]{rs.getString(1), rs.getString(2)});
+                }
+            }
+            for (String[] index : indexes) {
+                stmt.execute("DROP INDEX \"" + index[0] + "\"");
+            }
+        }
+        return indexes;
+    }
+
+    private static void recreateIndexes(Connection conn, List<String[]> indexes) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String[] index : indexes) {
+                stmt.execute(index[1]);
+            }
+        }
+    }
+
+    private int insertDepartments(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO departments (id, name) VALUES (?, ?)")) {
+            for (int id = 1; id <= departments; id++) {
+                pstmt.setInt(1, id);
+                pstmt.setString(2, departmentName(id));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+        return departments;
+    }
+
+    private int insertCourses(Connection conn) throws SQLException {
+        SplittableRandom random = stream(2);
+        ZipfSampler departmentPicker = new ZipfSampler(departments, departmentSkew, random);
+        int[] perDepartment = new int[departments + 1];
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO courses (id, courseCode, courseName, credits, departmentId) VALUES (?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= courses; id++) {
+                int department = departmentPicker.next(random);
+                int number = 100 + perDepartment[department]++;
+                String subject = SUBJECTS[(department - 1) % SUBJECTS.length];
+                pstmt.setInt(1, id);
+                pstmt.setString(2, abbreviation(subject) + department + "-" + number);
+                pstmt.setString(3, TOPICS[random.nextInt(TOPICS.length)] + " " + subject + " " + number);
+                pstmt.setInt(4, 1 + random.nextInt(4));
+                pstmt.setInt(5, department);
+                addToBatch(pstmt, id);
+            }
+            pstmt.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+        return courses;
+    }
+
+    private int insertStudents(Connection conn) throws SQLException {
+        SplittableRandom random = stream(3);
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO students (id, firstName, lastName, email, dateOfBirth) VALUES (?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= students; id++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                pstmt.setInt(1, id);
+                pstmt.setString(2, first);
+                pstmt.setString(3, last);
+                pstmt.setString(4, email(first, last, id, "students.university.edu"));
+                pstmt.setString(5, LocalDate.of(1996, 1, 1).plusDays(random.nextInt(365 * 10)).toString());
+                addToBatch(pstmt, id);
+            }
+            pstmt.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+        return students;
+    }
+
+    private int insertEmployees(Connection conn) throws SQLException {
+        SplittableRandom random = stream(4);
+        ZipfSampler departmentPicker = new ZipfSampler(departments, departmentSkew, random);
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO employees "
+                + "(id, firstName, lastName, email, dateOfBirth, position, departmentId) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= employees; id++) {
+                String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                pstmt.setInt(1, id);
+                pstmt.setString(2, first);
+                pstmt.setString(3, last);
+                pstmt.setString(4, email(first, last, id, "university.edu"));
+                pstmt.setString(5, LocalDate.of(1955, 1, 1).plusDays(random.nextInt(365 * 45)).toString());
+                pstmt.setString(6, POSITIONS[random.nextInt(POSITIONS.length)]);
+                pstmt.setInt(7, departmentPicker.next(random));
+                addToBatch(pstmt, id);
+            }
+            pstmt.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+        return employees;
+    }
+
+    // Grades go in alongside their enrollments, so the enrollment IDs never have to be read back
+    private long[] insertEnrollmentsAndGrades(Connection conn) throws SQLException {
+        SplittableRandom random = stream(5);
+        ZipfSampler coursePicker = new ZipfSampler(courses, courseSkew, random);
+        int maxPerStudent = (int) Math.min(courses, Math.round(coursesPerStudent * 2 - 1));
+        int gradedPerMille = (int) Math.round(gradedFraction * 1000);
+        int[] taken = new int[maxPerStudent];
+        long enrollmentId = 0;
+        long gradeId = 0;
+        conn.setAutoCommit(false);
+        try (PreparedStatement enroll = conn.prepareStatement(
+                "INSERT INTO enrollments (id, studentId, courseId, enrollmentDate) VALUES (?, ?, ?, ?)");
+             PreparedStatement grade = conn.prepareStatement(
+                     "INSERT INTO grades (id, enrollmentId, gradeValue, comments) VALUES (?, ?, ?, NULL)")) {
+            for (int student = 1; student <= students; student++) {
+                int wanted = 1 + random.nextInt(maxPerStudent);
+                int count = 0;
+                // Popular courses come up again for the same student, so draw until there are enough distinct ones
+                for (int attempts = 0; count < wanted && attempts < wanted * 20; attempts++) {
+                    int course = coursePicker.next(random);
+                    if (!contains(taken, count, course)) {
+                        taken[count++] = course;
+                    }
+                }
+                Arrays.sort(taken, 0, count); // (studentId, courseId) order makes the UNIQUE index an append
+                for (int i = 0; i < count; i++) {
+                    enrollmentId++;
+                    enroll.setLong(1, enrollmentId);
+                    enroll.setInt(2, student);
+                    enroll.setInt(3, taken[i]);
+                    enroll.setString(4, TERM_START.plusDays(random.nextInt(21)).toString());
+                    enroll.addBatch();
+                    if (random.nextInt(1000) < gradedPerMille) {
+                        gradeId++;
+                        grade.setLong(1, gradeId);
+                        grade.setLong(2, enrollmentId);
+                        grade.setString(3, pickGrade(random));
+                        grade.addBatch();
+                    }
+                    if (enrollmentId % BATCH_SIZE == 0) {
+                        enroll.executeBatch();
+                        grade.executeBatch();
+                    }
+                }
+            }
+            enroll.executeBatch();
+            grade.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+        return new long[]{enrollmentId, gradeId};
+    }
+
+    // One independent random stream per table, so changing the employee count doesn't reshuffle the students
+    private SplittableRandom stream(int table) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + table);
+    }
+
+    private static void addToBatch(PreparedStatement pstmt, int id) throws SQLException {
+        pstmt.addBatch();
+        if (id % BATCH_SIZE == 0) {
+            pstmt.executeBatch();
+        }
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String pickGrade(SplittableRandom random) {
+        int total = 0;
+        for (int weight : GRADE_WEIGHTS) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < GRADE_WEIGHTS.length; i++) {
+            roll -= GRADE_WEIGHTS[i];
+            if (roll < 0) {
+                return GRADE_VALUES[i];
+            }
+        }
+        return GRADE_VALUES[GRADE_VALUES.length - 1];
+    }
+
+    // Names must be UNIQUE, so past the subject list they get a campus number
+    private static String departmentName(int id) {
+        String subject = SUBJECTS[(id - 1) % SUBJECTS.length];
+        int round = (id - 1) / SUBJECTS.length;
+        return round == 0 ? "Department of " + subject : "Department of " + subject + " " + (round + 1);
+    }
+
+    private static String abbreviation(String subject) {
+        StringBuilder abbreviation = new StringBuilder();
+        for (String word : subject.split(" ")) {
+            abbreviation.append(word.charAt(0));
+        }
+        return abbreviation.length() > 1 ? abbreviation.toString() : subject.substring(0, 3).toUpperCase();
+    }
+
+    // The ID keeps addresses UNIQUE however often a name repeats
+    private static String email(String first, String last, int id, String domain) {
+        return (first + "." + last).toLowerCase().replace("-", "") + id + "@" + domain;
+    }
+
+    /**
+     * Draws 1..n where the chance of k is proportional to 1/k^s, via binary search over the cumulative
+     * weights. Ranks are shuffled once, so the popular courses aren't simply the lowest IDs.
+     */
+    private static final class ZipfSampler {
+        private final double[] cumulative;
+        private final int[] idAtRank;
+
+        ZipfSampler(int n, double exponent, SplittableRandom random) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int rank = 1; rank <= n; rank++) {
+                sum += 1.0 / Math.pow(rank, exponent);
+                cumulative[rank - 1] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+            idAtRank = new int[n];
+            for (int i = 0; i < n; i++) {
+                idAtRank[i] = i + 1;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = idAtRank[i];
+                idAtRank[i] = idAtRank[j];
+                idAtRank[j] = swap;
+            }
+        }
+
+        int next(SplittableRandom random) {
+            int at = Arrays.binarySearch(cumulative, random.nextDouble());
+            int rank = at >= 0 ? at : Math.min(-at - 1, cumulative.length - 1);
+            return idAtRank[rank];
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.university.main;
+
+import com.university.io.BulkImporter;
+import com.university.util.DatabaseUtil;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Command-line entry point for the bulk CSV import.
+ *
+ *     java -cp ... com.university.main.BulkImportApp students|enrollments|grades file.csv [--chunk N] [--threads N]
+ *
+ * Re-running the same command after a crash resumes from the last committed chunk. Delete the
+ * .checkpoint file next to the CSV to start over.
+ */
+public class BulkImportApp {
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            usage();
+            return;
+        }
+
+        BulkImporter.Type type;
+        try {
+            type = BulkImporter.Type.valueOf(args[0].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            usage();
+            return;
+        }
+        Path file = Paths.get(args[1]);
+        if (!Files.isReadable(file)) {
+            System.err.println("Can't read " + file);
+            System.exit(1);
+        }
+
+        BulkImporter importer = new BulkImporter(type, file);
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--chunk": importer.setChunkSize(Integer.parseInt(args[i + 1])); break;
+                case "--threads": importer.setParserThreads(Integer.parseInt(args[i + 1])); break;
+                default:
+                    usage();
+                    return;
+            }
+        }
+
+        DatabaseUtil.initializeDatabase();
+        try {
+            BulkImporter.Report report = importer.run();
+            System.out.println("Import finished: " + report);
+            if (report.getRejected() > 0) {
+                System.out.println("Rejected rows were written to " + file.resolveSibling(file.getFileName() + ".rejects.csv"));
+            }
+        } catch (Exception e) {
+            // The checkpoint still points at the last committed chunk, so the same command picks up from there
+            System.err.println("Import stopped: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: BulkImportApp students|enrollments|grades <file.csv> [--chunk N] [--threads N]");
+        System.err.println("  students:    firstName,lastName,email,dateOfBirth");
+        System.err.println("  enrollments: studentEmail,courseCode,enrollmentDate");
+        System.err.println("  grades:      studentEmail,courseCode,gradeValue,comments");
+    }
+}
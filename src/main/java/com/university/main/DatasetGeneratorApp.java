@@ -0,0 +1,94 @@
+package com.university.main;
+
+import com.university.io.DatasetGenerator;
+import com.university.util.DatabaseUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command-line entry point for the synthetic dataset generator.
+ *
+ *     java -cp ... com.university.main.DatasetGeneratorApp --out university-big.db [--seed N] [--scale X] ...
+ *
+ * The same options always produce a byte-identical file. The data is built in a scratch file next to the
+ * output and then compacted into place, so an interrupted run never leaves a half-filled database behind.
+ */
+public class DatasetGeneratorApp {
+    public static void main(String[] args) {
+        Path out = null;
+        DatasetGenerator generator = new DatasetGenerator();
+        try {
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--out": out = Paths.get(value); break;
+                    case "--seed": generator.setSeed(Long.parseLong(value)); break;
+                    case "--scale": generator.setScale(Double.parseDouble(value)); break;
+                    case "--departments": generator.setDepartments(Integer.parseInt(value)); break;
+                    case "--courses": generator.setCourses(Integer.parseInt(value)); break;
+                    case "--students": generator.setStudents(Integer.parseInt(value)); break;
+                    case "--employees": generator.setEmployees(Integer.parseInt(value)); break;
+                    case "--courses-per-student": generator.setCoursesPerStudent(Double.parseDouble(value)); break;
+                    case "--course-skew": generator.setCourseSkew(Double.parseDouble(value)); break;
+                    case "--department-skew": generator.setDepartmentSkew(Double.parseDouble(value)); break;
+                    case "--graded": generator.setGradedFraction(Double.parseDouble(value)); break;
+                    default:
+                        usage();
+                        return;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is one too
+            System.err.println(e.getMessage());
+            usage();
+            return;
+        }
+        if (out == null || args.length % 2 != 0) {
+            usage();
+            return;
+        }
+
+        Path scratch = out.resolveSibling(out.getFileName() + ".tmp");
+        try {
+            deleteDatabase(scratch);
+            // Has to be set before DatabaseUtil is first touched - it reads the URL once
+            String url = "jdbc:sqlite:" + scratch.toAbsolutePath();
+            System.setProperty("university.db.url", url);
+            DatasetGenerator.Report report = generator.run();
+            DatabaseUtil.getPool().close();
+            DatasetGenerator.writeTo(url, out);
+            System.out.println("Generated " + out + ": " + report);
+        } catch (Exception e) {
+            System.err.println("Generation failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            try {
+                deleteDatabase(scratch);
+            } catch (IOException e) {
+                System.err.println("Couldn't remove " + scratch + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static void deleteDatabase(Path db) throws IOException {
+        Files.deleteIfExists(db);
+        Files.deleteIfExists(db.resolveSibling(db.getFileName() + "-wal"));
+        Files.deleteIfExists(db.resolveSibling(db.getFileName() + "-shm"));
+    }
+
+    private static void usage() {
+        System.err.println("Usage: DatasetGeneratorApp --out <file.db> [options]");
+        System.err.println("  --seed N                 random seed (default 42); same seed, same file");
+        System.err.println("  --scale X                1.0 = 1,000 departments, 10,000 courses, 200,000 students,");
+        System.err.println("                           50,000 employees, ~1M enrollments (default 1.0)");
+        System.err.println("  --departments N, --courses N, --students N, --employees N");
+        System.err.println("                           override one count after --scale");
+        System.err.println("  --courses-per-student X  average enrollments per student (default 5)");
+        System.err.println("  --course-skew X          Zipf exponent for course popularity, 0 = uniform (default 1.1)");
+        System.err.println("  --department-skew X      Zipf exponent for department sizes (default 0.8)");
+        System.err.println("  --graded X               fraction of enrollments with a grade (default 0.8)");
+    }
+}
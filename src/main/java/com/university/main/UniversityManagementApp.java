@@ -2,6 +2,7 @@ package com.university.main;
 
 import com.university.gui.MainFrame;
 import com.university.util.DatabaseUtil;
+import com.university.util.Metrics;
 
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
@@ -10,6 +11,8 @@ public class UniversityManagementApp {
     public static void main(String[] args) {
         // I'm initializing the database first thing - this creates tables if they don't exist
         DatabaseUtil.initializeDatabase();
+        // Everything is also live over JMX (jconsole -> MBeans -> com.university); this adds a text dump to stdout
+        Metrics.startReporter();
 
         // I'm trying to set a nicer Look and Feel if available
         try {
@@ -7,6 +7,7 @@ public class Course {
     private int credits;
     private Department department; // Full Department object for display purposes
     private int departmentId; // ID for database storage
+    private int capacity; // Seat limit, 0 means unlimited
 
     public Course() {}
 
@@ -45,6 +46,8 @@ public class Course {
     }
     public int getDepartmentId() { return departmentId; }
     public void setDepartmentId(int departmentId) { this.departmentId = departmentId; }
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
 
     @Override
     public String toString() {
@@ -0,0 +1,59 @@
+package com.university.model;
+
+/**
+ * Running GPA totals for one student - what the student_gpa table stores. qualityPoints is the sum of
+ * grade points (in tenths, see GradeScale) times course credits, so GPA = qualityPoints / (10 * gpaCredits).
+ */
+public class GpaSummary {
+    private final int studentId;
+    private long qualityPoints;
+    private int gpaCredits; // Credits that count towards the GPA
+    private int earnedCredits; // Credits actually passed, including pass/fail courses
+    private int gradedCourses;
+    private Student student; // Only filled in by queries that join the student (e.g. the dean's list)
+
+    public GpaSummary(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public GpaSummary(int studentId, long qualityPoints, int gpaCredits, int earnedCredits, int gradedCourses) {
+        this.studentId = studentId;
+        this.qualityPoints = qualityPoints;
+        this.gpaCredits = gpaCredits;
+        this.earnedCredits = earnedCredits;
+        this.gradedCourses = gradedCourses;
+    }
+
+    // Adds (sign = 1) or takes back (sign = -1) one grade in a course worth the given credits
+    public void add(String gradeValue, int credits, int sign) {
+        int points = GradeScale.pointsTenths(gradeValue);
+        if (points != GradeScale.NOT_IN_GPA) {
+            qualityPoints += (long) sign * points * credits;
+            gpaCredits += sign * credits;
+        }
+        if (GradeScale.earnsCredit(gradeValue)) {
+            earnedCredits += sign * credits;
+        }
+        gradedCourses += sign;
+    }
+
+    public int getStudentId() { return studentId; }
+    public long getQualityPoints() { return qualityPoints; }
+    public int getGpaCredits() { return gpaCredits; }
+    public int getEarnedCredits() { return earnedCredits; }
+    public int getGradedCourses() { return gradedCourses; }
+    public Student getStudent() { return student; }
+    public void setStudent(Student student) { this.student = student; }
+
+    // Null until the student has a grade that counts
+    public Double getGpa() {
+        return gpaCredits > 0 ? qualityPoints / (10.0 * gpaCredits) : null;
+    }
+
+    @Override
+    public String toString() {
+        Double gpa = getGpa();
+        return (gpa == null ? "GPA n/a" : String.format("GPA %.2f", gpa))
+                + " (" + gpaCredits + " GPA credits, " + earnedCredits + " earned)";
+    }
+}
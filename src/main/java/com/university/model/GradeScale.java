@@ -0,0 +1,67 @@
+package com.university.model;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Turns the free-text Grade.gradeValue into grade points. Points are kept as integer tenths (A- = 37) so
+ * the running GPA sums are exact - summing doubles drifts after enough updates and deletes.
+ *
+ * Letter grades and numbers from 0.0 to 4.0 count towards the GPA. P/S/CR earn credit without counting,
+ * and anything else (W, I, NP, free text) is ignored.
+ */
+public final class GradeScale {
+    public static final int NOT_IN_GPA = -1;
+
+    private static final Map<String, Integer> LETTER_POINTS = new HashMap<>();
+    static {
+        LETTER_POINTS.put("A+", 40);
+        LETTER_POINTS.put("A", 40);
+        LETTER_POINTS.put("A-", 37);
+        LETTER_POINTS.put("B+", 33);
+        LETTER_POINTS.put("B", 30);
+        LETTER_POINTS.put("B-", 27);
+        LETTER_POINTS.put("C+", 23);
+        LETTER_POINTS.put("C", 20);
+        LETTER_POINTS.put("C-", 17);
+        LETTER_POINTS.put("D+", 13);
+        LETTER_POINTS.put("D", 10);
+        LETTER_POINTS.put("D-", 7);
+        LETTER_POINTS.put("F", 0);
+    }
+
+    private GradeScale() {}
+
+    // Grade points in tenths, or NOT_IN_GPA
+    public static int pointsTenths(String gradeValue) {
+        if (gradeValue == null) {
+            return NOT_IN_GPA;
+        }
+        String value = gradeValue.trim().toUpperCase(Locale.ROOT);
+        Integer letter = LETTER_POINTS.get(value);
+        if (letter != null) {
+            return letter;
+        }
+        try {
+            double points = Double.parseDouble(value);
+            if (points >= 0.0 && points <= 4.0) {
+                return (int) Math.round(points * 10); // 3.67 counts as 3.7
+            }
+        } catch (NumberFormatException e) {
+            // Not a number either - falls through
+        }
+        return NOT_IN_GPA;
+    }
+
+    public static boolean earnsCredit(String gradeValue) {
+        if (gradeValue == null) {
+            return false;
+        }
+        String value = gradeValue.trim().toUpperCase(Locale.ROOT);
+        if (value.equals("P") || value.equals("S") || value.equals("CR")) {
+            return true;
+        }
+        return pointsTenths(value) > 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.university.model;
+
+/** One ranked result from the global search - just enough to show it and jump to the record. */
+public class SearchHit {
+
+    public enum Kind {
+        // The codes are baked into search_index rowids (id * 4 + code), so never renumber them
+        STUDENT(0, "Student"),
+        EMPLOYEE(1, "Employee"),
+        COURSE(2, "Course"),
+        DEPARTMENT(3, "Department");
+
+        private final int code;
+        private final String label;
+
+        Kind(int code, String label) {
+            this.code = code;
+            this.label = label;
+        }
+
+        public int getCode() { return code; }
+        public String getLabel() { return label; }
+
+        public static Kind fromCode(int code) {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown search kind code: " + code);
+        }
+    }
+
+    private final Kind kind;
+    private final int entityId;
+    private final String title;
+    private final String detail;
+    private final double score;
+
+    public SearchHit(Kind kind, int entityId, String title, String detail, double score) {
+        this.kind = kind;
+        this.entityId = entityId;
+        this.title = title;
+        this.detail = detail;
+        this.score = score;
+    }
+
+    public Kind getKind() { return kind; }
+    public int getEntityId() { return entityId; }
+    public String getTitle() { return title; }
+    public String getDetail() { return detail; }
+    public double getScore() { return score; } // bm25 - lower is better
+
+    @Override
+    public String toString() {
+        return kind.getLabel() + ": " + title + (detail == null || detail.isEmpty() ? "" : " (" + detail + ")");
+    }
+}
@@ -1,46 +1,87 @@
 package com.university.service;
 
 import com.university.dao.CourseDAO;
-import com.university.dao.impl.CourseDAOImpl;
+import com.university.dao.DuplicateEntryException;
+import com.university.dao.impl.CachingCourseDAO;
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
 import com.university.model.Course;
+import com.university.util.LatencyHistogram;
+import com.university.util.Metrics;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class CourseService {
+    private static final LatencyHistogram ADD = Metrics.timer("service.CourseService.addCourse");
+    private static final LatencyHistogram GET = Metrics.timer("service.CourseService.getCourse");
+    private static final LatencyHistogram GET_ALL = Metrics.timer("service.CourseService.getAllCourses");
+    private static final LatencyHistogram GET_PAGE = Metrics.timer("service.CourseService.getCoursesPage");
+    private static final LatencyHistogram GET_IDS = Metrics.timer("service.CourseService.getCourseIds");
+    private static final LatencyHistogram GET_BY_IDS = Metrics.timer("service.CourseService.getCoursesByIds");
+    private static final LatencyHistogram COUNT = Metrics.timer("service.CourseService.countCourses");
+    private static final LatencyHistogram UPDATE = Metrics.timer("service.CourseService.updateCourse");
+    private static final LatencyHistogram DELETE = Metrics.timer("service.CourseService.deleteCourse");
+
     private CourseDAO courseDAO;
 
     public CourseService() {
-        this.courseDAO = new CourseDAOImpl();
+        this.courseDAO = new CachingCourseDAO();
     }
 
     public void addCourse(Course course) throws SQLException {
-        // Check for duplicate course codes
-        if(getAllCourses().stream().anyMatch(e -> course.getCourseCode().equals(e.getCourseCode())))
-            throw new IllegalArgumentException("Entered Course Code already exists");
-       
-        courseDAO.addCourse(course);
+        // Check for duplicate course codes - a point lookup on the UNIQUE index, not a catalog scan
+        Metrics.run(ADD, () -> {
+            checkCourseCodeAvailable(course);
+            courseDAO.addCourse(course);
+        });
     }
 
     public Course getCourse(int id) throws SQLException {
-        return courseDAO.getCourse(id);
+        return Metrics.time(GET, () -> courseDAO.getCourse(id));
     }
 
     public List<Course> getAllCourses() throws SQLException {
-        return courseDAO.getAllCourses();
+        return Metrics.time(GET_ALL, () -> courseDAO.getAllCourses());
+    }
+
+    public Page<Course> getCoursesPage(PageRequest request) throws SQLException {
+        return Metrics.time(GET_PAGE, () -> courseDAO.getCoursesPage(request));
+    }
+
+    public int[] getCourseIds(String sortKey, boolean ascending) throws SQLException {
+        return Metrics.time(GET_IDS, () -> courseDAO.getCourseIds(sortKey, ascending));
+    }
+
+    public Map<Integer, Course> getCoursesByIds(Collection<Integer> ids) throws SQLException {
+        return Metrics.time(GET_BY_IDS, () -> courseDAO.getCoursesByIds(ids));
+    }
+
+    public int countCourses() throws SQLException {
+        return Metrics.time(COUNT, () -> courseDAO.countCourses());
     }
 
     public void updateCourse(Course course) throws SQLException {
         // Check for duplicate course codes (excluding current course)
-        if(getAllCourses().stream().anyMatch(e -> course.getCourseCode().equals(e.getCourseCode()) && course.getId() != e.getId()))
-            throw new IllegalArgumentException("Entered Course Code already exists");
+        Metrics.run(UPDATE, () -> {
+            checkCourseCodeAvailable(course);
+            courseDAO.updateCourse(course);
+        });
+    }
 
-        courseDAO.updateCourse(course);
+    private void checkCourseCodeAvailable(Course course) throws SQLException {
+        Course existing = courseDAO.getCourseByCode(course.getCourseCode());
+        if (existing != null && existing.getId() != course.getId()) {
+            throw new DuplicateEntryException("Entered Course Code already exists", "courses", "courseCode");
+        }
+        // The DAO still turns a UNIQUE violation into the same exception if someone beats me to the insert
     }
 
     public void deleteCourse(int id) throws SQLException {
         // TODO: Check for existing enrollments before deletion
         // TODO: Provide option to handle existing enrollments (transfer or cancel)
-        courseDAO.deleteCourse(id);
+        Metrics.run(DELETE, () -> courseDAO.deleteCourse(id));
     }
 }
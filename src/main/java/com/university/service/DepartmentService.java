@@ -1,45 +1,65 @@
 package com.university.service;
 
 import com.university.dao.DepartmentDAO;
-import com.university.dao.impl.DepartmentDAOImpl;
+import com.university.dao.DuplicateEntryException;
+import com.university.dao.impl.CachingDepartmentDAO;
 import com.university.model.Department;
+import com.university.util.LatencyHistogram;
+import com.university.util.Metrics;
 
 import java.sql.SQLException;
 import java.util.List;
 
 public class DepartmentService {
+    private static final LatencyHistogram ADD = Metrics.timer("service.DepartmentService.addDepartment");
+    private static final LatencyHistogram GET = Metrics.timer("service.DepartmentService.getDepartment");
+    private static final LatencyHistogram GET_ALL = Metrics.timer("service.DepartmentService.getAllDepartments");
+    private static final LatencyHistogram UPDATE = Metrics.timer("service.DepartmentService.updateDepartment");
+    private static final LatencyHistogram DELETE = Metrics.timer("service.DepartmentService.deleteDepartment");
+
     private DepartmentDAO departmentDAO;
 
     public DepartmentService() {
-        this.departmentDAO = new DepartmentDAOImpl();
+        this.departmentDAO = new CachingDepartmentDAO(); // Departments rarely change, so reads come from memory
     }
 
     public void addDepartment(Department department) throws SQLException {
         // TODO: Add validation for department name (not null, not empty, reasonable length)
-        // TODO: Check for duplicate department names
         // I should add more validation here when I have time
-        departmentDAO.addDepartment(department);
+        Metrics.run(ADD, () -> {
+            checkNameAvailable(department);
+            departmentDAO.addDepartment(department);
+        });
     }
 
     public Department getDepartment(int id) throws SQLException {
-        return departmentDAO.getDepartment(id);
+        return Metrics.time(GET, () -> departmentDAO.getDepartment(id));
     }
 
     public List<Department> getAllDepartments() throws SQLException {
-        return departmentDAO.getAllDepartments();
+        return Metrics.time(GET_ALL, () -> departmentDAO.getAllDepartments());
     }
 
     public void updateDepartment(Department department) throws SQLException {
         // TODO: Add validation for department name
-        // TODO: Check for duplicate department names (excluding current department)
         // I should add validation here too
-        departmentDAO.updateDepartment(department);
+        Metrics.run(UPDATE, () -> {
+            checkNameAvailable(department);
+            departmentDAO.updateDepartment(department);
+        });
+    }
+
+    private void checkNameAvailable(Department department) throws SQLException {
+        Department existing = departmentDAO.getDepartmentByName(department.getName());
+        if (existing != null && existing.getId() != department.getId()) {
+            throw new DuplicateEntryException("A department named " + department.getName() + " already exists.", "departments", "name");
+        }
     }
 
     public void deleteDepartment(int id) throws SQLException {
         // TODO: Check if department has employees or courses before deletion
         // TODO: Provide option to reassign employees/courses to another department
         // I need to handle cascading deletes or checks for employees/courses in this department
-        departmentDAO.deleteDepartment(id);
+        Metrics.run(DELETE, () -> departmentDAO.deleteDepartment(id));
     }
 }
@@ -2,16 +2,28 @@ package com.university.service;
 
 import com.university.dao.EmployeeDAO;
 import com.university.dao.impl.EmployeeDAOImpl;
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
 import com.university.model.Employee;
+import com.university.util.LatencyHistogram;
+import com.university.util.Metrics;
 
 import java.sql.SQLException;
 import java.util.List;
 
 public class EmployeeService {
+    private static final LatencyHistogram ADD = Metrics.timer("service.EmployeeService.addEmployee");
+    private static final LatencyHistogram GET = Metrics.timer("service.EmployeeService.getEmployee");
+    private static final LatencyHistogram GET_ALL = Metrics.timer("service.EmployeeService.getAllEmployees");
+    private static final LatencyHistogram GET_PAGE = Metrics.timer("service.EmployeeService.getEmployeesPage");
+    private static final LatencyHistogram COUNT = Metrics.timer("service.EmployeeService.countEmployees");
+    private static final LatencyHistogram UPDATE = Metrics.timer("service.EmployeeService.updateEmployee");
+    private static final LatencyHistogram DELETE = Metrics.timer("service.EmployeeService.deleteEmployee");
+
     private EmployeeDAO employeeDAO;
 
     public EmployeeService() {
-        this.employeeDAO = new EmployeeDAOImpl();
+        this.employeeDAO = Metrics.timed(EmployeeDAO.class, new EmployeeDAOImpl());
     }
 
     public void addEmployee(Employee employee) throws SQLException {
@@ -20,15 +32,23 @@ public class EmployeeService {
             throw new IllegalArgumentException("First name and last name cannot be empty.");
         }
         // I should add more validation for position, department, etc. when I get a chance
-        employeeDAO.addEmployee(employee);
+        Metrics.run(ADD, () -> employeeDAO.addEmployee(employee));
     }
 
     public Employee getEmployee(int id) throws SQLException {
-        return employeeDAO.getEmployee(id);
+        return Metrics.time(GET, () -> employeeDAO.getEmployee(id));
     }
 
     public List<Employee> getAllEmployees() throws SQLException {
-        return employeeDAO.getAllEmployees();
+        return Metrics.time(GET_ALL, () -> employeeDAO.getAllEmployees());
+    }
+
+    public Page<Employee> getEmployeesPage(PageRequest request) throws SQLException {
+        return Metrics.time(GET_PAGE, () -> employeeDAO.getEmployeesPage(request));
+    }
+
+    public int countEmployees() throws SQLException {
+        return Metrics.time(COUNT, () -> employeeDAO.countEmployees());
     }
 
     public void updateEmployee(Employee employee) throws SQLException {
@@ -36,10 +56,10 @@ public class EmployeeService {
             employee.getLastName() == null || employee.getLastName().trim().isEmpty()) {
             throw new IllegalArgumentException("First name and last name cannot be empty.");
         }
-        employeeDAO.updateEmployee(employee);
+        Metrics.run(UPDATE, () -> employeeDAO.updateEmployee(employee));
     }
 
     public void deleteEmployee(int id) throws SQLException {
-        employeeDAO.deleteEmployee(id);
+        Metrics.run(DELETE, () -> employeeDAO.deleteEmployee(id));
     }
 }
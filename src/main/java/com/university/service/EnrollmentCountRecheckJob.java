@@ -0,0 +1,64 @@
+package com.university.service;
+
+import com.university.dao.EnrollmentDAO;
+import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.util.Metrics;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background consistency check for the materialized enrollment counts. The DAOs keep the counters exact,
+ * so this only ever finds something after the database was edited by hand or by an older build - but a
+ * wrong headcount would make capacity checks lie, so I'd rather it heals itself.
+ *
+ * The interval can be set with -Duniversity.enrollmentCounts.recheckMinutes (0 turns the job off).
+ */
+public final class EnrollmentCountRecheckJob {
+    private static final long INTERVAL_MINUTES = Long.getLong("university.enrollmentCounts.recheckMinutes", 60L);
+
+    private static ScheduledExecutorService scheduler;
+
+    private EnrollmentCountRecheckJob() {}
+
+    // Safe to call more than once - only the first call schedules anything
+    public static synchronized void start() {
+        if (scheduler != null || INTERVAL_MINUTES <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "enrollment-count-recheck");
+            t.setDaemon(true);
+            return t;
+        });
+        // First run shortly after startup, when a hand-edited database is most likely to show up
+        scheduler.scheduleWithFixedDelay(EnrollmentCountRecheckJob::runQuietly, 1, INTERVAL_MINUTES * 60, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // Returns how many counters were wrong (and are now fixed)
+    public static int runOnce() throws SQLException {
+        EnrollmentDAO enrollmentDAO = Metrics.timed(EnrollmentDAO.class, new EnrollmentDAOImpl());
+        return enrollmentDAO.recheckEnrollmentCounts();
+    }
+
+    private static void runQuietly() {
+        try {
+            int fixed = runOnce();
+            if (fixed > 0) {
+                System.err.println("Enrollment count recheck fixed " + fixed + " counter(s).");
+            }
+        } catch (SQLException | RuntimeException e) {
+            // An exception would cancel the schedule, so I just report it and try again next time
+            System.err.println("Enrollment count recheck failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.university.service;
+
+import com.university.dao.DataChangeEvents;
+import com.university.dao.EnrollmentDAO;
+import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.model.Course;
+import com.university.model.Enrollment;
+import com.university.model.Student;
+import com.university.util.IntAdjacency;
+import com.university.util.IntLongMap;
+import com.university.util.Metrics;
+
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Who-is-in-what, held in memory as a two-way student <-> course index on primitive arrays (IntAdjacency).
+ * "Is X enrolled in Y", "how many are in Y" and "which courses is X taking" become a hash probe and a
+ * binary search instead of a SQL round trip plus Enrollment objects.
+ *
+ * Loaded once with a covering-index scan (preload() at startup, or the first query), then kept current by
+ * the DAOs' change events - enrollment writes, and student/course deletes that cascade to enrollments.
+ * Only IDs are kept; anything that needs dates or names still goes to EnrollmentDAO.
+ *
+ * There's one instance for the whole app so every caller shares the same index.
+ */
+public final class EnrollmentGraph {
+    private static final EnrollmentGraph INSTANCE = new EnrollmentGraph();
+    private static final long NO_PAIR = -1L;
+    private static final int NO_ENROLLMENT = 0;
+
+    private final EnrollmentDAO enrollmentDAO = Metrics.timed(EnrollmentDAO.class, new EnrollmentDAOImpl());
+    // Reads vastly outnumber writes, and a read is tens of nanoseconds, so they mustn't queue behind each other
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntAdjacency coursesByStudent = new IntAdjacency(1024);
+    private final IntAdjacency studentsByCourse = new IntAdjacency(256);
+    private final IntLongMap pairById = new IntLongMap(4096); // enrollmentId -> pairKey, to apply updates and deletes
+    private volatile boolean loaded;
+
+    private EnrollmentGraph() {
+        DataChangeEvents.addListener((type, id, entity) -> {
+            if (type == Enrollment.class) {
+                if (entity != null) {
+                    enrollmentSaved(id, (Enrollment) entity);
+                } else {
+                    enrollmentDeleted(id);
+                }
+            } else if (entity == null && type == Student.class) {
+                removeAll(id, coursesByStudent, studentsByCourse);
+            } else if (entity == null && type == Course.class) {
+                removeAll(id, studentsByCourse, coursesByStudent);
+            }
+        });
+    }
+
+    public static EnrollmentGraph getInstance() {
+        return INSTANCE;
+    }
+
+    // Loads the index in the background so it's warm by the time anyone asks
+    public void preload() {
+        if (loaded) {
+            return;
+        }
+        Thread loader = new Thread(() -> {
+            try {
+                ensureLoaded();
+            } catch (SQLException e) {
+                e.printStackTrace(); // The first query will try again and report it
+            }
+        }, "enrollment-graph-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean isEnrolled(int studentId, int courseId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return coursesByStudent.contains(studentId, courseId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The enrollment's ID, or 0 if the student isn't in the course
+    public int getEnrollmentId(int studentId, int courseId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return coursesByStudent.payload(studentId, courseId, NO_ENROLLMENT);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getRosterSize(int courseId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return studentsByCourse.degree(courseId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getCourseLoad(int studentId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return coursesByStudent.degree(studentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Sorted course IDs; the array is the caller's to keep
+    public int[] getCourseIds(int studentId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return coursesByStudent.values(studentId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Sorted student IDs; the array is the caller's to keep
+    public int[] getStudentIds(int courseId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return studentsByCourse.values(courseId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getEnrollmentCount() throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return coursesByStudent.edgeCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Throws the in-memory index away and reads it again, e.g. after enrollments were edited outside the DAOs
+    public void reload() throws SQLException {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+            load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() throws SQLException {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                load();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Runs under the write lock, and so do the change events - an event for a write that raced with the scan
+    // waits and is applied afterwards. Applying one the scan already saw is harmless, every update is idempotent.
+    private void load() throws SQLException {
+        coursesByStudent.clear();
+        studentsByCourse.clear();
+        pairById.clear();
+        enrollmentDAO.scanEnrollmentKeys((enrollmentId, studentId, courseId) -> link(enrollmentId, studentId, courseId));
+        loaded = true;
+    }
+
+    private void enrollmentSaved(int id, Enrollment enrollment) {
+        int studentId = enrollment.getStudent() != null ? enrollment.getStudent().getId() : enrollment.getStudentId();
+        int courseId = enrollment.getCourse() != null ? enrollment.getCourse().getId() : enrollment.getCourseId();
+        if (id <= 0 || studentId <= 0 || courseId <= 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return; // The load will read it from the table
+            }
+            unlink(pairById.get(id, NO_PAIR)); // An update may have moved it to another student or course
+            link(id, studentId, courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void enrollmentDeleted(int id) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                unlink(pairById.remove(id, NO_PAIR));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A deleted student or course took its enrollments with it (ON DELETE CASCADE)
+    private void removeAll(int id, IntAdjacency side, IntAdjacency otherSide) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                side.removeKey(id, (other, enrollmentId) -> {
+                    otherSide.remove(other, id);
+                    pairById.remove(enrollmentId, NO_PAIR);
+                });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void link(int enrollmentId, int studentId, int courseId) {
+        coursesByStudent.put(studentId, courseId, enrollmentId);
+        studentsByCourse.put(courseId, studentId, enrollmentId);
+        pairById.put(enrollmentId, EnrollmentDAO.pairKey(studentId, courseId), NO_PAIR);
+    }
+
+    private void unlink(long pair) {
+        if (pair == NO_PAIR) {
+            return;
+        }
+        int studentId = (int) (pair >>> 32);
+        int courseId = (int) pair;
+        coursesByStudent.remove(studentId, courseId);
+        studentsByCourse.remove(courseId, studentId);
+    }
+}
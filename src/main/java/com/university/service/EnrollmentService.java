@@ -1,65 +1,162 @@
 package com.university.service;
 
+import com.university.dao.CourseFullException;
+import com.university.dao.DuplicateEntryException;
 import com.university.dao.EnrollmentDAO;
 import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
 import com.university.model.Enrollment;
 import com.university.model.Student;
 import com.university.model.Course;
+import com.university.util.LatencyHistogram;
+import com.university.util.Metrics;
 
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class EnrollmentService {
+    private static final LatencyHistogram ADD = Metrics.timer("service.EnrollmentService.addEnrollment");
+    private static final LatencyHistogram GET = Metrics.timer("service.EnrollmentService.getEnrollment");
+    private static final LatencyHistogram GET_ALL = Metrics.timer("service.EnrollmentService.getAllEnrollments");
+    private static final LatencyHistogram GET_PAGE = Metrics.timer("service.EnrollmentService.getEnrollmentsPage");
+    private static final LatencyHistogram COUNT = Metrics.timer("service.EnrollmentService.countEnrollments");
+    private static final LatencyHistogram GET_BY_STUDENT = Metrics.timer("service.EnrollmentService.getEnrollmentsByStudent");
+    private static final LatencyHistogram GET_BY_COURSE = Metrics.timer("service.EnrollmentService.getEnrollmentsByCourse");
+    private static final LatencyHistogram GET_COUNT = Metrics.timer("service.EnrollmentService.getEnrollmentCount");
+    private static final LatencyHistogram GET_COUNTS = Metrics.timer("service.EnrollmentService.getEnrollmentCounts");
+    private static final LatencyHistogram GET_DEPARTMENT_COUNTS = Metrics.timer("service.EnrollmentService.getDepartmentEnrollmentCounts");
+    private static final LatencyHistogram UPDATE = Metrics.timer("service.EnrollmentService.updateEnrollment");
+    private static final LatencyHistogram DELETE = Metrics.timer("service.EnrollmentService.deleteEnrollment");
+
+    private static final ReentrantLock[] SEAT_LOCKS = new ReentrantLock[64];
+
+    static {
+        for (int i = 0; i < SEAT_LOCKS.length; i++) {
+            SEAT_LOCKS[i] = new ReentrantLock();
+        }
+    }
+
     private EnrollmentDAO enrollmentDAO;
+    private final EnrollmentGraph enrollmentGraph = EnrollmentGraph.getInstance();
 
     public EnrollmentService() {
-        this.enrollmentDAO = new EnrollmentDAOImpl();
+        this.enrollmentDAO = Metrics.timed(EnrollmentDAO.class, new EnrollmentDAOImpl());
     }
 
+    // Throws CourseFullException when no seat is left, DuplicateEntryException if already enrolled and
+    // PrerequisitesNotMetException if the student hasn't passed what the course requires
     public void addEnrollment(Student student, Course course) throws SQLException {
-        // TODO: Add enrollment capacity checks for courses
-        // TODO: Add prerequisite validation
         // TODO: Add enrollment period validation (registration windows)
         if (student == null || course == null) {
             throw new IllegalArgumentException("Student and Course cannot be null for enrollment.");
         }
-        if (enrollmentDAO.isStudentEnrolled(student.getId(), course.getId())) {
-            throw new IllegalArgumentException("Student is already enrolled in this course.");
-        }
-        
-        // TODO: Make date handling consistent throughout the application
-        String currentDate = LocalDate.now().format(DateTimeFormatter.ISO_DATE); // I'm auto-setting today's date
-        Enrollment enrollment = new Enrollment(0, student, course, currentDate); // ID will be set by DAO
-        enrollmentDAO.addEnrollment(enrollment);
+        Metrics.run(ADD, () -> {
+            PrerequisiteService.getInstance().checkEligible(student.getId(), course); // No query at all for courses without prerequisites
+            // No isStudentEnrolled() pre-check any more - two clicks could both pass it. The UNIQUE constraint
+            // and the DAO's conditional seat claim decide both rules inside the insert's transaction.
+
+            // TODO: Make date handling consistent throughout the application
+            String currentDate = LocalDate.now().format(DateTimeFormatter.ISO_DATE); // I'm auto-setting today's date
+            Enrollment enrollment = new Enrollment(0, student, course, currentDate); // ID will be set by DAO
+
+            // The database is what prevents overselling; the stripe only makes attempts on the same course queue
+            // up here instead of fighting over SQLite's write lock. Attempts on other courses use other stripes.
+            ReentrantLock lock = SEAT_LOCKS[Math.floorMod(course.getId(), SEAT_LOCKS.length)];
+            lock.lock();
+            try {
+                // Once a course fills up, everyone still waiting gets turned away by a WAL read, without a write transaction
+                try {
+                    enrollmentDAO.checkSeatAvailable(course.getId());
+                } catch (CourseFullException full) {
+                    if (enrollmentGraph.isEnrolled(student.getId(), course.getId())) {
+                        throw new DuplicateEntryException("Student is already enrolled in this course.",
+                                "enrollments", "studentId, courseId"); // Same answer the insert would have given
+                    }
+                    throw full; // Capacity and message come from the database, not the caller's Course
+                }
+                enrollmentDAO.addEnrollment(enrollment);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    // For registration bursts: queued and committed in micro-batches, see RegistrationQueue
+    public CompletableFuture<Enrollment> enrollAsync(Student student, Course course) {
+        return RegistrationQueue.getInstance().submit(student, course);
     }
 
     public Enrollment getEnrollment(int id) throws SQLException {
-        return enrollmentDAO.getEnrollment(id);
+        return Metrics.time(GET, () -> enrollmentDAO.getEnrollment(id));
     }
 
     public List<Enrollment> getAllEnrollments() throws SQLException {
-        return enrollmentDAO.getAllEnrollments();
+        return Metrics.time(GET_ALL, () -> enrollmentDAO.getAllEnrollments());
+    }
+
+    public Page<Enrollment> getEnrollmentsPage(PageRequest request) throws SQLException {
+        return Metrics.time(GET_PAGE, () -> enrollmentDAO.getEnrollmentsPage(request));
+    }
+
+    public int countEnrollments() throws SQLException {
+        return Metrics.time(COUNT, () -> enrollmentDAO.countEnrollments());
     }
     
     public List<Enrollment> getEnrollmentsByStudent(int studentId) throws SQLException {
-        return enrollmentDAO.getEnrollmentsByStudent(studentId);
+        return Metrics.time(GET_BY_STUDENT, () -> enrollmentDAO.getEnrollmentsByStudent(studentId));
     }
 
     public List<Enrollment> getEnrollmentsByCourse(int courseId) throws SQLException {
-        return enrollmentDAO.getEnrollmentsByCourse(courseId);
+        return Metrics.time(GET_BY_COURSE, () -> enrollmentDAO.getEnrollmentsByCourse(courseId));
+    }
+
+    // Served from the in-memory EnrollmentGraph - use these when only IDs are needed, not whole Enrollments
+    public boolean isStudentEnrolled(int studentId, int courseId) throws SQLException {
+        return enrollmentGraph.isEnrolled(studentId, courseId);
+    }
+
+    public int[] getCourseIdsForStudent(int studentId) throws SQLException {
+        return enrollmentGraph.getCourseIds(studentId);
+    }
+
+    public int[] getStudentIdsInCourse(int courseId) throws SQLException {
+        return enrollmentGraph.getStudentIds(courseId);
+    }
+
+    public int getCourseLoad(int studentId) throws SQLException {
+        return enrollmentGraph.getCourseLoad(studentId);
+    }
+
+    // Reads the materialized headcount - use this instead of getEnrollmentsByCourse(id).size()
+    public int getEnrollmentCount(int courseId) throws SQLException {
+        return Metrics.time(GET_COUNT, () -> enrollmentDAO.getEnrollmentCounts(Collections.singleton(courseId)).get(courseId));
+    }
+
+    public Map<Integer, Integer> getEnrollmentCounts(Collection<Integer> courseIds) throws SQLException {
+        return Metrics.time(GET_COUNTS, () -> enrollmentDAO.getEnrollmentCounts(courseIds));
+    }
+
+    public Map<Integer, Integer> getDepartmentEnrollmentCounts(Collection<Integer> departmentIds) throws SQLException {
+        return Metrics.time(GET_DEPARTMENT_COUNTS, () -> enrollmentDAO.getDepartmentEnrollmentCounts(departmentIds));
     }
 
     public void updateEnrollment(Enrollment enrollment) throws SQLException {
         // Usually only the enrollment date might be updatable in real scenarios
-        enrollmentDAO.updateEnrollment(enrollment);
+        Metrics.run(UPDATE, () -> enrollmentDAO.updateEnrollment(enrollment));
     }
 
     public void deleteEnrollment(int id) throws SQLException {
         // TODO: Handle associated grade deletion before removing enrollment
         // TODO: Add business rules for enrollment deletion (e.g., deadline restrictions)
         // I should handle the associated grade deletion first, but keeping it simple for now
-        enrollmentDAO.deleteEnrollment(id);
+        Metrics.run(DELETE, () -> enrollmentDAO.deleteEnrollment(id));
     }
 }
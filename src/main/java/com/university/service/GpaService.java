@@ -0,0 +1,57 @@
+package com.university.service;
+
+import com.university.dao.GpaDAO;
+import com.university.dao.StudentDAO;
+import com.university.dao.impl.GpaDAOImpl;
+import com.university.dao.impl.StudentDAOImpl;
+import com.university.model.GpaSummary;
+import com.university.model.Student;
+import com.university.util.LatencyHistogram;
+import com.university.util.Metrics;
+
+import java.sql.SQLException;
+import java.util.List;
+
+public class GpaService {
+    private static final LatencyHistogram GET_SUMMARY = Metrics.timer("service.GpaService.getSummary");
+    private static final LatencyHistogram GET_TRANSCRIPT_HEADER = Metrics.timer("service.GpaService.getTranscriptHeader");
+    private static final LatencyHistogram GET_DEANS_LIST = Metrics.timer("service.GpaService.getDeansList");
+    private static final LatencyHistogram REBUILD_ALL = Metrics.timer("service.GpaService.rebuildAll");
+
+    private GpaDAO gpaDAO;
+    private StudentDAO studentDAO;
+
+    public GpaService() {
+        this.gpaDAO = Metrics.timed(GpaDAO.class, new GpaDAOImpl());
+        this.studentDAO = Metrics.timed(StudentDAO.class, new StudentDAOImpl());
+    }
+
+    public GpaSummary getSummary(int studentId) throws SQLException {
+        return Metrics.time(GET_SUMMARY, () -> gpaDAO.getSummary(studentId));
+    }
+
+    // One primary-key read for the totals, nothing is summed over the student's grades
+    public String getTranscriptHeader(int studentId) throws SQLException {
+        return Metrics.time(GET_TRANSCRIPT_HEADER, () -> {
+            Student student = studentDAO.getStudent(studentId);
+            if (student == null) {
+                throw new IllegalArgumentException("Student " + studentId + " does not exist.");
+            }
+            GpaSummary summary = gpaDAO.getSummary(studentId);
+            return student.getFirstName() + " " + student.getLastName() + " - " + summary
+                    + ", " + summary.getGradedCourses() + " graded courses";
+        });
+    }
+
+    public List<GpaSummary> getDeansList(double minGpa, int minCredits, int limit) throws SQLException {
+        if (minGpa < 0 || minGpa > 4.0) {
+            throw new IllegalArgumentException("Minimum GPA must be between 0.0 and 4.0.");
+        }
+        return Metrics.time(GET_DEANS_LIST, () -> gpaDAO.getDeansList((int) Math.round(minGpa * 100), minCredits, limit));
+    }
+
+    // Only needed if the totals drifted, e.g. after editing the database outside the app
+    public int rebuildAll() throws SQLException {
+        return Metrics.time(REBUILD_ALL, () -> gpaDAO.rebuildAll());
+    }
+}
@@ -2,59 +2,85 @@ package com.university.service;
 
 import com.university.dao.GradeDAO;
 import com.university.dao.impl.GradeDAOImpl;
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
 import com.university.model.Grade;
 import com.university.model.Enrollment;
+import com.university.util.LatencyHistogram;
+import com.university.util.Metrics;
 
 import java.sql.SQLException;
 import java.util.List;
 
 public class GradeService {
+    private static final LatencyHistogram ADD = Metrics.timer("service.GradeService.addGrade");
+    private static final LatencyHistogram GET = Metrics.timer("service.GradeService.getGrade");
+    private static final LatencyHistogram GET_BY_ENROLLMENT = Metrics.timer("service.GradeService.getGradeByEnrollment");
+    private static final LatencyHistogram GET_ALL = Metrics.timer("service.GradeService.getAllGrades");
+    private static final LatencyHistogram GET_PAGE = Metrics.timer("service.GradeService.getGradesPage");
+    private static final LatencyHistogram COUNT = Metrics.timer("service.GradeService.countGrades");
+    private static final LatencyHistogram UPDATE = Metrics.timer("service.GradeService.updateGrade");
+    private static final LatencyHistogram DELETE = Metrics.timer("service.GradeService.deleteGrade");
+
     private GradeDAO gradeDAO;
 
     public GradeService() {
-        this.gradeDAO = new GradeDAOImpl();
+        this.gradeDAO = Metrics.timed(GradeDAO.class, new GradeDAOImpl());
     }
 
     public void addGrade(Enrollment enrollment, String gradeValue, String comments) throws SQLException {
         if (enrollment == null) {
             throw new IllegalArgumentException("Enrollment cannot be null for grading.");
         }
-        if (gradeValue == null || gradeValue.trim().isEmpty()) {
-            throw new IllegalArgumentException("Grade value cannot be empty.");
-        }
-        // I'm checking if a grade already exists for this enrollment to prevent duplicates
-        Grade existingGrade = gradeDAO.getGradeByEnrollment(enrollment.getId());
-        if (existingGrade != null) {
-            throw new IllegalArgumentException("A grade already exists for this enrollment. Update it instead.");
-        }
+        validateGradeValue(gradeValue);
+        Metrics.run(ADD, () -> {
+            // I'm checking if a grade already exists for this enrollment to prevent duplicates
+            Grade existingGrade = gradeDAO.getGradeByEnrollment(enrollment.getId());
+            if (existingGrade != null) {
+                throw new IllegalArgumentException("A grade already exists for this enrollment. Update it instead.");
+            }
 
-        Grade grade = new Grade(0, enrollment, gradeValue, comments); // ID will be set by DAO
-        gradeDAO.addGrade(grade);
+            Grade grade = new Grade(0, enrollment, gradeValue, comments); // ID will be set by DAO
+            gradeDAO.addGrade(grade);
+        });
     }
 
     public Grade getGrade(int id) throws SQLException {
-        return gradeDAO.getGrade(id);
+        return Metrics.time(GET, () -> gradeDAO.getGrade(id));
     }
     
     public Grade getGradeByEnrollment(int enrollmentId) throws SQLException {
-        return gradeDAO.getGradeByEnrollment(enrollmentId);
+        return Metrics.time(GET_BY_ENROLLMENT, () -> gradeDAO.getGradeByEnrollment(enrollmentId));
     }
 
     public List<Grade> getAllGrades() throws SQLException {
-        return gradeDAO.getAllGrades();
+        return Metrics.time(GET_ALL, () -> gradeDAO.getAllGrades());
+    }
+
+    public Page<Grade> getGradesPage(PageRequest request) throws SQLException {
+        return Metrics.time(GET_PAGE, () -> gradeDAO.getGradesPage(request));
+    }
+
+    public int countGrades() throws SQLException {
+        return Metrics.time(COUNT, () -> gradeDAO.countGrades());
     }
 
     public void updateGrade(Grade grade) throws SQLException {
         if (grade.getEnrollment() == null) {
             throw new IllegalArgumentException("Enrollment cannot be null for grading.");
         }
-        if (grade.getGradeValue() == null || grade.getGradeValue().trim().isEmpty()) {
+        validateGradeValue(grade.getGradeValue());
+        Metrics.run(UPDATE, () -> gradeDAO.updateGrade(grade));
+    }
+
+    // Shared with the bulk importer so both paths accept the same grade values
+    public static void validateGradeValue(String gradeValue) {
+        if (gradeValue == null || gradeValue.trim().isEmpty()) {
             throw new IllegalArgumentException("Grade value cannot be empty.");
         }
-        gradeDAO.updateGrade(grade);
     }
 
     public void deleteGrade(int id) throws SQLException {
-        gradeDAO.deleteGrade(id);
+        Metrics.run(DELETE, () -> gradeDAO.deleteGrade(id));
     }
 }
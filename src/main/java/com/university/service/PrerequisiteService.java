@@ -0,0 +1,189 @@
+package com.university.service;
+
+import com.university.dao.CourseDAO;
+import com.university.dao.DataChangeEvents;
+import com.university.dao.EnrollmentDAO;
+import com.university.dao.PrerequisiteDAO;
+import com.university.dao.impl.CachingCourseDAO;
+import com.university.dao.impl.PrerequisiteDAOImpl;
+import com.university.model.Course;
+import com.university.model.Enrollment;
+import com.university.util.LatencyHistogram;
+import com.university.util.Metrics;
+import com.university.util.PrerequisiteGraph;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prerequisite rules for enrollment. The edges live in course_prerequisites; this keeps one immutable
+ * PrerequisiteGraph with the transitive closure precomputed, so a check is one query for the student's
+ * passed courses plus a BitSet andNot. A whole cohort is one batched query and then pure bit ops.
+ *
+ * A course requires its whole chain: CS301 -> CS201 -> CS101 means CS301 needs both. Courses with no
+ * prerequisites never touch the database here.
+ *
+ * There's one instance for the whole app so every caller shares the same graph.
+ */
+public final class PrerequisiteService {
+    private static final LatencyHistogram ADD = Metrics.timer("service.PrerequisiteService.addPrerequisite");
+    private static final LatencyHistogram REMOVE = Metrics.timer("service.PrerequisiteService.removePrerequisite");
+    private static final LatencyHistogram GET_MISSING = Metrics.timer("service.PrerequisiteService.getMissing");
+    private static final LatencyHistogram CHECK_ELIGIBLE = Metrics.timer("service.PrerequisiteService.checkEligible");
+    private static final LatencyHistogram FIND_UNMET = Metrics.timer("service.PrerequisiteService.findUnmet");
+
+    private static final PrerequisiteService INSTANCE = new PrerequisiteService();
+
+    private final PrerequisiteDAO prerequisiteDAO = Metrics.timed(PrerequisiteDAO.class, new PrerequisiteDAOImpl());
+    private final CourseDAO courseDAO = new CachingCourseDAO();
+    private volatile PrerequisiteGraph graph; // null until first use, and again after a course is deleted
+
+    private PrerequisiteService() {
+        DataChangeEvents.addListener((type, id, entity) -> {
+            if (type == Course.class && entity == null) {
+                graph = null; // The cascade removed its edges - cheaper to reload once than to mirror it here
+            }
+        });
+    }
+
+    public static PrerequisiteService getInstance() {
+        return INSTANCE;
+    }
+
+    // Throws IllegalArgumentException if the prerequisite (indirectly) requires the course already
+    public synchronized void addPrerequisite(int courseId, int prerequisiteId) throws SQLException {
+        Metrics.run(ADD, () -> {
+            prerequisiteDAO.addPrerequisite(courseId, prerequisiteId); // The DAO re-checks for cycles inside its transaction
+            graph = getGraph().with(courseId, prerequisiteId);
+        });
+    }
+
+    public synchronized void removePrerequisite(int courseId, int prerequisiteId) throws SQLException {
+        Metrics.run(REMOVE, () -> {
+            if (prerequisiteDAO.removePrerequisite(courseId, prerequisiteId)) {
+                graph = getGraph().without(courseId, prerequisiteId);
+            }
+        });
+    }
+
+    public List<Integer> getDirectPrerequisites(int courseId) throws SQLException {
+        return getGraph().directPrerequisites(courseId);
+    }
+
+    public List<Integer> getAllPrerequisites(int courseId) throws SQLException {
+        return getGraph().allPrerequisites(courseId);
+    }
+
+    // Prerequisites of the course the student hasn't passed yet - empty when they may enroll
+    public List<Integer> getMissing(int studentId, int courseId) throws SQLException {
+        return Metrics.time(GET_MISSING, () -> {
+            PrerequisiteGraph g = getGraph();
+            if (!g.hasPrerequisites(courseId)) {
+                return Collections.<Integer>emptyList();
+            }
+            List<Integer> completed = prerequisiteDAO.getCompletedCourses(Collections.singleton(studentId))
+                    .getOrDefault(studentId, Collections.emptyList());
+            return g.missing(courseId, g.toBits(completed));
+        });
+    }
+
+    public void checkEligible(int studentId, Course course) throws SQLException {
+        Metrics.run(CHECK_ELIGIBLE, () -> {
+            List<Integer> missing = getMissing(studentId, course.getId());
+            if (!missing.isEmpty()) {
+                throw notMet(studentId, course, missing, courseDAO.getCoursesByIds(missing));
+            }
+        });
+    }
+
+    /**
+     * Checks many (student, course) pairs at once, e.g. a registration batch or a whole cohort moving up a
+     * year. Returns the failures keyed by EnrollmentDAO.pairKey(studentId, courseId); pairs that are fine
+     * aren't in the map. One batched query for everyone's passed courses, each student's set turned into
+     * bits once, then an andNot per pair.
+     */
+    public Map<Long, PrerequisitesNotMetException> findUnmet(Collection<Enrollment> enrollments) throws SQLException {
+        return Metrics.time(FIND_UNMET, () -> findUnmetPairs(enrollments));
+    }
+
+    private Map<Long, PrerequisitesNotMetException> findUnmetPairs(Collection<Enrollment> enrollments) throws SQLException {
+        PrerequisiteGraph g = getGraph();
+        Set<Integer> studentIds = new HashSet<>();
+        for (Enrollment enrollment : enrollments) {
+            if (g.hasPrerequisites(enrollment.getCourse().getId())) {
+                studentIds.add(enrollment.getStudent().getId());
+            }
+        }
+        Map<Long, PrerequisitesNotMetException> unmet = new HashMap<>();
+        if (studentIds.isEmpty()) {
+            return unmet;
+        }
+        Map<Integer, List<Integer>> completed = prerequisiteDAO.getCompletedCourses(studentIds);
+        Map<Integer, BitSet> bits = new HashMap<>();
+        Map<Enrollment, List<Integer>> missingByPair = new LinkedHashMap<>();
+        Set<Integer> missingIds = new HashSet<>();
+        for (Enrollment enrollment : enrollments) {
+            int studentId = enrollment.getStudent().getId();
+            int courseId = enrollment.getCourse().getId();
+            if (!studentIds.contains(studentId) || !g.hasPrerequisites(courseId)) {
+                continue;
+            }
+            BitSet passed = bits.computeIfAbsent(studentId,
+                    id -> g.toBits(completed.getOrDefault(id, Collections.emptyList())));
+            List<Integer> missing = g.missing(courseId, passed);
+            if (!missing.isEmpty()) {
+                missingByPair.put(enrollment, missing);
+                missingIds.addAll(missing);
+            }
+        }
+        // Course codes for the messages are looked up once for the whole batch, not per failure
+        Map<Integer, Course> courses = missingIds.isEmpty() ? Collections.emptyMap() : courseDAO.getCoursesByIds(missingIds);
+        for (Map.Entry<Enrollment, List<Integer>> entry : missingByPair.entrySet()) {
+            int studentId = entry.getKey().getStudent().getId();
+            Course course = entry.getKey().getCourse();
+            unmet.put(EnrollmentDAO.pairKey(studentId, course.getId()), notMet(studentId, course, entry.getValue(), courses));
+        }
+        return unmet;
+    }
+
+    // Drops the cached graph, e.g. after prerequisites were edited outside this service
+    public void reload() {
+        graph = null;
+    }
+
+    private PrerequisiteGraph getGraph() throws SQLException {
+        PrerequisiteGraph g = graph;
+        if (g == null) {
+            synchronized (this) {
+                g = graph;
+                if (g == null) {
+                    Map<Integer, List<Integer>> edges = prerequisiteDAO.getAllPrerequisites();
+                    g = edges.isEmpty() ? PrerequisiteGraph.empty() : PrerequisiteGraph.of(edges);
+                    graph = g;
+                }
+            }
+        }
+        return g;
+    }
+
+    private static PrerequisitesNotMetException notMet(int studentId, Course course, List<Integer> missing,
+                                                       Map<Integer, Course> courses) {
+        List<String> codes = new ArrayList<>(missing.size());
+        for (Integer id : missing) {
+            Course c = courses.get(id);
+            codes.add(c != null ? c.getCourseCode() : "#" + id);
+        }
+        String message = course.getCourseCode() + " requires " + String.join(", ", codes)
+                + " to be passed first.";
+        return new PrerequisitesNotMetException(message, studentId, course.getId(), missing);
+    }
+}
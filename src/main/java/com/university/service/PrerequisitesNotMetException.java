@@ -0,0 +1,28 @@
+package com.university.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when a student hasn't passed everything a course requires. Nothing was written. Extends
+ * IllegalArgumentException like the other "you can't do that" checks in the services, so existing
+ * handlers still show it as an input problem.
+ */
+public class PrerequisitesNotMetException extends IllegalArgumentException {
+    private static final long serialVersionUID = 1L;
+
+    private final int studentId;
+    private final int courseId;
+    private final List<Integer> missingCourseIds;
+
+    public PrerequisitesNotMetException(String message, int studentId, int courseId, List<Integer> missingCourseIds) {
+        super(message);
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.missingCourseIds = Collections.unmodifiableList(missingCourseIds);
+    }
+
+    public int getStudentId() { return studentId; }
+    public int getCourseId() { return courseId; }
+    public List<Integer> getMissingCourseIds() { return missingCourseIds; }
+}
@@ -0,0 +1,265 @@
+package com.university.service;
+
+import com.university.dao.BatchResult;
+import com.university.dao.EnrollmentDAO;
+import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.model.Course;
+import com.university.model.Enrollment;
+import com.university.model.Student;
+import com.university.util.LatencyHistogram;
+import com.university.util.Metrics;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Intake queue for registration bursts. Callers hand in enrollment requests and get a future back; one
+ * writer thread drains the queue into micro-batches and commits each batch in a single transaction via
+ * EnrollmentDAO.enrollAll(). A thousand students clicking "Enroll" then cost a handful of commits instead
+ * of a thousand connections fighting over SQLite's write lock.
+ *
+ * Every request still gets its own outcome - the future completes with the saved Enrollment, or fails with
+ * CourseFullException / DuplicateEntryException / PrerequisitesNotMetException for that request alone. When the queue is full, submit()
+ * waits briefly and then fails the future with RejectedExecutionException, so a burst can't eat the heap.
+ *
+ * Tunable with -Duniversity.registration.queueCapacity, .maxBatch, .lingerMs and .offerTimeoutMs.
+ */
+public final class RegistrationQueue {
+    private static final int QUEUE_CAPACITY = Integer.getInteger("university.registration.queueCapacity", 10_000);
+    private static final int MAX_BATCH = Integer.getInteger("university.registration.maxBatch", 200);
+    private static final long LINGER_MS = Long.getLong("university.registration.lingerMs", 2L);
+    private static final long OFFER_TIMEOUT_MS = Long.getLong("university.registration.offerTimeoutMs", 250L);
+
+    private static volatile RegistrationQueue instance;
+
+    private static final class Request {
+        final Enrollment enrollment;
+        final CompletableFuture<Enrollment> result = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+
+        Request(Enrollment enrollment) {
+            this.enrollment = enrollment;
+        }
+    }
+
+    private final BlockingQueue<Request> queue;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private final long offerTimeoutMillis;
+    private final EnrollmentDAO enrollmentDAO = Metrics.timed(EnrollmentDAO.class, new EnrollmentDAOImpl());
+    private final PrerequisiteService prerequisites = PrerequisiteService.getInstance();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Submit-to-completion time as the caller sees it, and how long each batch transaction took
+    private final LatencyHistogram latency = new LatencyHistogram("registration-latency");
+    private final LatencyHistogram commitTime = new LatencyHistogram("registration-commit");
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public RegistrationQueue(int capacity, int maxBatch, long lingerMillis, long offerTimeoutMillis) {
+        if (capacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive.");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatch = maxBatch;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, lingerMillis));
+        this.offerTimeoutMillis = Math.max(0, offerTimeoutMillis);
+        this.writer = new Thread(this::drainLoop, "registration-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // The shared queue, started on first use
+    public static RegistrationQueue getInstance() {
+        RegistrationQueue q = instance;
+        if (q == null) {
+            synchronized (RegistrationQueue.class) {
+                q = instance;
+                if (q == null) {
+                    q = new RegistrationQueue(QUEUE_CAPACITY, MAX_BATCH, LINGER_MS, OFFER_TIMEOUT_MS);
+                    registerGauges(q);
+                    instance = q;
+                }
+            }
+        }
+        return q;
+    }
+
+    // Only the shared queue shows up in the metrics - ad-hoc ones (benchmarks, bulk jobs) keep their numbers to themselves
+    private static void registerGauges(RegistrationQueue q) {
+        Metrics.gauge("service.RegistrationQueue.depth", q::getQueueDepth);
+        Metrics.gauge("service.RegistrationQueue.completed", q::getCompletedCount);
+        Metrics.gauge("service.RegistrationQueue.rejected", q::getRejectedCount);
+        Metrics.gauge("service.RegistrationQueue.averageBatchSize", q::getAverageBatchSize);
+        Metrics.gauge("service.RegistrationQueue.p99LatencyMillis", () -> q.getLatency().getPercentileNanos(99) / 1e6);
+    }
+
+    // The future completes on the writer thread, so chain slow work with the *Async variants
+    public CompletableFuture<Enrollment> submit(Student student, Course course) {
+        if (student == null || course == null) {
+            CompletableFuture<Enrollment> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalArgumentException("Student and Course cannot be null for enrollment."));
+            return failed;
+        }
+        String today = LocalDate.now().format(DateTimeFormatter.ISO_DATE);
+        Request request = new Request(new Enrollment(0, student, course, today));
+        boolean accepted = false;
+        if (running) {
+            try {
+                accepted = queue.offer(request, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // shutdown() may have landed between the check and the offer, and the writer may already have
+            // seen an empty queue and gone. Take the request back if it's still there; if it isn't, the
+            // writer has it and will answer it.
+            if (accepted && !running && queue.remove(request)) {
+                accepted = false;
+            }
+        }
+        if (!accepted) {
+            rejected.incrementAndGet();
+            request.result.completeExceptionally(new RejectedExecutionException(running
+                    ? "Registration is busy right now, please try again in a moment."
+                    : "Registration queue has been shut down."));
+        }
+        return request.result;
+    }
+
+    public int getQueueDepth() { return queue.size(); }
+    public long getBatchCount() { return batches.get(); }
+    public long getCompletedCount() { return completed.get(); }
+    public long getRejectedCount() { return rejected.get(); }
+    public LatencyHistogram getLatency() { return latency; }
+    public LatencyHistogram getCommitTime() { return commitTime; }
+
+    public double getAverageBatchSize() {
+        long b = batches.get();
+        return b == 0 ? 0.0 : (double) completed.get() / b;
+    }
+
+    public String getStatistics() {
+        return String.format("registration[depth=%d, completed=%d, rejected=%d, batches=%d, avgBatch=%.1f] %s %s",
+                getQueueDepth(), getCompletedCount(), getRejectedCount(), getBatchCount(), getAverageBatchSize(),
+                latency, commitTime);
+    }
+
+    // Stops taking requests; whatever is already queued still gets written before the writer exits.
+    // No interrupt here - it would land in the pool's connection wait and fail the batch being written.
+    public void shutdown() {
+        running = false;
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        writer.join(Math.max(1, unit.toMillis(timeout)));
+        return !writer.isAlive();
+    }
+
+    private void drainLoop() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Request first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Under load the queue already holds a full batch; when it's quiet, waiting a couple of ms
+                // for company is still much cheaper than a commit of one
+                queue.drainTo(batch, maxBatch - batch.size());
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatch && running) {
+                    long wait = deadline - System.nanoTime();
+                    Request next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatch - batch.size());
+                }
+            } catch (InterruptedException e) {
+                running = false; // Someone is tearing the JVM down - write what we have and stop
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Request> requests) {
+        long started = System.nanoTime();
+        List<Request> batch = requests;
+        BatchResult result;
+        try {
+            batch = withoutUnmetPrerequisites(requests);
+            if (batch.isEmpty()) {
+                batches.incrementAndGet();
+                return;
+            }
+            List<Enrollment> enrollments = new ArrayList<>(batch.size());
+            for (Request request : batch) {
+                enrollments.add(request.enrollment);
+            }
+            result = enrollmentDAO.enrollAll(enrollments);
+        } catch (SQLException | RuntimeException e) {
+            // The whole transaction rolled back, so none of these were enrolled
+            for (Request request : batch) {
+                finish(request, e);
+            }
+            batches.incrementAndGet();
+            return;
+        }
+        commitTime.recordSince(started);
+        batches.incrementAndGet();
+        for (int i = 0; i < batch.size(); i++) {
+            finish(batch.get(i), result.getFailures().get(i));
+        }
+    }
+
+    // One query for the whole batch's passed courses; whoever is missing something is answered right here
+    // and never reaches the write transaction
+    private List<Request> withoutUnmetPrerequisites(List<Request> requests) throws SQLException {
+        List<Enrollment> enrollments = new ArrayList<>(requests.size());
+        for (Request request : requests) {
+            enrollments.add(request.enrollment);
+        }
+        Map<Long, PrerequisitesNotMetException> unmet = prerequisites.findUnmet(enrollments);
+        if (unmet.isEmpty()) {
+            return requests;
+        }
+        List<Request> eligible = new ArrayList<>(requests.size() - unmet.size());
+        for (Request request : requests) {
+            Enrollment e = request.enrollment;
+            PrerequisitesNotMetException failure = unmet.get(EnrollmentDAO.pairKey(e.getStudent().getId(), e.getCourse().getId()));
+            if (failure != null) {
+                finish(request, failure);
+            } else {
+                eligible.add(request);
+            }
+        }
+        return eligible;
+    }
+
+    private void finish(Request request, Exception failure) {
+        completed.incrementAndGet();
+        latency.recordSince(request.enqueuedAt);
+        if (failure == null) {
+            request.result.complete(request.enrollment);
+        } else {
+            request.result.completeExceptionally(failure);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.university.service;
+
+import com.university.dao.SearchDAO;
+import com.university.dao.SearchResults;
+import com.university.dao.impl.SearchDAOImpl;
+import com.university.util.LatencyHistogram;
+import com.university.util.Metrics;
+
+import java.sql.SQLException;
+
+public class SearchService {
+    private static final LatencyHistogram SEARCH = Metrics.timer("service.SearchService.search");
+    private static final LatencyHistogram REBUILD_INDEX = Metrics.timer("service.SearchService.rebuildIndex");
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private SearchDAO searchDAO;
+
+    public SearchService() {
+        this.searchDAO = Metrics.timed(SearchDAO.class, new SearchDAOImpl());
+    }
+
+    public SearchResults search(String query) throws SQLException {
+        return search(query, 0, DEFAULT_PAGE_SIZE);
+    }
+
+    // Pass the previous page's getNextOffset() to continue
+    public SearchResults search(String query, int offset, int limit) throws SQLException {
+        return Metrics.time(SEARCH, () -> searchDAO.search(query == null ? "" : query.trim(), offset, limit));
+    }
+
+    // Only needed if the index was damaged or the database was edited outside the app
+    public void rebuildIndex() throws SQLException {
+        Metrics.run(REBUILD_INDEX, () -> searchDAO.rebuildIndex());
+    }
+}
@@ -1,52 +1,106 @@
 package com.university.service;
 
+import com.university.dao.DuplicateEntryException;
 import com.university.dao.StudentDAO;
 import com.university.dao.impl.StudentDAOImpl;
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
 import com.university.model.Student;
+import com.university.util.LatencyHistogram;
+import com.university.util.Metrics;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class StudentService {
+    private static final LatencyHistogram ADD = Metrics.timer("service.StudentService.addStudent");
+    private static final LatencyHistogram GET = Metrics.timer("service.StudentService.getStudent");
+    private static final LatencyHistogram GET_ALL = Metrics.timer("service.StudentService.getAllStudents");
+    private static final LatencyHistogram GET_PAGE = Metrics.timer("service.StudentService.getStudentsPage");
+    private static final LatencyHistogram GET_IDS = Metrics.timer("service.StudentService.getStudentIds");
+    private static final LatencyHistogram GET_BY_IDS = Metrics.timer("service.StudentService.getStudentsByIds");
+    private static final LatencyHistogram COUNT = Metrics.timer("service.StudentService.countStudents");
+    private static final LatencyHistogram UPDATE = Metrics.timer("service.StudentService.updateStudent");
+    private static final LatencyHistogram DELETE = Metrics.timer("service.StudentService.deleteStudent");
+
     private StudentDAO studentDAO;
 
     public StudentService() {
-        this.studentDAO = new StudentDAOImpl();
+        this.studentDAO = Metrics.timed(StudentDAO.class, new StudentDAOImpl());
     }
 
     public void addStudent(Student student) throws SQLException {
         // TODO: Add email format validation
         // TODO: Add date of birth validation (reasonable age range, valid date format)
-        // TODO: Check for duplicate email addresses
         // I'm doing basic validation here - should expand this later
-        if (student.getFirstName() == null || student.getFirstName().trim().isEmpty() ||
-            student.getLastName() == null || student.getLastName().trim().isEmpty()) {
-            throw new IllegalArgumentException("First name and last name cannot be empty.");
-        }
-        studentDAO.addStudent(student);
+        Metrics.run(ADD, () -> {
+            validateStudent(student);
+            checkEmailAvailable(student);
+            studentDAO.addStudent(student);
+        });
     }
 
     public Student getStudent(int id) throws SQLException {
-        return studentDAO.getStudent(id);
+        return Metrics.time(GET, () -> studentDAO.getStudent(id));
     }
 
     public List<Student> getAllStudents() throws SQLException {
-        return studentDAO.getAllStudents();
+        return Metrics.time(GET_ALL, () -> studentDAO.getAllStudents());
+    }
+
+    public Page<Student> getStudentsPage(PageRequest request) throws SQLException {
+        return Metrics.time(GET_PAGE, () -> studentDAO.getStudentsPage(request));
+    }
+
+    public int[] getStudentIds(String sortKey, boolean ascending) throws SQLException {
+        return Metrics.time(GET_IDS, () -> studentDAO.getStudentIds(sortKey, ascending));
+    }
+
+    public Map<Integer, Student> getStudentsByIds(Collection<Integer> ids) throws SQLException {
+        return Metrics.time(GET_BY_IDS, () -> studentDAO.getStudentsByIds(ids));
+    }
+
+    public int countStudents() throws SQLException {
+        return Metrics.time(COUNT, () -> studentDAO.countStudents());
     }
 
     public void updateStudent(Student student) throws SQLException {
         // TODO: Add comprehensive validation (same as addStudent)
+        Metrics.run(UPDATE, () -> {
+            validateStudent(student);
+            checkEmailAvailable(student);
+            studentDAO.updateStudent(student);
+        });
+    }
+
+    // Static so the bulk importer can apply exactly the same rules without a database round trip
+    public static void validateStudent(Student student) {
         if (student.getFirstName() == null || student.getFirstName().trim().isEmpty() ||
             student.getLastName() == null || student.getLastName().trim().isEmpty()) {
             throw new IllegalArgumentException("First name and last name cannot be empty.");
         }
-        studentDAO.updateStudent(student);
+        // A blank email means "no email" - storing "" would make the UNIQUE column reject the second one
+        if (student.getEmail() != null && student.getEmail().trim().isEmpty()) {
+            student.setEmail(null);
+        }
+    }
+
+    private void checkEmailAvailable(Student student) throws SQLException {
+        if (student.getEmail() == null) {
+            return;
+        }
+        Student existing = studentDAO.getStudentByEmail(student.getEmail());
+        if (existing != null && existing.getId() != student.getId()) {
+            throw new DuplicateEntryException("A student with email " + student.getEmail() + " already exists.", "students", "email");
+        }
     }
 
     public void deleteStudent(int id) throws SQLException {
         // TODO: Handle student enrollments before deletion (unenroll or prevent deletion)
         // TODO: Handle student grades before deletion
         // I should consider business logic here: maybe unenroll from courses before deleting
-        studentDAO.deleteStudent(id);
+        Metrics.run(DELETE, () -> studentDAO.deleteStudent(id));
     }
 }
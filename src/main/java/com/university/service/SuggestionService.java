@@ -0,0 +1,162 @@
+package com.university.service;
+
+import com.university.dao.DataChangeEvents;
+import com.university.dao.StudentDAO;
+import com.university.dao.impl.CachingCourseDAO;
+import com.university.dao.impl.CachingDepartmentDAO;
+import com.university.dao.impl.StudentDAOImpl;
+import com.university.model.Course;
+import com.university.model.Department;
+import com.university.model.Student;
+import com.university.util.Metrics;
+import com.university.util.PrefixIndex;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Type-ahead suggestions for the dialogs. Each entity type is read from the database once, in the
+ * background, into a PrefixIndex; after that the DAOs' change events keep it current and suggest() never
+ * touches the database. Until the first load finishes suggest() just returns what it has (usually nothing).
+ *
+ * There's one instance for the whole app so every dialog shares the same indexes.
+ */
+public final class SuggestionService {
+    private static final SuggestionService INSTANCE = new SuggestionService();
+
+    private interface Loader<T> {
+        List<T> loadAll() throws SQLException;
+    }
+
+    private final ExecutorService loaderThread = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "suggestion-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Source<Student> students = new Source<>(Student.class,
+            () -> Metrics.timed(StudentDAO.class, new StudentDAOImpl()).getAllStudents(), Student::getId,
+            s -> new String[]{s.getFirstName(), s.getLastName(), s.getEmail()});
+    private final Source<Course> courses = new Source<>(Course.class,
+            () -> new CachingCourseDAO().getAllCourses(), Course::getId,
+            c -> new String[]{c.getCourseCode(), c.getCourseName()});
+    private final Source<Department> departments = new Source<>(Department.class,
+            () -> new CachingDepartmentDAO().getAllDepartments(), Department::getId,
+            d -> new String[]{d.getName()});
+
+    private SuggestionService() {
+        DataChangeEvents.addListener((type, id, entity) -> {
+            if (type == Student.class) {
+                students.changed(id, (Student) entity);
+            } else if (type == Course.class) {
+                courses.changed(id, (Course) entity);
+            } else if (type == Department.class) {
+                departments.changed(id, (Department) entity);
+            }
+        });
+    }
+
+    public static SuggestionService getInstance() {
+        return INSTANCE;
+    }
+
+    // Starts the background loads so the indexes are warm by the time someone types
+    public void preload() {
+        students.ensureLoaded();
+        courses.ensureLoaded();
+        departments.ensureLoaded();
+    }
+
+    public List<Student> suggestStudents(String prefix, int limit) {
+        return students.suggest(prefix, limit);
+    }
+
+    public List<Course> suggestCourses(String prefix, int limit) {
+        return courses.suggest(prefix, limit);
+    }
+
+    public List<Department> suggestDepartments(String prefix, int limit) {
+        return departments.suggest(prefix, limit);
+    }
+
+    public boolean isReady() {
+        return students.loaded && courses.loaded && departments.loaded;
+    }
+
+    private final class Source<T> {
+        private final Class<T> type;
+        private final Loader<T> loader;
+        private final ToIntFunction<T> idOf;
+        private final Function<T, String[]> textsOf;
+        private final PrefixIndex<T> index = new PrefixIndex<>();
+        // IDs written while the initial load was running - the load's copy of those rows is already stale
+        private final Set<Integer> changedDuringLoad = new HashSet<>();
+        private boolean loadStarted;
+        private boolean loading;
+        private volatile boolean loaded;
+
+        Source(Class<T> type, Loader<T> loader, ToIntFunction<T> idOf, Function<T, String[]> textsOf) {
+            this.type = type;
+            this.loader = loader;
+            this.idOf = idOf;
+            this.textsOf = textsOf;
+        }
+
+        List<T> suggest(String prefix, int limit) {
+            ensureLoaded();
+            return index.suggest(prefix, limit);
+        }
+
+        synchronized void ensureLoaded() {
+            if (loadStarted) {
+                return;
+            }
+            loadStarted = true;
+            loading = true;
+            loaderThread.execute(this::load);
+        }
+
+        private void load() {
+            try {
+                List<T> rows = loader.loadAll();
+                for (T row : rows) {
+                    // Lock per row rather than for the whole load, so a DAO write never waits seconds on me
+                    synchronized (this) {
+                        int id = idOf.applyAsInt(row);
+                        if (!changedDuringLoad.contains(id)) {
+                            index.put(id, row, textsOf.apply(row));
+                        }
+                    }
+                }
+                loaded = true;
+            } catch (SQLException e) {
+                System.err.println("Could not load " + type.getSimpleName() + " suggestions: " + e.getMessage());
+                synchronized (this) {
+                    loadStarted = false; // Try again on the next keystroke
+                }
+            } finally {
+                synchronized (this) {
+                    loading = false;
+                    changedDuringLoad.clear();
+                }
+            }
+        }
+
+        synchronized void changed(int id, T entity) {
+            if (loading) {
+                changedDuringLoad.add(id);
+            }
+            if (entity == null) {
+                index.remove(id);
+            } else {
+                index.put(id, entity, textsOf.apply(entity));
+            }
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.university.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small bounded JDBC connection pool. I wrote this instead of pulling in a pooling library because
+ * SQLite only needs a handful of connections and I wanted the per-connection PRAGMA setup in one place.
+ *
+ * Connections handed out are proxies - calling close() returns the physical connection to the pool.
+ * With a statement cache size above zero, prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys)
+ * also come from a per-connection LRU cache, so the same SQL isn't re-parsed and re-planned on every call.
+ * Closing such a statement puts it back; anything still open when the connection is closed is reclaimed.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /** Runs once on every new physical connection, before it is handed out for the first time. */
+    public interface ConnectionInitializer {
+        void initialize(Connection conn) throws SQLException;
+    }
+
+    private final String url;
+    private final Properties properties;
+    private final ConnectionInitializer initializer;
+    private final int maxSize;
+    private final int minIdle;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int statementCacheSize;
+    private volatile boolean captureBorrowStacks; // Debug only - a stack walk on every borrow isn't free
+    private final StatementCache.Stats statementStats = new StatementCache.Stats();
+
+    private final Semaphore permits;
+    // LIFO so the most recently used (warmest page cache) connection gets reused first
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+
+    public ConnectionPool(String url, Properties properties, ConnectionInitializer initializer,
+                          int maxSize, int minIdle, long acquireTimeoutMillis,
+                          long idleTimeoutMillis, long leakThresholdMillis) {
+        this(url, properties, initializer, maxSize, minIdle, acquireTimeoutMillis, idleTimeoutMillis,
+                leakThresholdMillis, 0);
+    }
+
+    public ConnectionPool(String url, Properties properties, ConnectionInitializer initializer,
+                          int maxSize, int minIdle, long acquireTimeoutMillis,
+                          long idleTimeoutMillis, long leakThresholdMillis, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive.");
+        }
+        this.url = url;
+        this.properties = properties;
+        this.initializer = initializer;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true); // Must not keep the JVM alive after the window closes
+            return t;
+        });
+        long period = Math.max(1000L, Math.min(idleTimeoutMillis, leakThresholdMillis) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + acquireTimeoutMillis
+                        + " ms waiting for a database connection (pool size " + maxSize + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (pooled.isUsable()) {
+                    break;
+                }
+                pooled.closePhysical(); // Stale handle, I'll just open a fresh one
+            }
+            if (pooled == null) {
+                pooled = openPhysical();
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowThread = Thread.currentThread().getName();
+            pooled.borrowSite = captureBorrowStacks ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, properties);
+        try {
+            if (initializer != null) {
+                initializer.initialize(physical);
+            }
+        } catch (SQLException e) {
+            physical.close();
+            throw e;
+        }
+        created.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            if (closed || !pooled.resetForReuse()) {
+                pooled.closePhysical();
+            } else {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        // Idle eviction - oldest connections sit at the tail of the deque
+        if (idleTimeoutMillis > 0) {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() > minIdle) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.lastReturnedAt >= idleTimeoutMillis && idle.removeFirstOccurrence(pooled)) {
+                    pooled.closePhysical();
+                    evicted.incrementAndGet();
+                }
+            }
+        }
+
+        // Leak detection - I only report each borrow once so the log doesn't get flooded
+        if (leakThresholdMillis > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt >= leakThresholdMillis) {
+                    pooled.leakReported = true;
+                    leaksDetected.incrementAndGet();
+                    System.err.println("Possible connection leak: connection borrowed by thread \"" + pooled.borrowThread
+                            + "\" held for " + (now - pooled.borrowedAt) + " ms without being closed.");
+                    if (pooled.borrowSite != null) {
+                        pooled.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    // Records where each connection was borrowed so leak reports can print the stack. Off by default.
+    public void setCaptureBorrowStacks(boolean captureBorrowStacks) {
+        this.captureBorrowStacks = captureBorrowStacks;
+    }
+
+    public int getMaxSize() { return maxSize; }
+    public int getActiveCount() { return borrowed.size(); }
+    public int getIdleCount() { return idle.size(); }
+    public long getCreatedCount() { return created.get(); }
+    public long getEvictedCount() { return evicted.get(); }
+    public long getLeaksDetected() { return leaksDetected.get(); }
+    public int getStatementCacheSize() { return statementCacheSize; }
+    public long getStatementCacheHits() { return statementStats.hits.get(); }
+    public long getStatementCacheMisses() { return statementStats.misses.get(); }
+    public long getStatementCacheEvictions() { return statementStats.evictions.get(); }
+
+    public double getStatementCacheHitRatio() {
+        long hits = statementStats.hits.get();
+        long total = hits + statementStats.misses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public String getStatementCacheStatistics() {
+        return String.format("statements[size=%d/connection, hits=%d, misses=%d, evictions=%d, hitRatio=%.2f]",
+                statementCacheSize, getStatementCacheHits(), getStatementCacheMisses(),
+                getStatementCacheEvictions(), getStatementCacheHitRatio());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closePhysical();
+        }
+        // Borrowed connections get closed for real when their handles are released
+    }
+
+    /** One physical SQLite connection plus the bookkeeping the pool needs for it. */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements; // null when caching is off
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile String borrowThread;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0 ? new StatementCache(statementCacheSize, statementStats) : null;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+
+        boolean isUsable() {
+            try {
+                return !physical.isClosed();
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        // Undo anything the borrower left behind so the next caller gets a clean connection
+        boolean resetForReuse() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            if (statements != null) {
+                statements.closeAll();
+            }
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing pooled connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Each borrow gets its own handle so a double close() can't return the connection twice. */
+    private final class Handle implements InvocationHandler {
+        private PooledConnection pooled;
+        private final List<CachedStatement> openStatements = new ArrayList<>();
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    synchronized (this) {
+                        if (pooled != null) {
+                            // Statements the borrower forgot to close go back to the cache before anyone
+                            // else can get this connection
+                            for (CachedStatement statement : new ArrayList<>(openStatements)) {
+                                statement.release();
+                            }
+                            openStatements.clear();
+                            PooledConnection toRelease = pooled;
+                            pooled = null;
+                            release(toRelease);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return pooled == null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (pooled == null ? "closed" : pooled.physical) + "]";
+                default:
+                    break;
+            }
+            PooledConnection current = pooled;
+            if (current == null) {
+                throw new SQLException("Connection is closed.");
+            }
+            if (current.statements != null && name.equals("prepareStatement") && isCacheable(method)) {
+                return prepareCached(proxy, current, (String) args[0],
+                        args.length > 1 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS);
+            }
+            try {
+                return method.invoke(current.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Only the two plain forms - anything asking for special cursor types or key columns goes straight through
+        private boolean isCacheable(Method method) {
+            Class<?>[] params = method.getParameterTypes();
+            return params.length == 1 || (params.length == 2 && params[1] == int.class);
+        }
+
+        private Object prepareCached(Object connectionProxy, PooledConnection current, String sql,
+                                     int autoGeneratedKeys) throws SQLException {
+            StatementCache.Key key = new StatementCache.Key(sql, autoGeneratedKeys);
+            PreparedStatement stmt = current.statements.checkOut(key);
+            if (stmt == null) {
+                stmt = current.physical.prepareStatement(sql, autoGeneratedKeys);
+            }
+            CachedStatement statement = new CachedStatement(this, current.statements, key, stmt, connectionProxy);
+            synchronized (this) {
+                openStatements.add(statement);
+            }
+            return Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, statement);
+        }
+
+        synchronized void forget(CachedStatement statement) {
+            openStatements.remove(statement);
+        }
+    }
+
+    /** A borrowed cached statement. close() hands the physical statement back instead of closing it. */
+    private static final class CachedStatement implements InvocationHandler {
+        private final Handle owner;
+        private final StatementCache cache;
+        private final StatementCache.Key key;
+        private final PreparedStatement stmt;
+        private final Object connectionProxy;
+        private ResultSet lastResult;
+        private boolean closed;
+        private boolean failed;
+
+        CachedStatement(Handle owner, StatementCache cache, StatementCache.Key key, PreparedStatement stmt,
+                        Object connectionProxy) {
+            this.owner = owner;
+            this.cache = cache;
+            this.key = key;
+            this.stmt = stmt;
+            this.connectionProxy = connectionProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        owner.forget(this);
+                        release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return connectionProxy; // Never leak the physical connection
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + key.sql + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed.");
+            }
+            try {
+                Object result = method.invoke(stmt, args);
+                if (result instanceof ResultSet) {
+                    lastResult = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                // Constraint violations are routine, but I'd rather re-prepare than reuse a statement in an odd state
+                failed = true;
+                throw e.getCause();
+            }
+        }
+
+        synchronized void release() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (lastResult != null) {
+                    lastResult.close(); // An open cursor would pin a read snapshot on the pooled connection
+                }
+                if (failed) {
+                    StatementCache.closeQuietly(stmt);
+                    return;
+                }
+                stmt.clearParameters();
+                stmt.clearBatch();
+                cache.checkIn(key, stmt);
+            } catch (SQLException e) {
+                StatementCache.closeQuietly(stmt);
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.university.util;
+
+import java.util.Arrays;
+
+/**
+ * One direction of a many-to-many relation between positive int IDs (student -> courses, course -> students),
+ * with an int payload per edge (the enrollment ID). Keys live in an open-addressing table with linear
+ * probing; each key's neighbours are a sorted int[] with the payloads alongside. No boxing and no objects
+ * per edge, so a million edges cost about 8 MB and a lookup is a hash probe plus a binary search.
+ *
+ * Not thread-safe - EnrollmentGraph guards it.
+ */
+public final class IntAdjacency {
+
+    public interface EdgeVisitor {
+        void visit(int value, int payload);
+    }
+
+    private static final int EMPTY = 0; // IDs come from AUTOINCREMENT, so 0 is never a real key
+    private static final int[] NONE = new int[0];
+
+    private int[] keys;
+    private int[][] values;
+    private int[][] payloads;
+    private int[] degrees;
+    private int keyCount;
+    private long edgeCount;
+
+    public IntAdjacency(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedKeys * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    // Adds the edge, or updates its payload if it's already there. Returns true if the edge is new.
+    public boolean put(int key, int value, int payload) {
+        checkKey(key);
+        int slot = find(key);
+        if (slot < 0) {
+            if ((keyCount + 1) * 4 > keys.length * 3) {
+                rehash(keys.length << 1);
+            }
+            slot = insertKey(key);
+        }
+        int degree = degrees[slot];
+        int at = Arrays.binarySearch(values[slot], 0, degree, value);
+        if (at >= 0) {
+            payloads[slot][at] = payload;
+            return false;
+        }
+        at = -at - 1;
+        if (degree == values[slot].length) {
+            int grown = Math.max(4, degree + (degree >> 1));
+            values[slot] = Arrays.copyOf(values[slot], grown);
+            payloads[slot] = Arrays.copyOf(payloads[slot], grown);
+        }
+        // Bulk loads arrive in sorted order, so this is nearly always an append
+        System.arraycopy(values[slot], at, values[slot], at + 1, degree - at);
+        System.arraycopy(payloads[slot], at, payloads[slot], at + 1, degree - at);
+        values[slot][at] = value;
+        payloads[slot][at] = payload;
+        degrees[slot] = degree + 1;
+        edgeCount++;
+        return true;
+    }
+
+    public boolean remove(int key, int value) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        int degree = degrees[slot];
+        int at = Arrays.binarySearch(values[slot], 0, degree, value);
+        if (at < 0) {
+            return false;
+        }
+        System.arraycopy(values[slot], at + 1, values[slot], at, degree - at - 1);
+        System.arraycopy(payloads[slot], at + 1, payloads[slot], at, degree - at - 1);
+        degrees[slot] = degree - 1;
+        edgeCount--;
+        if (degree == 1) {
+            deleteSlot(slot);
+        }
+        return true;
+    }
+
+    // Drops the key with all its edges, handing each one to the visitor first (visitor may be null)
+    public int removeKey(int key, EdgeVisitor visitor) {
+        int slot = find(key);
+        if (slot < 0) {
+            return 0;
+        }
+        int degree = degrees[slot];
+        int[] removedValues = values[slot];
+        int[] removedPayloads = payloads[slot];
+        edgeCount -= degree;
+        deleteSlot(slot);
+        if (visitor != null) {
+            for (int i = 0; i < degree; i++) {
+                visitor.visit(removedValues[i], removedPayloads[i]);
+            }
+        }
+        return degree;
+    }
+
+    public boolean contains(int key, int value) {
+        int slot = find(key);
+        return slot >= 0 && Arrays.binarySearch(values[slot], 0, degrees[slot], value) >= 0;
+    }
+
+    // The edge's payload, or missing if there's no such edge
+    public int payload(int key, int value, int missing) {
+        int slot = find(key);
+        if (slot < 0) {
+            return missing;
+        }
+        int at = Arrays.binarySearch(values[slot], 0, degrees[slot], value);
+        return at >= 0 ? payloads[slot][at] : missing;
+    }
+
+    public int degree(int key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : degrees[slot];
+    }
+
+    // Sorted copy of the key's neighbours
+    public int[] values(int key) {
+        int slot = find(key);
+        return slot < 0 ? NONE : Arrays.copyOf(values[slot], degrees[slot]);
+    }
+
+    public int keyCount() { return keyCount; }
+    public long edgeCount() { return edgeCount; }
+
+    public void clear() {
+        allocate(16);
+    }
+
+    private int find(int key) {
+        if (key == EMPTY) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) {
+                return slot;
+            }
+            if (k == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private int insertKey(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = NONE;
+        payloads[slot] = NONE;
+        degrees[slot] = 0;
+        keyCount++;
+        return slot;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            // Move the entry back only if the hole lies on its probe path from home
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                move(next, hole);
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        payloads[hole] = null;
+        degrees[hole] = 0;
+        keyCount--;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+        payloads[to] = payloads[from];
+        degrees[to] = degrees[from];
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[][] oldValues = values;
+        int[][] oldPayloads = payloads;
+        int[] oldDegrees = degrees;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = insertKey(oldKeys[i]);
+                values[slot] = oldValues[i];
+                payloads[slot] = oldPayloads[i];
+                degrees[slot] = oldDegrees[i];
+                edgeCount += oldDegrees[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity][];
+        payloads = new int[capacity][];
+        degrees = new int[capacity];
+        keyCount = 0;
+        edgeCount = 0;
+    }
+
+    private static void checkKey(int key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("IDs must be positive: " + key);
+        }
+    }
+
+    // Sequential IDs would cluster badly with identity hashing and linear probing
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
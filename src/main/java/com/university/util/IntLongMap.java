@@ -0,0 +1,117 @@
+package com.university.util;
+
+/**
+ * Open-addressing map from positive int keys to long values, without boxing. Same layout and deletion
+ * scheme as IntAdjacency. Not thread-safe.
+ */
+public final class IntLongMap {
+    private static final int EMPTY = 0;
+
+    private int[] keys;
+    private long[] values;
+    private int size;
+
+    public IntLongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new long[capacity];
+    }
+
+    // Returns the previous value, or missing
+    public long put(int key, long value, long missing) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("IDs must be positive: " + key);
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            long previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        if ((size + 1) * 4 > keys.length * 3) {
+            rehash(keys.length << 1);
+        }
+        insert(key, value);
+        return missing;
+    }
+
+    public long get(int key, long missing) {
+        int slot = find(key);
+        return slot < 0 ? missing : values[slot];
+    }
+
+    // Returns the removed value, or missing
+    public long remove(int key, long missing) {
+        int slot = find(key);
+        if (slot < 0) {
+            return missing;
+        }
+        long removed = values[slot];
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    public int size() { return size; }
+
+    public void clear() {
+        keys = new int[16];
+        values = new long[16];
+        size = 0;
+    }
+
+    private int find(int key) {
+        if (key == EMPTY) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) {
+                return slot;
+            }
+            if (k == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private void insert(int key, long value) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new int[capacity];
+        values = new long[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,119 @@
+package com.university.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram for percentiles. Buckets are log-linear like HdrHistogram: every power of two
+ * is split into 16 equal slices, so any recorded value lands in a bucket at most 1/16 (~6%) wide. That's
+ * plenty for "what's our p99" and costs a fixed 8 KB no matter how many values go in.
+ *
+ * Values are nanoseconds. record() is a couple of atomic increments, so it's fine on hot paths.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long seen;
+        while (value > (seen = max.get()) && !max.compareAndSet(seen, value)) {
+            // Another thread raised the max in between - re-read and retry
+        }
+    }
+
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() { return count.get(); }
+    public long getMaxNanos() { return max.get(); }
+
+    public double getMeanNanos() {
+        long n = count.get();
+        return n == 0 ? 0.0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Value at the given percentile (0-100], as the upper edge of its bucket, so it never under-reports.
+     * Concurrent record() calls may or may not be included - good enough for monitoring.
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in (0, 100].");
+        }
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperEdgeOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    // Values below 16 get one bucket each; above that, the top 4 bits after the leading one pick the slice
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int slice = (int) (value >>> magnitude) & (SUB_BUCKETS - 1);
+        return (magnitude + 1) * SUB_BUCKETS + slice;
+    }
+
+    static long upperEdgeOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int magnitude = bucket / SUB_BUCKETS - 1;
+        long slice = bucket % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + slice) << magnitude;
+        return lower + (1L << magnitude) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[count=%d, mean=%.2fms, p50=%.2fms, p95=%.2fms, p99=%.2fms, max=%.2fms]",
+                name, getCount(), getMeanNanos() / 1e6, toMillis(getPercentileNanos(50)),
+                toMillis(getPercentileNanos(95)), toMillis(getPercentileNanos(99)), toMillis(getMaxNanos()));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.university.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small size-bounded LRU cache with hit/miss counters. Access is synchronized - the caches I use this for
+ * hold reference data that's read far more than it's written, and the critical sections are tiny.
+ */
+public class LruCache<K, V> {
+    private final String name;
+    private final int maxSize;
+    private final LinkedHashMap<K, V> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public LruCache(String name, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        // accessOrder = true turns LinkedHashMap into an LRU list for free
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        if (value == null) {
+            entries.remove(key);
+        } else {
+            entries.put(key, value);
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() { return maxSize; }
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getEvictionCount() { return evictions.get(); }
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRatio=%.2f]",
+                name, size(), maxSize, getHitCount(), getMissCount(), getEvictionCount(), getHitRatio());
+    }
+}
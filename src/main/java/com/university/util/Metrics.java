@@ -0,0 +1,283 @@
+package com.university.util;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Process-wide registry of timers, counters and gauges. Timers are LatencyHistograms, so recording one is
+ * a few atomic increments and never allocates - look the metric up once into a static final field and the
+ * hot path is just System.nanoTime() and record():
+ *
+ *     private static final LatencyHistogram ACQUIRE = Metrics.timer("db.connection.acquire");
+ *     ...
+ *     long started = System.nanoTime();
+ *     try { ... } finally { ACQUIRE.recordSince(started); }
+ *
+ * Service methods wrap their body instead: time(GET, () -> studentDAO.getStudent(id)), with GET looked up
+ * once as above. Whole DAOs are timed at their interface: timed(StudentDAO.class, new StudentDAOImpl()) gives
+ * one timer per method ("dao.StudentDAOImpl.getStudent") without touching the implementation.
+ *
+ * Every metric is also registered as an MXBean under "com.university:type=..." so jconsole/VisualVM can
+ * read it live, and startReporter() prints all of them as text every few minutes.
+ */
+public final class Metrics {
+
+    public interface TimerMXBean {
+        long getCount();
+        double getMeanMillis();
+        double getP50Millis();
+        double getP95Millis();
+        double getP99Millis();
+        double getMaxMillis();
+        void reset();
+    }
+
+    public interface CounterMXBean {
+        long getCount();
+    }
+
+    public interface GaugeMXBean {
+        double getValue();
+    }
+
+    public static final class Counter implements CounterMXBean {
+        private final LongAdder count = new LongAdder(); // Stays cheap when many threads bump the same one
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long n) {
+            count.add(n);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+    }
+
+    private static final class TimerView implements TimerMXBean {
+        private final LatencyHistogram histogram;
+
+        TimerView(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override public long getCount() { return histogram.getCount(); }
+        @Override public double getMeanMillis() { return histogram.getMeanNanos() / 1e6; }
+        @Override public double getP50Millis() { return histogram.getPercentileNanos(50) / 1e6; }
+        @Override public double getP95Millis() { return histogram.getPercentileNanos(95) / 1e6; }
+        @Override public double getP99Millis() { return histogram.getPercentileNanos(99) / 1e6; }
+        @Override public double getMaxMillis() { return histogram.getMaxNanos() / 1e6; }
+        @Override public void reset() { histogram.reset(); }
+    }
+
+    private static final class GaugeView implements GaugeMXBean {
+        private final DoubleSupplier value;
+
+        GaugeView(DoubleSupplier value) {
+            this.value = value;
+        }
+
+        @Override
+        public double getValue() {
+            return value.getAsDouble();
+        }
+    }
+
+    // Seconds between text dumps; 0 turns them off
+    private static final int DUMP_SECONDS = Integer.getInteger("university.metrics.dumpSeconds", 300);
+    private static final String JMX_DOMAIN = "com.university";
+
+    private static final ConcurrentMap<String, LatencyHistogram> TIMERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, DoubleSupplier> GAUGES = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService reporter;
+
+    private Metrics() {}
+
+    // The same name always gives back the same timer, so overloads and repeated lookups share it
+    public static LatencyHistogram timer(String name) {
+        return TIMERS.computeIfAbsent(name, n -> {
+            LatencyHistogram histogram = new LatencyHistogram(n);
+            register("Timer", n, new TimerView(histogram));
+            return histogram;
+        });
+    }
+
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, n -> {
+            Counter counter = new Counter();
+            register("Counter", n, counter);
+            return counter;
+        });
+    }
+
+    // A timed body that may throw the caller's checked exception, usually SQLException
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    @FunctionalInterface
+    public interface Action<E extends Exception> {
+        void run() throws E;
+    }
+
+    /**
+     * Runs call and records how long it took, failures included. A lambda that captures arguments may cost
+     * one small allocation if the JIT doesn't inline it away - fine at service level, but anything that must
+     * never allocate should use the try/finally form above.
+     */
+    public static <T, E extends Exception> T time(LatencyHistogram timer, Call<T, E> call) throws E {
+        long started = System.nanoTime();
+        try {
+            return call.call();
+        } finally {
+            timer.recordSince(started);
+        }
+    }
+
+    public static <E extends Exception> void run(LatencyHistogram timer, Action<E> action) throws E {
+        long started = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            timer.recordSince(started);
+        }
+    }
+
+    /**
+     * Wraps target in a proxy that times every call through the interface, named
+     * "<package>.<target class>.<method>", e.g. dao.StudentDAOImpl.getAllStudents. Overloads share a timer.
+     * The proxy costs a reflective call and an argument array per call - noise next to a SQLite round trip,
+     * but don't put it in front of anything that answers from memory in nanoseconds.
+     */
+    public static <T> T timed(Class<T> type, T target) {
+        if (!type.isInterface()) {
+            throw new IllegalArgumentException(type.getName() + " is not an interface.");
+        }
+        String layer = type.getPackage().getName();
+        String prefix = layer.substring(layer.lastIndexOf('.') + 1) + "." + target.getClass().getSimpleName() + ".";
+        Map<Method, LatencyHistogram> timers = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            timers.put(method, timer(prefix + method.getName()));
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new TimingHandler(target, timers)));
+    }
+
+    private static final class TimingHandler implements InvocationHandler {
+        private final Object target;
+        private final Map<Method, LatencyHistogram> timers; // Filled up front, only read afterwards
+
+        TimingHandler(Object target, Map<Method, LatencyHistogram> timers) {
+            this.target = target;
+            this.timers = timers;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            LatencyHistogram timer = timers.get(method);
+            if (timer == null) {
+                return invokeTarget(method, args); // equals/hashCode/toString from Object
+            }
+            long started = System.nanoTime();
+            try {
+                return invokeTarget(method, args);
+            } finally {
+                timer.recordSince(started);
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause(); // Callers see the DAO's own SQLException, not the reflection wrapper
+            }
+        }
+    }
+
+    // Read on demand (JMX or a dump), never on the hot path. Registering the same name again replaces it.
+    public static void gauge(String name, DoubleSupplier value) {
+        if (GAUGES.put(name, value) == null) {
+            register("Gauge", name, new GaugeView(() -> GAUGES.get(name).getAsDouble()));
+        }
+    }
+
+    // Everything that has been recorded so far, one metric per line, sorted by name
+    public static String dump() {
+        StringBuilder out = new StringBuilder("Metrics at ")
+                .append(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).append('\n');
+        for (LatencyHistogram timer : new TreeMap<>(TIMERS).values()) {
+            if (timer.getCount() > 0) { // Most DAO methods never run in a given session
+                out.append("  ").append(timer).append('\n');
+            }
+        }
+        for (Map.Entry<String, Counter> counter : new TreeMap<>(COUNTERS).entrySet()) {
+            out.append("  ").append(counter.getKey()).append(" = ").append(counter.getValue().getCount()).append('\n');
+        }
+        for (Map.Entry<String, DoubleSupplier> gauge : new TreeMap<>(GAUGES).entrySet()) {
+            double value;
+            try {
+                value = gauge.getValue().getAsDouble();
+            } catch (RuntimeException e) {
+                value = Double.NaN; // One broken gauge shouldn't cost us the rest of the dump
+            }
+            out.append("  ").append(gauge.getKey()).append(" = ").append(format(value)).append('\n');
+        }
+        return out.toString();
+    }
+
+    // Prints dump() to stdout every university.metrics.dumpSeconds seconds, and once more at exit
+    public static synchronized void startReporter() {
+        if (reporter != null || DUMP_SECONDS <= 0) {
+            return;
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(() -> System.out.print(dump()), DUMP_SECONDS, DUMP_SECONDS, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.print(dump()), "metrics-final-dump"));
+    }
+
+    // Pool sizes and counts print as whole numbers, ratios with three decimals
+    private static String format(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value) ? String.valueOf((long) value) : String.format("%.3f", value);
+    }
+
+    private static void register(String type, String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException | SecurityException e) {
+            // Still recorded and still in the dumps, just not visible over JMX
+            System.err.println("Couldn't register metric " + name + " with JMX: " + e.getMessage());
+        }
+    }
+}
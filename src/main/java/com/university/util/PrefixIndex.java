@@ -0,0 +1,192 @@
+package com.university.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index for type-ahead. Each value is indexed under the words of its texts (lower-cased,
+ * accents stripped), and suggest() is a TreeMap range scan from the typed prefix - O(log n + k), no
+ * database involved. Entries can be added, replaced and removed one at a time, so it never needs a rebuild.
+ *
+ * Access is synchronized like LruCache - lookups take a few microseconds, so a lock is cheaper than being clever.
+ */
+public class PrefixIndex<V> {
+    // Upper bound on postings looked at per lookup, so a one-letter prefix over 200k names stays fast
+    private static final int MAX_SCAN = 5000;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final TreeMap<String, Postings> postings = new TreeMap<>(); // term -> sorted ids
+    private final Map<Integer, V> values = new HashMap<>();
+    private final Map<Integer, String[]> termsById = new HashMap<>();
+
+    // Indexes (or re-indexes) a value under every word of the given texts; null texts are skipped
+    public synchronized void put(int id, V value, String... texts) {
+        remove(id);
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            terms.addAll(tokenize(text));
+        }
+        String[] termArray = terms.toArray(new String[0]);
+        for (String term : termArray) {
+            postings.computeIfAbsent(term, t -> new Postings()).add(id);
+        }
+        values.put(id, value);
+        termsById.put(id, termArray);
+    }
+
+    public synchronized void remove(int id) {
+        String[] terms = termsById.remove(id);
+        values.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Postings ids = postings.get(term);
+            if (ids != null && ids.remove(id) && ids.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        values.clear();
+        termsById.clear();
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    public synchronized V get(int id) {
+        return values.get(id);
+    }
+
+    /**
+     * Up to limit values where every word of the query is a prefix of one of the value's words.
+     * Matches come back in term order, so "sm" lists Smith before Smithers.
+     */
+    public synchronized List<V> suggest(String query, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        // Scan on the longest word - it has the narrowest range - and check the others per candidate
+        String driver = words.get(0);
+        for (String word : words) {
+            if (word.length() > driver.length()) {
+                driver = word;
+            }
+        }
+
+        List<V> results = new ArrayList<>(limit);
+        Set<Integer> seen = new HashSet<>();
+        int scanned = 0;
+        NavigableMap<String, Postings> range = postings.subMap(driver, true, driver + Character.MAX_VALUE, false);
+        for (Postings postingList : range.values()) {
+            for (int i = 0; i < postingList.size; i++) {
+                int id = postingList.ids[i];
+                if (++scanned > MAX_SCAN) {
+                    return results;
+                }
+                if (seen.add(id) && matchesAll(termsById.get(id), words)) {
+                    results.add(values.get(id));
+                    if (results.size() >= limit) {
+                        return results;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private static boolean matchesAll(String[] terms, List<String> words) {
+        for (String word : words) {
+            boolean found = false;
+            for (String term : terms) {
+                if (term.startsWith(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Lower-case, strip accents, split on anything that isn't a letter or digit
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String folded = text;
+        if (!isAscii(text)) { // Most names are plain ASCII - skip the (slow) Unicode decomposition for those
+            folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        }
+        folded = folded.toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>(4);
+        for (String word : WORD_SEPARATORS.split(folded)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Sorted, growable int list. IDs mostly arrive in increasing order (initial loads, new rows), so add() is
+    // usually an append - copy-on-write arrays made loading 200k rows with a shared term like "edu" quadratic.
+    private static final class Postings {
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            int pos = size > 0 && ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0 && pos < size) {
+                return; // Already there
+            }
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.university.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable prerequisite graph with the transitive closure precomputed as one BitSet per course. Course IDs
+ * are mapped to dense bit positions, so "everything CS301 needs" is a single BitSet and checking a student
+ * is closure.andNot(completed) - no recursive queries, no graph walk per check.
+ *
+ * Changes produce a new graph (with(), without(), ...). Prerequisites change a few times a term and are
+ * checked on every registration, so rebuilding the closure on write is the right way round.
+ */
+public final class PrerequisiteGraph {
+    private static final PrerequisiteGraph EMPTY = new PrerequisiteGraph(Collections.emptyMap());
+
+    private final Map<Integer, Set<Integer>> edges; // courseId -> direct prerequisite IDs
+    private final Map<Integer, Integer> bitOf = new HashMap<>();
+    private final int[] courseAt; // bit position -> courseId
+    private final BitSet[] closure; // by bit position, all direct and indirect prerequisites
+
+    private PrerequisiteGraph(Map<Integer, Set<Integer>> edges) {
+        this.edges = edges;
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Map.Entry<Integer, Set<Integer>> entry : edges.entrySet()) {
+            ids.add(entry.getKey());
+            ids.addAll(entry.getValue());
+        }
+        courseAt = new int[ids.size()];
+        int bit = 0;
+        for (int id : ids) {
+            courseAt[bit] = id;
+            bitOf.put(id, bit++);
+        }
+        closure = computeClosure();
+    }
+
+    public static PrerequisiteGraph empty() {
+        return EMPTY;
+    }
+
+    // Throws IllegalArgumentException if the edges contain a cycle
+    public static PrerequisiteGraph of(Map<Integer, ? extends Collection<Integer>> prerequisites) {
+        Map<Integer, Set<Integer>> copy = new HashMap<>();
+        for (Map.Entry<Integer, ? extends Collection<Integer>> entry : prerequisites.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                copy.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+            }
+        }
+        return new PrerequisiteGraph(copy);
+    }
+
+    // True if prerequisiteId is needed for courseId, directly or through a chain
+    public boolean requires(int courseId, int prerequisiteId) {
+        Integer course = bitOf.get(courseId);
+        Integer prerequisite = bitOf.get(prerequisiteId);
+        return course != null && prerequisite != null && closure[course].get(prerequisite);
+    }
+
+    // Adding courseId -> prerequisiteId closes a loop if the prerequisite already (indirectly) needs the course
+    public boolean wouldCreateCycle(int courseId, int prerequisiteId) {
+        return courseId == prerequisiteId || requires(prerequisiteId, courseId);
+    }
+
+    public boolean hasPrerequisites(int courseId) {
+        Integer course = bitOf.get(courseId);
+        return course != null && !closure[course].isEmpty();
+    }
+
+    public List<Integer> directPrerequisites(int courseId) {
+        Set<Integer> direct = edges.get(courseId);
+        return direct == null ? Collections.emptyList() : new ArrayList<>(direct);
+    }
+
+    // The whole chain, e.g. CS301 -> CS201, CS101
+    public List<Integer> allPrerequisites(int courseId) {
+        Integer course = bitOf.get(courseId);
+        return course == null ? Collections.emptyList() : toIds(closure[course]);
+    }
+
+    // Courses outside the graph can't be required by anything, so they're simply left out of the bits
+    public BitSet toBits(Collection<Integer> courseIds) {
+        BitSet bits = new BitSet(courseAt.length);
+        for (Integer id : courseIds) {
+            Integer bit = bitOf.get(id);
+            if (bit != null) {
+                bits.set(bit);
+            }
+        }
+        return bits;
+    }
+
+    // What's still missing from the chain for a student who completed the given courses (see toBits)
+    public List<Integer> missing(int courseId, BitSet completed) {
+        Integer course = bitOf.get(courseId);
+        if (course == null) {
+            return Collections.emptyList();
+        }
+        BitSet missing = (BitSet) closure[course].clone();
+        missing.andNot(completed);
+        return missing.isEmpty() ? Collections.emptyList() : toIds(missing);
+    }
+
+    public PrerequisiteGraph with(int courseId, int prerequisiteId) {
+        if (wouldCreateCycle(courseId, prerequisiteId)) {
+            throw new IllegalArgumentException("Course " + prerequisiteId + " already requires course " + courseId
+                    + ", so it can't also be its prerequisite.");
+        }
+        Map<Integer, Set<Integer>> copy = copyEdges();
+        copy.computeIfAbsent(courseId, k -> new LinkedHashSet<>()).add(prerequisiteId);
+        return new PrerequisiteGraph(copy);
+    }
+
+    public PrerequisiteGraph without(int courseId, int prerequisiteId) {
+        Map<Integer, Set<Integer>> copy = copyEdges();
+        Set<Integer> direct = copy.get(courseId);
+        if (direct != null && direct.remove(prerequisiteId) && direct.isEmpty()) {
+            copy.remove(courseId);
+        }
+        return new PrerequisiteGraph(copy);
+    }
+
+    // For a deleted course - drops it both as a course and as anyone's prerequisite
+    public PrerequisiteGraph withoutCourse(int courseId) {
+        if (!bitOf.containsKey(courseId)) {
+            return this;
+        }
+        Map<Integer, Set<Integer>> copy = copyEdges();
+        copy.remove(courseId);
+        copy.values().removeIf(direct -> direct.remove(courseId) && direct.isEmpty());
+        return new PrerequisiteGraph(copy);
+    }
+
+    public int courseCount() {
+        return courseAt.length;
+    }
+
+    // Kahn's algorithm gives prerequisites before the courses that need them, so each closure is just the
+    // union of its direct prerequisites' closures plus the prerequisites themselves
+    private BitSet[] computeClosure() {
+        int n = courseAt.length;
+        int[] pending = new int[n]; // Direct prerequisites not yet finished, per course
+        List<List<Integer>> neededBy = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            neededBy.add(new ArrayList<>());
+        }
+        for (Map.Entry<Integer, Set<Integer>> entry : edges.entrySet()) {
+            int course = bitOf.get(entry.getKey());
+            for (int prerequisite : entry.getValue()) {
+                neededBy.get(bitOf.get(prerequisite)).add(course);
+                pending[course]++;
+            }
+        }
+
+        BitSet[] result = new BitSet[n];
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            result[i] = new BitSet(n);
+            if (pending[i] == 0) {
+                ready.add(i);
+            }
+        }
+        int finished = 0;
+        while (!ready.isEmpty()) {
+            int prerequisite = ready.poll();
+            finished++;
+            for (int course : neededBy.get(prerequisite)) {
+                result[course].or(result[prerequisite]);
+                result[course].set(prerequisite);
+                if (--pending[course] == 0) {
+                    ready.add(course);
+                }
+            }
+        }
+        if (finished < n) {
+            throw new IllegalArgumentException("Prerequisites contain a cycle.");
+        }
+        return result;
+    }
+
+    private List<Integer> toIds(BitSet bits) {
+        List<Integer> ids = new ArrayList<>(bits.cardinality());
+        for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1)) {
+            ids.add(courseAt[bit]);
+        }
+        return ids;
+    }
+
+    private Map<Integer, Set<Integer>> copyEdges() {
+        Map<Integer, Set<Integer>> copy = new HashMap<>();
+        for (Map.Entry<Integer, Set<Integer>> entry : edges.entrySet()) {
+            copy.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,366 @@
+package com.university.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Versioned schema migrations keyed on SQLite's PRAGMA user_version.
+ *
+ * Every step runs in its own transaction together with the user_version bump, so a crash halfway through
+ * leaves the database at the previous version and the step simply runs again next time. To change the
+ * schema, add a new step at the end of MIGRATIONS - never edit one that has already shipped.
+ */
+public final class SchemaMigrator {
+
+    interface Step {
+        void apply(Statement stmt) throws SQLException;
+    }
+
+    static final class Migration {
+        final int version;
+        final String description;
+        final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = Collections.unmodifiableList(Arrays.asList(
+            // Databases created before migrations existed already have these tables, so they stay IF NOT EXISTS
+            new Migration(1, "Base tables", SchemaMigrator::createBaseTables),
+            new Migration(2, "Secondary indexes for foreign key lookups", SchemaMigrator::createForeignKeyIndexes),
+            new Migration(3, "Sort indexes for keyset pagination", SchemaMigrator::createSortIndexes),
+            new Migration(4, "Full-text search index", SchemaMigrator::createSearchIndex),
+            new Migration(5, "Per-student GPA summary", SchemaMigrator::createGpaSummary),
+            new Migration(6, "Materialized enrollment counts", SchemaMigrator::createEnrollmentCounts),
+            new Migration(7, "Course seat limits", SchemaMigrator::addCourseCapacity),
+            new Migration(8, "Course prerequisites", SchemaMigrator::createPrerequisites),
+            new Migration(9, "Sort index for course credits", SchemaMigrator::createCourseCreditsIndex)
+    ));
+
+    private SchemaMigrator() {}
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    public static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // Brings the database up to latestVersion() and returns the version it ends up at
+    public static int migrate(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+        if (current >= latestVersion()) {
+            return current; // Fast path - nothing to do on a normal startup
+        }
+
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= current) {
+                    continue;
+                }
+                conn.setAutoCommit(false);
+                try (Statement stmt = conn.createStatement()) {
+                    migration.step.apply(stmt);
+                    // user_version lives in the database header and is covered by the transaction
+                    stmt.execute("PRAGMA user_version = " + migration.version);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Migration " + migration.version + " (" + migration.description
+                            + ") failed: " + e.getMessage(), e);
+                }
+                current = migration.version;
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return current;
+    }
+
+    // --- Version 1 ---
+
+    private static void createBaseTables(Statement stmt) throws SQLException {
+        // Departments Table - keeping this simple for now
+        String createDepartmentsTable = "CREATE TABLE IF NOT EXISTS departments ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "name TEXT NOT NULL UNIQUE"
+                + ");";
+        stmt.execute(createDepartmentsTable);
+
+        // Students Table - I'm using TEXT for dates to keep things simple
+        String createStudentsTable = "CREATE TABLE IF NOT EXISTS students ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "firstName TEXT NOT NULL,"
+                + "lastName TEXT NOT NULL,"
+                + "email TEXT UNIQUE,"
+                + "dateOfBirth TEXT"
+                + ");";
+        stmt.execute(createStudentsTable);
+
+        // Employees Table - linking to departments with foreign key
+        String createEmployeesTable = "CREATE TABLE IF NOT EXISTS employees ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "firstName TEXT NOT NULL,"
+                + "lastName TEXT NOT NULL,"
+                + "email TEXT UNIQUE,"
+                + "dateOfBirth TEXT,"
+                + "position TEXT,"
+                + "departmentId INTEGER,"
+                + "FOREIGN KEY (departmentId) REFERENCES departments(id) ON DELETE SET NULL"
+                + ");";
+        stmt.execute(createEmployeesTable);
+        
+        // Courses Table - also linking to departments
+        String createCoursesTable = "CREATE TABLE IF NOT EXISTS courses ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "courseCode TEXT NOT NULL UNIQUE,"
+                + "courseName TEXT NOT NULL,"
+                + "credits INTEGER,"
+                + "departmentId INTEGER,"
+                + "FOREIGN KEY (departmentId) REFERENCES departments(id) ON DELETE SET NULL"
+                + ");";
+        stmt.execute(createCoursesTable);
+
+        // Enrollments Table - the many-to-many relationship between students and courses
+        String createEnrollmentsTable = "CREATE TABLE IF NOT EXISTS enrollments ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "studentId INTEGER NOT NULL,"
+                + "courseId INTEGER NOT NULL,"
+                + "enrollmentDate TEXT,"
+                + "FOREIGN KEY (studentId) REFERENCES students(id) ON DELETE CASCADE,"
+                + "FOREIGN KEY (courseId) REFERENCES courses(id) ON DELETE CASCADE,"
+                + "UNIQUE (studentId, courseId)"  // I don't want duplicate enrollments
+                + ");";
+        stmt.execute(createEnrollmentsTable);
+
+        // Grades Table - one grade per enrollment
+        String createGradesTable = "CREATE TABLE IF NOT EXISTS grades ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + "enrollmentId INTEGER NOT NULL UNIQUE," // Each enrollment gets exactly one grade
+                + "gradeValue TEXT," // I'm keeping this flexible - could be A, B, C or 4.0, 3.0
+                + "comments TEXT,"
+                + "FOREIGN KEY (enrollmentId) REFERENCES enrollments(id) ON DELETE CASCADE"
+                + ");";
+        stmt.execute(createGradesTable);
+    }
+
+    // --- Version 2 ---
+
+    private static void createForeignKeyIndexes(Statement stmt) throws SQLException {
+        // students(email) and enrollments(studentId) are already covered by the automatic indexes behind
+        // "email UNIQUE" and "UNIQUE (studentId, courseId)", so I only add the ones that were really missing.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_employee_department ON employees(departmentId)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_enrollment_course ON enrollments(courseId)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_course_department ON courses(departmentId)");
+        stmt.execute("ANALYZE"); // Give the query planner fresh statistics for the new indexes
+    }
+
+    // --- Version 3 ---
+
+    private static void createSortIndexes(Statement stmt) throws SQLException {
+        // One index per pageable sort key. SQLite appends the rowid to every index, so (lastName) already
+        // orders by (lastName, id) - exactly the keyset order, no extra column needed.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_student_last_name ON students(lastName)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_student_first_name ON students(firstName)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_student_date_of_birth ON students(dateOfBirth)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_course_name ON courses(courseName)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_employee_last_name ON employees(lastName)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_employee_first_name ON employees(firstName)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_employee_position ON employees(position)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_enrollment_date ON enrollments(enrollmentDate)");
+        // The UNIQUE (studentId, courseId) index can't give (studentId, id) order because courseId sits in between
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_enrollment_student ON enrollments(studentId)");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_grade_value ON grades(gradeValue)");
+        stmt.execute("ANALYZE");
+    }
+
+    // --- Version 4 ---
+
+    private static void createSearchIndex(Statement stmt) throws SQLException {
+        // One FTS5 table for everything searchable. rowid = id * 4 + kind (0 student, 1 employee, 2 course,
+        // 3 department) so the DAOs can replace or drop an entry by rowid. The prefix option keeps 2- and
+        // 3-character prefix tokens so "sm*" is an index lookup instead of a term scan, and remove_diacritics
+        // lets "jose" find an accented name too.
+        stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS search_index USING fts5("
+                + "title, detail, tokenize = 'unicode61 remove_diacritics 2', prefix = '2 3')");
+        stmt.execute("INSERT INTO search_index (rowid, title, detail) "
+                + "SELECT id * 4 + 0, firstName || ' ' || lastName, IFNULL(email, '') FROM students");
+        stmt.execute("INSERT INTO search_index (rowid, title, detail) "
+                + "SELECT id * 4 + 1, firstName || ' ' || lastName, TRIM(IFNULL(position, '') || ' ' || IFNULL(email, '')) FROM employees");
+        stmt.execute("INSERT INTO search_index (rowid, title, detail) "
+                + "SELECT id * 4 + 2, courseCode || ' ' || courseName, '' FROM courses");
+        stmt.execute("INSERT INTO search_index (rowid, title, detail) "
+                + "SELECT id * 4 + 3, name, '' FROM departments");
+    }
+
+    // --- Version 5 ---
+
+    static void createGpaSummary(Statement stmt) throws SQLException {
+        // Running totals per student, kept up to date by the grade/enrollment/course DAOs. gpaHundredths is
+        // derived (rounded) so the dean's list can be an index range scan instead of a division per row.
+        stmt.execute("CREATE TABLE IF NOT EXISTS student_gpa ("
+                + "studentId INTEGER PRIMARY KEY,"
+                + "qualityPoints INTEGER NOT NULL DEFAULT 0,"
+                + "gpaCredits INTEGER NOT NULL DEFAULT 0,"
+                + "earnedCredits INTEGER NOT NULL DEFAULT 0,"
+                + "gradedCourses INTEGER NOT NULL DEFAULT 0,"
+                + "gpaHundredths INTEGER GENERATED ALWAYS AS ("
+                + "CASE WHEN gpaCredits > 0 THEN (qualityPoints * 10 + gpaCredits / 2) / gpaCredits END) STORED,"
+                + "FOREIGN KEY (studentId) REFERENCES students(id) ON DELETE CASCADE"
+                + ")");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_student_gpa_rank ON student_gpa(gpaHundredths)");
+
+        // Grade values are free text, so the points are worked out in Java rather than with a SQL CASE - but
+        // from the frozen V5_* copy of the scale below, never the live GradeScale, so replaying this step
+        // gives the same totals however the scale changes later.
+        Map<Integer, long[]> totals = new HashMap<>(); // studentId -> qualityPoints, gpaCredits, earnedCredits, gradedCourses
+        try (ResultSet rs = stmt.executeQuery("SELECT e.studentId, g.gradeValue, IFNULL(c.credits, 0) AS credits "
+                + "FROM grades g JOIN enrollments e ON e.id = g.enrollmentId JOIN courses c ON c.id = e.courseId")) {
+            while (rs.next()) {
+                long[] t = totals.computeIfAbsent(rs.getInt("studentId"), id -> new long[4]);
+                String gradeValue = rs.getString("gradeValue");
+                int credits = rs.getInt("credits");
+                int points = v5PointsTenths(gradeValue);
+                if (points >= 0) {
+                    t[0] += (long) points * credits;
+                    t[1] += credits;
+                }
+                if (v5EarnsCredit(gradeValue)) {
+                    t[2] += credits;
+                }
+                t[3]++;
+            }
+        }
+        try (PreparedStatement insert = stmt.getConnection().prepareStatement(
+                "INSERT INTO student_gpa (studentId, qualityPoints, gpaCredits, earnedCredits, gradedCourses) "
+                        + "VALUES (?, ?, ?, ?, ?)")) {
+            for (Map.Entry<Integer, long[]> entry : totals.entrySet()) {
+                long[] t = entry.getValue();
+                insert.setInt(1, entry.getKey());
+                insert.setLong(2, t[0]);
+                insert.setLong(3, t[1]);
+                insert.setLong(4, t[2]);
+                insert.setLong(5, t[3]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    // GradeScale as it was when version 5 shipped: points in tenths, -1 when the grade doesn't count
+    private static final Map<String, Integer> V5_LETTER_POINTS = new HashMap<>();
+    static {
+        V5_LETTER_POINTS.put("A+", 40);
+        V5_LETTER_POINTS.put("A", 40);
+        V5_LETTER_POINTS.put("A-", 37);
+        V5_LETTER_POINTS.put("B+", 33);
+        V5_LETTER_POINTS.put("B", 30);
+        V5_LETTER_POINTS.put("B-", 27);
+        V5_LETTER_POINTS.put("C+", 23);
+        V5_LETTER_POINTS.put("C", 20);
+        V5_LETTER_POINTS.put("C-", 17);
+        V5_LETTER_POINTS.put("D+", 13);
+        V5_LETTER_POINTS.put("D", 10);
+        V5_LETTER_POINTS.put("D-", 7);
+        V5_LETTER_POINTS.put("F", 0);
+    }
+
+    private static int v5PointsTenths(String gradeValue) {
+        if (gradeValue == null) {
+            return -1;
+        }
+        String value = gradeValue.trim().toUpperCase(Locale.ROOT);
+        Integer letter = V5_LETTER_POINTS.get(value);
+        if (letter != null) {
+            return letter;
+        }
+        try {
+            double points = Double.parseDouble(value);
+            if (points >= 0.0 && points <= 4.0) {
+                return (int) Math.round(points * 10);
+            }
+        } catch (NumberFormatException e) {
+            // Free text - doesn't count
+        }
+        return -1;
+    }
+
+    private static boolean v5EarnsCredit(String gradeValue) {
+        if (gradeValue == null) {
+            return false;
+        }
+        String value = gradeValue.trim().toUpperCase(Locale.ROOT);
+        return value.equals("P") || value.equals("S") || value.equals("CR") || v5PointsTenths(value) > 0;
+    }
+
+    // --- Version 6 ---
+
+    private static void createEnrollmentCounts(Statement stmt) throws SQLException {
+        // Headcounts kept up to date by the enrollment/course/student DAOs, so nobody has to load a roster to count it
+        stmt.execute("CREATE TABLE IF NOT EXISTS course_enrollment_counts ("
+                + "courseId INTEGER PRIMARY KEY,"
+                + "enrolled INTEGER NOT NULL DEFAULT 0,"
+                + "FOREIGN KEY (courseId) REFERENCES courses(id) ON DELETE CASCADE"
+                + ")");
+        stmt.execute("CREATE TABLE IF NOT EXISTS department_enrollment_counts ("
+                + "departmentId INTEGER PRIMARY KEY,"
+                + "enrolled INTEGER NOT NULL DEFAULT 0,"
+                + "FOREIGN KEY (departmentId) REFERENCES departments(id) ON DELETE CASCADE"
+                + ")");
+        stmt.execute("INSERT INTO course_enrollment_counts (courseId, enrolled) "
+                + "SELECT courseId, COUNT(*) FROM enrollments GROUP BY courseId");
+        stmt.execute("INSERT INTO department_enrollment_counts (departmentId, enrolled) "
+                + "SELECT c.departmentId, SUM(k.enrolled) FROM course_enrollment_counts k "
+                + "JOIN courses c ON c.id = k.courseId WHERE c.departmentId IS NOT NULL GROUP BY c.departmentId");
+    }
+
+    // --- Version 7 ---
+
+    private static void addCourseCapacity(Statement stmt) throws SQLException {
+        // NULL means no limit, so every existing course keeps working exactly as before
+        stmt.execute("ALTER TABLE courses ADD COLUMN capacity INTEGER CHECK (capacity IS NULL OR capacity >= 0)");
+    }
+
+    // --- Version 8 ---
+
+    private static void createPrerequisites(Statement stmt) throws SQLException {
+        // Only direct edges are stored - the closure is computed in memory (PrerequisiteGraph)
+        stmt.execute("CREATE TABLE IF NOT EXISTS course_prerequisites ("
+                + "courseId INTEGER NOT NULL,"
+                + "prerequisiteId INTEGER NOT NULL,"
+                + "PRIMARY KEY (courseId, prerequisiteId),"
+                + "CHECK (courseId <> prerequisiteId),"
+                + "FOREIGN KEY (courseId) REFERENCES courses(id) ON DELETE CASCADE,"
+                + "FOREIGN KEY (prerequisiteId) REFERENCES courses(id) ON DELETE CASCADE"
+                + ")");
+        // The cascade from deleting a prerequisite course looks rows up by prerequisiteId
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_prerequisite_of ON course_prerequisites(prerequisiteId)");
+    }
+
+    // --- Version 9 ---
+
+    private static void createCourseCreditsIndex(Statement stmt) throws SQLException {
+        // Version 3 left credits out, so paging the course list by credits sorted the whole table for every
+        // page. With the rowid appended this is (credits, id), the keyset order.
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_course_credits ON courses(credits)");
+        stmt.execute("ANALYZE courses");
+    }
+}
@@ -0,0 +1,107 @@
+package com.university.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text. A statement is taken
+ * out of the cache while someone is using it and put back when they close it, so two users of the same
+ * SQL on one connection (a nested query, say) simply get separate statements.
+ *
+ * The pool owns these - DAOs never see this class, they just call prepareStatement() as usual.
+ */
+final class StatementCache {
+
+    /** Pool-wide counters shared by every connection's cache. */
+    static final class Stats {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+    }
+
+    static final class Key {
+        final String sql;
+        final int autoGeneratedKeys;
+
+        Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, autoGeneratedKeys);
+        }
+    }
+
+    private final int maxSize;
+    private final Stats stats;
+    private final LinkedHashMap<Key, PreparedStatement> idle;
+
+    StatementCache(int maxSize, Stats stats) {
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.idle = new LinkedHashMap<Key, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    stats.evictions.incrementAndGet();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Returns a ready-to-use statement, or null if the caller has to prepare one
+    synchronized PreparedStatement checkOut(Key key) {
+        PreparedStatement stmt = idle.remove(key);
+        if (stmt == null) {
+            stats.misses.incrementAndGet();
+        } else {
+            stats.hits.incrementAndGet();
+        }
+        return stmt;
+    }
+
+    synchronized void checkIn(Key key, PreparedStatement stmt) {
+        PreparedStatement existing = idle.putIfAbsent(key, stmt);
+        if (existing != null) {
+            closeQuietly(stmt); // A second copy from a nested use - one cached statement per SQL is enough
+        }
+    }
+
+    synchronized void closeAll() {
+        for (Iterator<PreparedStatement> it = idle.values().iterator(); it.hasNext(); ) {
+            closeQuietly(it.next());
+            it.remove();
+        }
+    }
+
+    synchronized int size() {
+        return idle.size();
+    }
+
+    static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            // It's being thrown away anyway
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.university;
+
+import com.university.dao.impl.CourseDAOImpl;
+import com.university.dao.impl.StudentDAOImpl;
+import com.university.model.Course;
+import com.university.model.Student;
+import com.university.util.DatabaseUtil;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Points DatabaseUtil at a throwaway file for the whole test run. DatabaseUtil reads university.db.url once,
+ * so every test that touches the database calls init() before anything else loads it. All test classes share
+ * the one file (surefire runs them in a single JVM), so use unique() for emails and course codes - the
+ * addStudent/addCourse fixtures already do.
+ */
+public final class TestDatabase {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static boolean initialized;
+
+    private TestDatabase() {}
+
+    public static synchronized void init() {
+        if (initialized) {
+            return;
+        }
+        try {
+            Path dir = Files.createTempDirectory("university-test");
+            System.setProperty("university.db.url", "jdbc:sqlite:" + dir.resolve("test.db").toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        DatabaseUtil.initializeDatabase();
+        initialized = true;
+    }
+
+    // Unique across the run, e.g. unique("CS") -> "CS17"
+    public static String unique(String prefix) {
+        return prefix + SEQUENCE.incrementAndGet();
+    }
+
+    public static Student addStudent() throws SQLException {
+        return addStudents(1).get(0);
+    }
+
+    // One batch insert, so thousands of students are quick to set up
+    public static List<Student> addStudents(int count) throws SQLException {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(new Student(0, "Test", "Student" + i, unique("student") + "@test.edu", null));
+        }
+        new StudentDAOImpl().addStudents(students);
+        return students;
+    }
+
+    // capacity 0 means unlimited
+    public static Course addCourse(int capacity) throws SQLException {
+        Course course = new Course(0, unique("TST"), "Test course", 3, 0);
+        course.setCapacity(capacity);
+        new CourseDAOImpl().addCourse(course);
+        return course;
+    }
+}
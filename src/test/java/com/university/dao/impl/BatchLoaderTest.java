@@ -0,0 +1,55 @@
+package com.university.dao.impl;
+
+import com.university.TestDatabase;
+import com.university.dao.IdentityMap;
+import com.university.model.Student;
+import com.university.util.DatabaseUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchLoaderTest {
+
+    @BeforeAll
+    static void setUp() {
+        TestDatabase.init();
+    }
+
+    @Test
+    void inListsComeInAFewFixedSizes() {
+        assertEquals(0, BatchLoader.paddedSize(0));
+        assertEquals(1, BatchLoader.paddedSize(1));
+        assertEquals(8, BatchLoader.paddedSize(2));
+        assertEquals(8, BatchLoader.paddedSize(8));
+        assertEquals(64, BatchLoader.paddedSize(9));
+        assertEquals(BatchLoader.CHUNK_SIZE, BatchLoader.paddedSize(65));
+        assertEquals(BatchLoader.CHUNK_SIZE, BatchLoader.paddedSize(BatchLoader.CHUNK_SIZE));
+        assertEquals("?,?,?,?,?,?,?,?", BatchLoader.placeholders(3));
+    }
+
+    // The padding repeats the last ID, which must not add or drop rows at any size
+    @Test
+    void paddedChunksLoadExactlyTheRequestedRows() throws Exception {
+        List<Student> students = TestDatabase.addStudents(BatchLoader.CHUNK_SIZE + 70);
+        for (int count : new int[]{1, 3, 8, 9, 70, BatchLoader.CHUNK_SIZE + 70}) {
+            List<Integer> ids = new ArrayList<>();
+            for (Student student : students.subList(0, count)) {
+                ids.add(student.getId());
+            }
+            try (IdentityMap session = IdentityMap.open();
+                 Connection conn = DatabaseUtil.getConnection()) {
+                Map<Integer, Student> loaded = new BatchLoader(conn, session).loadStudents(ids);
+                assertEquals(count, loaded.size());
+                for (Integer id : ids) {
+                    assertEquals(id.intValue(), loaded.get(id).getId());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.university.dao.impl;
+
+import com.university.TestDatabase;
+import com.university.dao.BatchResult;
+import com.university.dao.DuplicateEntryException;
+import com.university.util.DatabaseUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchWriterTest {
+
+    private static final class Row {
+        final Integer explicitId; // null lets AUTOINCREMENT pick
+        String name;
+        int id;
+
+        Row(Integer explicitId, String name) {
+            this.explicitId = explicitId;
+            this.name = name;
+        }
+    }
+
+    private String table;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        TestDatabase.init();
+    }
+
+    // A fresh table per test, so sqlite_sequence starts out missing for it
+    @BeforeEach
+    void setUp() throws SQLException {
+        table = TestDatabase.unique("batch_test_");
+        try (Connection conn = DatabaseUtil.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE " + table + " (id INTEGER PRIMARY KEY AUTOINCREMENT, name TEXT NOT NULL UNIQUE)");
+        }
+    }
+
+    private BatchResult insert(List<Row> rows) throws SQLException {
+        return BatchWriter.insert(table, "INSERT INTO " + table + " (id, name) VALUES (?, ?)", rows,
+                (pstmt, row) -> {
+                    if (row.explicitId == null) {
+                        pstmt.setNull(1, Types.INTEGER);
+                    } else {
+                        pstmt.setInt(1, row.explicitId);
+                    }
+                    pstmt.setString(2, row.name);
+                },
+                (row, id) -> row.id = id,
+                row -> "Duplicate " + row.name);
+    }
+
+    private static List<Row> rows(String prefix, int count) {
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Row(null, prefix + i));
+        }
+        return rows;
+    }
+
+    private int idOf(String name) throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT id FROM " + table + " WHERE name = ?")) {
+            pstmt.setString(1, name);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private int count() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private void assertIdsMatchDatabase(List<Row> rows, BatchResult result) throws SQLException {
+        for (int i = 0; i < rows.size(); i++) {
+            if (!result.isFailed(i)) {
+                assertEquals(idOf(rows.get(i).name), result.getGeneratedId(i), rows.get(i).name);
+                assertEquals(result.getGeneratedId(i), rows.get(i).id);
+            }
+        }
+    }
+
+    @Test
+    void keysAreGuessedFromTheSequenceAcrossChunks() throws Exception {
+        List<Row> first = rows("a", 3);
+        insert(first); // First insert creates the sqlite_sequence row
+        List<Row> rows = rows("b", BatchWriter.CHUNK_SIZE * 2 + 7);
+
+        BatchResult result = insert(rows);
+
+        assertFalse(result.hasFailures());
+        assertEquals(rows.size(), result.getSuccessCount());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(4 + i, result.getGeneratedId(i)); // Input order, right after the sequence
+        }
+        assertIdsMatchDatabase(rows, result);
+    }
+
+    @Test
+    void keysAreRightOnAFreshTableWithoutASequenceRow() throws Exception {
+        List<Row> rows = rows("c", 10);
+        BatchResult result = insert(rows);
+        assertEquals(1, result.getGeneratedId(0));
+        assertIdsMatchDatabase(rows, result);
+    }
+
+    @Test
+    void failingRowFallsBackToRowByRowForItsChunkOnly() throws Exception {
+        insert(Collections.singletonList(new Row(null, "taken")));
+        List<Row> rows = rows("d", BatchWriter.CHUNK_SIZE + 10);
+        rows.get(BatchWriter.CHUNK_SIZE + 3).name = "taken";
+        rows.get(BatchWriter.CHUNK_SIZE + 5).name = "d0"; // Clashes with a row from the same batch
+
+        BatchResult result = insert(rows);
+
+        assertEquals(2, result.getFailures().size());
+        assertInstanceOf(DuplicateEntryException.class, result.getFailures().get(BatchWriter.CHUNK_SIZE + 3));
+        assertEquals("Duplicate taken", result.getFailures().get(BatchWriter.CHUNK_SIZE + 3).getMessage());
+        assertInstanceOf(DuplicateEntryException.class, result.getFailures().get(BatchWriter.CHUNK_SIZE + 5));
+        assertEquals(0, result.getGeneratedId(BatchWriter.CHUNK_SIZE + 3));
+        assertEquals(1 + rows.size() - 2, count());
+        assertIdsMatchDatabase(rows, result);
+    }
+
+    @Test
+    void unverifiableKeysAreReplayedRowByRow() throws Exception {
+        insert(rows("e", 2));
+        List<Row> rows = rows("f", 5);
+        rows.set(2, new Row(1000, "explicit")); // Jumps the sequence, so the last rowid won't add up
+
+        BatchResult result = insert(rows);
+
+        assertFalse(result.hasFailures());
+        assertEquals(1000, result.getGeneratedId(2));
+        assertEquals(1001, result.getGeneratedId(3));
+        assertEquals(1002, result.getGeneratedId(4));
+        assertIdsMatchDatabase(rows, result);
+    }
+
+    @Test
+    void updatesReportOnlyTheFailingRow() throws Exception {
+        List<Row> rows = rows("g", 4);
+        insert(rows);
+        rows.get(1).name = "g3"; // Renaming onto another row's name
+        for (int i = 0; i < rows.size(); i++) {
+            if (i != 1) {
+                rows.get(i).name = "h" + i;
+            }
+        }
+
+        BatchResult result = BatchWriter.execute("UPDATE " + table + " SET name = ? WHERE id = ?", rows,
+                (pstmt, row) -> {
+                    pstmt.setString(1, row.name);
+                    pstmt.setInt(2, row.id);
+                },
+                row -> "Duplicate " + row.name);
+
+        // Row 3 still holds g3 when row 1 runs
+        assertEquals(1, result.getFailures().size());
+        assertTrue(result.isFailed(1));
+        assertEquals(rows.get(0).id, idOf("h0"));
+        assertEquals(rows.get(3).id, idOf("h3"));
+    }
+
+    @Test
+    void failingHookRollsBackTheWholeBatch() throws Exception {
+        List<Row> rows = rows("i", 20);
+        assertThrows(SQLException.class, () -> BatchWriter.insert(table,
+                "INSERT INTO " + table + " (name) VALUES (?)", rows,
+                (pstmt, row) -> pstmt.setString(1, row.name),
+                (row, id) -> row.id = id,
+                row -> "Duplicate " + row.name,
+                (conn, row, id) -> {
+                    if (row.name.equals("i19")) {
+                        throw new SQLException("hook failed");
+                    }
+                }));
+
+        assertEquals(0, count());
+        assertEquals(0, rows.get(0).id); // Keys are only handed out after the commit
+    }
+
+    @Test
+    void emptyBatchDoesNothing() throws Exception {
+        BatchResult result = insert(new ArrayList<>());
+        assertEquals(0, result.size());
+        assertEquals(0, count());
+    }
+}
@@ -0,0 +1,172 @@
+package com.university.dao.impl;
+
+import com.university.dao.Page;
+import com.university.dao.PageRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetQueryTest {
+
+    private static final class Person {
+        final int id;
+        final String name;
+        final String born; // Nullable, like dateOfBirth
+
+        Person(int id, String name, String born) {
+            this.id = id;
+            this.name = name;
+            this.born = born;
+        }
+    }
+
+    private static final KeysetQuery<Person> QUERY = new KeysetQuery<Person>(
+            "SELECT id, name, born FROM people", "people", "id", p -> p.id)
+            .sortKey("name", "name", false, p -> p.name)
+            .sortKey("born", "born", true, p -> p.born);
+
+    private Connection conn;
+    private final List<Person> people = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE people (id INTEGER PRIMARY KEY, name TEXT NOT NULL, born TEXT)");
+        }
+        // Lots of ties and about a third NULLs, so pages keep ending inside a run of equal values
+        Random random = new Random(11);
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO people VALUES (?, ?, ?)")) {
+            for (int id = 1; id <= 103; id++) {
+                Person person = new Person(id, "n" + random.nextInt(10),
+                        random.nextInt(3) == 0 ? null : "200" + random.nextInt(5));
+                pstmt.setInt(1, person.id);
+                pstmt.setString(2, person.name);
+                pstmt.setString(3, person.born);
+                pstmt.executeUpdate();
+                people.add(person);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    private static Person map(ResultSet rs) throws SQLException {
+        return new Person(rs.getInt(1), rs.getString(2), rs.getString(3));
+    }
+
+    // SQLite's order: NULLs first when ascending, last when descending, id breaking ties the same way
+    private List<Integer> expectedIds(Function<Person, String> value, boolean ascending) {
+        Comparator<Person> order = Comparator.comparing(value, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                .thenComparingInt(p -> p.id);
+        List<Person> sorted = new ArrayList<>(people);
+        sorted.sort(ascending ? order : order.reversed());
+        List<Integer> ids = new ArrayList<>();
+        for (Person person : sorted) {
+            ids.add(person.id);
+        }
+        return ids;
+    }
+
+    private static List<Integer> ids(Page<Person> page) {
+        List<Integer> ids = new ArrayList<>();
+        for (Person person : page.getItems()) {
+            ids.add(person.id);
+        }
+        return ids;
+    }
+
+    private void assertWalksBothWays(String sortKey, Function<Person, String> value, boolean ascending)
+            throws SQLException {
+        List<Integer> expected = expectedIds(value, ascending);
+
+        List<Integer> forward = new ArrayList<>();
+        List<Page<Person>> pages = new ArrayList<>();
+        Page<Person> page = QUERY.fetch(conn, PageRequest.first(sortKey, ascending, 7), KeysetQueryTest::map);
+        assertFalse(page.hasPrevious());
+        while (true) {
+            pages.add(page);
+            forward.addAll(ids(page));
+            PageRequest next = page.nextRequest();
+            if (next == null) {
+                break;
+            }
+            page = QUERY.fetch(conn, next, KeysetQueryTest::map);
+        }
+        assertEquals(expected, forward, sortKey + (ascending ? " asc" : " desc"));
+
+        // Walk back from the last page; every page must come back exactly as it was on the way forward
+        for (int i = pages.size() - 1; i > 0; i--) {
+            Page<Person> previous = QUERY.fetch(conn, pages.get(i).previousRequest(), KeysetQueryTest::map);
+            assertEquals(ids(pages.get(i - 1)), ids(previous), sortKey + " back to page " + (i - 1));
+            assertTrue(previous.hasNext());
+            assertEquals(i - 1 > 0, previous.hasPrevious());
+        }
+    }
+
+    @Test
+    void walksEveryKeyInBothDirectionsAndBack() throws SQLException {
+        assertWalksBothWays("name", p -> p.name, true);
+        assertWalksBothWays("name", p -> p.name, false);
+        assertWalksBothWays("born", p -> p.born, true);
+        assertWalksBothWays("born", p -> p.born, false);
+        assertWalksBothWays("id", p -> String.format("%05d", p.id), true);
+        assertWalksBothWays("id", p -> String.format("%05d", p.id), false);
+    }
+
+    @Test
+    void cursorOnANullSeeksWithinTheNullRun() throws SQLException {
+        List<Integer> expected = expectedIds(p -> p.born, true);
+        Person firstNull = null;
+        for (Person person : people) {
+            if (person.born == null && (firstNull == null || person.id < firstNull.id)) {
+                firstNull = person;
+            }
+        }
+        Page<Person> page = QUERY.fetch(conn, PageRequest.first("born", true, 1), KeysetQueryTest::map);
+        assertEquals(firstNull.id, page.getItems().get(0).id);
+        assertNull(page.getItems().get(0).born);
+
+        Page<Person> next = QUERY.fetch(conn, page.nextRequest(), KeysetQueryTest::map);
+        assertEquals(expected.get(1), next.getItems().get(0).id);
+    }
+
+    @Test
+    void lastPageHasNoNextAndFirstPageNoPrevious() throws SQLException {
+        Page<Person> all = QUERY.fetch(conn, PageRequest.first("name", true, 1_000), KeysetQueryTest::map);
+        assertEquals(people.size(), all.getItems().size());
+        assertFalse(all.hasNext());
+        assertNull(all.nextRequest());
+        assertNull(all.previousRequest());
+    }
+
+    @Test
+    void unknownSortKeyIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> QUERY.fetch(conn, PageRequest.first("name; DROP TABLE people", true, 10), KeysetQueryTest::map));
+        assertEquals(Collections.singletonList("id"), new KeysetQuery<Person>("SELECT id FROM people", "people",
+                "id", p -> p.id).sortKeyNames());
+    }
+}
@@ -0,0 +1,64 @@
+package com.university.dao.impl;
+
+import com.university.TestDatabase;
+import com.university.model.Course;
+import com.university.model.Department;
+import com.university.model.Enrollment;
+import com.university.model.Grade;
+import com.university.model.Student;
+import com.university.util.DatabaseUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class NestedLookupTest {
+    private static final int POOL_SIZE = Integer.getInteger("university.db.pool.size", 8);
+
+    @BeforeAll
+    static void setUp() {
+        TestDatabase.init();
+    }
+
+    // With all but one pooled connection held elsewhere, a lookup that needed a second connection for its
+    // department or enrollment would sit out the acquire timeout
+    @Test
+    void lookupsNeedOnlyOneConnection() throws Exception {
+        Department department = new Department(0, TestDatabase.unique("Dept"));
+        new DepartmentDAOImpl().addDepartment(department);
+        Course course = new Course(0, TestDatabase.unique("NST"), "Nested lookups", 3, department.getId());
+        new CourseDAOImpl().addCourse(course);
+        Student student = TestDatabase.addStudent();
+        Enrollment enrollment = new Enrollment(0, student, course, "2026-01-10");
+        new EnrollmentDAOImpl().addEnrollment(enrollment);
+        Grade grade = new Grade(0, enrollment, "B+", null);
+        new GradeDAOImpl().addGrade(grade);
+
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < POOL_SIZE - 1; i++) {
+                held.add(DatabaseUtil.getConnection());
+            }
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                Course loadedCourse = new CourseDAOImpl().getCourse(course.getId());
+                assertEquals(department.getName(), loadedCourse.getDepartment().getName());
+
+                Grade loadedGrade = new GradeDAOImpl().getGrade(grade.getId());
+                assertEquals("B+", loadedGrade.getGradeValue());
+                assertNotNull(loadedGrade.getEnrollment().getStudent());
+                assertEquals(course.getCourseCode(), loadedGrade.getEnrollment().getCourse().getCourseCode());
+            });
+        } finally {
+            for (Connection conn : held) {
+                conn.close();
+            }
+        }
+    }
+}
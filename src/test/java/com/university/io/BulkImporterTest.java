@@ -0,0 +1,65 @@
+package com.university.io;
+
+import com.university.TestDatabase;
+import com.university.model.Course;
+import com.university.model.Student;
+import com.university.service.EnrollmentService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BulkImporterTest {
+
+    @TempDir
+    Path dir;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        TestDatabase.init();
+    }
+
+    @Test
+    void fullCourseOnlyRejectsItsOwnRows() throws Exception {
+        List<Student> students = TestDatabase.addStudents(6);
+        Course small = TestDatabase.addCourse(2);
+        Course open = TestDatabase.addCourse(0);
+
+        StringBuilder csv = new StringBuilder("studentEmail,courseCode,enrollmentDate\n");
+        for (Student student : students.subList(0, 5)) {
+            csv.append(student.getEmail()).append(',').append(small.getCourseCode()).append(",2024-09-01\n");
+        }
+        csv.append("nobody@test.edu,").append(open.getCourseCode()).append(",2024-09-01\n");
+        csv.append(students.get(5).getEmail()).append(',').append(open.getCourseCode()).append(",2024-09-01\n");
+        Path source = dir.resolve("enrollments.csv");
+        Files.write(source, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        // Chunks of 3, so the course fills up in the first chunk and stays full through the second
+        BulkImporter.Report report = new BulkImporter(BulkImporter.Type.ENROLLMENTS, source)
+                .setChunkSize(3).setParserThreads(2).run();
+
+        assertEquals(7, report.getRecordsRead());
+        assertEquals(3, report.getImported());
+        assertEquals(4, report.getRejected());
+        EnrollmentService service = new EnrollmentService();
+        assertEquals(2, service.getEnrollmentCount(small.getId()));
+        assertEquals(1, service.getEnrollmentCount(open.getId()));
+
+        List<String> rejects = Files.readAllLines(dir.resolve("enrollments.csv.rejects.csv"), StandardCharsets.UTF_8);
+        assertEquals(5, rejects.size()); // Header plus four rows
+        long full = rejects.stream().filter(line -> line.contains(small.getCourseCode() + " is full")).count();
+        assertEquals(3, full, String.join("\n", rejects));
+
+        // The checkpoint covers the whole file, so a re-run has nothing left to do
+        BulkImporter.Report again = new BulkImporter(BulkImporter.Type.ENROLLMENTS, source).run();
+        assertEquals(7, again.getRecordsSkipped());
+        assertEquals(0, again.getImported());
+        assertEquals(0, again.getRecordsRead());
+    }
+}
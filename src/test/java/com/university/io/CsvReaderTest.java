@@ -0,0 +1,74 @@
+package com.university.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedNewlinesKeepARecordTogether() throws IOException {
+        String csv = "id,comment\n"
+                + "1,\"first line\nsecond line\nthird line\"\n"
+                + "2,plain\n"
+                + "3,\"say \"\"hi\"\"\nthen \"\"bye\"\"\"\n"
+                + "4,\"\"\n";
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            assertArrayEquals(new String[]{"id", "comment"}, CsvReader.parse(reader.readRawRecord()));
+            assertEquals(1, reader.getLineNumber());
+
+            assertArrayEquals(new String[]{"1", "first line\nsecond line\nthird line"}, CsvReader.parse(reader.readRawRecord()));
+            assertEquals(2, reader.getLineNumber());
+
+            assertArrayEquals(new String[]{"2", "plain"}, CsvReader.parse(reader.readRawRecord()));
+            assertEquals(5, reader.getLineNumber()); // Counts physical lines, not records
+
+            // Escaped quotes on a continuation line must not flip the open/closed state
+            assertArrayEquals(new String[]{"3", "say \"hi\"\nthen \"bye\""}, CsvReader.parse(reader.readRawRecord()));
+            assertEquals(6, reader.getLineNumber());
+
+            assertArrayEquals(new String[]{"4", ""}, CsvReader.parse(reader.readRawRecord()));
+            assertEquals(8, reader.getLineNumber());
+            assertNull(reader.readRawRecord());
+        }
+    }
+
+    @Test
+    void longMultiLineFieldIsReadWhole() throws IOException {
+        StringBuilder csv = new StringBuilder("1,\"");
+        for (int i = 0; i < 10_000; i++) {
+            csv.append("line ").append(i).append(" with \"\"quotes\"\"\n");
+        }
+        csv.append("end\",x\n2,y\n");
+        try (CsvReader reader = new CsvReader(new StringReader(csv.toString()))) {
+            String[] fields = CsvReader.parse(reader.readRawRecord());
+            assertEquals(3, fields.length);
+            assertEquals("x", fields[2]);
+            assertEquals(10_001, fields[1].split("\n").length);
+            assertArrayEquals(new String[]{"2", "y"}, CsvReader.parse(reader.readRawRecord()));
+            assertEquals(10_002, reader.getLineNumber());
+        }
+    }
+
+    @Test
+    void unterminatedQuoteIsReported() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("1,\"never closed\n2,b\n"))) {
+            String record = reader.readRawRecord(); // Swallows the rest of the input looking for the close
+            assertThrows(IllegalArgumentException.class, () -> CsvReader.parse(record));
+            assertNull(reader.readRawRecord());
+        }
+    }
+
+    @Test
+    void parseHandlesEmptyFieldsAndCommasInQuotes() {
+        assertArrayEquals(new String[]{"", "", ""}, CsvReader.parse(",,"));
+        assertArrayEquals(new String[]{"a,b", "c"}, CsvReader.parse("\"a,b\",c"));
+        assertArrayEquals(new String[]{""}, CsvReader.parse(""));
+    }
+}
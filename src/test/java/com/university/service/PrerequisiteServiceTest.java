@@ -0,0 +1,91 @@
+package com.university.service;
+
+import com.university.TestDatabase;
+import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.dao.impl.GradeDAOImpl;
+import com.university.dao.impl.PrerequisiteDAOImpl;
+import com.university.model.Course;
+import com.university.model.Enrollment;
+import com.university.model.Grade;
+import com.university.model.Student;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrerequisiteServiceTest {
+    private final PrerequisiteService service = PrerequisiteService.getInstance();
+
+    // intro <- middle <- advanced
+    private Course intro;
+    private Course middle;
+    private Course advanced;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        TestDatabase.init();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        intro = TestDatabase.addCourse(0);
+        middle = TestDatabase.addCourse(0);
+        advanced = TestDatabase.addCourse(0);
+        service.addPrerequisite(middle.getId(), intro.getId());
+        service.addPrerequisite(advanced.getId(), middle.getId());
+    }
+
+    private static void pass(Student student, Course course, String grade) throws Exception {
+        Enrollment enrollment = new Enrollment(0, student, course, "2024-01-15");
+        new EnrollmentDAOImpl().addEnrollment(enrollment);
+        new GradeDAOImpl().addGrade(new Grade(0, enrollment, grade, null));
+    }
+
+    @Test
+    void closureIsBuiltFromTheStoredEdges() throws Exception {
+        service.reload(); // Rebuild from course_prerequisites rather than the in-memory edits
+        List<Integer> all = service.getAllPrerequisites(advanced.getId());
+        assertEquals(2, all.size());
+        assertTrue(all.contains(intro.getId()) && all.contains(middle.getId()));
+        assertEquals(Collections.singletonList(middle.getId()), service.getDirectPrerequisites(advanced.getId()));
+    }
+
+    @Test
+    void studentMissingPartOfTheChainIsTurnedAway() throws Exception {
+        Student student = TestDatabase.addStudent();
+        pass(student, intro, "A");
+
+        PrerequisitesNotMetException e = assertThrows(PrerequisitesNotMetException.class,
+                () -> service.checkEligible(student.getId(), advanced));
+        assertEquals(Collections.singletonList(middle.getId()), e.getMissingCourseIds());
+        assertTrue(e.getMessage().contains(middle.getCourseCode()), e.getMessage());
+        service.checkEligible(student.getId(), middle);
+    }
+
+    @Test
+    void failingGradeDoesNotCount() throws Exception {
+        Student student = TestDatabase.addStudent();
+        pass(student, intro, "F");
+        assertEquals(Collections.singletonList(intro.getId()), service.getMissing(student.getId(), middle.getId()));
+    }
+
+    @Test
+    void cycleIsRejectedAndNothingIsStored() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> service.addPrerequisite(intro.getId(), advanced.getId()));
+        assertThrows(IllegalArgumentException.class, () -> service.addPrerequisite(intro.getId(), intro.getId()));
+        // The DAO checks on its own, inside the insert's transaction
+        assertThrows(IllegalArgumentException.class,
+                () -> new PrerequisiteDAOImpl().addPrerequisite(intro.getId(), middle.getId()));
+
+        assertNull(new PrerequisiteDAOImpl().getAllPrerequisites().get(intro.getId()));
+        service.reload();
+        assertTrue(service.getAllPrerequisites(intro.getId()).isEmpty());
+    }
+}
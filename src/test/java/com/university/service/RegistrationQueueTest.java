@@ -0,0 +1,184 @@
+package com.university.service;
+
+import com.university.TestDatabase;
+import com.university.dao.CourseFullException;
+import com.university.dao.DuplicateEntryException;
+import com.university.model.Course;
+import com.university.model.Enrollment;
+import com.university.model.Student;
+import com.university.util.DatabaseUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegistrationQueueTest {
+    private final List<RegistrationQueue> queues = new ArrayList<>();
+
+    @BeforeAll
+    static void setUpDatabase() {
+        TestDatabase.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (RegistrationQueue queue : queues) {
+            queue.shutdown();
+            assertTrue(queue.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private RegistrationQueue queue(int capacity, int maxBatch, long lingerMillis, long offerTimeoutMillis) {
+        RegistrationQueue queue = new RegistrationQueue(capacity, maxBatch, lingerMillis, offerTimeoutMillis);
+        queues.add(queue);
+        return queue;
+    }
+
+    private static Throwable failureOf(CompletableFuture<Enrollment> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    @Test
+    void everyRequestInABatchGetsItsOwnOutcome() throws Exception {
+        Course small = TestDatabase.addCourse(2);
+        Course open = TestDatabase.addCourse(0);
+        Course advanced = TestDatabase.addCourse(0);
+        PrerequisiteService.getInstance().addPrerequisite(advanced.getId(), open.getId());
+        Student first = TestDatabase.addStudent();
+        Student second = TestDatabase.addStudent();
+        Student third = TestDatabase.addStudent();
+
+        // A long linger puts all of these into one batch and one transaction
+        RegistrationQueue queue = queue(100, 100, 500, 1_000);
+        CompletableFuture<Enrollment> firstSmall = queue.submit(first, small);
+        CompletableFuture<Enrollment> secondSmall = queue.submit(second, small);
+        CompletableFuture<Enrollment> thirdSmall = queue.submit(third, small);
+        CompletableFuture<Enrollment> firstOpen = queue.submit(first, open);
+        CompletableFuture<Enrollment> firstOpenAgain = queue.submit(first, open);
+        CompletableFuture<Enrollment> secondAdvanced = queue.submit(second, advanced);
+
+        Enrollment enrolled = firstSmall.get(10, TimeUnit.SECONDS);
+        assertTrue(enrolled.getId() > 0);
+        assertTrue(secondSmall.get(10, TimeUnit.SECONDS).getId() > 0);
+        assertTrue(firstOpen.get(10, TimeUnit.SECONDS).getId() > 0);
+
+        CourseFullException full = assertInstanceOf(CourseFullException.class, failureOf(thirdSmall));
+        assertEquals(small.getId(), full.getCourseId());
+        assertInstanceOf(DuplicateEntryException.class, failureOf(firstOpenAgain));
+        PrerequisitesNotMetException unmet = assertInstanceOf(PrerequisitesNotMetException.class, failureOf(secondAdvanced));
+        assertEquals(List.of(open.getId()), unmet.getMissingCourseIds());
+
+        EnrollmentService service = new EnrollmentService();
+        assertEquals(2, service.getEnrollmentCount(small.getId()));
+        assertEquals(1, service.getEnrollmentCount(open.getId()));
+        assertEquals(0, service.getEnrollmentCount(advanced.getId()));
+        assertEquals(6, queue.getCompletedCount());
+    }
+
+    @Test
+    void fullQueueRejectsInsteadOfGrowing() throws Exception {
+        Course course = TestDatabase.addCourse(0);
+        Student first = TestDatabase.addStudent();
+        Student second = TestDatabase.addStudent();
+        Student third = TestDatabase.addStudent();
+        RegistrationQueue queue = queue(1, 1, 0, 0);
+
+        CompletableFuture<Enrollment> taken;
+        CompletableFuture<Enrollment> waiting;
+        CompletableFuture<Enrollment> turnedAway;
+        // Holding the write lock parks the writer inside its first batch, so the one queue slot stays full
+        try (Connection blocker = DatabaseUtil.getConnection(); Statement stmt = blocker.createStatement()) {
+            blocker.setAutoCommit(false);
+            stmt.execute("UPDATE course_enrollment_counts SET enrolled = enrolled WHERE courseId = -1");
+            taken = queue.submit(first, course);
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (queue.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            waiting = queue.submit(second, course);
+            turnedAway = queue.submit(third, course);
+            assertInstanceOf(RejectedExecutionException.class, failureOf(turnedAway));
+            assertFalse(taken.isDone());
+            blocker.rollback();
+        }
+
+        assertTrue(taken.get(10, TimeUnit.SECONDS).getId() > 0);
+        assertTrue(waiting.get(10, TimeUnit.SECONDS).getId() > 0);
+        assertEquals(1, queue.getRejectedCount());
+    }
+
+    @Test
+    void shutdownDrainsWhatWasQueuedAndRefusesTheRest() throws Exception {
+        Course course = TestDatabase.addCourse(0);
+        RegistrationQueue queue = queue(100, 10, 200, 1_000);
+        List<CompletableFuture<Enrollment>> queued = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            queued.add(queue.submit(TestDatabase.addStudent(), course));
+        }
+        queue.shutdown();
+        assertTrue(queue.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (CompletableFuture<Enrollment> future : queued) {
+            assertTrue(future.get(0, TimeUnit.SECONDS).getId() > 0);
+        }
+        assertInstanceOf(RejectedExecutionException.class, failureOf(queue.submit(TestDatabase.addStudent(), course)));
+        assertInstanceOf(IllegalArgumentException.class, failureOf(queue.submit(null, course)));
+    }
+
+    // Submits racing a shutdown are either written or refused - none is left in the queue unanswered
+    @Test
+    void submitsRacingShutdownAllComplete() throws Exception {
+        Course course = TestDatabase.addCourse(0);
+        List<Student> students = TestDatabase.addStudents(400);
+        RegistrationQueue queue = queue(1_000, 20, 1, 1_000);
+        List<List<CompletableFuture<Enrollment>>> results = new ArrayList<>();
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            List<Student> mine = students.subList(t * 100, (t + 1) * 100);
+            List<CompletableFuture<Enrollment>> futures = new ArrayList<>();
+            results.add(futures);
+            Thread thread = new Thread(() -> {
+                for (Student student : mine) {
+                    futures.add(queue.submit(student, course));
+                }
+            });
+            submitters.add(thread);
+            thread.start();
+        }
+        Thread.sleep(5);
+        queue.shutdown();
+        for (Thread thread : submitters) {
+            thread.join();
+        }
+        assertTrue(queue.awaitTermination(10, TimeUnit.SECONDS));
+
+        int written = 0;
+        for (List<CompletableFuture<Enrollment>> futures : results) {
+            assertEquals(100, futures.size());
+            for (CompletableFuture<Enrollment> future : futures) {
+                assertTrue(future.isDone());
+                if (!future.isCompletedExceptionally()) {
+                    written++;
+                } else {
+                    assertInstanceOf(RejectedExecutionException.class, failureOf(future));
+                }
+            }
+        }
+        assertEquals(written, new EnrollmentService().getEnrollmentCount(course.getId()));
+    }
+}
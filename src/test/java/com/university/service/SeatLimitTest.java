@@ -0,0 +1,126 @@
+package com.university.service;
+
+import com.university.TestDatabase;
+import com.university.dao.CourseFullException;
+import com.university.dao.DuplicateEntryException;
+import com.university.dao.impl.EnrollmentDAOImpl;
+import com.university.model.Course;
+import com.university.model.Enrollment;
+import com.university.model.Student;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatLimitTest {
+
+    @BeforeAll
+    static void setUp() {
+        TestDatabase.init();
+    }
+
+    @Test
+    void concurrentClaimsFillEachCourseExactly() throws Exception {
+        List<Student> students = TestDatabase.addStudents(3000);
+        List<Course> courses = new ArrayList<>();
+        courses.add(TestDatabase.addCourse(50));
+        courses.add(TestDatabase.addCourse(100));
+        courses.add(TestDatabase.addCourse(150));
+        EnrollmentService service = new EnrollmentService();
+
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        AtomicInteger duplicate = new AtomicInteger();
+        ConcurrentLinkedQueue<Exception> errors = new ConcurrentLinkedQueue<>();
+        Random random = new Random(7);
+        List<Callable<Void>> attempts = new ArrayList<>();
+        for (int i = 0; i < 6000; i++) {
+            Student student = students.get(random.nextInt(students.size()));
+            Course course = courses.get(random.nextInt(courses.size()));
+            attempts.add(() -> {
+                try {
+                    service.addEnrollment(student, course);
+                    enrolled.incrementAndGet();
+                } catch (CourseFullException e) {
+                    full.incrementAndGet();
+                } catch (DuplicateEntryException e) {
+                    duplicate.incrementAndGet();
+                } catch (Exception e) {
+                    errors.add(e);
+                }
+                return null;
+            });
+        }
+
+        ExecutorService threads = Executors.newFixedThreadPool(1000);
+        try {
+            threads.invokeAll(attempts);
+        } finally {
+            threads.shutdown();
+            assertTrue(threads.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        assertTrue(errors.isEmpty(), () -> "Unexpected failures, first: " + errors.peek());
+        assertEquals(300, enrolled.get());
+        assertEquals(6000, enrolled.get() + full.get() + duplicate.get());
+        for (Course course : courses) {
+            assertEquals(course.getCapacity(), service.getEnrollmentCount(course.getId()));
+            assertEquals(course.getCapacity(), service.getEnrollmentsByCourse(course.getId()).size());
+        }
+        assertEquals(0, new EnrollmentDAOImpl().recheckEnrollmentCounts());
+    }
+
+    @Test
+    void batchThatWouldOverfillIsRejected() throws Exception {
+        List<Student> students = TestDatabase.addStudents(5);
+        Course course = TestDatabase.addCourse(3);
+        List<Enrollment> batch = new ArrayList<>();
+        for (Student student : students) {
+            batch.add(new Enrollment(0, student, course, "2024-09-01"));
+        }
+
+        CourseFullException e = assertThrows(CourseFullException.class, () -> new EnrollmentDAOImpl().addEnrollments(batch));
+        assertEquals(course.getId(), e.getCourseId());
+        assertEquals(0, new EnrollmentService().getEnrollmentCount(course.getId()));
+    }
+
+    @Test
+    void fullCourseIsReportedWithTheStoredCapacity() throws Exception {
+        List<Student> students = TestDatabase.addStudents(3);
+        Course course = TestDatabase.addCourse(2);
+        EnrollmentService service = new EnrollmentService();
+        service.addEnrollment(students.get(0), course);
+        service.addEnrollment(students.get(1), course);
+
+        course.setCapacity(5); // A stale copy on the caller's side mustn't change what the rejection says
+        CourseFullException e = assertThrows(CourseFullException.class, () -> service.addEnrollment(students.get(2), course));
+        assertEquals(2, e.getCapacity());
+        assertEquals(course.getCourseCode() + " is full (2 seats).", e.getMessage());
+        assertThrows(DuplicateEntryException.class, () -> service.addEnrollment(students.get(0), course));
+    }
+
+    @Test
+    void zeroCapacityMeansUnlimited() throws Exception {
+        List<Student> students = TestDatabase.addStudents(20);
+        Course course = TestDatabase.addCourse(0);
+        EnrollmentService service = new EnrollmentService();
+        for (Student student : students) {
+            service.addEnrollment(student, course);
+        }
+
+        assertEquals(20, service.getEnrollmentCount(course.getId()));
+        assertThrows(DuplicateEntryException.class, () -> service.addEnrollment(students.get(0), course));
+    }
+}
@@ -0,0 +1,199 @@
+package com.university.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+
+    @TempDir
+    Path dir;
+
+    private String url;
+    private final List<ConnectionPool> pools = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        url = "jdbc:sqlite:" + dir.resolve("pool.db").toAbsolutePath();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (ConnectionPool pool : pools) {
+            pool.close();
+        }
+    }
+
+    private ConnectionPool pool(int maxSize, int minIdle, long acquireTimeoutMillis, long idleTimeoutMillis,
+                                long leakThresholdMillis) {
+        ConnectionPool pool = new ConnectionPool(url, new Properties(), null, maxSize, minIdle,
+                acquireTimeoutMillis, idleTimeoutMillis, leakThresholdMillis);
+        pools.add(pool);
+        return pool;
+    }
+
+    // The housekeeper runs at most once a second, so give it a few rounds
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
+    @Test
+    void returnedConnectionIsReused() throws Exception {
+        ConnectionPool pool = pool(2, 0, 1_000, 0, 0);
+        try (Connection conn = pool.getConnection()) {
+            assertEquals(1, pool.getActiveCount());
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    void doubleCloseReturnsTheConnectionOnce() throws Exception {
+        ConnectionPool pool = pool(1, 0, 100, 0, 0);
+        Connection conn = pool.getConnection();
+        conn.close();
+        conn.close();
+
+        assertTrue(conn.isClosed());
+        assertEquals(1, pool.getIdleCount());
+        assertThrows(SQLException.class, conn::createStatement);
+        try (Connection again = pool.getConnection()) {
+            // Only one permit came back, so a second borrow would have to wait
+            assertThrows(SQLException.class, pool::getConnection);
+        }
+    }
+
+    @Test
+    void acquireTimesOutWhenExhausted() throws Exception {
+        ConnectionPool pool = pool(1, 0, 100, 0, 0);
+        try (Connection held = pool.getConnection()) {
+            long started = System.currentTimeMillis();
+            assertThrows(SQLException.class, pool::getConnection);
+            assertTrue(System.currentTimeMillis() - started >= 100);
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+    }
+
+    @Test
+    void openTransactionIsRolledBackOnReturn() throws Exception {
+        ConnectionPool pool = pool(1, 0, 1_000, 0, 0);
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE t (x INTEGER)");
+        }
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            stmt.execute("INSERT INTO t VALUES (1)");
+        }
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM t")) {
+            assertTrue(conn.getAutoCommit());
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void idleConnectionsAreEvictedDownToMinIdle() throws Exception {
+        ConnectionPool pool = pool(4, 1, 1_000, 200, 0);
+        List<Connection> borrowed = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            borrowed.add(pool.getConnection());
+        }
+        for (Connection conn : borrowed) {
+            conn.close();
+        }
+        assertEquals(3, pool.getIdleCount());
+
+        assertTrue(waitFor(() -> pool.getEvictedCount() == 2));
+        assertEquals(1, pool.getIdleCount());
+        try (Connection conn = pool.getConnection()) {
+            assertFalse(conn.isClosed());
+        }
+        assertEquals(3, pool.getCreatedCount());
+    }
+
+    @Test
+    void leakIsReportedOnceWithoutStackByDefault() throws Exception {
+        ConnectionPool pool = pool(2, 0, 1_000, 0, 100);
+        String report = captureStderr(() -> {
+            Connection leaked = pool.getConnection();
+            assertTrue(waitFor(() -> pool.getLeaksDetected() == 1));
+            Thread.sleep(1_500); // Another housekeeping round must not report it again
+            leaked.close();
+        });
+
+        assertEquals(1, pool.getLeaksDetected());
+        assertEquals(0, pool.getActiveCount());
+        assertTrue(report.contains("Possible connection leak"), report);
+        assertTrue(report.contains(Thread.currentThread().getName()), report);
+        assertFalse(report.contains("Connection borrowed here"), report);
+    }
+
+    @Test
+    void leakReportIncludesBorrowStackWhenCaptured() throws Exception {
+        ConnectionPool pool = pool(2, 0, 1_000, 0, 100);
+        pool.setCaptureBorrowStacks(true);
+        String report = captureStderr(() -> {
+            try (Connection leaked = pool.getConnection()) {
+                assertTrue(waitFor(() -> pool.getLeaksDetected() == 1));
+            }
+        });
+
+        assertTrue(report.contains("Connection borrowed here"), report);
+        assertTrue(report.contains(ConnectionPoolTest.class.getName()), report);
+    }
+
+    @Test
+    void closedPoolRefusesBorrows() {
+        ConnectionPool pool = pool(1, 0, 100, 0, 0);
+        pool.close();
+        assertThrows(SQLException.class, pool::getConnection);
+    }
+
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static String captureStderr(Action action) throws Exception {
+        PrintStream original = System.err;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(captured, true));
+        try {
+            action.run();
+        } finally {
+            System.setErr(original);
+        }
+        return captured.toString();
+    }
+}
@@ -0,0 +1,118 @@
+package com.university.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntAdjacencyTest {
+
+    // Reference model: key -> (value -> payload)
+    private final Map<Integer, TreeMap<Integer, Integer>> expected = new HashMap<>();
+
+    private void assertMatches(IntAdjacency adjacency, int maxKey) {
+        long edges = 0;
+        for (int key = 1; key <= maxKey; key++) {
+            TreeMap<Integer, Integer> edgesOfKey = expected.get(key);
+            int[] values = edgesOfKey == null ? new int[0] : edgesOfKey.keySet().stream().mapToInt(Integer::intValue).toArray();
+            assertArrayEquals(values, adjacency.values(key), "key " + key);
+            assertEquals(values.length, adjacency.degree(key));
+            if (edgesOfKey != null) {
+                for (Map.Entry<Integer, Integer> edge : edgesOfKey.entrySet()) {
+                    assertTrue(adjacency.contains(key, edge.getKey()));
+                    assertEquals(edge.getValue(), adjacency.payload(key, edge.getKey(), -1));
+                }
+                edges += values.length;
+            }
+        }
+        assertEquals(expected.size(), adjacency.keyCount());
+        assertEquals(edges, adjacency.edgeCount());
+    }
+
+    @Test
+    void randomOperationsMatchAReferenceMap() {
+        // A small table and a few hundred keys means long probe chains, wraparound and several rehashes,
+        // and removals keep punching holes into those chains
+        IntAdjacency adjacency = new IntAdjacency(1);
+        Random random = new Random(3);
+        int maxKey = 300;
+        for (int op = 0; op < 50_000; op++) {
+            int key = 1 + random.nextInt(maxKey);
+            int value = 1 + random.nextInt(20);
+            int choice = random.nextInt(10);
+            if (choice < 6) {
+                int payload = random.nextInt(1_000_000);
+                boolean added = expected.computeIfAbsent(key, k -> new TreeMap<>()).put(value, payload) == null;
+                assertEquals(added, adjacency.put(key, value, payload));
+            } else if (choice < 9) {
+                TreeMap<Integer, Integer> edges = expected.get(key);
+                boolean present = edges != null && edges.remove(value) != null;
+                if (edges != null && edges.isEmpty()) {
+                    expected.remove(key);
+                }
+                assertEquals(present, adjacency.remove(key, value));
+            } else {
+                TreeMap<Integer, Integer> edges = expected.remove(key);
+                List<Integer> visited = new ArrayList<>();
+                int removed = adjacency.removeKey(key, (v, payload) -> {
+                    visited.add(v);
+                    assertEquals(edges.get(v), payload);
+                });
+                assertEquals(edges == null ? 0 : edges.size(), removed);
+                assertEquals(edges == null ? new ArrayList<>() : new ArrayList<>(edges.keySet()), visited);
+            }
+            if (op % 5_000 == 0) {
+                assertMatches(adjacency, maxKey);
+            }
+        }
+        assertMatches(adjacency, maxKey);
+    }
+
+    @Test
+    void removingTheLastEdgeDropsTheKey() {
+        IntAdjacency adjacency = new IntAdjacency(4);
+        adjacency.put(7, 1, 10);
+        adjacency.put(7, 2, 20);
+        assertFalse(adjacency.put(7, 2, 21)); // Existing edge, payload updated
+        assertEquals(21, adjacency.payload(7, 2, -1));
+
+        assertTrue(adjacency.remove(7, 1));
+        assertTrue(adjacency.remove(7, 2));
+        assertFalse(adjacency.remove(7, 2));
+        assertEquals(0, adjacency.keyCount());
+        assertEquals(0, adjacency.edgeCount());
+        assertEquals(-1, adjacency.payload(7, 2, -1));
+    }
+
+    @Test
+    void nonPositiveKeysAreRejected() {
+        IntAdjacency adjacency = new IntAdjacency(4);
+        assertThrows(IllegalArgumentException.class, () -> adjacency.put(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> adjacency.put(-5, 1, 1));
+        assertFalse(adjacency.contains(0, 1));
+        assertEquals(0, adjacency.degree(0));
+    }
+
+    @Test
+    void clearEmptiesEverything() {
+        IntAdjacency adjacency = new IntAdjacency(4);
+        for (int key = 1; key <= 100; key++) {
+            adjacency.put(key, key, key);
+        }
+        adjacency.clear();
+        assertEquals(0, adjacency.keyCount());
+        assertEquals(0, adjacency.edgeCount());
+        assertFalse(adjacency.contains(50, 50));
+        assertTrue(adjacency.put(50, 50, 1));
+    }
+}
@@ -0,0 +1,71 @@
+package com.university.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntLongMapTest {
+    private static final long MISSING = Long.MIN_VALUE;
+
+    private static void assertMatches(Map<Integer, Long> expected, IntLongMap map, int maxKey) {
+        for (int key = 1; key <= maxKey; key++) {
+            Long value = expected.get(key);
+            assertEquals(value == null ? MISSING : value, map.get(key, MISSING), "key " + key);
+        }
+        assertEquals(expected.size(), map.size());
+    }
+
+    @Test
+    void randomOperationsMatchAReferenceMap() {
+        // Starts at the minimum table size, so the run goes through several rehashes and the deletes
+        // have to backward-shift across long, wrapped probe chains
+        Map<Integer, Long> expected = new HashMap<>();
+        IntLongMap map = new IntLongMap(1);
+        Random random = new Random(5);
+        int maxKey = 2_000;
+        for (int op = 0; op < 100_000; op++) {
+            int key = 1 + random.nextInt(maxKey);
+            if (random.nextInt(3) < 2) {
+                long value = random.nextLong();
+                Long previous = expected.put(key, value);
+                assertEquals(previous == null ? MISSING : previous, map.put(key, value, MISSING));
+            } else {
+                Long removed = expected.remove(key);
+                assertEquals(removed == null ? MISSING : removed, map.remove(key, MISSING));
+            }
+            if (op % 10_000 == 0) {
+                assertMatches(expected, map, maxKey);
+            }
+        }
+        assertMatches(expected, map, maxKey);
+    }
+
+    @Test
+    void removingEverythingLeavesAnEmptyMap() {
+        IntLongMap map = new IntLongMap(4);
+        for (int key = 1; key <= 1_000; key++) {
+            map.put(key, key * 10L, MISSING);
+        }
+        for (int key = 1_000; key >= 1; key--) {
+            assertEquals(key * 10L, map.remove(key, MISSING));
+        }
+        assertEquals(0, map.size());
+        assertEquals(MISSING, map.get(500, MISSING));
+    }
+
+    @Test
+    void clearAndNonPositiveKeys() {
+        IntLongMap map = new IntLongMap(4);
+        map.put(1, 1L, MISSING);
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(MISSING, map.get(1, MISSING));
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, 1L, MISSING));
+        assertEquals(MISSING, map.get(0, MISSING));
+    }
+}
@@ -0,0 +1,109 @@
+package com.university.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesGetABucketEach() {
+        for (int value = 0; value < 16; value++) {
+            assertEquals(value, LatencyHistogram.bucketOf(value));
+            assertEquals(value, LatencyHistogram.upperEdgeOf(value));
+        }
+        assertEquals(16, LatencyHistogram.bucketOf(16));
+    }
+
+    @Test
+    void everyValueFallsInsideItsBucketAndBucketsStayNarrow() {
+        Random random = new Random(1);
+        List<Long> values = new ArrayList<>();
+        for (int shift = 0; shift < 63; shift++) {
+            values.add(1L << shift);
+            values.add((1L << shift) - 1);
+            values.add((1L << shift) + 1);
+        }
+        values.add(Long.MAX_VALUE);
+        for (int i = 0; i < 10_000; i++) {
+            values.add((random.nextLong() >>> 1) >>> random.nextInt(63));
+        }
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upper = LatencyHistogram.upperEdgeOf(bucket);
+            assertTrue(value <= upper, value + " above its bucket's edge " + upper);
+            if (bucket > 0) {
+                assertTrue(value > LatencyHistogram.upperEdgeOf(bucket - 1), value + " belongs in an earlier bucket");
+            }
+            if (value >= 16) {
+                assertTrue(upper - value <= value / 16, value + " is in a bucket wider than 1/16");
+            }
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperEdgeOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void percentilesNeverUnderReportAndStayWithinABucket() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int i = 1; i <= 1_000; i++) {
+            histogram.record(i * 1_000L); // 1 µs .. 1 ms
+        }
+
+        long p50 = histogram.getPercentileNanos(50);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 + 500_000 / 16, "p50 " + p50);
+        long p99 = histogram.getPercentileNanos(99);
+        assertTrue(p99 >= 990_000 && p99 <= 990_000 + 990_000 / 16, "p99 " + p99);
+        assertEquals(1_000_000, histogram.getPercentileNanos(100)); // Capped at the real max, not the bucket edge
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(1_000, histogram.getCount());
+        assertEquals(500_500.0, histogram.getMeanNanos(), 0.001);
+    }
+
+    @Test
+    void emptyNegativeAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        assertEquals(0, histogram.getPercentileNanos(99));
+        assertEquals(0.0, histogram.getMeanNanos());
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(0));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentileNanos(100.5));
+
+        histogram.record(-5); // A clock step backwards counts as zero
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(100));
+
+        histogram.record(7_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getPercentileNanos(50));
+    }
+
+    @Test
+    void concurrentRecordsAreAllCounted() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t;
+            threads.add(new Thread(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    histogram.record(i + offset);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80_000, histogram.getCount());
+        assertEquals(10_007, histogram.getMaxNanos());
+        assertEquals(10_007, histogram.getPercentileNanos(100));
+    }
+}
@@ -0,0 +1,90 @@
+package com.university.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsTest {
+
+    interface Lookup {
+        String find(int id);
+        String find(String name);
+        void fail() throws IOException;
+    }
+
+    static final class LookupImpl implements Lookup {
+        @Override public String find(int id) { return "id " + id; }
+        @Override public String find(String name) { return "name " + name; }
+        @Override public void fail() throws IOException { throw new IOException("disk on fire"); }
+        @Override public String toString() { return "the real lookup"; }
+    }
+
+    @Test
+    void timedProxyRecordsEveryCallUnderTheImplementationName() throws Exception {
+        LatencyHistogram find = Metrics.timer("util.LookupImpl.find");
+        LatencyHistogram fail = Metrics.timer("util.LookupImpl.fail");
+        long findBefore = find.getCount();
+        long failBefore = fail.getCount();
+
+        Lookup lookup = Metrics.timed(Lookup.class, new LookupImpl());
+        assertEquals("id 7", lookup.find(7));
+        assertEquals("name ann", lookup.find("ann")); // Overloads share one timer
+        IOException e = assertThrows(IOException.class, lookup::fail); // Unwrapped, not UndeclaredThrowableException
+        assertEquals("disk on fire", e.getMessage());
+
+        assertEquals(findBefore + 2, find.getCount());
+        assertEquals(failBefore + 1, fail.getCount()); // Failed calls are timed too
+        assertEquals("the real lookup", lookup.toString());
+        assertEquals(findBefore + 2, find.getCount());
+    }
+
+    @Test
+    void timeAndRunRecordReturnsAndFailures() throws Exception {
+        LatencyHistogram timer = Metrics.timer("test.service.call");
+        long before = timer.getCount();
+
+        assertEquals("done", Metrics.time(timer, () -> "done"));
+        Metrics.run(timer, () -> { });
+        IOException e = assertThrows(IOException.class, () -> Metrics.run(timer, () -> {
+            throw new IOException("no disk");
+        }));
+        assertEquals("no disk", e.getMessage());
+
+        assertEquals(before + 3, timer.getCount());
+    }
+
+    @Test
+    void onlyInterfacesCanBeTimed() {
+        assertThrows(IllegalArgumentException.class, () -> Metrics.timed(LookupImpl.class, new LookupImpl()));
+    }
+
+    @Test
+    void metricsAreSharedByNameAndVisibleOverJmx() throws Exception {
+        assertSame(Metrics.timer("test.shared"), Metrics.timer("test.shared"));
+        Metrics.timer("test.shared").record(2_000_000);
+        Metrics.counter("test.counter").add(3);
+        Metrics.gauge("test.gauge", () -> 42);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName timer = new ObjectName("com.university:type=Timer,name=" + ObjectName.quote("test.shared"));
+        assertTrue((Long) server.getAttribute(timer, "Count") >= 1);
+        ObjectName gauge = new ObjectName("com.university:type=Gauge,name=" + ObjectName.quote("test.gauge"));
+        assertEquals(42.0, server.getAttribute(gauge, "Value"));
+
+        Metrics.gauge("test.gauge", () -> 43); // Re-registering replaces the supplier behind the same MBean
+        assertEquals(43.0, server.getAttribute(gauge, "Value"));
+
+        String dump = Metrics.dump();
+        assertTrue(dump.contains("test.shared[count="), dump);
+        assertTrue(dump.contains("test.counter = 3"), dump);
+        assertTrue(dump.contains("test.gauge = 43"), dump);
+    }
+}
@@ -0,0 +1,124 @@
+package com.university.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrerequisiteGraphTest {
+
+    private static Map<Integer, List<Integer>> edges(int... pairs) {
+        Map<Integer, List<Integer>> edges = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            edges.computeIfAbsent(pairs[i], k -> new ArrayList<>()).add(pairs[i + 1]);
+        }
+        return edges;
+    }
+
+    private static Set<Integer> sorted(List<Integer> ids) {
+        return new TreeSet<>(ids);
+    }
+
+    @Test
+    void closureFollowsChainsAndDiamonds() {
+        // 301 -> 201 -> 101, and 401 -> {301, 202}, 202 -> 101
+        PrerequisiteGraph graph = PrerequisiteGraph.of(edges(301, 201, 201, 101, 401, 301, 401, 202, 202, 101));
+
+        assertEquals(sorted(Arrays.asList(201, 101)), sorted(graph.allPrerequisites(301)));
+        assertEquals(sorted(Arrays.asList(301, 201, 202, 101)), sorted(graph.allPrerequisites(401)));
+        assertEquals(Arrays.asList(301, 202), graph.directPrerequisites(401));
+        assertTrue(graph.requires(401, 101));
+        assertFalse(graph.requires(101, 401));
+        assertFalse(graph.hasPrerequisites(101));
+        assertFalse(graph.hasPrerequisites(999)); // Not in the graph at all
+        assertEquals(5, graph.courseCount());
+    }
+
+    @Test
+    void missingIsTheClosureMinusWhatWasPassed() {
+        PrerequisiteGraph graph = PrerequisiteGraph.of(edges(301, 201, 201, 101));
+
+        assertEquals(Collections.singletonList(201), graph.missing(301, graph.toBits(Arrays.asList(101, 555))));
+        assertEquals(sorted(Arrays.asList(201, 101)), sorted(graph.missing(301, graph.toBits(Collections.emptyList()))));
+        assertTrue(graph.missing(301, graph.toBits(Arrays.asList(101, 201))).isEmpty());
+        assertTrue(graph.missing(101, graph.toBits(Collections.emptyList())).isEmpty());
+    }
+
+    @Test
+    void cyclesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PrerequisiteGraph.of(edges(1, 2, 2, 3, 3, 1)));
+        assertThrows(IllegalArgumentException.class, () -> PrerequisiteGraph.of(edges(1, 1)));
+
+        PrerequisiteGraph graph = PrerequisiteGraph.of(edges(3, 2, 2, 1));
+        assertTrue(graph.wouldCreateCycle(1, 3));
+        assertTrue(graph.wouldCreateCycle(2, 2));
+        assertFalse(graph.wouldCreateCycle(3, 1)); // Redundant, but not a loop
+        assertThrows(IllegalArgumentException.class, () -> graph.with(1, 3));
+        assertThrows(IllegalArgumentException.class, () -> graph.with(4, 4));
+    }
+
+    @Test
+    void changesProduceNewGraphsAndLeaveTheOldOneAlone() {
+        PrerequisiteGraph graph = PrerequisiteGraph.of(edges(3, 2, 2, 1));
+
+        PrerequisiteGraph extended = graph.with(4, 3);
+        assertEquals(sorted(Arrays.asList(3, 2, 1)), sorted(extended.allPrerequisites(4)));
+        assertFalse(graph.hasPrerequisites(4));
+
+        PrerequisiteGraph cut = extended.without(2, 1);
+        assertEquals(sorted(Arrays.asList(3, 2)), sorted(cut.allPrerequisites(4)));
+        assertTrue(extended.requires(4, 1));
+        assertFalse(cut.wouldCreateCycle(1, 4)); // 1 is no longer below 4, so it may now require it
+
+        PrerequisiteGraph dropped = extended.withoutCourse(3);
+        assertTrue(dropped.allPrerequisites(4).isEmpty());
+        assertEquals(Collections.singletonList(1), dropped.allPrerequisites(2));
+        assertTrue(PrerequisiteGraph.empty().allPrerequisites(1).isEmpty());
+    }
+
+    @Test
+    void closureMatchesAGraphWalkOnRandomGraphs() {
+        Random random = new Random(9);
+        for (int round = 0; round < 20; round++) {
+            // Edges only ever point at a lower ID, so the graph is acyclic by construction
+            Map<Integer, List<Integer>> edges = new HashMap<>();
+            for (int course = 2; course <= 60; course++) {
+                for (int k = random.nextInt(4); k > 0; k--) {
+                    int prerequisite = 1 + random.nextInt(course - 1);
+                    List<Integer> direct = edges.computeIfAbsent(course, c -> new ArrayList<>());
+                    if (!direct.contains(prerequisite)) {
+                        direct.add(prerequisite);
+                    }
+                }
+            }
+            PrerequisiteGraph graph = PrerequisiteGraph.of(edges);
+            for (int course = 1; course <= 60; course++) {
+                assertEquals(walk(edges, course), sorted(graph.allPrerequisites(course)), "course " + course);
+            }
+        }
+    }
+
+    private static Set<Integer> walk(Map<Integer, List<Integer>> edges, int course) {
+        Set<Integer> seen = new TreeSet<>();
+        List<Integer> stack = new ArrayList<>(edges.getOrDefault(course, Collections.emptyList()));
+        while (!stack.isEmpty()) {
+            int next = stack.remove(stack.size() - 1);
+            if (seen.add(next)) {
+                stack.addAll(edges.getOrDefault(next, Collections.emptyList()));
+            }
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,82 @@
+package com.university.util;
+
+import com.university.TestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaMigratorTest {
+
+    @BeforeAll
+    static void setUp() {
+        TestDatabase.init();
+    }
+
+    @Test
+    void freshDatabaseIsAtTheLatestVersion() throws SQLException {
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            assertEquals(SchemaMigrator.latestVersion(), SchemaMigrator.currentVersion(conn));
+        }
+    }
+
+    // Every course sort key pages in index order instead of sorting the table per page
+    @Test
+    void courseSortKeysAreServedByAnIndex() throws SQLException {
+        for (String column : new String[]{"courseCode", "courseName", "credits"}) {
+            String plan = plan("SELECT id FROM courses ORDER BY " + column + ", id");
+            assertFalse(plan.contains("TEMP B-TREE"), column + ": " + plan);
+        }
+    }
+
+    // Version 5 on its own against a bare copy of the older tables, as it ran on databases that predate it
+    @Test
+    void gpaBackfillUsesTheScaleItShippedWith() throws Exception {
+        Path file = Files.createTempFile("university-v4", ".db");
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + file.toAbsolutePath());
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE courses (id INTEGER PRIMARY KEY, credits INTEGER)");
+            stmt.execute("CREATE TABLE enrollments (id INTEGER PRIMARY KEY, studentId INTEGER, courseId INTEGER)");
+            stmt.execute("CREATE TABLE grades (id INTEGER PRIMARY KEY, enrollmentId INTEGER, gradeValue TEXT)");
+            stmt.execute("INSERT INTO courses VALUES (1, 3), (2, 4), (3, 2), (4, 3)");
+            stmt.execute("INSERT INTO enrollments VALUES (1, 7, 1), (2, 7, 2), (3, 7, 3), (4, 7, 4)");
+            stmt.execute("INSERT INTO grades VALUES (1, 1, 'a'), (2, 2, ' 3.5 '), (3, 3, 'P'), (4, 4, 'W')");
+
+            SchemaMigrator.createGpaSummary(stmt);
+
+            try (ResultSet rs = stmt.executeQuery("SELECT qualityPoints, gpaCredits, earnedCredits, gradedCourses, "
+                    + "gpaHundredths FROM student_gpa WHERE studentId = 7")) {
+                assertTrue(rs.next());
+                assertEquals(40 * 3 + 35 * 4, rs.getLong(1)); // A and 3.5 count, P and W don't
+                assertEquals(7, rs.getInt(2));
+                assertEquals(9, rs.getInt(3)); // P earns its credits, W doesn't
+                assertEquals(4, rs.getInt(4));
+                assertEquals(371, rs.getInt(5));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String plan(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection conn = DatabaseUtil.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString("detail")).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
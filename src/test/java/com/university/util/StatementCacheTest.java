@@ -0,0 +1,146 @@
+package com.university.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementCacheTest {
+    private static final String SELECT = "SELECT name FROM t WHERE id = ?";
+    private static final String INSERT = "INSERT INTO t (id, name) VALUES (?, ?)";
+
+    @TempDir
+    Path dir;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // One connection, so every borrow sees the same cache
+        pool = new ConnectionPool("jdbc:sqlite:" + dir.resolve("cache.db").toAbsolutePath(), new Properties(), null,
+                1, 0, 1_000, 0, 0, 2);
+        try (Connection conn = pool.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE t (id INTEGER PRIMARY KEY, name TEXT)");
+            stmt.execute("INSERT INTO t VALUES (1, 'one'), (2, 'two')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    private String select(Connection conn, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    @Test
+    void closedStatementIsReusedByTheNextBorrow() throws Exception {
+        try (Connection conn = pool.getConnection()) {
+            assertEquals("one", select(conn, 1));
+        }
+        try (Connection conn = pool.getConnection()) {
+            assertEquals("two", select(conn, 2));
+            assertEquals("one", select(conn, 1));
+        }
+        assertEquals(1, pool.getStatementCacheMisses());
+        assertEquals(2, pool.getStatementCacheHits());
+    }
+
+    @Test
+    void closedStatementCannotBeUsedAfterItWentBack() throws Exception {
+        try (Connection conn = pool.getConnection()) {
+            PreparedStatement stmt = conn.prepareStatement(SELECT);
+            stmt.close();
+            assertTrue(stmt.isClosed());
+            assertThrows(SQLException.class, () -> stmt.setInt(1, 1));
+            assertSame(conn, conn.prepareStatement(SELECT).getConnection()); // Never the physical connection
+        }
+    }
+
+    @Test
+    void statementsLeftOpenGoBackWhenTheConnectionCloses() throws Exception {
+        PreparedStatement forgotten;
+        try (Connection conn = pool.getConnection()) {
+            forgotten = conn.prepareStatement(SELECT);
+            forgotten.setInt(1, 1);
+            forgotten.executeQuery(); // Cursor left open as well
+        }
+        assertTrue(forgotten.isClosed());
+
+        try (Connection conn = pool.getConnection()) {
+            assertEquals("two", select(conn, 2));
+        }
+        assertEquals(1, pool.getStatementCacheHits());
+    }
+
+    @Test
+    void nestedUseOfTheSameSqlGetsSeparateStatements() throws Exception {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement outer = conn.prepareStatement(SELECT);
+             PreparedStatement inner = conn.prepareStatement(SELECT)) {
+            outer.setInt(1, 1);
+            inner.setInt(1, 2);
+            try (ResultSet a = outer.executeQuery(); ResultSet b = inner.executeQuery()) {
+                a.next();
+                b.next();
+                assertEquals("one", a.getString(1));
+                assertEquals("two", b.getString(1));
+            }
+        }
+        assertEquals(2, pool.getStatementCacheMisses());
+        try (Connection conn = pool.getConnection()) {
+            assertEquals("one", select(conn, 1));
+        }
+        assertEquals(1, pool.getStatementCacheHits()); // Only one copy was kept
+    }
+
+    @Test
+    void failedStatementIsNotReused() throws Exception {
+        try (Connection conn = pool.getConnection(); PreparedStatement insert = conn.prepareStatement(INSERT)) {
+            insert.setInt(1, 1);
+            insert.setString(2, "duplicate");
+            assertThrows(SQLException.class, insert::executeUpdate);
+        }
+        try (Connection conn = pool.getConnection(); PreparedStatement insert = conn.prepareStatement(INSERT)) {
+            insert.setInt(1, 4);
+            insert.setString(2, "four");
+            assertEquals(1, insert.executeUpdate());
+        }
+        assertEquals(2, pool.getStatementCacheMisses());
+        assertEquals(0, pool.getStatementCacheHits());
+    }
+
+    @Test
+    void leastRecentlyUsedStatementIsEvicted() throws Exception {
+        try (Connection conn = pool.getConnection()) {
+            for (String sql : new String[]{"SELECT 1", "SELECT 2", "SELECT 3", "SELECT 3"}) {
+                conn.prepareStatement(sql).close();
+            }
+        }
+        assertEquals(1, pool.getStatementCacheEvictions());
+        assertEquals(1, pool.getStatementCacheHits());
+        try (Connection conn = pool.getConnection()) {
+            conn.prepareStatement("SELECT 1").close();
+        }
+        assertEquals(4, pool.getStatementCacheMisses());
+    }
+}